@@ -30,7 +30,9 @@
 #include "agent/master_info.h"
 #include "common/status.h"
 #include "gen_cpp/HeartbeatService.h"
+#include "runtime/exec_env.h"
 #include "runtime/heartbeat_flags.h"
+#include "runtime/mem_tracker.h"
 #include "service/backend_options.h"
 #include "storage/storage_engine.h"
 #include "util/debug_util.h"
@@ -102,6 +104,11 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result, const TMaste
 #endif
         heartbeat_result.backend_info.__set_version(get_short_version());
         heartbeat_result.backend_info.__set_num_hardware_cores(num_hardware_cores);
+        MemTracker* process_mem_tracker = ExecEnv::GetInstance()->process_mem_tracker();
+        if (process_mem_tracker != nullptr) {
+            heartbeat_result.backend_info.__set_mem_limit_bytes(process_mem_tracker->limit());
+            heartbeat_result.backend_info.__set_mem_used_bytes(process_mem_tracker->consumption());
+        }
     }
 }
 
@@ -0,0 +1,34 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.benchmark;
+
+import mockit.Mock;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Entry of benchmarks.jar, which is built with the benchmark profile, i.e. mvn package -Pbenchmark. It accepts
+ * the same options as the JMH main class, e.g.
+ * <pre>
+ *   java -jar fe-benchmark/target/benchmarks.jar PlannerBenchmark.optimize -p query=tpch/q5,dump/ssb10
+ * </pre>
+ * The forked JVMs are started with jmockit agent which the mocked cluster depends on, and the allocation rate
+ * of each benchmark is reported by the GC profiler.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        String jmockitJar = new File(Mock.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getAbsolutePath();
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .jvmArgsPrepend("-javaagent:" + jmockitJar, "-Xmx4096m", "-Duser.timezone=Asia/Shanghai")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,215 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.benchmark;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.CharStreams;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.common.Config;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Optimizer;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.dump.QueryDumpInfo;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.optimizer.transformer.RelationTransformer;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.DistributedEnvPlanTestBase;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanFragmentBuilder;
+import com.starrocks.sql.plan.PlanTestBase;
+import com.starrocks.sql.plan.TPCDSPlanTestBase;
+import com.starrocks.utframe.UtFrameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each phase of the planner: parse, analyze, optimize and fragment building.
+ * <p>
+ * The query is given by the workload and the name, e.g.
+ * <ul>
+ *   <li>tpch/q5: sql/tpch/q5.sql of fe-core tests, on tpch tables with {@code MockTpchStatisticStorage}</li>
+ *   <li>tpcds/Q14: the query in {@link TPCDSPlanTestBase}, on tpcds tables</li>
+ *   <li>dump/ssb10: a query dump in sql/query_dump of fe-core tests, the tables, statistics, session variables
+ *   and number of backends are replayed from the dump</li>
+ * </ul>
+ * Each phase only measures itself, the input of the phase is prepared before every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PlannerBenchmark {
+    @Param({"tpch/q1", "tpch/q5", "tpch/q9", "tpch/q21", "tpcds/Q14", "tpcds/Q64", "dump/ssb10", "dump/tpch17",
+            "dump/tpcds02", "dump/eighteen_tables_join"})
+    public String query;
+
+    private ConnectContext connectContext;
+    private String sql;
+    private boolean isDump = false;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // measure the parser instead of the cache of parse trees
+        Config.parse_tree_cache_max_tokens = 0;
+
+        String[] parts = query.split("/");
+        Preconditions.checkArgument(parts.length == 2, "query should be <workload>/<name>: " + query);
+        String workload = parts[0];
+        String name = parts[1];
+        switch (workload) {
+            case "tpch":
+                DistributedEnvPlanTestBase.beforeClass();
+                connectContext = PlanTestBase.connectContext;
+                sql = readSection("sql/tpch/" + name + ".sql", "sql");
+                break;
+            case "tpcds":
+                TPCDSPlanTestBase.beforeClass();
+                connectContext = PlanTestBase.connectContext;
+                sql = (String) TPCDSPlanTestBase.class.getField(name).get(null);
+                break;
+            case "dump":
+                UtFrameUtils.createMinStarRocksCluster();
+                connectContext = UtFrameUtils.createDefaultCtx();
+                QueryDumpInfo dumpInfo = GsonUtils.GSON.fromJson(
+                        readResource("sql/query_dump/" + name + ".json"), QueryDumpInfo.class);
+                sql = UtFrameUtils.initMockEnv(connectContext, dumpInfo);
+                isDump = true;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown workload: " + workload);
+        }
+        connectContext.setThreadLocalInfo();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (isDump) {
+            UtFrameUtils.tearMockEnv();
+        }
+    }
+
+    private static String readResource(String path) throws Exception {
+        try (InputStream in = PlannerBenchmark.class.getClassLoader().getResourceAsStream(path)) {
+            Preconditions.checkArgument(in != null, "resource not found: " + path);
+            return CharStreams.toString(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    // the content between "[section]" and the next section of the test case file
+    private static String readSection(String path, String section) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        boolean inSection = false;
+        for (String line : readResource(path).split("\n")) {
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (inSection) {
+                    break;
+                }
+                inSection = line.equals("[" + section + "]");
+            } else if (inSection) {
+                sb.append(line).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private StatementBase parseStatement() {
+        return SqlParser.parse(sql, connectContext.getSessionVariable().getSqlMode()).get(0);
+    }
+
+    private StatementBase analyzeStatement() {
+        StatementBase statement = parseStatement();
+        Analyzer.analyze(statement, connectContext);
+        return statement;
+    }
+
+    @State(Scope.Thread)
+    public static class AnalyzeState {
+        StatementBase statement;
+
+        @Setup(Level.Invocation)
+        public void setUp(PlannerBenchmark benchmark) {
+            benchmark.connectContext.setThreadLocalInfo();
+            statement = benchmark.parseStatement();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OptimizeState {
+        ColumnRefFactory columnRefFactory;
+        LogicalPlan logicalPlan;
+
+        @Setup(Level.Invocation)
+        public void setUp(PlannerBenchmark benchmark) {
+            benchmark.connectContext.setThreadLocalInfo();
+            StatementBase statement = benchmark.analyzeStatement();
+            Preconditions.checkState(statement instanceof QueryStatement, "only query is supported");
+            columnRefFactory = new ColumnRefFactory();
+            logicalPlan = new RelationTransformer(columnRefFactory, benchmark.connectContext)
+                    .transform(((QueryStatement) statement).getQueryRelation());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BuildFragmentState {
+        ColumnRefFactory columnRefFactory;
+        LogicalPlan logicalPlan;
+        OptExpression optimizedPlan;
+
+        @Setup(Level.Invocation)
+        public void setUp(PlannerBenchmark benchmark) {
+            OptimizeState optimizeState = new OptimizeState();
+            optimizeState.setUp(benchmark);
+            columnRefFactory = optimizeState.columnRefFactory;
+            logicalPlan = optimizeState.logicalPlan;
+            optimizedPlan = benchmark.optimize(optimizeState);
+        }
+    }
+
+    @Benchmark
+    public StatementBase parse() {
+        return parseStatement();
+    }
+
+    @Benchmark
+    public StatementBase analyze(AnalyzeState state) {
+        Analyzer.analyze(state.statement, connectContext);
+        return state.statement;
+    }
+
+    @Benchmark
+    public OptExpression optimize(OptimizeState state) {
+        return new Optimizer().optimize(connectContext, state.logicalPlan.getRoot(), new PhysicalPropertySet(),
+                new ColumnRefSet(state.logicalPlan.getOutputColumn()), state.columnRefFactory);
+    }
+
+    @Benchmark
+    public ExecPlan buildFragment(BuildFragmentState state) {
+        return new PlanFragmentBuilder().createPhysicalPlan(state.optimizedPlan, connectContext,
+                state.logicalPlan.getOutputColumn(), state.columnRefFactory, new ArrayList<>());
+    }
+}
@@ -0,0 +1,215 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.thrift.TStorageMedium;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lookups of {@link TabletInvertedIndex} against the former structure of it, i.e. boxed hash maps and guava tables
+ * under one read write lock, by several threads.
+ * <p>
+ * The memory footprint of both is printed by the main method, e.g.
+ * <pre>
+ *   java -Xmx16g -cp fe-benchmark/target/benchmarks.jar com.starrocks.benchmark.TabletInvertedIndexBenchmark 4000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class TabletInvertedIndexBenchmark {
+    private static final int REPLICA_NUM = 3;
+    private static final int BACKEND_NUM = 20;
+
+    @Param({"1000000"})
+    public int tabletNum;
+
+    private TabletInvertedIndex index;
+    private LegacyIndex legacyIndex;
+
+    /**
+     * The structure of the index before it is striped and keyed by primitive long.
+     */
+    private static class LegacyIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+        private final Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+        private final Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
+        private final Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+
+        void addTablet(long tabletId, TabletMeta tabletMeta) {
+            lock.writeLock().lock();
+            try {
+                tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void addReplica(long tabletId, Replica replica) {
+            lock.writeLock().lock();
+            try {
+                replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
+                replicaToTabletMap.put(replica.getId(), tabletId);
+                backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        TabletMeta getTabletMeta(long tabletId) {
+            lock.readLock().lock();
+            try {
+                return tabletMetaMap.get(tabletId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Replica getReplica(long tabletId, long backendId) {
+            lock.readLock().lock();
+            try {
+                return replicaMetaTable.get(tabletId, backendId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private interface IndexWriter {
+        void add(long tabletId, TabletMeta tabletMeta, Replica[] replicas);
+    }
+
+    // tablet i has id 10000 + i * (REPLICA_NUM + 1), and its replicas have the following ids
+    private static void build(int tabletNum, IndexWriter writer) {
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        for (int i = 0; i < tabletNum; i++) {
+            long tabletId = 10000L + i * (REPLICA_NUM + 1);
+            Replica[] replicas = new Replica[REPLICA_NUM];
+            for (int j = 0; j < REPLICA_NUM; j++) {
+                replicas[j] = new Replica(tabletId + j + 1, (i + j) % BACKEND_NUM, Replica.ReplicaState.NORMAL, 1, 5);
+            }
+            writer.add(tabletId, tabletMeta, replicas);
+        }
+    }
+
+    private static TabletInvertedIndex buildIndex(int tabletNum) {
+        TabletInvertedIndex index = new TabletInvertedIndex();
+        build(tabletNum, (tabletId, tabletMeta, replicas) -> {
+            index.addTablet(tabletId, tabletMeta);
+            for (Replica replica : replicas) {
+                index.addReplica(tabletId, replica);
+            }
+        });
+        return index;
+    }
+
+    private static LegacyIndex buildLegacyIndex(int tabletNum) {
+        LegacyIndex index = new LegacyIndex();
+        build(tabletNum, (tabletId, tabletMeta, replicas) -> {
+            index.addTablet(tabletId, tabletMeta);
+            for (Replica replica : replicas) {
+                index.addReplica(tabletId, replica);
+            }
+        });
+        return index;
+    }
+
+    @Setup
+    public void setUp() {
+        index = buildIndex(tabletNum);
+        legacyIndex = buildLegacyIndex(tabletNum);
+    }
+
+    private long randomTabletId() {
+        return 10000L + ThreadLocalRandom.current().nextInt(tabletNum) * (REPLICA_NUM + 1);
+    }
+
+    @Benchmark
+    public TabletMeta getTabletMeta() {
+        return index.getTabletMeta(randomTabletId());
+    }
+
+    @Benchmark
+    public TabletMeta getTabletMetaLegacy() {
+        return legacyIndex.getTabletMeta(randomTabletId());
+    }
+
+    @Benchmark
+    public Long getTabletIdByReplica() {
+        return index.getTabletIdByReplica(randomTabletId() + 1);
+    }
+
+    @Benchmark
+    public Replica getReplica() {
+        long tabletId = randomTabletId();
+        return index.getReplica(tabletId, ((tabletId - 10000L) / (REPLICA_NUM + 1)) % BACKEND_NUM);
+    }
+
+    @Benchmark
+    public Replica getReplicaLegacy() {
+        long tabletId = randomTabletId();
+        return legacyIndex.getReplica(tabletId, ((tabletId - 10000L) / (REPLICA_NUM + 1)) % BACKEND_NUM);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // The heap used by the index itself, the replicas and tablet metas are built in both ways, so they are counted
+    // as a baseline and subtracted.
+    public static void main(String[] args) {
+        int tabletNum = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        long start = usedHeap();
+        Replica[][] baseline = new Replica[tabletNum][];
+        build(tabletNum, (tabletId, tabletMeta, replicas) -> baseline[(int) ((tabletId - 10000L) / (REPLICA_NUM + 1))]
+                = replicas);
+        long baselineBytes = usedHeap() - start;
+
+        start = usedHeap();
+        LegacyIndex legacyIndex = buildLegacyIndex(tabletNum);
+        long legacyBytes = usedHeap() - start - baselineBytes;
+
+        start = usedHeap();
+        TabletInvertedIndex index = buildIndex(tabletNum);
+        long indexBytes = usedHeap() - start - baselineBytes;
+
+        System.out.printf("tablets: %d, replicas: %d%n", tabletNum, (long) tabletNum * REPLICA_NUM);
+        System.out.printf("legacy index: %d MB, %.1f bytes per replica%n", legacyBytes >> 20,
+                (double) legacyBytes / tabletNum / REPLICA_NUM);
+        System.out.printf("index: %d MB, %.1f bytes per replica%n", indexBytes >> 20,
+                (double) indexBytes / tabletNum / REPLICA_NUM);
+        // keep them reachable until measured
+        System.out.println(baseline.length + legacyIndex.tabletMetaMap.size() + index.getTabletNumByBackendId(0));
+    }
+}
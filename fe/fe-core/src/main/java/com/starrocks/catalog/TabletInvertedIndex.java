@@ -23,13 +23,13 @@ package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Table;
 import com.starrocks.catalog.Replica.ReplicaState;
 import com.starrocks.common.Pair;
+import com.starrocks.common.util.LongLongHashMap;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.thrift.TPartitionVersionInfo;
@@ -45,18 +45,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /*
  * this class stores a inverted index
  * key is tablet id. value is the related ids of this tablet
  * Checkpoint thread is no need to modify this inverted index, because this inverted index will not be wrote
  * into images, all meta data are in globalStateMgr, and the inverted index will be rebuild when FE restart.
+ *
+ * The index is split into stripes by tablet id, each of which has its own lock and primitive keyed maps, so that
+ * a tablet report only blocks the writers of one stripe at a time, and the point lookups are lock free unless
+ * the stripe is being modified.
  */
 public class TabletInvertedIndex {
     private static final Logger LOG = LogManager.getLogger(TabletInvertedIndex.class);
@@ -66,37 +71,56 @@ public class TabletInvertedIndex {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
-    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final int STRIPE_NUM_BITS = 7;
+    private static final int STRIPE_NUM = 1 << STRIPE_NUM_BITS;
 
-    // tablet id -> tablet meta
-    private Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+    private static final Replica[] EMPTY_REPLICAS = new Replica[0];
 
-    // replica id -> tablet id
-    private Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    private static class Stripe {
+        private final StampedLock lock = new StampedLock();
 
-    // tablet id -> (backend id -> replica)
-    private Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
-    // backing replica table, for visiting backend replicas faster.
-    // backend id -> (tablet id -> replica)
-    private Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+        // tablet id -> tablet meta
+        private final LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
 
-    public TabletInvertedIndex() {
-    }
+        // tablet id -> replicas, at most one on a backend. The array is replaced instead of modified, so it can be
+        // read without lock.
+        private final LongObjectHashMap<Replica[]> tabletReplicaMap = new LongObjectHashMap<>();
+
+        // backend id -> (tablet id -> replica), for visiting backend replicas faster.
+        private final LongObjectHashMap<LongObjectHashMap<Replica>> backendReplicaMap = new LongObjectHashMap<>();
 
-    private void readLock() {
-        this.lock.readLock().lock();
+        // replica id -> tablet id, of the replicas whose id is in this stripe
+        private final LongLongHashMap replicaToTabletMap = new LongLongHashMap();
     }
 
-    private void readUnlock() {
-        this.lock.readLock().unlock();
+    private final Stripe[] stripes = new Stripe[STRIPE_NUM];
+
+    public TabletInvertedIndex() {
+        for (int i = 0; i < STRIPE_NUM; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
-    private void writeLock() {
-        this.lock.writeLock().lock();
+    private Stripe getStripe(long id) {
+        // the high bits, the low bits are used by the maps in the stripe
+        return stripes[LongObjectHashMap.hash(id) >>> (Integer.SIZE - STRIPE_NUM_BITS)];
     }
 
-    private void writeUnlock() {
-        this.lock.writeLock().unlock();
+    // read without lock, and read again with read lock if the stripe is modified meanwhile
+    private static <T> T optimisticRead(Stripe stripe, Supplier<T> reader) {
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = reader.get();
+            if (stripe.lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
     }
 
     public void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
@@ -126,17 +150,20 @@ public class TabletInvertedIndex {
             backendStorageTypeCnt = be.getAvailableBackendStorageTypeCnt();
         }
 
-        readLock();
         long start = System.currentTimeMillis();
-        try {
-            LOG.info("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
+        LOG.info("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backendReplicaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
                 // traverse replicas in meta with this backend
-                for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
-                    long tabletId = entry.getKey();
-                    Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-                    TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
+                for (LongObjectHashMap<Replica>.Cursor entry = replicaMetaWithBackend.cursor(); entry.advance(); ) {
+                    long tabletId = entry.key();
+                    TabletMeta tabletMeta = stripe.tabletMetaMap.get(tabletId);
+                    Preconditions.checkState(tabletMeta != null);
 
                     if (tabletMeta.isLakeTablet()) {
                         continue;
@@ -144,7 +171,7 @@ public class TabletInvertedIndex {
 
                     if (backendTablets.containsKey(tabletId)) {
                         TTablet backendTablet = backendTablets.get(tabletId);
-                        Replica replica = entry.getValue();
+                        Replica replica = entry.value();
                         for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
                             if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
                                 foundTabletsWithValidSchema.add(tabletId);
@@ -269,9 +296,9 @@ public class TabletInvertedIndex {
                         tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
                     }
                 } // end for replicaMetaWithBackend
+            } finally {
+                stripe.lock.unlockRead(stamp);
             }
-        } finally {
-            readUnlock();
         }
 
         long end = System.currentTimeMillis();
@@ -283,34 +310,23 @@ public class TabletInvertedIndex {
     }
 
     public Long getTabletIdByReplica(long replicaId) {
-        readLock();
-        try {
-            return replicaToTabletMap.get(replicaId);
-        } finally {
-            readUnlock();
-        }
+        Stripe stripe = getStripe(replicaId);
+        long tabletId = optimisticRead(stripe, () -> stripe.replicaToTabletMap.get(replicaId, NOT_EXIST_VALUE));
+        return tabletId == NOT_EXIST_VALUE ? null : tabletId;
     }
 
     public TabletMeta getTabletMeta(long tabletId) {
-        readLock();
-        try {
-            return tabletMetaMap.get(tabletId);
-        } finally {
-            readUnlock();
-        }
+        Stripe stripe = getStripe(tabletId);
+        return optimisticRead(stripe, () -> stripe.tabletMetaMap.get(tabletId));
     }
 
     public List<TabletMeta> getTabletMetaList(List<Long> tabletIdList) {
         List<TabletMeta> tabletMetaList = new ArrayList<>(tabletIdList.size());
-        readLock();
-        try {
-            for (Long tabletId : tabletIdList) {
-                tabletMetaList.add(tabletMetaMap.getOrDefault(tabletId, NOT_EXIST_TABLET_META));
-            }
-            return tabletMetaList;
-        } finally {
-            readUnlock();
+        for (Long tabletId : tabletIdList) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            tabletMetaList.add(tabletMeta == null ? NOT_EXIST_TABLET_META : tabletMeta);
         }
+        return tabletMetaList;
     }
 
     private boolean needSync(Replica replicaInFe, TTabletInfo backendTabletInfo) {
@@ -394,13 +410,14 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        long stamp = stripe.lock.writeLock();
         try {
-            tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            stripe.tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
 
             LOG.debug("add tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.lock.unlockWrite(stamp);
         }
     }
 
@@ -408,23 +425,27 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        Replica[] replicas;
+        long stamp = stripe.lock.writeLock();
         try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
+            replicas = stripe.tabletReplicaMap.remove(tabletId);
             if (replicas != null) {
-                for (Replica replica : replicas.values()) {
-                    replicaToTabletMap.remove(replica.getId());
-                }
-
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                for (Replica replica : replicas) {
+                    removeBackendReplica(stripe, replica.getBackendId(), tabletId);
                 }
             }
-            tabletMetaMap.remove(tabletId);
+            stripe.tabletMetaMap.remove(tabletId);
 
             LOG.debug("delete tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.lock.unlockWrite(stamp);
+        }
+
+        if (replicas != null) {
+            for (Replica replica : replicas) {
+                removeReplicaToTablet(replica.getId());
+            }
         }
     }
 
@@ -432,16 +453,40 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        long stamp = stripe.lock.writeLock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
-            replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica[] replicas = stripe.tabletReplicaMap.getOrDefault(tabletId, EMPTY_REPLICAS);
+            int index = indexOfBackend(replicas, replica.getBackendId());
+            Replica[] newReplicas;
+            if (index >= 0) {
+                newReplicas = replicas.clone();
+                newReplicas[index] = replica;
+            } else {
+                newReplicas = Arrays.copyOf(replicas, replicas.length + 1);
+                newReplicas[replicas.length] = replica;
+            }
+            stripe.tabletReplicaMap.put(tabletId, newReplicas);
+
+            LongObjectHashMap<Replica> backendReplicas = stripe.backendReplicaMap.get(replica.getBackendId());
+            if (backendReplicas == null) {
+                backendReplicas = new LongObjectHashMap<>();
+                stripe.backendReplicaMap.put(replica.getBackendId(), backendReplicas);
+            }
+            backendReplicas.put(tabletId, replica);
             LOG.debug("add replica {} of tablet {} in backend {}",
                     replica.getId(), tabletId, replica.getBackendId());
         } finally {
-            writeUnlock();
+            stripe.lock.unlockWrite(stamp);
+        }
+
+        Stripe replicaStripe = getStripe(replica.getId());
+        stamp = replicaStripe.lock.writeLock();
+        try {
+            replicaStripe.replicaToTabletMap.put(replica.getId(), tabletId);
+        } finally {
+            replicaStripe.lock.unlockWrite(stamp);
         }
     }
 
@@ -449,121 +494,176 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        Replica replica = null;
+        long stamp = stripe.lock.writeLock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
-                replicaToTabletMap.remove(replica.getId());
-                replicaMetaTable.remove(tabletId, backendId);
-                backingReplicaMetaTable.remove(backendId, tabletId);
-                LOG.debug("delete replica {} of tablet {} in backend {}",
-                        replica.getId(), tabletId, backendId);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica[] replicas = stripe.tabletReplicaMap.get(tabletId);
+            if (replicas != null) {
+                int index = indexOfBackend(replicas, backendId);
+                if (index >= 0) {
+                    replica = replicas[index];
+                    if (replicas.length == 1) {
+                        stripe.tabletReplicaMap.remove(tabletId);
+                    } else {
+                        Replica[] newReplicas = new Replica[replicas.length - 1];
+                        System.arraycopy(replicas, 0, newReplicas, 0, index);
+                        System.arraycopy(replicas, index + 1, newReplicas, index, replicas.length - index - 1);
+                        stripe.tabletReplicaMap.put(tabletId, newReplicas);
+                    }
+                    removeBackendReplica(stripe, backendId, tabletId);
+                    LOG.debug("delete replica {} of tablet {} in backend {}",
+                            replica.getId(), tabletId, backendId);
+                }
             } else {
                 // this may happen when fe restart after tablet is empty(bug cause)
                 // add log instead of assertion to observe
                 LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
             }
         } finally {
-            writeUnlock();
+            stripe.lock.unlockWrite(stamp);
+        }
+
+        if (replica != null) {
+            removeReplicaToTablet(replica.getId());
         }
     }
 
-    public Replica getReplica(long tabletId, long backendId) {
-        readLock();
-        try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId), tabletId);
-            return replicaMetaTable.get(tabletId, backendId);
-        } finally {
-            readUnlock();
+    private static int indexOfBackend(Replica[] replicas, long backendId) {
+        for (int i = 0; i < replicas.length; i++) {
+            if (replicas[i].getBackendId() == backendId) {
+                return i;
+            }
         }
+        return -1;
     }
 
-    public List<Replica> getReplicasByTabletId(long tabletId) {
-        readLock();
-        try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
+    // must hold the write lock of the stripe
+    private static void removeBackendReplica(Stripe stripe, long backendId, long tabletId) {
+        LongObjectHashMap<Replica> backendReplicas = stripe.backendReplicaMap.get(backendId);
+        if (backendReplicas != null) {
+            backendReplicas.remove(tabletId);
+            if (backendReplicas.isEmpty()) {
+                stripe.backendReplicaMap.remove(backendId);
             }
-            return Lists.newArrayList();
-        } finally {
-            readUnlock();
         }
     }
 
-    public List<Long> getTabletIdsByBackendId(long backendId) {
-        List<Long> tabletIds = Lists.newArrayList();
-        readLock();
+    private void removeReplicaToTablet(long replicaId) {
+        Stripe stripe = getStripe(replicaId);
+        long stamp = stripe.lock.writeLock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds.addAll(replicaMetaWithBackend.keySet());
-            }
+            stripe.replicaToTabletMap.remove(replicaId);
         } finally {
-            readUnlock();
+            stripe.lock.unlockWrite(stamp);
         }
-        return tabletIds;
     }
 
+    public Replica getReplica(long tabletId, long backendId) {
+        Stripe stripe = getStripe(tabletId);
+        // null if the tablet does not exist
+        Replica[] replicas = optimisticRead(stripe, () -> stripe.tabletMetaMap.containsKey(tabletId) ?
+                stripe.tabletReplicaMap.getOrDefault(tabletId, EMPTY_REPLICAS) : null);
+        Preconditions.checkState(replicas != null, tabletId);
+        int index = indexOfBackend(replicas, backendId);
+        return index >= 0 ? replicas[index] : null;
+    }
+
+    public List<Replica> getReplicasByTabletId(long tabletId) {
+        Stripe stripe = getStripe(tabletId);
+        Replica[] replicas = optimisticRead(stripe,
+                () -> stripe.tabletReplicaMap.getOrDefault(tabletId, EMPTY_REPLICAS));
+        return Lists.newArrayList(replicas);
+    }
+
+    public List<Long> getTabletIdsByBackendId(long backendId) {
+        return getTabletIdsByBackendIdAndStorageMedium(backendId, null);
+    }
+
+    /**
+     * @param storageMedium null for any storage medium
+     */
     public List<Long> getTabletIdsByBackendIdAndStorageMedium(long backendId, TStorageMedium storageMedium) {
         List<Long> tabletIds = Lists.newArrayList();
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds = replicaMetaWithBackend.keySet().stream().filter(
-                        id -> tabletMetaMap.get(id).getStorageMedium() == storageMedium).collect(Collectors.toList());
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backendReplicaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                for (LongObjectHashMap<Replica>.Cursor entry = replicaMetaWithBackend.cursor(); entry.advance(); ) {
+                    if (storageMedium == null
+                            || stripe.tabletMetaMap.get(entry.key()).getStorageMedium() == storageMedium) {
+                        tabletIds.add(entry.key());
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
             }
-        } finally {
-            readUnlock();
         }
         return tabletIds;
     }
 
     public long getTabletNumByBackendId(long backendId) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.size();
+        long tabletNum = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backendReplicaMap.get(backendId);
+                if (replicaMetaWithBackend != null) {
+                    tabletNum += replicaMetaWithBackend.size();
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
             }
-        } finally {
-            readUnlock();
         }
-        return 0;
+        return tabletNum;
     }
 
     public long getTabletNumByBackendIdAndPathHash(long backendId, long pathHash) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+        long tabletNum = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backendReplicaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                for (LongObjectHashMap<Replica>.Cursor entry = replicaMetaWithBackend.cursor(); entry.advance(); ) {
+                    if (entry.value().getPathHash() == pathHash) {
+                        tabletNum++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
             }
-        } finally {
-            readUnlock();
         }
-        return 0;
+        return tabletNum;
     }
 
     public Map<TStorageMedium, Long> getReplicaNumByBeIdAndStorageMedium(long backendId) {
         Map<TStorageMedium, Long> replicaNumMap = Maps.newHashMap();
         long hddNum = 0;
         long ssdNum = 0;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                for (long tabletId : replicaMetaWithBackend.keySet()) {
-                    if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backendReplicaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                for (LongObjectHashMap<Replica>.Cursor entry = replicaMetaWithBackend.cursor(); entry.advance(); ) {
+                    if (stripe.tabletMetaMap.get(entry.key()).getStorageMedium() == TStorageMedium.HDD) {
                         hddNum++;
                     } else {
                         ssdNum++;
                     }
                 }
+            } finally {
+                stripe.lock.unlockRead(stamp);
             }
-        } finally {
-            readUnlock();
         }
         replicaNumMap.put(TStorageMedium.HDD, hddNum);
         replicaNumMap.put(TStorageMedium.SSD, ssdNum);
@@ -572,15 +672,16 @@ public class TabletInvertedIndex {
 
     // just for test
     public void clear() {
-        writeLock();
-        try {
-            tabletMetaMap.clear();
-            replicaToTabletMap.clear();
-            replicaMetaTable.clear();
-            backingReplicaMetaTable.clear();
-        } finally {
-            writeUnlock();
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.tabletMetaMap.clear();
+                stripe.tabletReplicaMap.clear();
+                stripe.backendReplicaMap.clear();
+                stripe.replicaToTabletMap.clear();
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
         }
     }
 }
-
@@ -35,6 +35,7 @@ import com.starrocks.thrift.TTabletStatResult;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -88,35 +89,52 @@ public class TabletStatMgr extends MasterDaemon {
             if (db == null) {
                 continue;
             }
-            db.writeLock();
-            try {
-                for (Table table : db.getTables()) {
-                    if (!table.isNativeTable()) {
-                        continue;
-                    }
-
-                    OlapTable olapTable = (OlapTable) table;
-                    for (Partition partition : olapTable.getAllPartitions()) {
-                        long version = partition.getVisibleVersion();
-                        for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
-                            long indexRowCount = 0L;
-                            for (Tablet tablet : index.getTablets()) {
-                                indexRowCount += tablet.getRowCount(version);
-                            } // end for tablets
-                            index.setRowCount(indexRowCount);
-                        } // end for indices
-                    } // end for partitions
-                    LOG.debug("finished to set row num for table: {} in database: {}",
-                            table.getName(), db.getFullName());
-                }
-            } finally {
-                db.writeUnlock();
-            }
+            updateIndexRowCount(db);
         }
         LOG.info("finished to update index row num of all databases. cost: {} ms",
                 (System.currentTimeMillis() - start));
     }
 
+    // The row counts are summed under the read lock, so loads and queries are not blocked by the scan of all
+    // tablets, and only set under the write lock.
+    private void updateIndexRowCount(Database db) {
+        // MaterializedIndex overrides equals but not hashCode, so indexes are keyed by identity
+        Map<MaterializedIndex, Long> indexRowCounts = new IdentityHashMap<>();
+        db.readLock();
+        try {
+            for (Table table : db.getTables()) {
+                if (!table.isNativeTable()) {
+                    continue;
+                }
+
+                OlapTable olapTable = (OlapTable) table;
+                for (Partition partition : olapTable.getAllPartitions()) {
+                    long version = partition.getVisibleVersion();
+                    for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                        long indexRowCount = 0L;
+                        for (Tablet tablet : index.getTablets()) {
+                            indexRowCount += tablet.getRowCount(version);
+                        } // end for tablets
+                        indexRowCounts.put(index, indexRowCount);
+                    } // end for indices
+                } // end for partitions
+                LOG.debug("finished to count row num for table: {} in database: {}",
+                        table.getName(), db.getFullName());
+            }
+        } finally {
+            db.readUnlock();
+        }
+
+        db.writeLock();
+        try {
+            for (Map.Entry<MaterializedIndex, Long> entry : indexRowCounts.entrySet()) {
+                entry.getKey().setRowCount(entry.getValue());
+            }
+        } finally {
+            db.writeUnlock();
+        }
+    }
+
     private void updateTabletStat(Long beId, TTabletStatResult result) {
         TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
         for (Map.Entry<Long, TTabletStat> entry : result.getTablets_stats().entrySet()) {
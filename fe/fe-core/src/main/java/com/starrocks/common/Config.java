@@ -450,6 +450,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static int http_backlog_num = 1024;
 
+    /**
+     * The max number of queries running concurrently through the arrow query http api,
+     * more requests are rejected.
+     */
+    @ConfField
+    public static int arrow_query_max_concurrent_num = 16;
+
     /**
      * Cluster name will be shown as the title of web page
      */
@@ -496,6 +503,32 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int thrift_rpc_retry_times = 3;
 
+    /**
+     * The number of threads on follower to forward statements to master. When all of them are busy, the statements
+     * queued meanwhile are forwarded in batch.
+     */
+    @ConfField
+    public static int master_op_forward_concurrency = 32;
+
+    /**
+     * The max number of statements forwarded to master in one rpc, 1 to disable batching.
+     */
+    @ConfField(mutable = true)
+    public static int master_op_forward_batch_size = 16;
+
+    /**
+     * The max time in milliseconds of a statement waiting for a forwarding thread, after which it is forwarded
+     * by the connection thread itself, so statements are not delayed when all forwarding threads are busy.
+     */
+    @ConfField(mutable = true)
+    public static long master_op_forward_max_queue_wait_ms = 3000;
+
+    /**
+     * The max number of threads on master to execute the statements forwarded in batch.
+     */
+    @ConfField
+    public static int master_op_batch_executor_threads_num = 256;
+
     // May be necessary to modify the following BRPC configurations in high concurrency scenarios.
 
     // The size of BRPC connection pool. It will limit the concurrency of sending requests, because
@@ -539,6 +572,23 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_mysql_service_task_threads_num = 4096;
 
+    /**
+     * The max time in seconds to wait for the data of a mysql packet in nio mode, when the client stalls in the
+     * handshake or in the middle of a packet, so the task thread is not held forever. 0 to wait without timeout.
+     */
+    @ConfField(mutable = true)
+    public static int mysql_nio_read_timeout_second = 30;
+
+    /**
+     * Whether to support the compressed mysql protocol, which is used when the client asks for it,
+     * e.g. mysql --compress or useCompression=true of JDBC. It saves the bandwidth of large result sets,
+     * at the cost of the CPU of FE to compress them.
+     * It's off by default, so CLIENT_COMPRESS is not advertised and clients asking for it get uncompressed packets.
+     * Changing it only affects the connections established afterwards.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_mysql_protocol_compression = false;
+
     /**
      * node(FE or BE) will be considered belonging to the same StarRocks cluster if they have same cluster id.
      * Cluster id is usually a random integer generated when master FE start at first time.
@@ -1611,6 +1661,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int metadata_journal_max_batch_cnt = 100;
 
+    /**
+     * The number of threads to replay the journals of different databases in parallel,
+     * e.g. transaction states, replicas and partitions. The other journals are still replayed one by one.
+     * 1 to replay all journals by one thread.
+     */
+    @ConfField
+    public static int metadata_journal_replay_threads_num = 8;
+
     /**
      * Fqdn function switch, 
      * this switch will be deleted after release the fqdn func
@@ -1623,4 +1681,174 @@ public class Config extends ConfigBase {
      */
     @ConfField
     public static String jaeger_grpc_endpoint = "";
+
+    /**
+     * The thread number of the shared pool used by the parallel optimizer task scheduler,
+     * 0 means the number of available processors.
+     */
+    @ConfField
+    public static int optimizer_parallel_explore_thread_num = 0;
+
+    /**
+     * The max number of rule applications transformed concurrently in one batch
+     * by the parallel optimizer task scheduler
+     */
+    @ConfField(mutable = true)
+    public static int optimizer_parallel_explore_batch_size = 64;
+
+    /**
+     * The max total number of tokens of the parse trees cached by the sql parser, a token takes about 200 bytes
+     * in the parse tree, so the default is about 25MB. 0 disables the cache
+     */
+    @ConfField
+    public static long parse_tree_cache_max_tokens = 128L * 1024;
+
+    /**
+     * The max number of server side prepared statements of one connection
+     */
+    @ConfField(mutable = true)
+    public static int max_prepared_statements_per_connection = 1024;
+
+    /**
+     * Whether to cache the analyzed queries of prepared statements. A query is analyzed once for the parameters of
+     * the same types, and the following executions only bind their parameters into it and optimize it. The plan
+     * of the last execution is also cached, and reused by the next execution with the same parameters.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_prepared_statement_plan_cache = true;
+
+    /**
+     * The cached plan of a prepared statement is expired after this time, even if the tables are not changed,
+     * because the replicas chosen in the plan may have been migrated.
+     */
+    @ConfField(mutable = true)
+    public static long prepared_statement_plan_cache_expire_seconds = 300;
+
+    /**
+     * The max memory used by the query result cache of FE, see session variable enable_query_result_cache
+     */
+    @ConfField(mutable = true)
+    public static long query_result_cache_capacity_bytes = 256L * 1024 * 1024;
+
+    /**
+     * Results larger than this are not cached by the query result cache
+     */
+    @ConfField(mutable = true)
+    public static long query_result_cache_max_entry_bytes = 4L * 1024 * 1024;
+
+    /**
+     * Only collect the full statistics of the partitions whose visible version changed since last collection,
+     * the statistics of the table are merged from the statistics of all partitions.
+     * If disabled, the partitions are chosen by the visible version time.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_incremental_partition_statistics = true;
+
+    /**
+     * The max number of fetch requests in flight for the result of a query, so that the next result batches are
+     * transferred from BE while the current batch is sent to the client. 1 to fetch the batches one by one.
+     */
+    @ConfField(mutable = true)
+    public static int max_inflight_result_fetch_requests = 2;
+
+    /**
+     * The number of threads to build and serialize the requests of plan fragments to different backends
+     * concurrently when a query is deployed. 1 to serialize them one by one in the query thread.
+     */
+    @ConfField
+    public static int deploy_serialize_threads_num = 8;
+
+    /**
+     * The number of virtual nodes of each compute node on the consistent hash ring, which is used to assign the
+     * scan ranges of remote files when enable_scan_range_consistent_hash is set. More virtual nodes spread the
+     * files more evenly but take longer to build the ring.
+     */
+    @ConfField(mutable = true)
+    public static int scan_range_consistent_hash_virtual_node_num = 128;
+
+    /**
+     * A node on the consistent hash ring is assigned at most load_factor times of the average scans, the
+     * exceeded scan ranges are assigned to the next nodes on the ring. It must not be less than 1.
+     */
+    @ConfField(mutable = true)
+    public static double scan_range_consistent_hash_load_factor = 1.25;
+
+    /**
+     * Whether to queue the queries on FE when their resource groups or the backends are out of resources, instead of
+     * sending all of them to the backends at once. See QueryQueueManager.
+     * Every FE queues the queries it coordinates by itself, so the limits of the queue, including the concurrency_limit
+     * of resource groups, apply to each FE separately.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_query_queue = false;
+
+    /**
+     * The max number of queries waiting in the query queue, the following queries fail directly.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_max_queued_queries = 1024;
+
+    /**
+     * The max time in seconds for a query to wait in the query queue, the query fails if not admitted in time.
+     */
+    @ConfField(mutable = true)
+    public static long query_queue_pending_timeout_second = 300;
+
+    /**
+     * The queries are queued when the memory usage of any backend reported by heartbeat exceeds this ratio of its
+     * memory limit. 0 to disable the check.
+     * Only the leader FE receives heartbeats of backends, so the memory of backends is only checked by the queue of
+     * the leader, the followers admit queries by the concurrency limits only.
+     */
+    @ConfField(mutable = true)
+    public static double query_queue_leader_mem_used_pct_limit = 0.9;
+
+    /**
+     * The number of threads to finish the profiles of queries in background, including waiting for the last reports
+     * of backends and merging the profiles of instances.
+     */
+    @ConfField
+    public static int profile_process_threads_num = 2;
+
+    /**
+     * The max number of profiles waiting to be processed in background. When the queue is full, the profile is
+     * processed by the query thread itself.
+     */
+    @ConfField
+    public static int profile_process_blocking_queue_size = 256;
+
+    /**
+     * The max total bytes of the compressed profiles kept in memory, the oldest ones are removed when exceeded.
+     */
+    @ConfField(mutable = true)
+    public static long profile_info_max_bytes = 128L * 1024 * 1024;
+
+    /**
+     * The format of the image saved by checkpoint. 1 is the legacy image. 2 is the sectioned image, whose modules
+     * are saved and loaded in parallel, and which allows incremental checkpoints.
+     * Both formats can be loaded, but versions before the sectioned image can not load it, so it stays 1 by default
+     * until the sectioned image has been released for a while. To opt in, set it to 2 in fe.conf of all the
+     * frontends, or by `ADMIN SET FRONTEND CONFIG ("image_format_version" = "2")` on each of them, and the next
+     * checkpoint saves a sectioned image. Set it back to 1 and wait for a new checkpoint before downgrading.
+     */
+    @ConfField(mutable = true)
+    public static int image_format_version = 1;
+
+    /**
+     * The number of threads to save and load the sections of image in parallel.
+     */
+    @ConfField(mutable = true)
+    public static int image_section_threads_num = 8;
+
+    /**
+     * The max number of incremental checkpoints between two full checkpoints. An incremental checkpoint loads and
+     * saves only the image sections changed since the last image, and copies the others from it. 0 to disable it.
+     * Loads, replica changes and partition changes only change the databases, transactions, statistics and load
+     * jobs, other DDLs not tracked by sections fall back to a full checkpoint.
+     * Note that the databases section holds the whole catalog and is changed by every load, so under continuous
+     * loading an incremental checkpoint still loads the full catalog, and saves no memory compared with a full
+     * one. It only saves the time of loading and saving the other sections.
+     */
+    @ConfField(mutable = true)
+    public static int checkpoint_max_incremental_num = 10;
 }
@@ -114,6 +114,17 @@ public class ThreadPoolManager {
                 new BlockedPolicy(poolName, 5), poolName, needRegisterMetric);
     }
 
+    // Grow to maxNumThread threads, then queue the following tasks instead of discarding them.
+    // Idle threads exit after the keep alive time.
+    public static ThreadPoolExecutor newDaemonElasticThreadPool(int maxNumThread, String poolName,
+                                                                boolean needRegisterMetric) {
+        ThreadPoolExecutor threadPool = newDaemonThreadPool(maxNumThread, maxNumThread, KEEP_ALIVE_TIME,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new LogDiscardPolicy(poolName), poolName,
+                needRegisterMetric);
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
     public static ThreadPoolExecutor newDaemonFixedThreadPool(int numThread, int queueSize, String poolName,
                                                               boolean needRegisterMetric) {
         return newDaemonThreadPool(numThread, numThread, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
@@ -6,6 +6,15 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.starrocks.thrift.TCompressionType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 public class CompressionUtils {
     private static final ImmutableMap<String, TCompressionType> tCompressionByName =
             (new ImmutableSortedMap.Builder<String, TCompressionType>(String.CASE_INSENSITIVE_ORDER))
@@ -25,4 +34,24 @@ public class CompressionUtils {
     public static TCompressionType findTCompressionByName(String name) {
         return tCompressionByName.get(name);
     }
+
+    public static byte[] gzipCompressString(String origStr) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(origStr.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    public static String gzipDecompressString(byte[] compressedBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressedBytes.length * 4);
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressedBytes))) {
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = gzip.read(buffer)) > 0) {
+                out.write(buffer, 0, len);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
 }
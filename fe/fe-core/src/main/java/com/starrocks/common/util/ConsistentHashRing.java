@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * A consistent hash ring of nodes. Each node is placed on the ring by several virtual nodes, and a key belongs to
+ * the first virtual node clockwise from the hash of the key. So keys are spread evenly over the nodes, and adding
+ * or removing a node only moves the keys of that node.
+ * <p>
+ * The positions only depend on the string ids of the nodes, so the rings built on different FEs for the same nodes
+ * are the same.
+ */
+public class ConsistentHashRing<T> {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+    private final Set<T> nodes;
+    private final int virtualNodeNum;
+
+    /**
+     * @param nodes          the nodes of the ring, they must have distinct ids
+     * @param nodeId         the id of a node which decides the positions of its virtual nodes
+     * @param virtualNodeNum the number of virtual nodes for each node
+     */
+    public ConsistentHashRing(Collection<T> nodes, Function<T, String> nodeId, int virtualNodeNum) {
+        Preconditions.checkArgument(virtualNodeNum > 0, "virtual node num must be positive");
+        this.nodes = ImmutableSet.copyOf(nodes);
+        this.virtualNodeNum = virtualNodeNum;
+        for (T node : this.nodes) {
+            String id = nodeId.apply(node);
+            for (int i = 0; i < virtualNodeNum; i++) {
+                ring.put(hash(id + "#" + i), node);
+            }
+        }
+    }
+
+    public static long hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+
+    public Set<T> getNodes() {
+        return nodes;
+    }
+
+    public int getVirtualNodeNum() {
+        return virtualNodeNum;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * The distinct nodes clockwise from the position of the key, the first one is the node owning the key, the
+     * following ones are the nodes the key moves to when the previous ones are removed or overloaded.
+     */
+    public Iterator<T> getNodes(String key) {
+        long position = hash(key);
+        Iterator<T> clockwise = Iterators.concat(ring.tailMap(position, true).values().iterator(),
+                ring.headMap(position, false).values().iterator());
+        Set<T> visited = new HashSet<>();
+        return Iterators.limit(Iterators.filter(clockwise, visited::add), nodes.size());
+    }
+
+    /**
+     * The node owning the key, null if the ring is empty.
+     */
+    public T getNode(String key) {
+        Iterator<T> iterator = getNodes(key);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
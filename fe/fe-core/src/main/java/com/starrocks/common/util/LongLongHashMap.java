@@ -0,0 +1,173 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+/**
+ * A map from primitive long to primitive long by open addressing with linear probing. A slot is empty if its key
+ * is 0, and the mapping of key 0 is kept aside.
+ * <p>
+ * Not thread safe. {@link #get} never throws even if the map is being modified concurrently, see
+ * {@link LongObjectHashMap}.
+ */
+public class LongLongHashMap {
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] keys;
+    private long[] values;
+    // the number of keys in slots
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroKeyValue;
+
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroKeyValue : defaultValue;
+        }
+        long[] keys = this.keys;
+        long[] values = this.values;
+        if (keys.length != values.length) {
+            // being resized
+            return defaultValue;
+        }
+        int mask = keys.length - 1;
+        int slot = LongObjectHashMap.hash(key) & mask;
+        for (int i = 0; i < keys.length; i++) {
+            long slotKey = keys[slot];
+            if (slotKey == 0) {
+                return defaultValue;
+            }
+            if (slotKey == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return keys[findSlot(key)] == key;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroKeyValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == 0) {
+            if ((size + 1) > keys.length * 3L / 4) {
+                rehash(keys.length << 1);
+                slot = findSlot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * @return whether the key exists
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean existed = hasZeroKey;
+            hasZeroKey = false;
+            zeroKeyValue = 0;
+            return existed;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == 0) {
+            return false;
+        }
+        shiftBackward(slot);
+        size--;
+        if (keys.length > MIN_CAPACITY && size < keys.length / 8) {
+            rehash(capacityFor(size));
+        }
+        return true;
+    }
+
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+        hasZeroKey = false;
+        zeroKeyValue = 0;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = LongObjectHashMap.hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void shiftBackward(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = LongObjectHashMap.hash(keys[next]) & mask;
+            boolean stay = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stay) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = LongObjectHashMap.hash(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
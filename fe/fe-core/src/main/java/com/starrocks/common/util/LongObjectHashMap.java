@@ -0,0 +1,224 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A map from primitive long to non-null object by open addressing with linear probing, without boxing the keys or
+ * allocating an entry per mapping. A slot is empty if its value is null.
+ * <p>
+ * Not thread safe. {@link #get} and {@link #containsKey} never throw even if the map is being modified
+ * concurrently, so they can be used under an optimistic read of {@link java.util.concurrent.locks.StampedLock}, the
+ * result is garbage unless the read is validated.
+ */
+public class LongObjectHashMap<V> {
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    // up to 3/4 of the slots are used
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * The mixed hash of the key, whose low bits are used to find the slot.
+     */
+    public static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        if (keys.length != values.length) {
+            // being resized
+            return null;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (int i = 0; i < keys.length; i++) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Preconditions.checkNotNull(value);
+        int slot = findSlot(key);
+        Object previous = values[slot];
+        if (previous == null) {
+            if ((size + 1) > keys.length * 3L / 4) {
+                rehash(keys.length << 1);
+                slot = findSlot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        return (V) previous;
+    }
+
+    public V putIfAbsent(long key, V value) {
+        V previous = get(key);
+        if (previous == null) {
+            put(key, value);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the removed value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = findSlot(key);
+        Object previous = values[slot];
+        if (previous == null) {
+            return null;
+        }
+        shiftBackward(slot);
+        size--;
+        if (keys.length > MIN_CAPACITY && size < keys.length / 8) {
+            rehash(capacityFor(size));
+        }
+        return (V) previous;
+    }
+
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    // the slot of the key, or the empty slot to put it
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // remove the entry in the slot, and move the following entries of the probe sequence backward
+    private void shiftBackward(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            // move the entry to the hole unless its home slot is cyclically in (hole, next]
+            boolean stay = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stay) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Iterate the entries, the map must not be modified meanwhile.
+     * <pre>
+     * for (LongObjectHashMap&lt;V&gt;.Cursor cursor = map.cursor(); cursor.advance(); ) {
+     *     long key = cursor.key();
+     *     V value = cursor.value();
+     * }
+     * </pre>
+     */
+    public class Cursor {
+        private int slot = -1;
+
+        public boolean advance() {
+            while (++slot < values.length) {
+                if (values[slot] != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long key() {
+            return keys[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) values[slot];
+        }
+    }
+}
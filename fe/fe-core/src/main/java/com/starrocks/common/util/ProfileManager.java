@@ -24,14 +24,16 @@ package com.starrocks.common.util;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +49,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
  * why the element in the finished profile arary is not RuntimeProfile,
  * the purpose is let coordinator can destruct earlier(the fragment profile is in Coordinator)
  *
+ * The profile content is kept gzip compressed, and only decompressed when it is requested.
+ * The oldest profiles are removed once the count or the total bytes of the profiles exceeds the limit.
+ *
  */
 public class ProfileManager {
     private static final Logger LOG = LogManager.getLogger(ProfileManager.class);
@@ -65,6 +70,8 @@ public class ProfileManager {
     public static final String QUERY_MEM_COST = "QueryMemCost";
     public static final String VARIABLES = "Variables";
     public static final String PROFILE_TIME = "Collect Profile Time";
+    public static final String RETRY_TIMES = "Retry Times";
+    public static final String RETRY_RECOVER_TIME = "Retry Recover Time";
 
     public static final ArrayList<String> PROFILE_HEADERS = new ArrayList(
             Arrays.asList(QUERY_ID, USER, DEFAULT_DB, SQL_STATEMENT, QUERY_TYPE,
@@ -72,16 +79,28 @@ public class ProfileManager {
 
     private class ProfileElement {
         public Map<String, String> infoStrings = Maps.newHashMap();
-        public String profileContent;
+        public byte[] compressedProfile;
+
+        // approximate memory usage, which is dominated by the profile content and the sql statement
+        public long getBytes() {
+            long bytes = compressedProfile.length;
+            for (String value : infoStrings.values()) {
+                if (value != null) {
+                    bytes += value.length();
+                }
+            }
+            return bytes;
+        }
     }
 
-    // only protect profileDeque; profileMap is concurrent, no need to protect
+    // only protect profileDeque and profileBytes; profileMap is concurrent, no need to protect
     private ReentrantReadWriteLock lock;
     private ReadLock readLock;
     private WriteLock writeLock;
 
     private Deque<ProfileElement> profileDeque;
     private Map<String, ProfileElement> profileMap; // from QueryId to RuntimeProfile
+    private long profileBytes = 0; // total bytes of the elements in profileDeque
 
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
@@ -94,17 +113,17 @@ public class ProfileManager {
         lock = new ReentrantReadWriteLock(true);
         readLock = lock.readLock();
         writeLock = lock.writeLock();
-        profileDeque = new LinkedList<ProfileElement>();
+        profileDeque = new ArrayDeque<ProfileElement>();
         profileMap = new ConcurrentHashMap<String, ProfileElement>();
     }
 
-    public ProfileElement createElement(RuntimeProfile profile) {
+    private ProfileElement createElement(RuntimeProfile profile, String profileContent) throws IOException {
         ProfileElement element = new ProfileElement();
         RuntimeProfile summaryProfile = profile.getChildList().get(0).first;
         for (String header : PROFILE_HEADERS) {
             element.infoStrings.put(header, summaryProfile.getInfoString(header));
         }
-        element.profileContent = profile.toString();
+        element.compressedProfile = CompressionUtils.gzipCompressString(profileContent);
         return element;
     }
 
@@ -113,7 +132,14 @@ public class ProfileManager {
             return "";
         }
 
-        ProfileElement element = createElement(profile);
+        String profileContent = profile.toString();
+        ProfileElement element;
+        try {
+            element = createElement(profile, profileContent);
+        } catch (IOException e) {
+            LOG.warn("failed to compress profile", e);
+            return profileContent;
+        }
         String queryId = element.infoStrings.get(ProfileManager.QUERY_ID);
         // check when push in, which can ensure every element in the list has QUERY_ID column,
         // so there is no need to check when remove element from list.
@@ -122,19 +148,23 @@ public class ProfileManager {
                     + "may be forget to insert 'QUERY_ID' column into infoStrings");
         }
 
-        profileMap.put(queryId, element);
         writeLock.lock();
         try {
-            if (profileDeque.size() >= ARRAY_SIZE) {
-                profileMap.remove(profileDeque.getFirst().infoStrings.get(QUERY_ID));
-                profileDeque.removeFirst();
-            }
+            profileMap.put(queryId, element);
             profileDeque.addLast(element);
+            profileBytes += element.getBytes();
+            // keep the latest profile even if it exceeds the bytes limit alone
+            while (profileDeque.size() > 1 &&
+                    (profileDeque.size() > ARRAY_SIZE || profileBytes > Config.profile_info_max_bytes)) {
+                ProfileElement removed = profileDeque.removeFirst();
+                profileMap.remove(removed.infoStrings.get(QUERY_ID), removed);
+                profileBytes -= removed.getBytes();
+            }
         } finally {
             writeLock.unlock();
         }
 
-        return element.profileContent;
+        return profileContent;
     }
 
     public List<List<String>> getAllQueries() {
@@ -159,14 +189,23 @@ public class ProfileManager {
     }
 
     public String getProfile(String queryID) {
-        readLock.lock();
+        ProfileElement element = profileMap.get(queryID);
+        if (element == null) {
+            return null;
+        }
+
         try {
-            ProfileElement element = profileMap.get(queryID);
-            if (element == null) {
-                return null;
-            }
+            return CompressionUtils.gzipDecompressString(element.compressedProfile);
+        } catch (IOException e) {
+            LOG.warn("failed to decompress profile of query {}", queryID, e);
+            return null;
+        }
+    }
 
-            return element.profileContent;
+    public long getProfileBytes() {
+        readLock.lock();
+        try {
+            return profileBytes;
         } finally {
             readLock.unlock();
         }
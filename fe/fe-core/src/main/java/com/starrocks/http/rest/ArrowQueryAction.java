@@ -0,0 +1,289 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.http.rest;
+
+import com.google.common.base.Strings;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.Type;
+import com.starrocks.cluster.ClusterNamespace;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.http.ActionController;
+import com.starrocks.http.BaseRequest;
+import com.starrocks.http.BaseResponse;
+import com.starrocks.http.IllegalArgException;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.proto.PQueryStatistics;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.ConnectProcessor;
+import com.starrocks.qe.Coordinator;
+import com.starrocks.qe.OriginStatement;
+import com.starrocks.qe.QeProcessorImpl;
+import com.starrocks.qe.QueryState;
+import com.starrocks.qe.RowBatch;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/* Usage:
+   eg:
+        POST  /api/arrow_query?db=test  post_data=query
+ return:
+        the result of the query in Arrow IPC streaming format, sent by chunked transfer encoding.
+        e.g. in python: pyarrow.ipc.open_stream(requests.post(url, data=sql, stream=True).raw).read_pandas()
+ */
+
+public class ArrowQueryAction extends RestBaseAction {
+    private static final Logger LOG = LogManager.getLogger(ArrowQueryAction.class);
+    private static final String DB = "db";
+    private static final String ARROW_STREAM_CONTENT_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final BufferAllocator ROOT_ALLOCATOR = new RootAllocator();
+
+    // the queries block on fetching results from BE and sending them to client, so they run outside the netty
+    // event loop, and the requests beyond the limit are rejected instead of queued
+    private static final ThreadPoolExecutor EXECUTOR = ThreadPoolManager.newDaemonThreadPool(0,
+            Config.arrow_query_max_concurrent_num, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadPoolExecutor.AbortPolicy(), "arrow-query", true);
+
+    public ArrowQueryAction(ActionController controller) {
+        super(controller);
+    }
+
+    public static void registerAction(ActionController controller) throws IllegalArgException {
+        controller.registerHandler(HttpMethod.POST, "/api/arrow_query", new ArrowQueryAction(controller));
+    }
+
+    @Override
+    public void executeWithoutPassword(BaseRequest request, BaseResponse response) throws DdlException {
+        ConnectContext context = ConnectContext.get();
+        String dbName = request.getSingleParameter(DB);
+        if (!Strings.isNullOrEmpty(dbName)) {
+            String fullDbName = ClusterNamespace.getFullName(dbName);
+            Database db = GlobalStateMgr.getCurrentState().getDb(fullDbName);
+            if (db == null) {
+                response.appendContent(new RestBaseResult("Database [" + fullDbName + "] does not exists").toJson());
+                sendResult(request, response, HttpResponseStatus.NOT_FOUND);
+                return;
+            }
+            context.setDatabase(fullDbName);
+        }
+
+        String sql = request.getContent();
+        if (Strings.isNullOrEmpty(sql)) {
+            response.appendContent(new RestBaseResult("not valid parameter").toJson());
+            sendResult(request, response, HttpResponseStatus.BAD_REQUEST);
+            return;
+        }
+
+        // The netty handler returns before the result is streamed by the worker, stop reading the next request
+        // of a keep-alive connection until then, otherwise its response would be interleaved with the stream.
+        request.getContext().channel().config().setAutoRead(false);
+        try {
+            EXECUTOR.execute(() -> executeQuery(request, context, sql));
+        } catch (RejectedExecutionException e) {
+            request.getContext().channel().config().setAutoRead(true);
+            response.appendContent(new RestBaseResult("Too many arrow queries, the max is " +
+                    Config.arrow_query_max_concurrent_num).toJson());
+            sendResult(request, response, HttpResponseStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void executeQuery(BaseRequest request, ConnectContext context, String sql) {
+        context.setThreadLocalInfo();
+        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
+        context.getAuditEventBuilder().reset();
+        context.getAuditEventBuilder()
+                .setTimestamp(System.currentTimeMillis())
+                .setClientIp(context.getRemoteIP())
+                .setUser(context.getQualifiedUser())
+                .setDb(context.getDatabase());
+        context.getState().reset();
+        context.setStartTime();
+        StatementBase parsedStmt = null;
+        PQueryStatistics statistics = null;
+        try {
+            parsedStmt = parseQuery(request, context, sql);
+            if (parsedStmt != null) {
+                statistics = doExecuteQuery(request, context, sql, parsedStmt);
+            }
+        } finally {
+            ConnectProcessor processor = new ConnectProcessor(context);
+            processor.auditAfterExec(sql, parsedStmt, statistics);
+            processor.addFinishedQueryDetail();
+            ConnectContext.remove();
+            request.getContext().channel().config().setAutoRead(true);
+        }
+    }
+
+    // returns null if the sql is not a valid query, and the error is sent
+    private StatementBase parseQuery(BaseRequest request, ConnectContext context, String sql) {
+        StatementBase parsedStmt;
+        try {
+            parsedStmt = SqlParser.parseFirstStatement(sql, context.getSessionVariable().getSqlMode());
+        } catch (Exception e) {
+            LOG.warn("parse arrow query failed. " + e);
+            context.getState().setError(e.getMessage());
+            context.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+            sendError(request, HttpResponseStatus.BAD_REQUEST, "parse query failed. " + e.getMessage());
+            return null;
+        }
+        if (!(parsedStmt instanceof QueryStatement) || ((QueryStatement) parsedStmt).hasOutFileClause()) {
+            context.getState().setError("only query statement is supported");
+            context.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+            sendError(request, HttpResponseStatus.BAD_REQUEST, "only query statement is supported");
+            return null;
+        }
+        parsedStmt.setOrigStmt(new OriginStatement(sql, 0));
+        return parsedStmt;
+    }
+
+    // returns the statistics of the query for audit log, and the state of context is set to the result
+    private PQueryStatistics doExecuteQuery(BaseRequest request, ConnectContext context, String sql,
+                                            StatementBase parsedStmt) {
+        context.setExecutionId(UUIDUtil.toTUniqueId(context.getQueryId()));
+        context.getState().setIsQuery(true);
+        StmtExecutor.addRunningQueryDetail(context, parsedStmt, sql);
+
+        ExecPlan execPlan;
+        try {
+            execPlan = new StatementPlanner().plan(parsedStmt, context);
+        } catch (Exception e) {
+            LOG.warn("plan arrow query failed. " + e);
+            context.getState().setError(e.getMessage());
+            context.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+            sendError(request, HttpResponseStatus.BAD_REQUEST, "plan query failed. " + e.getMessage());
+            return null;
+        }
+
+        Coordinator coord = new Coordinator(context, execPlan.getFragments(), execPlan.getScanNodes(),
+                execPlan.getDescTbl().toThrift());
+        // cancel the query once the client goes away
+        ChannelFutureListener cancelListener = future -> coord.cancel();
+        ChannelHandlerContext ctx = request.getContext();
+        ctx.channel().closeFuture().addListener(cancelListener);
+        boolean isHeaderSent = false;
+        PQueryStatistics statistics = null;
+        try {
+            QeProcessorImpl.INSTANCE.registerQuery(context.getExecutionId(),
+                    new QeProcessorImpl.QueryInfo(context, sql, coord));
+            coord.exec();
+
+            List<Type> types = new ArrayList<>();
+            for (Expr expr : execPlan.getOutputExprs()) {
+                types.add(expr.getType());
+            }
+            try (BufferAllocator allocator = ROOT_ALLOCATOR.newChildAllocator(
+                    DebugUtil.printId(context.getExecutionId()), 0, Long.MAX_VALUE);
+                    ArrowResultConverter converter = new ArrowResultConverter(execPlan.getColNames(), types,
+                            allocator)) {
+                // fetch the first batch before sending header, so the errors of the query are sent as a response
+                RowBatch batch = coord.getNext();
+                sendHeader(request);
+                isHeaderSent = true;
+
+                ChannelFuture lastWrite = writeChunk(ctx, null, converter.start(), context);
+                while (true) {
+                    if (batch.getBatch() != null) {
+                        lastWrite = writeChunk(ctx, lastWrite, converter.convert(batch.getBatch().getRows()),
+                                context);
+                        context.updateReturnRows(batch.getBatch().getRows().size());
+                    }
+                    if (batch.isEos()) {
+                        statistics = batch.getQueryStatistics();
+                        break;
+                    }
+                    batch = coord.getNext();
+                }
+                writeChunk(ctx, lastWrite, converter.end(), context);
+            }
+
+            ChannelFuture lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            if (!HttpUtil.isKeepAlive(request.getRequest())) {
+                lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+            }
+            context.getState().setEof();
+        } catch (Exception e) {
+            LOG.warn("execute arrow query {} failed.", DebugUtil.printId(context.getExecutionId()), e);
+            context.getState().setError(e.getMessage());
+            coord.cancel();
+            if (isHeaderSent) {
+                // the stream is incomplete, and the client gets an error of reading the stream
+                ctx.close();
+            } else {
+                sendError(request, HttpResponseStatus.INTERNAL_SERVER_ERROR,
+                        "execute query failed. " + e.getMessage());
+            }
+        } finally {
+            ctx.channel().closeFuture().removeListener(cancelListener);
+            QeProcessorImpl.INSTANCE.unregisterQuery(context.getExecutionId());
+        }
+        return statistics;
+    }
+
+    private void sendHeader(BaseRequest request) {
+        HttpResponse responseObj = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        responseObj.headers().set(HttpHeaderNames.CONTENT_TYPE, ARROW_STREAM_CONTENT_TYPE);
+        HttpUtil.setTransferEncodingChunked(responseObj, true);
+        if (HttpUtil.isKeepAlive(request.getRequest())) {
+            responseObj.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        }
+        request.getContext().writeAndFlush(responseObj);
+    }
+
+    // Wait until the previous chunk is sent before writing the next one. So at most one chunk is pending in the
+    // channel, and the results are fetched from BE no faster than the client reads them.
+    private static ChannelFuture writeChunk(ChannelHandlerContext ctx, ChannelFuture lastWrite, byte[] bytes,
+                                            ConnectContext context) throws IOException, InterruptedException {
+        if (lastWrite != null) {
+            if (!lastWrite.await(context.getSessionVariable().getQueryTimeoutS(), TimeUnit.SECONDS)) {
+                throw new IOException("timeout to send the query result to client");
+            }
+            if (!lastWrite.isSuccess()) {
+                throw new IOException("failed to send the query result to client", lastWrite.cause());
+            }
+        }
+        return ctx.writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(bytes)));
+    }
+
+    private void sendError(BaseRequest request, HttpResponseStatus status, String msg) {
+        BaseResponse response = new BaseResponse();
+        response.appendContent(new RestBaseResult(msg).toJson());
+        writeResponse(request, response, status);
+        request.getContext().flush();
+    }
+}
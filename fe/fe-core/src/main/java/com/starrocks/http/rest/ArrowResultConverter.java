@@ -0,0 +1,223 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.http.rest;
+
+import com.google.common.base.Preconditions;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Type;
+import com.starrocks.mysql.MysqlBinaryProto;
+import com.starrocks.mysql.MysqlProto;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convert the result rows of a query into an Arrow IPC stream.
+ * <p>
+ * Result rows from BE are in MySQL text protocol, so each value is decoded once on FE by the type of its output
+ * expression and appended to a typed Arrow vector, then clients read columnar data without parsing text.
+ * The types without an Arrow counterpart, e.g. LARGEINT, JSON and HLL, are kept as UTF-8 strings.
+ */
+public class ArrowResultConverter implements AutoCloseable {
+    // first byte of a NULL value in text protocol row
+    private static final int TEXT_NULL = 0xFB;
+    // DECIMALV2 is stored as a 128 bits integer with 9 digits of fraction on BE
+    private static final int DECIMALV2_PRECISION = 27;
+    private static final int DECIMALV2_SCALE = 9;
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.MICRO_OF_SECOND, 0, 6, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private final List<Type> types;
+    private final VectorSchemaRoot root;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ArrowStreamWriter writer;
+
+    public ArrowResultConverter(List<String> colNames, List<Type> types, BufferAllocator allocator) {
+        Preconditions.checkArgument(colNames.size() == types.size());
+        this.types = types;
+        this.root = VectorSchemaRoot.create(buildSchema(colNames, types), allocator);
+        this.writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+    }
+
+    public static Schema buildSchema(List<String> colNames, List<Type> types) {
+        List<Field> fields = new ArrayList<>(colNames.size());
+        for (int i = 0; i < colNames.size(); i++) {
+            fields.add(new Field(colNames.get(i), FieldType.nullable(toArrowType(types.get(i))), null));
+        }
+        return new Schema(fields);
+    }
+
+    private static ArrowType toArrowType(Type type) {
+        switch (type.getPrimitiveType()) {
+            case BOOLEAN:
+                return ArrowType.Bool.INSTANCE;
+            case TINYINT:
+                return new ArrowType.Int(8, true);
+            case SMALLINT:
+                return new ArrowType.Int(16, true);
+            case INT:
+                return new ArrowType.Int(32, true);
+            case BIGINT:
+                return new ArrowType.Int(64, true);
+            case FLOAT:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case DOUBLE:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case DECIMALV2:
+                return new ArrowType.Decimal(DECIMALV2_PRECISION, DECIMALV2_SCALE, 128);
+            case DECIMAL32:
+            case DECIMAL64:
+            case DECIMAL128:
+                return new ArrowType.Decimal(((ScalarType) type).getScalarPrecision(),
+                        ((ScalarType) type).getScalarScale(), 128);
+            case DATE:
+                return new ArrowType.Date(DateUnit.DAY);
+            case DATETIME:
+                // DATETIME has no time zone
+                return new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+            default:
+                return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    /**
+     * The schema message, which must be sent before the record batches.
+     */
+    public byte[] start() throws IOException {
+        writer.start();
+        return takeBytes();
+    }
+
+    /**
+     * Convert the text protocol rows into one record batch message.
+     */
+    public byte[] convert(List<ByteBuffer> rows) throws IOException {
+        root.allocateNew();
+        for (int rowIdx = 0; rowIdx < rows.size(); rowIdx++) {
+            ByteBuffer row = rows.get(rowIdx).duplicate();
+            for (int colIdx = 0; colIdx < types.size(); colIdx++) {
+                FieldVector vector = root.getVector(colIdx);
+                if ((row.get(row.position()) & 0xFF) == TEXT_NULL) {
+                    // the validity bits are cleared when allocated, so a NULL value is left unset
+                    row.get();
+                } else {
+                    setValue(vector, types.get(colIdx), rowIdx, MysqlProto.readLenEncodedString(row));
+                }
+            }
+        }
+        root.setRowCount(rows.size());
+        writer.writeBatch();
+        return takeBytes();
+    }
+
+    /**
+     * The end of stream message.
+     */
+    public byte[] end() throws IOException {
+        writer.end();
+        return takeBytes();
+    }
+
+    private static void setValue(FieldVector vector, Type type, int index, byte[] value) {
+        if (vector instanceof VarCharVector) {
+            ((VarCharVector) vector).setSafe(index, value);
+            return;
+        }
+        String text = new String(value, StandardCharsets.UTF_8);
+        switch (type.getPrimitiveType()) {
+            case BOOLEAN:
+                ((BitVector) vector).setSafe(index, text.equals("1") || text.equalsIgnoreCase("true") ? 1 : 0);
+                break;
+            case TINYINT:
+                ((TinyIntVector) vector).setSafe(index, Byte.parseByte(text));
+                break;
+            case SMALLINT:
+                ((SmallIntVector) vector).setSafe(index, Short.parseShort(text));
+                break;
+            case INT:
+                ((IntVector) vector).setSafe(index, Integer.parseInt(text));
+                break;
+            case BIGINT:
+                ((BigIntVector) vector).setSafe(index, Long.parseLong(text));
+                break;
+            case FLOAT:
+                ((Float4Vector) vector).setSafe(index, (float) MysqlBinaryProto.parseDouble(text));
+                break;
+            case DOUBLE:
+                ((Float8Vector) vector).setSafe(index, MysqlBinaryProto.parseDouble(text));
+                break;
+            case DECIMALV2:
+            case DECIMAL32:
+            case DECIMAL64:
+            case DECIMAL128: {
+                DecimalVector decimalVector = (DecimalVector) vector;
+                decimalVector.setSafe(index, new BigDecimal(text).setScale(decimalVector.getScale(),
+                        RoundingMode.HALF_UP));
+                break;
+            }
+            case DATE:
+                ((DateDayVector) vector).setSafe(index, (int) LocalDate.parse(text).toEpochDay());
+                break;
+            case DATETIME: {
+                LocalDateTime dateTime = LocalDateTime.parse(text, DATETIME_FORMATTER);
+                long micros = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000000L + dateTime.getNano() / 1000;
+                ((TimeStampMicroVector) vector).setSafe(index, micros);
+                break;
+            }
+            default:
+                throw new IllegalStateException("unexpected type " + type + " of arrow vector " + vector);
+        }
+    }
+
+    private byte[] takeBytes() {
+        byte[] bytes = out.toByteArray();
+        out.reset();
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        root.close();
+    }
+}
@@ -14,6 +14,8 @@ import java.util.concurrent.TimeoutException;
 public class JournalTask implements Future<Boolean> {
     // serialized JournalEntity
     private DataOutputBuffer buffer;
+    // operation type of the journal, -1 if unknown
+    private short opCode;
     // write result
     private Boolean isSucceed = null;
     // count down latch, the producer which called logEdit() will wait on it.
@@ -23,6 +25,11 @@ public class JournalTask implements Future<Boolean> {
     protected long betterCommitBeforeTime;
 
     public JournalTask(DataOutputBuffer buffer, long maxWaitIntervalMs) {
+        this((short) -1, buffer, maxWaitIntervalMs);
+    }
+
+    public JournalTask(short opCode, DataOutputBuffer buffer, long maxWaitIntervalMs) {
+        this.opCode = opCode;
         this.buffer = buffer;
         this.latch = new CountDownLatch(1);
         if (maxWaitIntervalMs > 0) {
@@ -51,6 +58,10 @@ public class JournalTask implements Future<Boolean> {
         return Long.SIZE / 8 + buffer.getLength();
     }
 
+    public short getOpCode() {
+        return opCode;
+    }
+
     public DataOutputBuffer getBuffer() {
         return buffer;
     }
@@ -6,6 +6,7 @@ import com.starrocks.common.Config;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.Util;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.ImageSections;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.mortbay.log.Log;
@@ -53,6 +54,7 @@ public class JournalWriter {
     public void init(long maxJournalId) throws JournalException {
         this.nextVisibleJournalId = maxJournalId + 1;
         this.journal.rollJournal(this.nextVisibleJournalId);
+        ImageSections.startTracking(this.nextVisibleJournalId);
     }
 
     public void startDaemon() {
@@ -85,6 +87,8 @@ public class JournalWriter {
             this.journal.batchWriteBegin();
 
             while (true) {
+                // mark before writing, so checkpoint never misses a change of the written journals
+                ImageSections.markDirty(currentJournal.getOpCode(), nextJournalId);
                 journal.batchWriteAppend(nextJournalId, currentJournal.getBuffer());
                 currentBatchTasks.add(currentJournal);
                 nextJournalId += 1;
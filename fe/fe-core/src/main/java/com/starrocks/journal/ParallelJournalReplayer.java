@@ -0,0 +1,133 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.AddPartitionsInfo;
+import com.starrocks.persist.DropPartitionInfo;
+import com.starrocks.persist.EditLog;
+import com.starrocks.persist.OperationType;
+import com.starrocks.persist.PartitionPersistInfo;
+import com.starrocks.persist.ReplicaPersistInfo;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Replay journals on several workers, the journals of a database are replayed by the same worker in order.
+ * <p>
+ * Only the frequent journals changing a single database, e.g. transaction states, replicas and partitions, are
+ * replayed by workers, and the replays of them take the lock of the database or the locks of the shared modules.
+ * Any other journal is a barrier: it is replayed by the caller after all the journals before it are replayed, so
+ * the journals of different databases may be replayed out of order only between two barriers.
+ * <p>
+ * Not thread safe, used by the replayer thread only.
+ */
+public class ParallelJournalReplayer {
+    private static final Logger LOG = LogManager.getLogger(ParallelJournalReplayer.class);
+
+    // the journals replayed by workers are reported at most after this number of them
+    private static final int MAX_PENDING_NUM = 1024;
+
+    private final ThreadPoolExecutor[] workers;
+    private final List<Future<?>> pendingReplays = new ArrayList<>();
+
+    public ParallelJournalReplayer(int numWorkers) {
+        workers = new ThreadPoolExecutor[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            // one thread per worker, to keep the order of the journals of a database
+            workers[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, MAX_PENDING_NUM,
+                    "journal-replayer-" + i, false);
+        }
+    }
+
+    /**
+     * Replay the journal, and return the number of journals replayed since the last call, including the journals
+     * submitted before. The journals are always replayed in order if counted this way.
+     */
+    public int replay(GlobalStateMgr globalStateMgr, JournalEntity entity) throws InterruptedException {
+        long dbId = getDbId(entity);
+        if (dbId < 0) {
+            int replayedNum = waitPendingReplays();
+            EditLog.loadJournal(globalStateMgr, entity);
+            return replayedNum + 1;
+        }
+
+        MetaContext metaContext = MetaContext.get();
+        ThreadPoolExecutor worker = workers[(int) (dbId % workers.length)];
+        pendingReplays.add(worker.submit(() -> {
+            if (metaContext != null) {
+                metaContext.setThreadLocalInfo();
+            }
+            try {
+                EditLog.loadJournal(globalStateMgr, entity);
+            } finally {
+                MetaContext.remove();
+            }
+        }));
+        if (pendingReplays.size() >= MAX_PENDING_NUM) {
+            return waitPendingReplays();
+        }
+        return 0;
+    }
+
+    /**
+     * Wait for the journals submitted to workers, and return the number of them.
+     */
+    public int waitPendingReplays() throws InterruptedException {
+        int replayedNum = pendingReplays.size();
+        try {
+            for (Future<?> replay : pendingReplays) {
+                replay.get();
+            }
+        } catch (ExecutionException e) {
+            // EditLog.loadJournal exits on failure, so this never happens unless something is really wrong
+            LOG.error("failed to replay journal", e);
+            throw new IllegalStateException("failed to replay journal", e.getCause());
+        } finally {
+            pendingReplays.clear();
+        }
+        return replayedNum;
+    }
+
+    /**
+     * The database changed by the journal if it can be replayed by workers, or -1 otherwise.
+     */
+    @VisibleForTesting
+    static long getDbId(JournalEntity entity) {
+        switch (entity.getOpCode()) {
+            case OperationType.OP_UPSERT_TRANSACTION_STATE:
+            case OperationType.OP_DELETE_TRANSACTION_STATE:
+                return ((TransactionState) entity.getData()).getDbId();
+            case OperationType.OP_ADD_REPLICA:
+            case OperationType.OP_UPDATE_REPLICA:
+            case OperationType.OP_DELETE_REPLICA:
+                return ((ReplicaPersistInfo) entity.getData()).getDbId();
+            case OperationType.OP_ADD_PARTITION:
+                return ((PartitionPersistInfo) entity.getData()).getDbId();
+            case OperationType.OP_ADD_PARTITIONS: {
+                long dbId = -1;
+                for (PartitionPersistInfo info : ((AddPartitionsInfo) entity.getData()).getAddPartitionInfos()) {
+                    if (dbId >= 0 && dbId != info.getDbId()) {
+                        return -1;
+                    }
+                    dbId = info.getDbId();
+                }
+                return dbId;
+            }
+            case OperationType.OP_DROP_PARTITION:
+                return ((DropPartitionInfo) entity.getData()).getDbId();
+            default:
+                return -1;
+        }
+    }
+}
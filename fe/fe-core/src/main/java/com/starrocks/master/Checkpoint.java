@@ -26,7 +26,9 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.util.MasterDaemon;
 import com.starrocks.journal.Journal;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.ImageSections;
 import com.starrocks.persist.MetaCleaner;
+import com.starrocks.persist.SectionedImage;
 import com.starrocks.persist.Storage;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Frontend;
@@ -34,10 +36,12 @@ import org.apache.commons.io.output.NullOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Checkpoint daemon is running on master node. handle the checkpoint work for starrocks.
@@ -51,6 +55,8 @@ public class Checkpoint extends MasterDaemon {
     private GlobalStateMgr globalStateMgr;
     private String imageDir;
     private Journal journal;
+    // the number of incremental checkpoints since the last full checkpoint
+    private int incrementalNum = 0;
 
     public Checkpoint(Journal journal) {
         super("leaderCheckpointer", FeConstants.checkpoint_interval_second * 1000L);
@@ -79,12 +85,26 @@ public class Checkpoint extends MasterDaemon {
         }
 
         long replayedJournalId = -1;
+        // only the sections changed since the current image are loaded, replayed and saved if possible
+        File baseImage = null;
+        Set<Integer> sectionIds = null;
+        try {
+            Set<Integer> dirtySections = getIncrementalSections(storage, imageVersion);
+            if (dirtySections != null) {
+                baseImage = storage.getCurrentImageFile();
+                sectionIds = ImageSections.getSectionsToLoad(dirtySections);
+            }
+        } catch (IOException e) {
+            LOG.warn("failed to check whether incremental checkpoint is possible, do full checkpoint", e);
+        }
+
         // generate new image file
-        LOG.info("begin to generate new image: image.{}", checkPointVersion);
+        LOG.info("begin to generate new image: image.{}, incremental: {}, sections: {}", checkPointVersion,
+                baseImage != null, sectionIds);
         globalStateMgr = GlobalStateMgr.getCurrentState();
         globalStateMgr.setJournal(journal);
         try {
-            globalStateMgr.loadImage(imageDir);
+            globalStateMgr.loadImage(imageDir, sectionIds);
             globalStateMgr.replayJournal(checkPointVersion);
             if (globalStateMgr.getReplayedJournalId() != checkPointVersion) {
                 LOG.error("checkpoint version should be {}, actual replayed journal id is {}",
@@ -94,7 +114,8 @@ public class Checkpoint extends MasterDaemon {
 
             globalStateMgr.clearExpiredJobs();
 
-            globalStateMgr.saveImage();
+            globalStateMgr.saveImage(baseImage, sectionIds);
+            incrementalNum = baseImage == null ? 0 : incrementalNum + 1;
             replayedJournalId = globalStateMgr.getReplayedJournalId();
             if (MetricRepo.isInit) {
                 MetricRepo.COUNTER_IMAGE_WRITE.increase(1L);
@@ -202,4 +223,19 @@ public class Checkpoint extends MasterDaemon {
         }
 
     }
+
+    /**
+     * The sections changed since the current image, if the next image can be made by changing only them.
+     * Return null if a full checkpoint is needed.
+     */
+    private Set<Integer> getIncrementalSections(Storage storage, long imageVersion) throws IOException {
+        if (Config.image_format_version < 2 || incrementalNum >= Config.checkpoint_max_incremental_num) {
+            return null;
+        }
+        File curFile = storage.getCurrentImageFile();
+        if (!curFile.exists() || !SectionedImage.isSectionedImage(curFile)) {
+            return null;
+        }
+        return ImageSections.getDirtySections(imageVersion);
+    }
 }
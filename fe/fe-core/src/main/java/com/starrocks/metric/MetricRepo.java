@@ -48,6 +48,7 @@ import com.starrocks.monitor.jvm.JvmService;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.proto.PKafkaOffsetProxyRequest;
 import com.starrocks.proto.PKafkaOffsetProxyResult;
+import com.starrocks.qe.MasterOpForwarder;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.system.Backend;
@@ -81,6 +82,8 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
+    public static LongCounterMetric COUNTER_QUERY_RETRY;
+    public static LongCounterMetric COUNTER_QUERY_RETRY_SUCCESS;
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
@@ -98,6 +101,9 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
 
     public static Histogram HISTO_QUERY_LATENCY;
+    public static Histogram HISTO_QUERY_RETRY_RECOVER_TIME;
+    public static Histogram HISTO_MASTER_OP_FORWARD_LATENCY;
+    public static Histogram HISTO_MASTER_OP_FORWARD_BATCH;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
@@ -205,6 +211,16 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(maxJournalId);
 
+        // statements waiting to be forwarded to master
+        GaugeMetric<Long> masterOpForwardQueueLen = new GaugeMetric<Long>(
+                "master_op_forward_queue_len", MetricUnit.NOUNIT, "statements waiting to be forwarded to master") {
+            @Override
+            public Long getValue() {
+                return (long) MasterOpForwarder.getInstance().getQueueLength();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(masterOpForwardQueueLen);
+
         // meta log total count
         GaugeMetric<Long> metaLogCount = new GaugeMetric<Long>(
                 "meta_log_count", MetricUnit.NOUNIT, "meta log total count") {
@@ -325,6 +341,12 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_SUCCESS);
         COUNTER_SLOW_QUERY = new LongCounterMetric("slow_query", MetricUnit.REQUESTS, "total slow query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
+        COUNTER_QUERY_RETRY = new LongCounterMetric("query_retry", MetricUnit.REQUESTS,
+                "total retries of queries failed on backends");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RETRY);
+        COUNTER_QUERY_RETRY_SUCCESS = new LongCounterMetric("query_retry_success", MetricUnit.REQUESTS,
+                "total queries succeeded after retry");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RETRY_SUCCESS);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
@@ -370,6 +392,12 @@ public final class MetricRepo {
 
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
+        HISTO_QUERY_RETRY_RECOVER_TIME =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "retry", "recover", "ms"));
+        HISTO_MASTER_OP_FORWARD_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("master_op", "forward", "latency", "ms"));
+        HISTO_MASTER_OP_FORWARD_BATCH =
+                METRIC_REGISTER.histogram(MetricRegistry.name("master_op", "forward", "batch"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
         HISTO_JOURNAL_WRITE_LATENCY =
@@ -23,12 +23,18 @@ public class ResourceGroupMetricMgr {
     private static final String QUERY_RESOURCE_GROUP = "query_resource_group";
     private static final String QUERY_RESOURCE_GROUP_LATENCY = "query_resource_group_latency";
     private static final String QUERY_RESOURCE_GROUP_ERR = "query_resource_group_err";
+    private static final String QUERY_RESOURCE_GROUP_QUEUE_PENDING = "query_resource_group_queue_pending";
+    private static final String QUERY_RESOURCE_GROUP_QUEUE_WAIT = "query_resource_group_queue_wait";
     private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_COUNTER_MAP
             = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, QueryResourceGroupLatencyMetrics> RESOURCE_GROUP_QUERY_LATENCY_MAP
             = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_ERR_COUNTER_MAP
             = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, GaugeMetricImpl<Long>> RESOURCE_GROUP_QUEUE_PENDING_MAP
+            = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, QueryResourceGroupLatencyMetrics> RESOURCE_GROUP_QUEUE_WAIT_MAP
+            = new ConcurrentHashMap<>();
 
     //starrocks_fe_query_resource_group
     public static void increaseQuery(ConnectContext ctx, Long num) {
@@ -55,6 +61,30 @@ public class ResourceGroupMetricMgr {
             QueryResourceGroupLatencyMetrics metrics = RESOURCE_GROUP_QUERY_LATENCY_MAP.get(resourceGroupName);
             metrics.update();
         }
+        for (QueryResourceGroupLatencyMetrics metrics : RESOURCE_GROUP_QUEUE_WAIT_MAP.values()) {
+            metrics.update();
+        }
+    }
+
+    //starrocks_fe_query_resource_group_queue_pending
+    public static void setQueryQueuePending(String resourceGroupName, long num) {
+        GaugeMetricImpl<Long> metric = RESOURCE_GROUP_QUEUE_PENDING_MAP.computeIfAbsent(resourceGroupName, name -> {
+            GaugeMetricImpl<Long> gauge = new GaugeMetricImpl<>(QUERY_RESOURCE_GROUP_QUEUE_PENDING,
+                    Metric.MetricUnit.REQUESTS, "pending queries of resource group in query queue");
+            gauge.addLabel(new MetricLabel("name", name));
+            gauge.setValue(0L);
+            MetricRepo.addMetric(gauge);
+            LOG.info("Add {} metric, resource group name is {}", QUERY_RESOURCE_GROUP_QUEUE_PENDING, name);
+            return gauge;
+        });
+        metric.setValue(num);
+    }
+
+    //starrocks_fe_query_resource_group_queue_wait
+    public static void updateQueryQueueWaitTime(String resourceGroupName, long waitMs) {
+        RESOURCE_GROUP_QUEUE_WAIT_MAP.computeIfAbsent(resourceGroupName,
+                name -> new QueryResourceGroupLatencyMetrics(QUERY_RESOURCE_GROUP_QUEUE_WAIT, name))
+                .histogram.update(waitMs);
     }
 
     //starrocks_fe_query_resource_group_latency
@@ -134,7 +164,7 @@ public class ResourceGroupMetricMgr {
                 metrics.addLabel(new MetricLabel("name", resourceGroupName));
                 metrics.setValue(0.0);
                 MetricRepo.addMetric(metrics);
-                LOG.info("Add {} metric, resource group name is {}", QUERY_RESOURCE_GROUP_LATENCY, resourceGroupName);
+                LOG.info("Add {} metric, resource group name is {}", metricsName, resourceGroupName);
                 this.metricsList.add(metrics);
             }
         }
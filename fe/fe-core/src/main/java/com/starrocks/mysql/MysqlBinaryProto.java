@@ -0,0 +1,299 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encode and decode values of the MySQL binary protocol, which is used by prepared statements.
+ * https://dev.mysql.com/doc/internals/en/binary-protocol-value.html
+ * <p>
+ * Parameters of COM_STMT_EXECUTE are decoded into SQL literals, so the bound statement can be
+ * handled the same way as a COM_QUERY statement. Result rows from BE are always in text protocol,
+ * they are re-encoded into binary protocol rows before sending to client.
+ */
+public class MysqlBinaryProto {
+    // first byte of a NULL value in text protocol row
+    private static final int TEXT_NULL = 0xFB;
+    // the first 2 bits of the null bitmap are reserved in binary protocol row
+    private static final int ROW_NULL_BITMAP_OFFSET = 2;
+
+    private MysqlBinaryProto() {
+    }
+
+    /**
+     * Read one parameter value of COM_STMT_EXECUTE and convert it to a SQL literal.
+     */
+    public static String readParameter(ByteBuffer buffer, MysqlColType type, boolean unsigned) {
+        switch (type) {
+            case MYSQL_TYPE_NULL:
+                return "NULL";
+            case MYSQL_TYPE_TINY: {
+                int value = MysqlProto.readInt1(buffer);
+                return String.valueOf(unsigned ? value : (byte) value);
+            }
+            case MYSQL_TYPE_SHORT:
+            case MYSQL_TYPE_YEAR: {
+                int value = MysqlProto.readInt2(buffer);
+                return String.valueOf(unsigned ? value : (short) value);
+            }
+            case MYSQL_TYPE_LONG:
+            case MYSQL_TYPE_INT24: {
+                int value = MysqlProto.readInt4(buffer);
+                return unsigned ? String.valueOf(value & 0XFFFFFFFFL) : String.valueOf(value);
+            }
+            case MYSQL_TYPE_LONGLONG: {
+                long value = MysqlProto.readInt8(buffer);
+                return unsigned ? Long.toUnsignedString(value) : String.valueOf(value);
+            }
+            case MYSQL_TYPE_FLOAT:
+                return toNumericLiteral(Float.intBitsToFloat(MysqlProto.readInt4(buffer)));
+            case MYSQL_TYPE_DOUBLE:
+                return toNumericLiteral(Double.longBitsToDouble(MysqlProto.readInt8(buffer)));
+            case MYSQL_TYPE_DATE:
+            case MYSQL_TYPE_DATETIME:
+            case MYSQL_TYPE_TIMESTAMP:
+                return toStringLiteral(readDateTime(buffer, type == MysqlColType.MYSQL_TYPE_DATE));
+            case MYSQL_TYPE_TIME:
+                return toStringLiteral(readTime(buffer));
+            case MYSQL_TYPE_DECIMAL:
+            case MYSQL_TYPE_NEWDECIMAL: {
+                String value = new String(MysqlProto.readLenEncodedString(buffer), StandardCharsets.UTF_8);
+                return isDecimal(value) ? value : toStringLiteral(value);
+            }
+            default:
+                // all string and blob types are length encoded strings
+                return toStringLiteral(MysqlProto.readLenEncodedString(buffer));
+        }
+    }
+
+    public static String toStringLiteral(byte[] value) {
+        return toStringLiteral(new String(value, StandardCharsets.UTF_8));
+    }
+
+    public static String toStringLiteral(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\'':
+                    sb.append("\\'");
+                    break;
+                case '\0':
+                    sb.append("\\0");
+                    break;
+                default:
+                    sb.append(c);
+                    break;
+            }
+        }
+        sb.append('\'');
+        return sb.toString();
+    }
+
+    private static String toNumericLiteral(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return toStringLiteral(String.valueOf(value));
+        }
+        return String.valueOf(value);
+    }
+
+    private static boolean isDecimal(String value) {
+        return !value.isEmpty() && value.matches("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+    }
+
+    private static String readDateTime(ByteBuffer buffer, boolean isDate) {
+        int length = MysqlProto.readInt1(buffer);
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int microSecond = 0;
+        if (length >= 4) {
+            year = MysqlProto.readInt2(buffer);
+            month = MysqlProto.readInt1(buffer);
+            day = MysqlProto.readInt1(buffer);
+        }
+        if (length >= 7) {
+            hour = MysqlProto.readInt1(buffer);
+            minute = MysqlProto.readInt1(buffer);
+            second = MysqlProto.readInt1(buffer);
+        }
+        if (length >= 11) {
+            microSecond = MysqlProto.readInt4(buffer);
+        }
+        if (isDate) {
+            return String.format("%04d-%02d-%02d", year, month, day);
+        }
+        if (microSecond > 0) {
+            return String.format("%04d-%02d-%02d %02d:%02d:%02d.%06d",
+                    year, month, day, hour, minute, second, microSecond);
+        }
+        return String.format("%04d-%02d-%02d %02d:%02d:%02d", year, month, day, hour, minute, second);
+    }
+
+    private static String readTime(ByteBuffer buffer) {
+        int length = MysqlProto.readInt1(buffer);
+        boolean negative = false;
+        long hours = 0;
+        int minute = 0;
+        int second = 0;
+        int microSecond = 0;
+        if (length >= 8) {
+            negative = MysqlProto.readInt1(buffer) == 1;
+            hours = (MysqlProto.readInt4(buffer) & 0XFFFFFFFFL) * 24;
+            hours += MysqlProto.readInt1(buffer);
+            minute = MysqlProto.readInt1(buffer);
+            second = MysqlProto.readInt1(buffer);
+        }
+        if (length >= 12) {
+            microSecond = MysqlProto.readInt4(buffer);
+        }
+        String time = String.format("%s%02d:%02d:%02d", negative ? "-" : "", hours, minute, second);
+        return microSecond > 0 ? String.format("%s.%06d", time, microSecond) : time;
+    }
+
+    /**
+     * Convert one text protocol result row into a binary protocol result row.
+     * https://dev.mysql.com/doc/internals/en/binary-protocol-resultset-row.html
+     */
+    public static void writeBinaryRow(MysqlSerializer serializer, ByteBuffer textRow, List<MysqlColType> types) {
+        ByteBuffer row = textRow.duplicate();
+        byte[][] values = new byte[types.size()][];
+        byte[] nullBitmap = new byte[(types.size() + 7 + ROW_NULL_BITMAP_OFFSET) / 8];
+        for (int i = 0; i < types.size(); i++) {
+            if ((row.get(row.position()) & 0XFF) == TEXT_NULL) {
+                row.get();
+                int bit = i + ROW_NULL_BITMAP_OFFSET;
+                nullBitmap[bit / 8] |= (byte) (1 << (bit % 8));
+            } else {
+                values[i] = MysqlProto.readLenEncodedString(row);
+            }
+        }
+
+        serializer.writeInt1(0X00);
+        serializer.writeBytes(nullBitmap);
+        for (int i = 0; i < types.size(); i++) {
+            if (values[i] != null) {
+                writeBinaryValue(serializer, values[i], types.get(i));
+            }
+        }
+    }
+
+    private static void writeBinaryValue(MysqlSerializer serializer, byte[] value, MysqlColType type) {
+        String text;
+        switch (type) {
+            case MYSQL_TYPE_TINY:
+                serializer.writeInt1(Integer.parseInt(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case MYSQL_TYPE_SHORT:
+            case MYSQL_TYPE_YEAR:
+                serializer.writeInt2(Integer.parseInt(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case MYSQL_TYPE_LONG:
+            case MYSQL_TYPE_INT24:
+                serializer.writeInt4(Integer.parseInt(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case MYSQL_TYPE_LONGLONG:
+                serializer.writeInt8(Long.parseLong(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case MYSQL_TYPE_FLOAT:
+                text = new String(value, StandardCharsets.UTF_8);
+                serializer.writeInt4(Float.floatToIntBits((float) parseDouble(text)));
+                break;
+            case MYSQL_TYPE_DOUBLE:
+                text = new String(value, StandardCharsets.UTF_8);
+                serializer.writeInt8(Double.doubleToLongBits(parseDouble(text)));
+                break;
+            case MYSQL_TYPE_DATE:
+            case MYSQL_TYPE_DATETIME:
+            case MYSQL_TYPE_TIMESTAMP:
+                writeDateTime(serializer, new String(value, StandardCharsets.UTF_8));
+                break;
+            case MYSQL_TYPE_TIME:
+                writeTime(serializer, new String(value, StandardCharsets.UTF_8));
+                break;
+            default:
+                serializer.writeVInt(value.length);
+                serializer.writeBytes(value);
+                break;
+        }
+    }
+
+    public static double parseDouble(String text) {
+        switch (text.toLowerCase()) {
+            case "inf":
+            case "infinity":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+            case "-infinity":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(text);
+        }
+    }
+
+    // yyyy-MM-dd[ HH:mm:ss[.ffffff]]
+    private static void writeDateTime(MysqlSerializer serializer, String text) {
+        int year = Integer.parseInt(text.substring(0, 4));
+        int month = Integer.parseInt(text.substring(5, 7));
+        int day = Integer.parseInt(text.substring(8, 10));
+        if (text.length() < 19) {
+            serializer.writeInt1(4);
+            serializer.writeInt2(year);
+            serializer.writeInt1(month);
+            serializer.writeInt1(day);
+            return;
+        }
+        int microSecond = text.length() > 20 ? parseMicroSecond(text.substring(20)) : 0;
+        serializer.writeInt1(microSecond > 0 ? 11 : 7);
+        serializer.writeInt2(year);
+        serializer.writeInt1(month);
+        serializer.writeInt1(day);
+        serializer.writeInt1(Integer.parseInt(text.substring(11, 13)));
+        serializer.writeInt1(Integer.parseInt(text.substring(14, 16)));
+        serializer.writeInt1(Integer.parseInt(text.substring(17, 19)));
+        if (microSecond > 0) {
+            serializer.writeInt4(microSecond);
+        }
+    }
+
+    // [-]HH:mm:ss[.ffffff], hours may be larger than 24
+    private static void writeTime(MysqlSerializer serializer, String text) {
+        boolean negative = text.startsWith("-");
+        String[] parts = (negative ? text.substring(1) : text).split(":");
+        long hours = Long.parseLong(parts[0]);
+        int minute = Integer.parseInt(parts[1]);
+        String[] secondParts = parts[2].split("\\.");
+        int second = Integer.parseInt(secondParts[0]);
+        int microSecond = secondParts.length > 1 ? parseMicroSecond(secondParts[1]) : 0;
+
+        serializer.writeInt1(microSecond > 0 ? 12 : 8);
+        serializer.writeInt1(negative ? 1 : 0);
+        serializer.writeInt4((int) (hours / 24));
+        serializer.writeInt1((int) (hours % 24));
+        serializer.writeInt1(minute);
+        serializer.writeInt1(second);
+        if (microSecond > 0) {
+            serializer.writeInt4(microSecond);
+        }
+    }
+
+    private static int parseMicroSecond(String fraction) {
+        StringBuilder sb = new StringBuilder(fraction.length() > 6 ? fraction.substring(0, 6) : fraction);
+        while (sb.length() < 6) {
+            sb.append('0');
+        }
+        return Integer.parseInt(sb.toString());
+    }
+}
@@ -28,11 +28,19 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * This class used to read/write MySQL logical packet.
  * MySQL protocol will split one logical packet more than 16MB to many packets.
  * http://dev.mysql.com/doc/internals/en/sending-more-than-16mbyte.html
+ * <p>
+ * If CLIENT_COMPRESS is negotiated, the stream of packets after authentication is sent in compressed packets,
+ * each is a 7 bytes header of the compressed length, the compressed sequence id and the uncompressed length,
+ * followed by the zlib compressed data. A compressed packet may hold several packets or a part of a packet.
+ * https://dev.mysql.com/doc/internals/en/compressed-packet-header.html
  */
 public class MysqlChannel {
     // max length which one MySQL physical can hold, if one logical packet is bigger than this,
@@ -41,6 +49,11 @@ public class MysqlChannel {
     // MySQL packet header length
     protected static final int PACKET_HEADER_LEN = 4;
     protected static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    // the min size of the send buffer, which is the size allocated for most of the commands
+    protected static final int MIN_SEND_BUFFER_SIZE = 256 * 1024;
+    protected static final int COMPRESSED_PACKET_HEADER_LEN = 7;
+    // the data shorter than this is not worth compressing, sent as is with 0 uncompressed length
+    protected static final int MIN_COMPRESS_LENGTH = 50;
     // logger for this class
     protected static final Logger LOG = LogManager.getLogger(MysqlChannel.class);
     // next sequence id to receive or send
@@ -56,6 +69,12 @@ public class MysqlChannel {
     protected String remoteHostPortString;
     protected String remoteIp;
     protected boolean isSend;
+    // whether the compressed protocol is used
+    protected boolean isCompressed = false;
+    // next sequence id of the compressed packet to send
+    protected int compressedSequenceId;
+    // the decompressed data received but not consumed yet
+    private ByteBuffer decompressedBuffer;
 
     protected MysqlChannel() {
         this.sequenceId = 0;
@@ -136,6 +155,146 @@ public class MysqlChannel {
         return readLen;
     }
 
+    public boolean isCompressed() {
+        return isCompressed;
+    }
+
+    // Must be called between two packets, i.e. after the OK packet of authentication is sent
+    public void setCompressed(boolean isCompressed) {
+        this.isCompressed = isCompressed;
+    }
+
+    /**
+     * Whether there is data received but not consumed yet, i.e. the rest of a compressed packet holding several
+     * packets. It is not notified by the read event of the connection, so it should be processed before waiting
+     * for the next read event.
+     */
+    public boolean hasBufferedData() {
+        return decompressedBuffer != null && decompressedBuffer.remaining() != 0;
+    }
+
+    // read until dstBuf is filled, from the compressed packets if compressed
+    private int readPacketData(ByteBuffer dstBuf) throws IOException {
+        if (!isCompressed) {
+            return readAll(dstBuf);
+        }
+        int readLen = 0;
+        while (dstBuf.remaining() != 0) {
+            if ((decompressedBuffer == null || decompressedBuffer.remaining() == 0) && !readCompressedPacket()) {
+                return readLen;
+            }
+            int len = Math.min(dstBuf.remaining(), decompressedBuffer.remaining());
+            dstBuf.put(decompressedBuffer.array(), decompressedBuffer.position(), len);
+            decompressedBuffer.position(decompressedBuffer.position() + len);
+            readLen += len;
+        }
+        return readLen;
+    }
+
+    // read one compressed packet to decompressedBuffer, false if the channel is closed
+    private boolean readCompressedPacket() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(COMPRESSED_PACKET_HEADER_LEN);
+        if (readAll(header) != COMPRESSED_PACKET_HEADER_LEN) {
+            return false;
+        }
+        byte[] headerBytes = header.array();
+        int compressedLen = readInt3(headerBytes, 0);
+        // the response follows the sequence id of the request
+        compressedSequenceId = ((headerBytes[3] & 0xFF) + 1) & 0xFF;
+        int uncompressedLen = readInt3(headerBytes, 4);
+
+        ByteBuffer payload = ByteBuffer.allocate(compressedLen);
+        if (readAll(payload) != compressedLen) {
+            return false;
+        }
+        if (uncompressedLen == 0) {
+            payload.flip();
+            decompressedBuffer = payload;
+            return true;
+        }
+
+        byte[] decompressed = new byte[uncompressedLen];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload.array(), 0, compressedLen);
+            int len = 0;
+            while (len < uncompressedLen && !inflater.finished() && !inflater.needsInput()) {
+                len += inflater.inflate(decompressed, len, uncompressedLen - len);
+            }
+            if (len != uncompressedLen) {
+                throw new IOException("Bad compressed packet, the uncompressed length is " + len +
+                        ", expect " + uncompressedLen);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bad compressed packet", e);
+        } finally {
+            inflater.end();
+        }
+        decompressedBuffer = ByteBuffer.wrap(decompressed);
+        return true;
+    }
+
+    // send the data, in compressed packets if compressed
+    private void netSend(ByteBuffer buffer) throws IOException {
+        if (!isCompressed) {
+            realNetSend(buffer);
+            return;
+        }
+        while (buffer.remaining() != 0) {
+            int len = Math.min(buffer.remaining(), MAX_PHYSICAL_PACKET_LENGTH);
+            byte[] data = new byte[len];
+            buffer.get(data);
+            realNetSend(compressPacket(data));
+        }
+    }
+
+    private ByteBuffer compressPacket(byte[] data) {
+        byte[] packet = null;
+        int compressedLen = 0;
+        if (data.length >= MIN_COMPRESS_LENGTH) {
+            // favor speed, the result sets may be large
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+                // give up if the compressed data is not smaller
+                packet = new byte[COMPRESSED_PACKET_HEADER_LEN + data.length];
+                while (!deflater.finished() && compressedLen < data.length) {
+                    compressedLen += deflater.deflate(packet, COMPRESSED_PACKET_HEADER_LEN + compressedLen,
+                            data.length - compressedLen);
+                }
+                if (!deflater.finished()) {
+                    packet = null;
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+
+        int uncompressedLen = data.length;
+        if (packet == null) {
+            packet = new byte[COMPRESSED_PACKET_HEADER_LEN + data.length];
+            System.arraycopy(data, 0, packet, COMPRESSED_PACKET_HEADER_LEN, data.length);
+            compressedLen = data.length;
+            uncompressedLen = 0;
+        }
+        writeInt3(packet, 0, compressedLen);
+        packet[3] = (byte) compressedSequenceId;
+        compressedSequenceId = (compressedSequenceId + 1) & 0xFF;
+        writeInt3(packet, 4, uncompressedLen);
+        return ByteBuffer.wrap(packet, 0, COMPRESSED_PACKET_HEADER_LEN + compressedLen);
+    }
+
+    private static int readInt3(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8) | ((bytes[offset + 2] & 0xFF) << 16);
+    }
+
+    private static void writeInt3(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >> 8);
+        bytes[offset + 2] = (byte) (value >> 16);
+    }
+
     // read one logical mysql protocol packet
     // null for channel is closed.
     // NOTE: all of the following code is assumed that the channel is in block mode.
@@ -146,7 +305,7 @@ public class MysqlChannel {
 
         while (true) {
             headerByteBuffer.clear();
-            readLen = readAll(headerByteBuffer);
+            readLen = readPacketData(headerByteBuffer);
             if (readLen != PACKET_HEADER_LEN) {
                 // remote has close this channel
                 LOG.info("Receive packet header failed, remote {} may close the channel.", remoteHostPortString);
@@ -174,7 +333,7 @@ public class MysqlChannel {
             // read one physical packet
             // before read, set limit to make read only one packet
             result.limit(result.position() + packetLen);
-            readLen = readAll(result);
+            readLen = readPacketData(result);
             if (readLen != packetLen) {
                 LOG.warn("Length of received packet content(" + readLen
                         + ") is not equal with length in head.(" + packetLen + ")");
@@ -208,7 +367,7 @@ public class MysqlChannel {
 
         sendBuffer.flip();
         try {
-            realNetSend(sendBuffer);
+            netSend(sendBuffer);
         } finally {
             sendBuffer.clear();
         }
@@ -220,7 +379,7 @@ public class MysqlChannel {
         if (this.sendBuffer == null) {
             // The buffer size shouldn't too large or shouldn't too small
             bufferSize = Math.min(bufferSize, 2 * 1024 * 1024);
-            bufferSize = Math.max(bufferSize, 256 * 1024);
+            bufferSize = Math.max(bufferSize, MIN_SEND_BUFFER_SIZE);
             this.sendBuffer = ByteBuffer.allocate(bufferSize);
         }
     }
@@ -229,6 +388,11 @@ public class MysqlChannel {
         return this.sendBuffer == null;
     }
 
+    // Release the send buffer, it's allocated again by the next packet. The buffered data must be flushed before.
+    public void releaseSendBuffer() {
+        this.sendBuffer = null;
+    }
+
     private void writeHeader(int length) throws IOException {
         long leftLength = sendBuffer.capacity() - sendBuffer.position();
         if (leftLength < 4) {
@@ -251,7 +415,7 @@ public class MysqlChannel {
         }
         // Send this buffer if large enough
         if (buffer.remaining() > sendBuffer.remaining()) {
-            realNetSend(buffer);
+            netSend(buffer);
             return;
         }
         // Put it to
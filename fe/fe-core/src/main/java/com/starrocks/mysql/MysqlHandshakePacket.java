@@ -42,8 +42,6 @@ public class MysqlHandshakePacket extends MysqlPacket {
     private static final String SERVER_VERSION = "5.1.0";
     // 33 stands for UTF-8 character set
     private static final int CHARACTER_SET = 33;
-    // use default capability for all
-    private static final MysqlCapability CAPABILITY = MysqlCapability.DEFAULT_CAPABILITY;
     // status flags not supported in StarRocks
     private static final int STATUS_FLAGS = 0;
     private static final String NATIVE_AUTH_PLUGIN_NAME = "mysql_native_password";
@@ -58,10 +56,18 @@ public class MysqlHandshakePacket extends MysqlPacket {
     // connection id used in KILL statement.
     private int connectionId;
     private byte[] authPluginData;
+    // use default capability for all, and compression if enabled
+    private final MysqlCapability capability;
 
     public MysqlHandshakePacket(int connectionId) {
         this.connectionId = connectionId;
         authPluginData = MysqlPassword.createRandomString(SCRAMBLE_LENGTH);
+        capability = Config.enable_mysql_protocol_compression ? MysqlCapability.COMPRESS_CAPABILITY
+                : MysqlCapability.DEFAULT_CAPABILITY;
+    }
+
+    public MysqlCapability getCapability() {
+        return capability;
     }
 
     public byte[] getAuthPluginData() {
@@ -70,8 +76,6 @@ public class MysqlHandshakePacket extends MysqlPacket {
 
     @Override
     public void writeTo(MysqlSerializer serializer) {
-        MysqlCapability capability = CAPABILITY;
-
         serializer.writeInt1(PROTOCOL_VERSION);
         serializer.writeNulTerminateString(SERVER_VERSION);
         serializer.writeInt4(connectionId);
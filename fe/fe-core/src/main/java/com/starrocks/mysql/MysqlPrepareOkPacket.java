@@ -0,0 +1,32 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+// MySQL protocol COM_STMT_PREPARE_OK packet
+// https://dev.mysql.com/doc/internals/en/com-stmt-prepare-response.html
+public class MysqlPrepareOkPacket extends MysqlPacket {
+    private static final int PACKET_OK_INDICATOR = 0X00;
+
+    private final int statementId;
+    private final int numColumns;
+    private final int numParams;
+    private final int warningRows;
+
+    public MysqlPrepareOkPacket(int statementId, int numColumns, int numParams, int warningRows) {
+        this.statementId = statementId;
+        this.numColumns = numColumns;
+        this.numParams = numParams;
+        this.warningRows = warningRows;
+    }
+
+    @Override
+    public void writeTo(MysqlSerializer serializer) {
+        serializer.writeInt1(PACKET_OK_INDICATOR);
+        serializer.writeInt4(statementId);
+        serializer.writeInt2(numColumns);
+        serializer.writeInt2(numParams);
+        // reserved filler
+        serializer.writeInt1(0);
+        serializer.writeInt2(warningRows);
+    }
+}
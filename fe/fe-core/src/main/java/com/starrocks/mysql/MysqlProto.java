@@ -93,6 +93,13 @@ public class MysqlProto {
         channel.sendAndFlush(serializer.toByteBuffer());
     }
 
+    // Use the compressed protocol if negotiated, must be called after the OK packet of authentication is sent
+    public static void startCompression(ConnectContext context) {
+        if (context.getCapability().isCompress()) {
+            context.getMysqlChannel().setCompressed(true);
+        }
+    }
+
     /**
      * negotiate with client, use MySQL protocol
      * server ---handshake---> client
@@ -178,7 +185,12 @@ public class MysqlProto {
         }
 
         // change the capability of serializer
-        context.setCapability(context.getServerCapability());
+        MysqlCapability capability = context.getServerCapability();
+        if (handshakePacket.getCapability().isCompress() && authPacket.getCapability().isCompress()) {
+            // the packets are compressed after the OK packet of authentication, see startCompression
+            capability = new MysqlCapability(capability.getFlags() | MysqlCapability.Flag.CLIENT_COMPRESS.getFlagBit());
+        }
+        context.setCapability(capability);
         serializer.setCapability(context.getCapability());
 
         // NOTE: when we behind proxy, we need random string sent by proxy.
@@ -70,6 +70,7 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                         }
                         if (connectScheduler.registerConnection(context)) {
                             MysqlProto.sendResponsePacket(context);
+                            MysqlProto.startCompression(context);
                             connection.setCloseListener(
                                     streamConnection -> connectScheduler.unregisterConnection(context));
                         } else {
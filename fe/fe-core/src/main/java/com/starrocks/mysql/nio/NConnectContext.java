@@ -44,6 +44,12 @@ public class NConnectContext extends ConnectContext {
         returnRows = 0;
     }
 
+    @Override
+    public void checkTimeout(long now) {
+        super.checkTimeout(now);
+        mysqlChannel.releaseSendBufferIfIdle(now);
+    }
+
     @Override
     public NMysqlChannel getMysqlChannel() {
         return mysqlChannel;
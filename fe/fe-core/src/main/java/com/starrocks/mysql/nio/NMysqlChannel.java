@@ -16,6 +16,7 @@
 // under the License.
 package com.starrocks.mysql.nio;
 
+import com.starrocks.common.Config;
 import com.starrocks.mysql.MysqlChannel;
 import com.starrocks.qe.ConnectProcessor;
 import org.apache.logging.log4j.LogManager;
@@ -26,13 +27,21 @@ import org.xnio.channels.Channels;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 /**
  * mysql Channel based on nio.
  */
 public class NMysqlChannel extends MysqlChannel {
     protected static final Logger LOG = LogManager.getLogger(NMysqlChannel.class);
+    // the send buffer of a connection idle for this time is released
+    private static final long IDLE_SEND_BUFFER_RELEASE_MS = 10 * 1000L;
+
     private StreamConnection conn;
+    // whether a task thread is using the channel, it's the handshake at first. Guarded by this
+    private boolean processing = true;
+    // the time when the last command is finished. Guarded by this
+    private long idleSinceMs = System.currentTimeMillis();
 
     public NMysqlChannel(StreamConnection connection) {
         super();
@@ -50,7 +59,8 @@ public class NMysqlChannel extends MysqlChannel {
 
     /**
      * read packet until whole dstBuf is filled, unless block.
-     * Todo: find a better way to avoid block read here.
+     * The read blocks a task thread, so it fails if the client doesn't send the data in
+     * mysql_nio_read_timeout_second, e.g. a client stalls in the handshake or in the middle of a packet.
      *
      * @param dstBuf
      * @return
@@ -59,8 +69,20 @@ public class NMysqlChannel extends MysqlChannel {
     @Override
     protected int readAll(ByteBuffer dstBuf) throws IOException {
         int readLen = 0;
+        long timeoutMs = Config.mysql_nio_read_timeout_second * 1000L;
+        long deadlineMs = System.currentTimeMillis() + timeoutMs;
         while (dstBuf.remaining() != 0) {
-            int ret = Channels.readBlocking(conn.getSourceChannel(), dstBuf);
+            int ret;
+            if (timeoutMs > 0) {
+                long waitMs = deadlineMs - System.currentTimeMillis();
+                if (waitMs <= 0) {
+                    throw new IOException("Read from " + remoteHostPortString + " timeout after " +
+                            Config.mysql_nio_read_timeout_second + " seconds");
+                }
+                ret = Channels.readBlocking(conn.getSourceChannel(), dstBuf, waitMs, TimeUnit.MILLISECONDS);
+            } else {
+                ret = Channels.readBlocking(conn.getSourceChannel(), dstBuf);
+            }
             // return -1 when remote peer close the channel
             if (ret == -1) {
                 return readLen;
@@ -97,7 +119,37 @@ public class NMysqlChannel extends MysqlChannel {
         }
     }
 
+    /**
+     * Called before a task thread processes the commands of the connection, after which the send buffer is not
+     * released by {@link #releaseSendBufferIfIdle(long)}.
+     */
+    public synchronized void startProcessing() {
+        processing = true;
+    }
+
+    /**
+     * Called after a task thread processes the commands of the connection. The send buffer larger than the one
+     * allocated for most commands is for a large result set, which is released at once.
+     */
+    public synchronized void finishProcessing() {
+        processing = false;
+        idleSinceMs = System.currentTimeMillis();
+        if (sendBuffer != null && sendBuffer.capacity() > MIN_SEND_BUFFER_SIZE) {
+            releaseSendBuffer();
+        }
+    }
+
+    /**
+     * Release the send buffer if the connection has been idle for a while, so idle connections hold no buffer.
+     */
+    public synchronized void releaseSendBufferIfIdle(long nowMs) {
+        if (!processing && sendBuffer != null && nowMs - idleSinceMs >= IDLE_SEND_BUFFER_RELEASE_MS) {
+            releaseSendBuffer();
+        }
+    }
+
     public void startAcceptQuery(NConnectContext nConnectContext, ConnectProcessor connectProcessor) {
+        finishProcessing();
         conn.getSourceChannel().setReadListener(new ReadListener(nConnectContext, connectProcessor));
         conn.getSourceChannel().resumeReads();
     }
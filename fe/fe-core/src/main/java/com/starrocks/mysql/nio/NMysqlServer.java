@@ -50,8 +50,10 @@ public class NMysqlServer extends MysqlServer {
     private AcceptingChannel<StreamConnection> server;
 
     // default task service.
+    // A task thread is taken only when a command of the connection is being processed, the commands are queued
+    // rather than discarded when all threads are busy, otherwise the connection would never be read again.
     private ExecutorService taskService = ThreadPoolManager
-            .newDaemonCacheThreadPool(Config.max_mysql_service_task_threads_num, "starrocks-mysql-nio-pool", true);
+            .newDaemonElasticThreadPool(Config.max_mysql_service_task_threads_num, "starrocks-mysql-nio-pool", true);
 
     public NMysqlServer(int port, ConnectScheduler connectScheduler) {
         this.port = port;
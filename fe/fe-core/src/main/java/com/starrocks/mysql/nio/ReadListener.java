@@ -51,8 +51,15 @@ public class ReadListener implements ChannelListener<ConduitStreamSourceChannel>
         try {
             channel.getWorker().execute(() -> {
                 ctx.setThreadLocalInfo();
+                ctx.getMysqlChannel().startProcessing();
                 try {
                     connectProcessor.processOnce();
+                    // the commands already received in a compressed packet don't trigger read events
+                    while (!ctx.isKilled() && ctx.getMysqlChannel().hasBufferedData()) {
+                        connectProcessor.processOnce();
+                    }
+                    // no thread is held by the connection until the next command arrives
+                    ctx.getMysqlChannel().finishProcessing();
                     if (!ctx.isKilled()) {
                         ctx.resumeAcceptQuery();
                     } else {
@@ -74,6 +74,7 @@ import com.starrocks.statistic.AnalyzeJob;
 import com.starrocks.statistic.AnalyzeStatus;
 import com.starrocks.statistic.BasicStatsMeta;
 import com.starrocks.statistic.HistogramStatsMeta;
+import com.starrocks.statistic.MultiColumnStatsMeta;
 import com.starrocks.system.Backend;
 import com.starrocks.system.ComputeNode;
 import com.starrocks.system.Frontend;
@@ -844,6 +845,16 @@ public class EditLog {
                     globalStateMgr.getAnalyzeManager().replayAddHistogramStatsMeta(histogramStatsMeta);
                     break;
                 }
+                case OperationType.OP_ADD_MULTI_COLUMN_STATS_META: {
+                    MultiColumnStatsMeta multiColumnStatsMeta = (MultiColumnStatsMeta) journal.getData();
+                    globalStateMgr.getAnalyzeManager().replayAddMultiColumnStatsMeta(multiColumnStatsMeta);
+                    break;
+                }
+                case OperationType.OP_REMOVE_MULTI_COLUMN_STATS_META: {
+                    MultiColumnStatsMeta multiColumnStatsMeta = (MultiColumnStatsMeta) journal.getData();
+                    globalStateMgr.getAnalyzeManager().replayRemoveMultiColumnStatsMeta(multiColumnStatsMeta);
+                    break;
+                }
                 case OperationType.OP_MODIFY_HIVE_TABLE_COLUMN: {
                     ModifyTableColumnOperationLog modifyTableColumnOperationLog =
                             (ModifyTableColumnOperationLog) journal.getData();
@@ -935,7 +946,7 @@ public class EditLog {
             // The old implementation swallow exception like this
             LOG.info("failed to serialized: {}", e);
         }
-        JournalTask task = new JournalTask(buffer, maxWaitIntervalMs);
+        JournalTask task = new JournalTask(op, buffer, maxWaitIntervalMs);
 
         /*
          * for historical reasons, logEdit is not allowed to raise Exception, which is really unreasonable to me.
@@ -1471,6 +1482,14 @@ public class EditLog {
         logEdit(OperationType.OP_ADD_HISTOGRAM_STATS_META, meta);
     }
 
+    public void logAddMultiColumnStatsMeta(MultiColumnStatsMeta meta) {
+        logEdit(OperationType.OP_ADD_MULTI_COLUMN_STATS_META, meta);
+    }
+
+    public void logRemoveMultiColumnStatsMeta(MultiColumnStatsMeta meta) {
+        logEdit(OperationType.OP_REMOVE_MULTI_COLUMN_STATS_META, meta);
+    }
+
     public void logModifyTableColumn(ModifyTableColumnOperationLog log) {
         logEdit(OperationType.OP_MODIFY_HIVE_TABLE_COLUMN, log);
     }
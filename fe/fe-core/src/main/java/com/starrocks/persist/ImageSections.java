@@ -0,0 +1,219 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The sections of the sectioned image, and which of them are changed since an image, for incremental checkpoint.
+ * <p>
+ * The journal writer of master marks the sections changed by each journal it writes. A section not changed after
+ * the image is copied as is into the next image, and not loaded by checkpoint unless other sections depend on it.
+ * The journals which are not known to change only a few sections mark all of them, so checkpoint falls back to
+ * load and save the full image.
+ */
+public class ImageSections {
+    // Ids in image, must never be changed or reused
+    public static final int HEADER = 0;
+    public static final int NODES = 1;
+    public static final int DATABASES = 2;
+    public static final int GLOBAL_VARIABLES = 3;
+    public static final int RESOURCES = 4;
+    public static final int AUTH = 5;
+    public static final int SMALL_FILES = 6;
+    public static final int PLUGINS = 7;
+    public static final int WORK_GROUPS = 8;
+    public static final int SHARD_MANAGER = 9;
+    public static final int CLUSTER = 10;
+    public static final int LOAD_JOBS = 11;
+    public static final int ALTER_JOBS = 12;
+    public static final int RECYCLE_BIN = 13;
+    public static final int EXPORT_JOBS = 14;
+    public static final int BACKUP_HANDLER = 15;
+    public static final int DELETE_HANDLER = 16;
+    public static final int ANALYZE = 17;
+    public static final int TASKS = 18;
+    public static final int CATALOGS = 19;
+    public static final int INSERT_OVERWRITE_JOBS = 20;
+    public static final int TRANSACTIONS = 21;
+    public static final int COLOCATE_INDEX = 22;
+    public static final int ROUTINE_LOAD_JOBS = 23;
+    public static final int LOAD_JOBS_V2 = 24;
+    public static final int SECTION_NUM = 25;
+
+    // the sections which must be loaded before loading the section
+    private static final Map<Integer, int[]> LOAD_DEPENDENCIES = ImmutableMap.<Integer, int[]>builder()
+            .put(CLUSTER, new int[] {NODES, DATABASES})
+            .put(LOAD_JOBS, new int[] {DATABASES})
+            .put(ALTER_JOBS, new int[] {DATABASES})
+            .put(RECYCLE_BIN, new int[] {DATABASES})
+            .put(EXPORT_JOBS, new int[] {DATABASES})
+            .put(BACKUP_HANDLER, new int[] {DATABASES})
+            .put(DELETE_HANDLER, new int[] {DATABASES})
+            .put(CATALOGS, new int[] {RESOURCES})
+            .put(INSERT_OVERWRITE_JOBS, new int[] {DATABASES})
+            .put(TRANSACTIONS, new int[] {DATABASES, RECYCLE_BIN})
+            .put(COLOCATE_INDEX, new int[] {DATABASES})
+            .put(ROUTINE_LOAD_JOBS, new int[] {TRANSACTIONS})
+            .put(LOAD_JOBS_V2, new int[] {TRANSACTIONS})
+            .build();
+
+    // The sections changed by replaying the journal, and replaying it only reads them and their load dependencies.
+    // The journals not listed here may change any section.
+    private static final Map<Short, int[]> OP_TO_SECTIONS = ImmutableMap.<Short, int[]>builder()
+            .put(OperationType.OP_TIMESTAMP, new int[] {})
+            .put(OperationType.OP_SAVE_NEXTID, new int[] {HEADER})
+            .put(OperationType.OP_SAVE_TRANSACTION_ID, new int[] {TRANSACTIONS})
+            .put(OperationType.OP_HEARTBEAT, new int[] {NODES})
+            .put(OperationType.OP_HEARTBEAT_V2, new int[] {NODES})
+            .put(OperationType.OP_MASTER_INFO_CHANGE, new int[] {NODES})
+            .put(OperationType.OP_ADD_FRONTEND, new int[] {NODES})
+            .put(OperationType.OP_ADD_FIRST_FRONTEND, new int[] {NODES})
+            .put(OperationType.OP_REMOVE_FRONTEND, new int[] {NODES})
+            .put(OperationType.OP_UPDATE_FRONTEND, new int[] {NODES})
+            .put(OperationType.OP_ADD_BROKER, new int[] {NODES})
+            .put(OperationType.OP_DROP_BROKER, new int[] {NODES})
+            .put(OperationType.OP_DROP_ALL_BROKER, new int[] {NODES})
+            .put(OperationType.OP_CREATE_USER, new int[] {AUTH})
+            .put(OperationType.OP_NEW_DROP_USER, new int[] {AUTH})
+            .put(OperationType.OP_GRANT_PRIV, new int[] {AUTH})
+            .put(OperationType.OP_REVOKE_PRIV, new int[] {AUTH})
+            .put(OperationType.OP_SET_PASSWORD, new int[] {AUTH})
+            .put(OperationType.OP_CREATE_ROLE, new int[] {AUTH})
+            .put(OperationType.OP_DROP_ROLE, new int[] {AUTH})
+            .put(OperationType.OP_UPDATE_USER_PROPERTY, new int[] {AUTH})
+            .put(OperationType.OP_GRANT_IMPERSONATE, new int[] {AUTH})
+            .put(OperationType.OP_REVOKE_IMPERSONATE, new int[] {AUTH})
+            .put(OperationType.OP_GLOBAL_VARIABLE, new int[] {GLOBAL_VARIABLES})
+            .put(OperationType.OP_GLOBAL_VARIABLE_V2, new int[] {GLOBAL_VARIABLES})
+            .put(OperationType.OP_CREATE_RESOURCE, new int[] {RESOURCES})
+            .put(OperationType.OP_DROP_RESOURCE, new int[] {RESOURCES})
+            .put(OperationType.OP_CREATE_SMALL_FILE, new int[] {SMALL_FILES})
+            .put(OperationType.OP_DROP_SMALL_FILE, new int[] {SMALL_FILES})
+            .put(OperationType.OP_INSTALL_PLUGIN, new int[] {PLUGINS})
+            .put(OperationType.OP_UNINSTALL_PLUGIN, new int[] {PLUGINS})
+            .put(OperationType.OP_WORKGROUP, new int[] {WORK_GROUPS})
+            .put(OperationType.OP_ADD_UNUSED_SHARD, new int[] {SHARD_MANAGER})
+            .put(OperationType.OP_DELETE_UNUSED_SHARD, new int[] {SHARD_MANAGER})
+            .put(OperationType.OP_ADD_ANALYZER_JOB, new int[] {ANALYZE})
+            .put(OperationType.OP_REMOVE_ANALYZER_JOB, new int[] {ANALYZE})
+            .put(OperationType.OP_ADD_ANALYZE_STATUS, new int[] {ANALYZE})
+            .put(OperationType.OP_ADD_BASIC_STATS_META, new int[] {ANALYZE})
+            .put(OperationType.OP_ADD_HISTOGRAM_STATS_META, new int[] {ANALYZE})
+            .put(OperationType.OP_ADD_MULTI_COLUMN_STATS_META, new int[] {ANALYZE})
+            .put(OperationType.OP_REMOVE_MULTI_COLUMN_STATS_META, new int[] {ANALYZE})
+            .put(OperationType.OP_CREATE_TASK, new int[] {TASKS})
+            .put(OperationType.OP_DROP_TASKS, new int[] {TASKS})
+            .put(OperationType.OP_CREATE_TASK_RUN, new int[] {TASKS})
+            .put(OperationType.OP_UPDATE_TASK_RUN, new int[] {TASKS})
+            .put(OperationType.OP_DROP_TASK_RUNS, new int[] {TASKS})
+            .put(OperationType.OP_CREATE_CATALOG, new int[] {CATALOGS})
+            .put(OperationType.OP_DROP_CATALOG, new int[] {CATALOGS})
+            .put(OperationType.OP_EXPORT_CREATE, new int[] {EXPORT_JOBS})
+            .put(OperationType.OP_EXPORT_UPDATE_STATE, new int[] {EXPORT_JOBS})
+            .put(OperationType.OP_CREATE_REPOSITORY, new int[] {BACKUP_HANDLER})
+            .put(OperationType.OP_DROP_REPOSITORY, new int[] {BACKUP_HANDLER})
+            .put(OperationType.OP_CREATE_ROUTINE_LOAD_JOB, new int[] {ROUTINE_LOAD_JOBS})
+            .put(OperationType.OP_CHANGE_ROUTINE_LOAD_JOB, new int[] {ROUTINE_LOAD_JOBS})
+            .put(OperationType.OP_REMOVE_ROUTINE_LOAD_JOB, new int[] {ROUTINE_LOAD_JOBS})
+            .put(OperationType.OP_CREATE_LOAD_JOB, new int[] {LOAD_JOBS_V2})
+            .put(OperationType.OP_END_LOAD_JOB, new int[] {LOAD_JOBS_V2})
+            .put(OperationType.OP_UPDATE_LOAD_JOB, new int[] {LOAD_JOBS_V2})
+            // the versions of partitions and the updated rows of basic statistics are updated, and the load jobs
+            // are called back by the transaction
+            .put(OperationType.OP_UPSERT_TRANSACTION_STATE,
+                    new int[] {TRANSACTIONS, DATABASES, ANALYZE, LOAD_JOBS_V2, ROUTINE_LOAD_JOBS})
+            .put(OperationType.OP_DELETE_TRANSACTION_STATE, new int[] {TRANSACTIONS})
+            // the replicas of the partitions in recycle bin could also be changed
+            .put(OperationType.OP_ADD_REPLICA, new int[] {DATABASES, RECYCLE_BIN})
+            .put(OperationType.OP_UPDATE_REPLICA, new int[] {DATABASES, RECYCLE_BIN})
+            .put(OperationType.OP_DELETE_REPLICA, new int[] {DATABASES, RECYCLE_BIN})
+            .put(OperationType.OP_SET_REPLICA_STATUS, new int[] {DATABASES})
+            .put(OperationType.OP_BACKEND_TABLETS_INFO, new int[] {DATABASES})
+            .put(OperationType.OP_ADD_PARTITION, new int[] {DATABASES})
+            .put(OperationType.OP_ADD_PARTITIONS, new int[] {DATABASES})
+            .put(OperationType.OP_MODIFY_PARTITION, new int[] {DATABASES})
+            .put(OperationType.OP_BATCH_MODIFY_PARTITION, new int[] {DATABASES})
+            .put(OperationType.OP_REPLACE_TEMP_PARTITION, new int[] {DATABASES})
+            .put(OperationType.OP_TRUNCATE_TABLE, new int[] {DATABASES})
+            .put(OperationType.OP_DROP_PARTITION, new int[] {DATABASES, RECYCLE_BIN})
+            .put(OperationType.OP_RECOVER_PARTITION, new int[] {DATABASES, RECYCLE_BIN})
+            .put(OperationType.OP_ERASE_PARTITION, new int[] {RECYCLE_BIN})
+            .build();
+
+    // the first journal written by this master, the sections changed by the former journals are unknown
+    private static final AtomicLong TRACKING_START_JOURNAL_ID = new AtomicLong(Long.MAX_VALUE);
+    // the last journal changing the section
+    private static final AtomicLongArray LAST_DIRTY_JOURNAL_IDS = new AtomicLongArray(SECTION_NUM);
+    // the last journal which may change any section
+    private static final AtomicLong LAST_ALL_DIRTY_JOURNAL_ID = new AtomicLong(-1);
+
+    /**
+     * Called by journal writer when this becomes master.
+     */
+    public static void startTracking(long firstJournalId) {
+        for (int i = 0; i < SECTION_NUM; i++) {
+            LAST_DIRTY_JOURNAL_IDS.set(i, -1);
+        }
+        LAST_ALL_DIRTY_JOURNAL_ID.set(-1);
+        TRACKING_START_JOURNAL_ID.set(firstJournalId);
+    }
+
+    /**
+     * Called by journal writer before writing the journal.
+     */
+    public static void markDirty(short opCode, long journalId) {
+        int[] sections = OP_TO_SECTIONS.get(opCode);
+        if (sections == null) {
+            LAST_ALL_DIRTY_JOURNAL_ID.accumulateAndGet(journalId, Math::max);
+            return;
+        }
+        for (int section : sections) {
+            LAST_DIRTY_JOURNAL_IDS.accumulateAndGet(section, journalId, Math::max);
+        }
+    }
+
+    /**
+     * The sections which may be changed by the journals after the image, null if all of them may be changed or it
+     * is unknown.
+     */
+    public static Set<Integer> getDirtySections(long imageJournalId) {
+        if (imageJournalId + 1 < TRACKING_START_JOURNAL_ID.get() || LAST_ALL_DIRTY_JOURNAL_ID.get() > imageJournalId) {
+            return null;
+        }
+        Set<Integer> sections = new TreeSet<>();
+        for (int i = 0; i < SECTION_NUM; i++) {
+            if (LAST_DIRTY_JOURNAL_IDS.get(i) > imageJournalId) {
+                sections.add(i);
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * The sections to load for changing the given sections, including the header and the load dependencies.
+     */
+    public static Set<Integer> getSectionsToLoad(Set<Integer> dirtySections) {
+        Set<Integer> sections = Sets.newTreeSet();
+        Deque<Integer> toVisit = new ArrayDeque<>(dirtySections);
+        toVisit.add(HEADER);
+        while (!toVisit.isEmpty()) {
+            int section = toVisit.poll();
+            if (sections.add(section)) {
+                for (int dependency : LOAD_DEPENDENCIES.getOrDefault(section, new int[0])) {
+                    toVisit.add(dependency);
+                }
+            }
+        }
+        return sections;
+    }
+}
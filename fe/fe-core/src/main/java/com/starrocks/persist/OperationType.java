@@ -203,6 +203,8 @@ public class OperationType {
     public static final short OP_ADD_ANALYZE_STATUS = 10012;
     public static final short OP_ADD_BASIC_STATS_META = 10013;
     public static final short OP_ADD_HISTOGRAM_STATS_META = 10014;
+    public static final short OP_ADD_MULTI_COLUMN_STATS_META = 10015;
+    public static final short OP_REMOVE_MULTI_COLUMN_STATS_META = 10016;
 
     // workgroup 10021 ~ 10030
     public static final short OP_WORKGROUP = 10021;
@@ -0,0 +1,349 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.starrocks.common.DdlException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Image format made of independent sections, each of which is the data of one module.
+ * <pre>
+ * | MAGIC | VERSION | section data ... | directory | directory offset | MAGIC |
+ * directory: | count | (id, offset, length, crc32) * count |
+ * </pre>
+ * The sections are written concurrently into temporary files and then concatenated, and are read concurrently
+ * phase by phase, the sections of a phase are loaded after all sections of the previous phases. A section missing in
+ * the image is skipped, so is a section unknown to the loader, e.g. written by a newer version. The sections not
+ * changed since the base image can be copied from it without being loaded, see {@link ImageSections}.
+ * <p>
+ * The legacy image starts with a positive meta version or -1, so it never starts with the MAGIC.
+ */
+public class SectionedImage {
+    private static final Logger LOG = LogManager.getLogger(SectionedImage.class);
+
+    // "SRIMAGE2"
+    public static final long MAGIC = 0x5352494D41474532L;
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // magic, version
+    private static final int HEAD_LENGTH = 8 + 4;
+    // directory offset, magic
+    private static final int TAIL_LENGTH = 8 + 8;
+
+    public interface SectionLoader {
+        void load(DataInputStream dis) throws IOException, DdlException;
+    }
+
+    public interface SectionSaver {
+        void save(DataOutputStream dos) throws IOException;
+    }
+
+    public static class Section {
+        private final int id;
+        private final String name;
+        private final int phase;
+        private final SectionLoader loader;
+        private final SectionSaver saver;
+
+        /**
+         * @param id    the id in image, must never be changed or reused
+         * @param phase the sections of a smaller phase are loaded first
+         */
+        public Section(int id, String name, int phase, SectionLoader loader, SectionSaver saver) {
+            this.id = id;
+            this.name = name;
+            this.phase = phase;
+            this.loader = loader;
+            this.saver = saver;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPhase() {
+            return phase;
+        }
+    }
+
+    private static class DirectoryEntry {
+        private final int id;
+        private final long offset;
+        private final long length;
+        private final long checksum;
+
+        DirectoryEntry(int id, long offset, long length, long checksum) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+
+    public static boolean isSectionedImage(File file) throws IOException {
+        if (file.length() < HEAD_LENGTH + TAIL_LENGTH) {
+            return false;
+        }
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+            return dis.readLong() == MAGIC;
+        }
+    }
+
+    public static void save(File file, long version, List<Section> sections, Executor executor) throws IOException {
+        save(file, version, sections, null, executor);
+    }
+
+    /**
+     * Save the sections, and copy the other sections in the base image as they are if the base image is not null.
+     * The version of the image is put in the names of the temporary section files, so that they are not shared
+     * with another save.
+     */
+    public static void save(File file, long version, List<Section> sections, File baseImage, Executor executor)
+            throws IOException {
+        checkSectionIds(sections);
+        List<Section> sortedSections = Lists.newArrayList(sections);
+        sortedSections.sort(Comparator.comparingInt(Section::getId));
+        // the sections of base image to copy, by id
+        TreeMap<Integer, DirectoryEntry> baseEntries = new TreeMap<>();
+        if (baseImage != null) {
+            baseEntries.putAll(readDirectory(baseImage));
+            for (Section section : sortedSections) {
+                baseEntries.remove(section.getId());
+            }
+        }
+
+        Map<Integer, File> idToTmpFile = Maps.newHashMap();
+        List<CompletableFuture<Long>> checksums = new ArrayList<>();
+        try {
+            // write sections into their own files in parallel
+            for (Section section : sortedSections) {
+                // not started with "image", so never taken as an image by Storage and MetaCleaner
+                File tmpFile = new File(file.getParentFile(),
+                        ".section." + version + "." + section.getId() + ".tmp");
+                idToTmpFile.put(section.getId(), tmpFile);
+                checksums.add(CompletableFuture.supplyAsync(() -> saveSection(tmpFile, section), executor));
+            }
+
+            // concatenate them into the image
+            List<DirectoryEntry> directory = new ArrayList<>();
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                DataOutputStream dos = new DataOutputStream(fos);
+                dos.writeLong(MAGIC);
+                dos.writeInt(VERSION);
+                dos.flush();
+                FileChannel outChannel = fos.getChannel();
+                if (!baseEntries.isEmpty()) {
+                    try (FileInputStream fis = new FileInputStream(baseImage)) {
+                        for (DirectoryEntry entry : baseEntries.values()) {
+                            long offset = outChannel.position();
+                            transfer(fis.getChannel(), entry.offset, entry.length, outChannel);
+                            directory.add(new DirectoryEntry(entry.id, offset, entry.length, entry.checksum));
+                        }
+                    }
+                    LOG.info("copied {} image sections from {}", baseEntries.size(), baseImage.getAbsolutePath());
+                }
+                for (int i = 0; i < sortedSections.size(); i++) {
+                    Section section = sortedSections.get(i);
+                    long checksum = join(checksums.get(i), section);
+                    long offset = outChannel.position();
+                    long length;
+                    try (FileInputStream fis = new FileInputStream(idToTmpFile.get(section.getId()))) {
+                        length = fis.getChannel().size();
+                        transfer(fis.getChannel(), 0, length, outChannel);
+                    }
+                    directory.add(new DirectoryEntry(section.getId(), offset, length, checksum));
+                }
+
+                long directoryOffset = outChannel.position();
+                dos = new DataOutputStream(new BufferedOutputStream(fos));
+                dos.writeInt(directory.size());
+                for (DirectoryEntry entry : directory) {
+                    dos.writeInt(entry.id);
+                    dos.writeLong(entry.offset);
+                    dos.writeLong(entry.length);
+                    dos.writeLong(entry.checksum);
+                }
+                dos.writeLong(directoryOffset);
+                dos.writeLong(MAGIC);
+                dos.flush();
+            }
+        } finally {
+            // wait for the others if failed, before removing their files
+            for (CompletableFuture<Long> checksum : checksums) {
+                try {
+                    checksum.join();
+                } catch (CompletionException e) {
+                    // the first failure is thrown
+                }
+            }
+            for (File tmpFile : idToTmpFile.values()) {
+                if (tmpFile.exists() && !tmpFile.delete()) {
+                    LOG.warn("failed to delete {}", tmpFile.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private static void transfer(FileChannel inChannel, long position, long length, FileChannel outChannel)
+            throws IOException {
+        long transferred = 0;
+        while (transferred < length) {
+            transferred += inChannel.transferTo(position + transferred, length - transferred, outChannel);
+        }
+    }
+
+    private static long saveSection(File tmpFile, Section section) {
+        long startTime = System.currentTimeMillis();
+        CRC32 crc32 = new CRC32();
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(new FileOutputStream(tmpFile), crc32), BUFFER_SIZE))) {
+            section.saver.save(dos);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        LOG.info("finished save image section {} in {} ms, {} bytes", section.getName(),
+                System.currentTimeMillis() - startTime, tmpFile.length());
+        return crc32.getValue();
+    }
+
+    public static void load(File file, List<Section> sections, Executor executor) throws IOException {
+        checkSectionIds(sections);
+        Map<Integer, DirectoryEntry> directory = readDirectory(file);
+
+        Map<Integer, Section> idToSection = Maps.newHashMap();
+        TreeMap<Integer, List<Section>> phaseToSections = new TreeMap<>();
+        for (Section section : sections) {
+            idToSection.put(section.getId(), section);
+            if (!directory.containsKey(section.getId())) {
+                LOG.info("image section {} does not exist, skip it", section.getName());
+                continue;
+            }
+            phaseToSections.computeIfAbsent(section.getPhase(), k -> new ArrayList<>()).add(section);
+        }
+        for (Integer id : directory.keySet()) {
+            if (!idToSection.containsKey(id)) {
+                LOG.warn("unknown image section {}, skip it", id);
+            }
+        }
+
+        for (List<Section> phaseSections : phaseToSections.values()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Section section : phaseSections) {
+                DirectoryEntry entry = directory.get(section.getId());
+                futures.add(CompletableFuture.runAsync(() -> loadSection(file, entry, section), executor));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                join(futures.get(i), phaseSections.get(i));
+            }
+        }
+    }
+
+    private static void loadSection(File file, DirectoryEntry entry, Section section) {
+        long startTime = System.currentTimeMillis();
+        try (FileInputStream fis = new FileInputStream(file)) {
+            fis.getChannel().position(entry.offset);
+            CheckedInputStream cis = new CheckedInputStream(ByteStreams.limit(fis, entry.length), new CRC32());
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(cis, BUFFER_SIZE));
+            section.loader.load(dis);
+            // the checksum covers the whole section
+            long unread = ByteStreams.exhaust(dis);
+            if (unread > 0) {
+                LOG.warn("{} bytes of image section {} are not read", unread, section.getName());
+            }
+            if (cis.getChecksum().getValue() != entry.checksum) {
+                throw new IOException("checksum mismatch of image section " + section.getName() + ": "
+                        + cis.getChecksum().getValue() + " vs. " + entry.checksum);
+            }
+        } catch (IOException | DdlException e) {
+            throw new CompletionException(e);
+        }
+        LOG.info("finished load image section {} in {} ms, {} bytes", section.getName(),
+                System.currentTimeMillis() - startTime, entry.length);
+    }
+
+    private static Map<Integer, DirectoryEntry> readDirectory(File file) throws IOException {
+        Map<Integer, DirectoryEntry> directory = Maps.newHashMap();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long fileLength = raf.length();
+            if (fileLength < HEAD_LENGTH + TAIL_LENGTH || raf.readLong() != MAGIC) {
+                throw new IOException("invalid sectioned image " + file.getAbsolutePath());
+            }
+            int version = raf.readInt();
+            if (version > VERSION) {
+                throw new IOException("unsupported sectioned image version " + version);
+            }
+
+            raf.seek(fileLength - TAIL_LENGTH);
+            long directoryOffset = raf.readLong();
+            if (raf.readLong() != MAGIC || directoryOffset < HEAD_LENGTH
+                    || directoryOffset > fileLength - TAIL_LENGTH) {
+                throw new IOException("sectioned image " + file.getAbsolutePath() + " is incomplete");
+            }
+            byte[] directoryBytes = new byte[(int) (fileLength - TAIL_LENGTH - directoryOffset)];
+            raf.seek(directoryOffset);
+            raf.readFully(directoryBytes);
+            DataInputStream dis = new DataInputStream(new ByteArrayInputStream(directoryBytes));
+            int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+                DirectoryEntry entry =
+                        new DirectoryEntry(dis.readInt(), dis.readLong(), dis.readLong(), dis.readLong());
+                if (entry.offset < HEAD_LENGTH || entry.offset + entry.length > directoryOffset) {
+                    throw new IOException("invalid image section " + entry.id + ", offset: " + entry.offset
+                            + ", length: " + entry.length);
+                }
+                directory.put(entry.id, entry);
+            }
+        }
+        return directory;
+    }
+
+    private static void checkSectionIds(List<Section> sections) {
+        Map<Integer, String> idToName = Maps.newHashMap();
+        for (Section section : sections) {
+            String name = idToName.put(section.getId(), section.getName());
+            Preconditions.checkArgument(name == null, "duplicated image section id " + section.getId());
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future, Section section) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IOException("failed to process image section " + section.getName(),
+                    e.getCause() == null ? e : e.getCause());
+        }
+    }
+}
@@ -22,6 +22,7 @@
 package com.starrocks.qe;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.InternalCatalog;
@@ -43,6 +44,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.nio.channels.SocketChannel;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -152,6 +154,10 @@ public class ConnectContext {
 
     protected WorkGroup workGroup;
 
+    // server side prepared statements of this connection, statement id -> statement
+    protected Map<Integer, PreparedStatementContext> preparedStatements = Maps.newHashMap();
+    protected int nextPreparedStatementId = 1;
+
     public static ConnectContext get() {
         return threadLocalInfo.get();
     }
@@ -387,6 +393,7 @@ public class ConnectContext {
         mysqlChannel.close();
         threadLocalInfo.remove();
         returnRows = 0;
+        preparedStatements.clear();
     }
 
     public boolean isKilled() {
@@ -470,6 +477,37 @@ public class ConnectContext {
         this.currentSqlDbIds = currentSqlDbIds;
     }
 
+    public PreparedStatementContext getPreparedStatement(int stmtId) {
+        return preparedStatements.get(stmtId);
+    }
+
+    public int getPreparedStatementNum() {
+        return preparedStatements.size();
+    }
+
+    public int getNextPreparedStatementId() {
+        return nextPreparedStatementId++;
+    }
+
+    public void addPreparedStatement(PreparedStatementContext stmt) {
+        preparedStatements.put(stmt.getId(), stmt);
+    }
+
+    public void removePreparedStatement(int stmtId) {
+        preparedStatements.remove(stmtId);
+    }
+
+    public void clearPreparedStatements() {
+        preparedStatements.clear();
+    }
+
+    // Cached plans depend on the current database and session variables, call this when they are changed.
+    public void invalidatePreparedStatementPlans() {
+        for (PreparedStatementContext stmt : preparedStatements.values()) {
+            stmt.invalidateCachedPlans();
+        }
+    }
+
     public PlannerProfile getPlannerProfile() {
         return plannerProfile;
     }
@@ -22,6 +22,9 @@
 package com.starrocks.qe;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.DmlStmt;
+import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.KillStmt;
 import com.starrocks.analysis.QueryStmt;
 import com.starrocks.analysis.StatementBase;
@@ -29,6 +32,7 @@ import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
@@ -39,9 +43,13 @@ import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.ResourceGroupMetricMgr;
+import com.starrocks.mysql.MysqlBinaryProto;
 import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlColType;
 import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlPacket;
+import com.starrocks.mysql.MysqlPrepareOkPacket;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.mysql.MysqlServerStatusFlag;
@@ -49,7 +57,11 @@ import com.starrocks.plugin.AuditEvent.EventType;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.PrivilegeChecker;
+import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.common.SqlDigestBuilder;
+import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.sql.parser.ParsingException;
 import com.starrocks.thrift.TMasterOpRequest;
 import com.starrocks.thrift.TMasterOpResult;
@@ -60,11 +72,13 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousCloseException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -96,6 +110,7 @@ public class ConnectProcessor {
             return;
         }
 
+        ctx.invalidatePreparedStatementPlans();
         ctx.getState().setOk();
     }
 
@@ -131,6 +146,8 @@ public class ConnectProcessor {
         ctx.getSerializer().setCapability(ctx.getCapability());
         // reset session variable
         ctx.resetSessionVariable();
+        // prepared statements are deallocated
+        ctx.clearPreparedStatements();
     }
 
     public void auditAfterExec(String origStmt, StatementBase parsedStmt, PQueryStatistics statistics) {
@@ -206,7 +223,7 @@ public class ConnectProcessor {
         return (sql.contains("--")) || sql.contains("#");
     }
 
-    private void addFinishedQueryDetail() {
+    public void addFinishedQueryDetail() {
         if (!Config.enable_collect_query_detail_info) {
             return;
         }
@@ -230,17 +247,25 @@ public class ConnectProcessor {
         QueryDetailQueue.addAndRemoveTimeoutQueryDetail(queryDetail);
     }
 
-    // process COM_QUERY statement,
-    private void handleQuery() {
-        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
-        // convert statement to Java string
-        String originStmt = null;
+    // convert statement of COM_QUERY and COM_STMT_PREPARE to Java string
+    private String readStatement() {
         byte[] bytes = packetBuf.array();
         int ending = packetBuf.limit() - 1;
         while (ending >= 1 && bytes[ending] == '\0') {
             ending--;
         }
-        originStmt = new String(bytes, 1, ending, StandardCharsets.UTF_8);
+        return new String(bytes, 1, ending, StandardCharsets.UTF_8);
+    }
+
+    // process COM_QUERY statement,
+    private void handleQuery() {
+        executeQuery(readStatement(), null, null);
+    }
+
+    // Parse and execute the statements. The statement of a prepared statement is its cached analyzed statement
+    // bound to the parameters, or built from its parse tree if there is not one.
+    private void executeQuery(String originStmt, PreparedStatementContext preparedStmt, List<String> params) {
+        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
                 .setTimestamp(System.currentTimeMillis())
@@ -254,8 +279,18 @@ public class ConnectProcessor {
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
+            List<Expr> paramExprs = null;
+            PreparedStatementContext.AnalyzedStatement analyzedStmt = null;
             try {
-                stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable().getSqlMode());
+                long sqlMode = ctx.getSessionVariable().getSqlMode();
+                if (preparedStmt != null) {
+                    paramExprs = preparedStmt.parseParameters(params, sqlMode);
+                    analyzedStmt = preparedStmt.bindAnalyzedStatement(paramExprs);
+                    stmts = Lists.newArrayList(analyzedStmt != null ? analyzedStmt.getStmt() :
+                            preparedStmt.buildStatement(paramExprs, sqlMode));
+                } else {
+                    stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, sqlMode);
+                }
             } catch (ParsingException parsingException) {
                 throw new AnalysisException(parsingException.getMessage());
             }
@@ -270,6 +305,9 @@ public class ConnectProcessor {
                 parsedStmt.setOrigStmt(new OriginStatement(originStmt, i));
 
                 executor = new StmtExecutor(ctx, parsedStmt);
+                if (preparedStmt != null) {
+                    executor.setPreparedStatement(preparedStmt, params, paramExprs, analyzedStmt);
+                }
                 ctx.setExecutor(executor);
 
                 ctx.setIsLastStmt(i == stmts.size() - 1);
@@ -370,6 +408,176 @@ public class ConnectProcessor {
         ctx.getState().setEof();
     }
 
+    // COM_STMT_PREPARE: create a server side prepared statement.
+    // The parameters are sent as VARCHAR, their real types are sent by client in COM_STMT_EXECUTE. A query is
+    // analyzed with NULL parameters, the errors are returned to client, and its result columns are sent.
+    private void handleStmtPrepare() throws IOException {
+        String sql = readStatement();
+        if (ctx.getPreparedStatementNum() >= Config.max_prepared_statements_per_connection) {
+            ctx.getState().setError("Can't create more than max_prepared_statements_per_connection statements " +
+                    "(current value: " + Config.max_prepared_statements_per_connection + ")");
+            return;
+        }
+
+        PreparedStatementContext preparedStmt = new PreparedStatementContext(ctx.getNextPreparedStatementId(), sql);
+        // check the statement by parsing it with NULL parameters
+        StatementBase stmt;
+        try {
+            stmt = preparedStmt.buildTemplateStatement(ctx.getSessionVariable().getSqlMode());
+        } catch (ParsingException e) {
+            ctx.getState().setError(e.getMessage());
+            ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+            return;
+        }
+        if (!(stmt instanceof QueryStatement || stmt instanceof DmlStmt)) {
+            ctx.getState().setError("This command is not supported in the prepared statement protocol yet");
+            return;
+        }
+
+        List<String> colNames = Collections.emptyList();
+        List<Expr> outputExprs = Collections.emptyList();
+        if (stmt instanceof QueryStatement) {
+            try {
+                stmt.setOrigStmt(new OriginStatement(sql, 0));
+                Analyzer.analyze(stmt, ctx);
+                PrivilegeChecker.check(stmt, ctx);
+                colNames = ((QueryStatement) stmt).getQueryRelation().getColumnOutputNames();
+                outputExprs = ((QueryStatement) stmt).getQueryRelation().getOutputExpression();
+            } catch (StarRocksPlannerException e) {
+                ctx.getState().setError(e.getMessage());
+                ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+                return;
+            }
+        }
+        ctx.addPreparedStatement(preparedStmt);
+
+        MysqlSerializer serializer = ctx.getSerializer();
+        MysqlChannel channel = ctx.getMysqlChannel();
+        serializer.reset();
+        new MysqlPrepareOkPacket(preparedStmt.getId(), colNames.size(), preparedStmt.getNumParams(), 0)
+                .writeTo(serializer);
+        channel.sendOnePacket(serializer.toByteBuffer());
+        if (preparedStmt.getNumParams() > 0) {
+            for (int i = 0; i < preparedStmt.getNumParams(); i++) {
+                serializer.reset();
+                serializer.writeField("?", Type.VARCHAR);
+                channel.sendOnePacket(serializer.toByteBuffer());
+            }
+            serializer.reset();
+            new MysqlEofPacket(ctx.getState()).writeTo(serializer);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        if (!colNames.isEmpty()) {
+            for (int i = 0; i < colNames.size(); i++) {
+                serializer.reset();
+                serializer.writeField(colNames.get(i), outputExprs.get(i).getOriginType());
+                channel.sendOnePacket(serializer.toByteBuffer());
+            }
+            serializer.reset();
+            new MysqlEofPacket(ctx.getState()).writeTo(serializer);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        channel.flush();
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_EXECUTE: bind the parameters into the prepared statement and execute it.
+    private void handleStmtExecute() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        PreparedStatementContext preparedStmt = ctx.getPreparedStatement(stmtId);
+        if (preparedStmt == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + stmtId + ") given to mysqld_stmt_execute");
+            return;
+        }
+        // flags, cursor is not supported, the whole result set is always sent
+        MysqlProto.readInt1(packetBuf);
+        // iteration count, always 1
+        MysqlProto.readInt4(packetBuf);
+
+        List<String> params;
+        try {
+            params = readParameters(preparedStmt);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            LOG.warn("Malformed COM_STMT_EXECUTE packet of statement {}.", stmtId, e);
+            ctx.getState().setError("Malformed COM_STMT_EXECUTE packet: " + e.getMessage());
+            return;
+        } finally {
+            preparedStmt.resetLongData();
+        }
+        // the start time is also the time of now() in the statement
+        ctx.setStartTime();
+        executeQuery(preparedStmt.bind(params), preparedStmt, params);
+    }
+
+    // read the parameters of COM_STMT_EXECUTE as SQL literals
+    private List<String> readParameters(PreparedStatementContext preparedStmt) {
+        int numParams = preparedStmt.getNumParams();
+        List<String> params = Lists.newArrayListWithCapacity(numParams);
+        if (numParams == 0) {
+            return params;
+        }
+
+        byte[] nullBitmap = MysqlProto.readFixedString(packetBuf, (numParams + 7) / 8);
+        boolean newParamsBound = MysqlProto.readInt1(packetBuf) == 1;
+        if (newParamsBound) {
+            for (int i = 0; i < numParams; i++) {
+                int typeCode = MysqlProto.readInt1(packetBuf);
+                int flags = MysqlProto.readInt1(packetBuf);
+                MysqlColType type = MysqlColType.fromCode(typeCode);
+                if (type == null) {
+                    throw new IllegalArgumentException("unknown type " + typeCode + " of parameter " + i);
+                }
+                preparedStmt.setParamType(i, type, (flags & 0x80) != 0);
+            }
+        }
+
+        for (int i = 0; i < numParams; i++) {
+            byte[] longData = preparedStmt.getLongData(i);
+            if ((nullBitmap[i / 8] & (1 << (i % 8))) != 0) {
+                params.add("NULL");
+            } else if (longData != null) {
+                params.add(MysqlBinaryProto.toStringLiteral(longData));
+            } else {
+                MysqlColType type = preparedStmt.getParamType(i);
+                if (type == null) {
+                    throw new IllegalArgumentException("type of parameter " + i + " is not sent");
+                }
+                params.add(MysqlBinaryProto.readParameter(packetBuf, type, preparedStmt.isParamUnsigned(i)));
+            }
+        }
+        return params;
+    }
+
+    // COM_STMT_SEND_LONG_DATA: append data to a parameter, there is no response.
+    private void handleStmtSendLongData() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        int paramId = MysqlProto.readInt2(packetBuf);
+        PreparedStatementContext preparedStmt = ctx.getPreparedStatement(stmtId);
+        if (preparedStmt != null && paramId < preparedStmt.getNumParams()) {
+            preparedStmt.appendLongData(paramId, MysqlProto.readEofString(packetBuf));
+        }
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_CLOSE: deallocate a prepared statement, there is no response.
+    private void handleStmtClose() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        ctx.removePreparedStatement(stmtId);
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_RESET: reset the data of a prepared statement sent by COM_STMT_SEND_LONG_DATA
+    private void handleStmtReset() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        PreparedStatementContext preparedStmt = ctx.getPreparedStatement(stmtId);
+        if (preparedStmt == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + stmtId + ") given to mysqld_stmt_reset");
+            return;
+        }
+        preparedStmt.resetLongData();
+        ctx.getState().setOk();
+    }
+
     private void dispatch() throws IOException {
         int code = packetBuf.get();
         MysqlCommand command = MysqlCommand.fromCode(code);
@@ -407,6 +615,21 @@ public class ConnectProcessor {
             case COM_PING:
                 handlePing();
                 break;
+            case COM_STMT_PREPARE:
+                handleStmtPrepare();
+                break;
+            case COM_STMT_EXECUTE:
+                handleStmtExecute();
+                break;
+            case COM_STMT_SEND_LONG_DATA:
+                handleStmtSendLongData();
+                break;
+            case COM_STMT_CLOSE:
+                handleStmtClose();
+                break;
+            case COM_STMT_RESET:
+                handleStmtReset();
+                break;
             default:
                 ctx.getState().setError("Unsupported command(" + command + ")");
                 LOG.warn("Unsupported command(" + command + ")");
@@ -477,8 +700,8 @@ public class ConnectProcessor {
         MysqlChannel channel = ctx.getMysqlChannel();
         channel.sendAndFlush(packet);
 
-        // only change lastQueryId when current command is COM_QUERY
-        if (ctx.getCommand() == MysqlCommand.COM_QUERY) {
+        // only change lastQueryId when current command is COM_QUERY or COM_STMT_EXECUTE
+        if (ctx.getCommand() == MysqlCommand.COM_QUERY || ctx.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
             ctx.setLastQueryId(ctx.queryId);
             ctx.setQueryId(null);
         }
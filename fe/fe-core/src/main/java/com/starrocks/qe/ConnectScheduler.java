@@ -182,6 +182,7 @@ public class ConnectScheduler {
 
                 if (registerConnection(context)) {
                     MysqlProto.sendResponsePacket(context);
+                    MysqlProto.startCompression(context);
                 } else {
                     context.getState().setError("Reach limit of connections");
                     MysqlProto.sendResponsePacket(context);
@@ -21,12 +21,16 @@
 
 package com.starrocks.qe;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
@@ -40,7 +44,9 @@ import com.starrocks.common.MarkedCountDownLatch;
 import com.starrocks.common.Pair;
 import com.starrocks.common.Reference;
 import com.starrocks.common.Status;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
+import com.starrocks.common.util.ConsistentHashRing;
 import com.starrocks.common.util.Counter;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.ListUtil;
@@ -86,9 +92,11 @@ import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TEsScanRange;
 import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
 import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.THdfsScanRange;
 import com.starrocks.thrift.TInternalScanRange;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPipelineProfileLevel;
+import com.starrocks.thrift.TPlanFragment;
 import com.starrocks.thrift.TPlanFragmentDestination;
 import com.starrocks.thrift.TPlanFragmentExecParams;
 import com.starrocks.thrift.TQueryGlobals;
@@ -120,6 +128,7 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -130,6 +139,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -145,8 +155,20 @@ public class Coordinator {
 
     private static final String localIP = FrontendOptions.getLocalHostAddress();
 
+    // the errors reported when a backend of the query is down, e.g. failing to send data to or receive data from it
+    private static final Set<TStatusCode> BACKEND_FAILURE_STATUS_CODES = ImmutableSet.of(
+            TStatusCode.THRIFT_RPC_ERROR, TStatusCode.NETWORK_ERROR, TStatusCode.REMOTE_ERROR,
+            TStatusCode.SERVICE_UNAVAILABLE, TStatusCode.INTERNAL_ERROR);
+
     // Random is used to shuffle instances of partitioned
     private static final Random instanceRandom = new Random();
+    // build and serialize the batch requests of plan fragments to different hosts concurrently
+    private static final ExecutorService DEPLOY_SERIALIZE_EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            Math.max(1, Config.deploy_serialize_threads_num), 1024, "deploy-serialize-pool", true);
+    // the consistent hash rings of compute node ids used to assign the scan ranges of remote files, one for each
+    // set of alive nodes, so queries on different sets of nodes, e.g. backends or compute nodes, don't rebuild them
+    private static final Cache<Set<Long>, ConsistentHashRing<Long>> SCAN_RANGE_HASH_RINGS =
+            Caffeine.newBuilder().maximumSize(16).build();
     // parallel execute
     private final TUniqueId nextInstanceId;
     // Overall status of the entire query; set to the first reported fragment error
@@ -217,6 +239,8 @@ public class Coordinator {
     // force schedule local be for HybridBackendSelector
     // only for hive now
     private boolean forceScheduleLocal = false;
+    // assign the scan ranges of remote files by consistent hashing in HDFSBackendSelector
+    private boolean enableScanRangeConsistentHash = false;
     private final Set<Integer> colocateFragmentIds = new HashSet<>();
     private final Set<Integer> replicateFragmentIds = new HashSet<>();
     private final Set<Integer> replicateScanIds = new HashSet<>();
@@ -225,6 +249,8 @@ public class Coordinator {
 
     // Resource group
     WorkGroup workGroup = null;
+    // the slot in the query queue held by this query, released when the query is unregistered
+    private QueryQueueManager.Slot queryQueueSlot = null;
 
     private final Map<PlanFragmentId, Map<Integer, TNetworkAddress>> fragmentIdToSeqToAddressMap = Maps.newHashMap();
     // fragment_id -> < bucket_seq -> < scannode_id -> scan_range_params >>
@@ -267,6 +293,7 @@ public class Coordinator {
         nextInstanceId.setHi(queryId.hi);
         nextInstanceId.setLo(queryId.lo + 1);
         this.forceScheduleLocal = context.getSessionVariable().isForceScheduleLocal();
+        this.enableScanRangeConsistentHash = context.getSessionVariable().isEnableScanRangeConsistentHash();
     }
 
     // Used for broker load task/export task coordinator
@@ -472,6 +499,11 @@ public class Coordinator {
         // prepare workgroup
         this.workGroup = prepareWorkGroup(connectContext);
 
+        // wait in the query queue until the resource group and backends have enough resources
+        if (Config.enable_query_queue && connectContext != null) {
+            queryQueueSlot = QueryQueueManager.getInstance().acquire(connectContext, workGroup);
+        }
+
         // compute Fragment Instance
         computeScanRangeAssignment();
 
@@ -489,6 +521,12 @@ public class Coordinator {
         deliverExecFragments();
     }
 
+    public void releaseQueryQueueSlot() {
+        if (queryQueueSlot != null) {
+            QueryQueueManager.getInstance().release(queryQueueSlot);
+        }
+    }
+
     public static WorkGroup prepareWorkGroup(ConnectContext connect) {
         WorkGroup workgroup = null;
         if (connect == null || !connect.getSessionVariable().isEnableResourceGroup()) {
@@ -828,6 +866,9 @@ public class Coordinator {
      */
     private void deliverExecBatchFragmentsRequests(boolean enablePipelineEngine) throws Exception {
         long queryDeliveryTimeoutMs = Math.min(queryOptions.query_timeout, queryOptions.query_delivery_timeout) * 1000L;
+        long deployStartTime = System.nanoTime();
+        long deploySerializeTime = 0;
+        long deployRpcTime = 0;
         List<List<PlanFragment>> fragmentGroups = computeTopologicalOrderFragments();
 
         lock();
@@ -842,6 +883,11 @@ public class Coordinator {
             TDescriptorTable emptyDescTable = new TDescriptorTable();
             emptyDescTable.setIs_cached(true);
             emptyDescTable.setTupleDescriptors(Collections.emptyList());
+            // the descTable is serialized once and shared by the requests to all hosts
+            long serializeStartTime = System.nanoTime();
+            byte[] serializedDescTable = ExecBatchPlanFragmentsSerializer.serialize(this.descTable);
+            byte[] serializedEmptyDescTable = ExecBatchPlanFragmentsSerializer.serialize(emptyDescTable);
+            deploySerializeTime += System.nanoTime() - serializeStartTime;
 
             // Record the first groupIndex of each host.
             // Each host only sends descTable once in the first batch request.
@@ -854,11 +900,16 @@ public class Coordinator {
                 // Otherwise, the request will be in the first stage, including
                 // - the request need send descTable.
                 // - the request to the host, where some request in the previous group has already sent descTable.
-                List<List<Pair<BackendExecState, TExecBatchPlanFragmentsParams>>> inflightRequestsList =
+                List<List<Pair<BackendExecState, byte[]>>> inflightRequestsList =
                         ImmutableList.of(new ArrayList<>(), new ArrayList<>());
+                List<BatchFragmentsRequest> batchRequests = new ArrayList<>();
                 for (PlanFragment fragment : fragmentGroup) {
                     FragmentExecParams params = fragmentExecParamsMap.get(fragment.getFragmentId());
                     Preconditions.checkState(!params.instanceExecParams.isEmpty());
+                    params.setBucketSeqToInstanceForRuntimeFilters();
+                    serializeStartTime = System.nanoTime();
+                    params.serializeSharedFragment();
+                    deploySerializeTime += System.nanoTime() - serializeStartTime;
 
                     // Fragment instances' ordinals in FragmentExecParams.instanceExecParams determine
                     // shuffle partitions' ordinals in DataStreamSink. backendIds of Fragment instances that
@@ -884,6 +935,7 @@ public class Coordinator {
 
                         int inflightIndex = 0;
                         TDescriptorTable curDescTable = this.descTable;
+                        byte[] curSerializedDescTable = serializedDescTable;
                         if (enablePipelineEngine) {
                             Integer firstGroupIndex = host2firstGroupIndex.get(host);
                             if (firstGroupIndex == null) {
@@ -894,59 +946,71 @@ public class Coordinator {
                                 // Has sent descTable for this host in the previous fragment group,
                                 // so needn't wait and use cached descTable.
                                 curDescTable = emptyDescTable;
+                                curSerializedDescTable = serializedEmptyDescTable;
                             } else {
                                 // The previous fragment for this host int the current fragment group will send descTable,
                                 // so this fragment need wait until the previous one finishes delivering.
                                 inflightIndex = 1;
                                 curDescTable = emptyDescTable;
+                                curSerializedDescTable = serializedEmptyDescTable;
                             }
                         }
 
                         Set<TUniqueId> curInstanceIds = requests.stream()
                                 .map(FInstanceExecParam::getInstanceId)
                                 .collect(Collectors.toSet());
-                        TExecBatchPlanFragmentsParams tRequest =
-                                params.toThriftInBatch(curInstanceIds, host, curDescTable, dbIds, enablePipelineEngine);
-                        TExecPlanFragmentParams tCommonParams = tRequest.getCommon_param();
-                        List<TExecPlanFragmentParams> tUniqueParamsList = tRequest.getUnique_param_per_instance();
-                        Preconditions.checkState(!tUniqueParamsList.isEmpty());
-
                         // this is a load process, and it is the first fragment.
                         // we should add all BackendExecState of this fragment to needCheckBackendExecStates,
                         // so that we can check these backends' state when joining this Coordinator
                         boolean needCheckBackendState =
                                 queryOptions.getQuery_type() == TQueryType.LOAD && profileFragmentId == 0;
+                        batchRequests.add(new BatchFragmentsRequest(params, host, curInstanceIds, curDescTable,
+                                curSerializedDescTable, profileFragmentId, inflightIndex, needCheckBackendState));
+                    }
 
-                        // Create ExecState for each fragment instance.
-                        BackendExecState lastExecState = null;
-                        for (TExecPlanFragmentParams tUniquePrams : tUniqueParamsList) {
-                            // TODO: pool of pre-formatted BackendExecStates?
-                            BackendExecState execState = new BackendExecState(fragment.getFragmentId(), host,
-                                    profileFragmentId, tCommonParams, tUniquePrams, this.addressToBackendID);
-                            backendExecStates.put(tUniquePrams.backend_num, execState);
-                            if (needCheckBackendState) {
-                                needCheckBackendExecStates.add(execState);
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.debug("add need check backend {} for fragment, {} job: {}",
-                                            execState.backend.getId(),
-                                            fragment.getFragmentId().asInt(), jobId);
-                                }
-                            }
-                            lastExecState = execState;
-                        }
+                    profileFragmentId += 1;
+                }
+
+                serializeStartTime = System.nanoTime();
+                serializeBatchFragmentsRequests(batchRequests, dbIds, enablePipelineEngine);
+                deploySerializeTime += System.nanoTime() - serializeStartTime;
+
+                for (BatchFragmentsRequest request : batchRequests) {
+                    PlanFragment fragment = request.params.fragment;
+                    TNetworkAddress host = request.host;
+                    TExecPlanFragmentParams tCommonParams = request.tRequest.getCommon_param();
+                    List<TExecPlanFragmentParams> tUniqueParamsList = request.tRequest.getUnique_param_per_instance();
+                    Preconditions.checkState(!tUniqueParamsList.isEmpty());
 
-                        if (lastExecState != null) {
-                            // Just choose any instance ExecState to send the RPC request.
-                            inflightRequestsList.get(inflightIndex).add(Pair.create(lastExecState, tRequest));
+                    // Create ExecState for each fragment instance.
+                    BackendExecState lastExecState = null;
+                    for (TExecPlanFragmentParams tUniquePrams : tUniqueParamsList) {
+                        // TODO: pool of pre-formatted BackendExecStates?
+                        BackendExecState execState = new BackendExecState(fragment.getFragmentId(), host,
+                                request.profileFragmentId, tCommonParams, tUniquePrams, this.addressToBackendID);
+                        backendExecStates.put(tUniquePrams.backend_num, execState);
+                        if (request.needCheckBackendState) {
+                            needCheckBackendExecStates.add(execState);
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("add need check backend {} for fragment, {} job: {}",
+                                        execState.backend.getId(),
+                                        fragment.getFragmentId().asInt(), jobId);
+                            }
                         }
+                        lastExecState = execState;
                     }
 
-                    profileFragmentId += 1;
+                    if (lastExecState != null) {
+                        // Just choose any instance ExecState to send the RPC request.
+                        inflightRequestsList.get(request.inflightIndex)
+                                .add(Pair.create(lastExecState, request.serializedRequest));
+                    }
                 }
 
-                for (List<Pair<BackendExecState, TExecBatchPlanFragmentsParams>> inflightRequests : inflightRequestsList) {
+                long rpcStartTime = System.nanoTime();
+                for (List<Pair<BackendExecState, byte[]>> inflightRequests : inflightRequestsList) {
                     List<Pair<BackendExecState, Future<PExecBatchPlanFragmentsResult>>> futures = Lists.newArrayList();
-                    for (Pair<BackendExecState, TExecBatchPlanFragmentsParams> inflightRequest : inflightRequests) {
+                    for (Pair<BackendExecState, byte[]> inflightRequest : inflightRequests) {
                         futures.add(Pair.create(inflightRequest.first,
                                 inflightRequest.first.execRemoteBatchFragmentsAsync(inflightRequest.second)));
                     }
@@ -993,14 +1057,84 @@ public class Coordinator {
                         }
                     }
                 }
+                deployRpcTime += System.nanoTime() - rpcStartTime;
             }
 
+            Counter deployTime = queryProfile.addCounter("DeployTime", TUnit.TIME_NS);
+            deployTime.setValue(System.nanoTime() - deployStartTime);
+            queryProfile.addCounter("DeploySerializeTime", TUnit.TIME_NS, "DeployTime").setValue(deploySerializeTime);
+            queryProfile.addCounter("DeployRpcTime", TUnit.TIME_NS, "DeployTime").setValue(deployRpcTime);
+
             attachInstanceProfileToFragmentProfile();
         } finally {
             unlock();
         }
     }
 
+    /**
+     * The batch request of the instances of a fragment on a host.
+     */
+    private static class BatchFragmentsRequest {
+        final FragmentExecParams params;
+        final TNetworkAddress host;
+        final Set<TUniqueId> instanceIds;
+        final TDescriptorTable descTable;
+        final byte[] serializedDescTable;
+        final int profileFragmentId;
+        final int inflightIndex;
+        final boolean needCheckBackendState;
+
+        TExecBatchPlanFragmentsParams tRequest;
+        byte[] serializedRequest;
+
+        BatchFragmentsRequest(FragmentExecParams params, TNetworkAddress host, Set<TUniqueId> instanceIds,
+                              TDescriptorTable descTable, byte[] serializedDescTable, int profileFragmentId,
+                              int inflightIndex, boolean needCheckBackendState) {
+            this.params = params;
+            this.host = host;
+            this.instanceIds = instanceIds;
+            this.descTable = descTable;
+            this.serializedDescTable = serializedDescTable;
+            this.profileFragmentId = profileFragmentId;
+            this.inflightIndex = inflightIndex;
+            this.needCheckBackendState = needCheckBackendState;
+        }
+
+        void serialize(Set<Long> dbIds, boolean enablePipelineEngine) throws Exception {
+            tRequest = params.toThriftInBatch(instanceIds, host, descTable, dbIds, enablePipelineEngine);
+            serializedRequest = ExecBatchPlanFragmentsSerializer.serialize(tRequest, params.serializedSharedFragment,
+                    serializedDescTable);
+        }
+    }
+
+    // Build and serialize the requests to the hosts concurrently, they only read the shared states of the coordinator
+    private void serializeBatchFragmentsRequests(List<BatchFragmentsRequest> requests, Set<Long> dbIds,
+                                                 boolean enablePipelineEngine) throws Exception {
+        List<Future<?>> futures = Lists.newArrayList();
+        for (BatchFragmentsRequest request : requests) {
+            // the file name prefix of export sink is changed when building the request
+            if (requests.size() == 1 || Config.deploy_serialize_threads_num <= 1 ||
+                    request.params.fragment.getSink() instanceof ExportSink) {
+                request.serialize(dbIds, enablePipelineEngine);
+            } else {
+                futures.add(DEPLOY_SERIALIZE_EXECUTOR.submit(() -> {
+                    request.serialize(dbIds, enablePipelineEngine);
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
     private final Map<TNetworkAddress, Integer> hostToNumbers = Maps.newHashMap();
 
     // Compute the fragment instance numbers in every BE for one query
@@ -1253,7 +1387,7 @@ public class Coordinator {
             if (Strings.isNullOrEmpty(copyStatus.getErrorMsg())) {
                 copyStatus.rewriteErrorMsg();
             }
-            if (copyStatus.isRpcError()) {
+            if (copyStatus.isRpcError() || (isBackendFailureStatus(copyStatus) && blacklistFailedBackends())) {
                 throw new RpcException("unknown", copyStatus.getErrorMsg());
             } else {
                 String errMsg = copyStatus.getErrorMsg();
@@ -2269,6 +2403,40 @@ public class Coordinator {
         }
     }
 
+    /*
+     * Whether the failure may be caused by a backend which is down, e.g. failing to send data to it, then the query
+     * can be retried if any backend of it is down, see blacklistFailedBackends().
+     * The failures of the query itself, e.g. cancelled, timeout or exceeding the memory limit, are not retried.
+     */
+    @VisibleForTesting
+    static boolean isBackendFailureStatus(Status status) {
+        return BACKEND_FAILURE_STATUS_CODES.contains(status.getErrorCode());
+    }
+
+    // Whether the backend is down or has missed heartbeat since the query started on it.
+    @VisibleForTesting
+    static boolean isBackendFailedSince(ComputeNode backend, long lastMissingHeartbeatTime) {
+        return !backend.isAlive() || backend.getLastMissingHeartbeatTime() > lastMissingHeartbeatTime;
+    }
+
+    /*
+     * Add the backends of this query which are down since the query started to the blacklist.
+     * return true if there is any.
+     * The failures reported by the other backends, e.g. failing to send data to the down one, are caused by it,
+     * so the query can be retried on the other backends.
+     */
+    private boolean blacklistFailedBackends() {
+        boolean hasFailedBackend = false;
+        for (BackendExecState backendExecState : backendExecStates.values()) {
+            ComputeNode backend = backendExecState.backend;
+            if (isBackendFailedSince(backend, backendExecState.lastMissingHeartbeatTime)) {
+                SimpleScheduler.addToBlacklist(backend.getId());
+                hasFailedBackend = true;
+            }
+        }
+        return hasFailedBackend;
+    }
+
     /*
      * Check the state of backends in needCheckBackendExecStates.
      * return true if all of them are OK. Otherwise, return false.
@@ -2573,7 +2741,7 @@ public class Coordinator {
         }
 
         public Future<PExecBatchPlanFragmentsResult> execRemoteBatchFragmentsAsync(
-                TExecBatchPlanFragmentsParams tRequest) throws TException {
+                byte[] serializedRequest) throws TException {
             TNetworkAddress brpcAddress;
             try {
                 brpcAddress = new TNetworkAddress(backend.getHost(), backend.getBrpcPort());
@@ -2582,7 +2750,8 @@ public class Coordinator {
             }
             this.initiated = true;
             try {
-                return BackendServiceClient.getInstance().execBatchPlanFragmentsAsync(brpcAddress, tRequest);
+                return BackendServiceClient.getInstance().execBatchPlanFragmentsAsync(brpcAddress,
+                        serializedRequest);
             } catch (RpcException e) {
                 // DO NOT throw exception here, return a complete future with error code,
                 // so that the following logic will cancel the fragment.
@@ -2645,11 +2814,21 @@ public class Coordinator {
         public FragmentScanRangeAssignment scanRangeAssignment = new FragmentScanRangeAssignment();
         TRuntimeFilterParams runtimeFilterParams = new TRuntimeFilterParams();
         public boolean bucketSeqToInstanceForFilterIsSet = false;
+        // the fragment of the common params of the batch requests, shared by all hosts
+        private TPlanFragment sharedThriftFragment;
+        private byte[] serializedSharedFragment;
 
         public FragmentExecParams(PlanFragment fragment) {
             this.fragment = fragment;
         }
 
+        void serializeSharedFragment() throws TException {
+            if (serializedSharedFragment == null) {
+                sharedThriftFragment = fragment.toThrift();
+                serializedSharedFragment = ExecBatchPlanFragmentsSerializer.serialize(sharedThriftFragment);
+            }
+        }
+
         void setBucketSeqToInstanceForRuntimeFilters() {
             if (bucketSeqToInstanceForFilterIsSet) {
                 return;
@@ -2680,7 +2859,6 @@ public class Coordinator {
                                              TNetworkAddress destHost, TDescriptorTable descTable,
                                              boolean isEnablePipelineEngine) {
             commonParams.setProtocol_version(InternalServiceVersion.V1);
-            commonParams.setFragment(fragment.toThrift());
             commonParams.setDesc_tbl(descTable);
             commonParams.setFunc_version(3);
             commonParams.setCoord(coordAddress);
@@ -2845,6 +3023,7 @@ public class Coordinator {
                 }
                 TExecPlanFragmentParams params = new TExecPlanFragmentParams();
 
+                params.setFragment(fragment.toThrift());
                 toThriftForCommonParams(params, instanceExecParam.getHost(), descTable, enablePipelineEngine);
                 toThriftForUniqueParams(params, i, instanceExecParam, enablePipelineEngine);
 
@@ -2859,6 +3038,12 @@ public class Coordinator {
             setBucketSeqToInstanceForRuntimeFilters();
 
             TExecPlanFragmentParams commonParams = new TExecPlanFragmentParams();
+            // the fragment is the same for all hosts
+            if (sharedThriftFragment != null) {
+                commonParams.setFragment(sharedThriftFragment);
+            } else {
+                commonParams.setFragment(fragment.toThrift());
+            }
             toThriftForCommonParams(commonParams, destHost, descTable, enablePipelineEngine);
             fillRequiredFieldsToThrift(commonParams);
 
@@ -3288,21 +3473,95 @@ public class Coordinator {
 
             Preconditions.checkArgument(assignType != ScanRangeAssignType.SCAN_DATA_SIZE
                     || remoteScanRangeLocations.size() == remoteScanRangesBytes.size());
+            if (enableScanRangeConsistentHash) {
+                assignRemoteScanRangesByConsistentHash(remoteScanRangeLocations);
+                return;
+            }
             for (int i = 0; i < remoteScanRangeLocations.size(); ++i) {
                 TScanRangeLocations scanRangeLocations = remoteScanRangeLocations.get(i);
-                long minAssignedScanRanges = Long.MAX_VALUE;
-                ComputeNode minBe = null;
-                for (Map.Entry<ComputeNode, Long> entry : assignedScansPerComputeNode.entrySet()) {
-                    ComputeNode backend = entry.getKey();
-                    long assignedScanRanges = entry.getValue();
-                    if (assignedScanRanges < minAssignedScanRanges) {
-                        minAssignedScanRanges = assignedScanRanges;
-                        minBe = backend;
-                    }
+                long scansToAdd = (assignType == ScanRangeAssignType.SCAN_DATA_SIZE ? remoteScanRangesBytes.get(i) : 1);
+                recordScanRangeAssignment(getLeastAssignedComputeNode(), scanRangeLocations, scansToAdd);
+            }
+        }
+
+        private ComputeNode getLeastAssignedComputeNode() {
+            long minAssignedScanRanges = Long.MAX_VALUE;
+            ComputeNode minBe = null;
+            for (Map.Entry<ComputeNode, Long> entry : assignedScansPerComputeNode.entrySet()) {
+                ComputeNode backend = entry.getKey();
+                long assignedScanRanges = entry.getValue();
+                if (assignedScanRanges < minAssignedScanRanges) {
+                    minAssignedScanRanges = assignedScanRanges;
+                    minBe = backend;
                 }
+            }
+            return minBe;
+        }
+
+        /**
+         * Assign each remote scan range to its node on the consistent hash ring of the alive nodes, so the same
+         * file is read by the same node across queries and its data cache is reused. To bound the skew, a node
+         * takes at most load_factor times of the average scans, the exceeded scan ranges go to the next nodes
+         * clockwise on the ring.
+         */
+        private void assignRemoteScanRangesByConsistentHash(List<TScanRangeLocations> remoteScanRangeLocations) {
+            Map<Long, ComputeNode> idToNode = Maps.newHashMap();
+            long totalScans = 0;
+            for (Map.Entry<ComputeNode, Long> entry : assignedScansPerComputeNode.entrySet()) {
+                idToNode.put(entry.getKey().getId(), entry.getKey());
+                totalScans += entry.getValue();
+            }
+            if (assignType == ScanRangeAssignType.SCAN_DATA_SIZE) {
+                for (long scanRangeBytes : remoteScanRangesBytes) {
+                    totalScans += scanRangeBytes;
+                }
+            } else {
+                totalScans += remoteScanRangeLocations.size();
+            }
+            double loadFactor = Math.max(1.0, Config.scan_range_consistent_hash_load_factor);
+            long maxScansPerNode = (long) Math.ceil(totalScans * loadFactor / idToNode.size());
+
+            ConsistentHashRing<Long> ring = getScanRangeHashRing(idToNode.keySet());
+            for (int i = 0; i < remoteScanRangeLocations.size(); ++i) {
+                TScanRangeLocations scanRangeLocations = remoteScanRangeLocations.get(i);
                 long scansToAdd = (assignType == ScanRangeAssignType.SCAN_DATA_SIZE ? remoteScanRangesBytes.get(i) : 1);
-                recordScanRangeAssignment(minBe, scanRangeLocations, scansToAdd);
+                ComputeNode selected = null;
+                Iterator<Long> candidates = ring.getNodes(getScanRangeHashKey(scanRangeLocations));
+                while (candidates.hasNext()) {
+                    ComputeNode node = idToNode.get(candidates.next());
+                    if (assignedScansPerComputeNode.get(node) + scansToAdd <= maxScansPerNode) {
+                        selected = node;
+                        break;
+                    }
+                }
+                if (selected == null) {
+                    // a scan range larger than the bound
+                    selected = getLeastAssignedComputeNode();
+                }
+                recordScanRangeAssignment(selected, scanRangeLocations, scansToAdd);
+            }
+        }
+
+        private ConsistentHashRing<Long> getScanRangeHashRing(Set<Long> nodeIds) {
+            int virtualNodeNum = Math.max(1, Config.scan_range_consistent_hash_virtual_node_num);
+            ConsistentHashRing<Long> ring = SCAN_RANGE_HASH_RINGS.getIfPresent(nodeIds);
+            if (ring == null || ring.getVirtualNodeNum() != virtualNodeNum) {
+                ring = new ConsistentHashRing<>(nodeIds, String::valueOf, virtualNodeNum);
+                SCAN_RANGE_HASH_RINGS.put(ring.getNodes(), ring);
+            }
+            return ring;
+        }
+
+        // the file path and the offset identify the data of a scan range
+        private String getScanRangeHashKey(TScanRangeLocations scanRangeLocations) {
+            THdfsScanRange scanRange = scanRangeLocations.getScan_range().getHdfs_scan_range();
+            String path;
+            if (scanRange.isSetFull_path()) {
+                path = scanRange.getFull_path();
+            } else {
+                path = scanRange.getPartition_id() + "/" + scanRange.getRelative_path();
             }
+            return path + ":" + scanRange.getOffset();
         }
 
         private void recordScanRangeAssignment(ComputeNode minBe, TScanRangeLocations scanRangeLocations,
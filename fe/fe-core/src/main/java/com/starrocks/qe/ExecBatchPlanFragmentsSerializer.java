@@ -0,0 +1,84 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
+import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.TPlanFragment;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TType;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Serialize the batch request of plan fragments in TBinaryProtocol, the same as {@link TSerializer}, but the
+ * fragment and the descriptor table of the common params are given as serialized bytes, so they are serialized
+ * once and shared by the requests to all hosts.
+ * <p>
+ * A struct in binary protocol is a list of fields, each is a header of type and id followed by the value, ending
+ * with a stop byte. The reader dispatches fields by id, so the shared fields are appended after the other fields
+ * of the common params, and the common params are put before the other fields of the batch request.
+ */
+public class ExecBatchPlanFragmentsSerializer {
+    private static final byte STOP = TType.STOP;
+
+    private ExecBatchPlanFragmentsSerializer() {
+    }
+
+    public static byte[] serialize(TBase<?, ?> struct) throws TException {
+        return new TSerializer().serialize(struct);
+    }
+
+    /**
+     * @param request            the request whose common params are serialized without the fragment and
+     *                           the descriptor table, they are restored after serialized
+     * @param serializedFragment the serialized TPlanFragment of the common params
+     * @param serializedDescTbl  the serialized TDescriptorTable of the common params, null if not set
+     */
+    public static byte[] serialize(TExecBatchPlanFragmentsParams request, byte[] serializedFragment,
+                                   byte[] serializedDescTbl) throws TException {
+        TExecPlanFragmentParams commonParams = request.getCommon_param();
+        TPlanFragment fragment = commonParams.getFragment();
+        TDescriptorTable descTable = commonParams.getDesc_tbl();
+        TSerializer serializer = new TSerializer();
+        byte[] serializedCommonParams;
+        byte[] serializedOthers;
+        try {
+            commonParams.setFragment(null);
+            commonParams.setDesc_tbl(null);
+            serializedCommonParams = serializer.serialize(commonParams);
+
+            request.setCommon_param(null);
+            serializedOthers = serializer.serialize(request);
+        } finally {
+            commonParams.setFragment(fragment);
+            commonParams.setDesc_tbl(descTable);
+            request.setCommon_param(commonParams);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(serializedCommonParams.length + serializedOthers.length +
+                serializedFragment.length + (serializedDescTbl == null ? 0 : serializedDescTbl.length) + 16);
+        writeFieldHeader(out, TType.STRUCT, TExecBatchPlanFragmentsParams._Fields.COMMON_PARAM.getThriftFieldId());
+        // the common params without the stop byte
+        out.write(serializedCommonParams, 0, serializedCommonParams.length - 1);
+        writeFieldHeader(out, TType.STRUCT, TExecPlanFragmentParams._Fields.FRAGMENT.getThriftFieldId());
+        out.write(serializedFragment, 0, serializedFragment.length);
+        if (serializedDescTbl != null) {
+            writeFieldHeader(out, TType.STRUCT, TExecPlanFragmentParams._Fields.DESC_TBL.getThriftFieldId());
+            out.write(serializedDescTbl, 0, serializedDescTbl.length);
+        }
+        out.write(STOP);
+        // the other fields of the request, ending with the stop byte
+        out.write(serializedOthers, 0, serializedOthers.length);
+        return out.toByteArray();
+    }
+
+    private static void writeFieldHeader(ByteArrayOutputStream out, byte type, short id) {
+        out.write(type);
+        out.write((id >>> 8) & 0xFF);
+        out.write(id & 0xFF);
+    }
+}
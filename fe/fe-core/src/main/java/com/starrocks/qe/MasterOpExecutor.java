@@ -21,14 +21,20 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.analysis.CreateTableAsSelectStmt;
+import com.starrocks.analysis.DmlStmt;
 import com.starrocks.analysis.RedirectStatus;
 import com.starrocks.analysis.SetStmt;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.QueryState.MysqlStateType;
 import com.starrocks.rpc.FrontendServiceProxy;
+import com.starrocks.sql.ast.AnalyzeStmt;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SubmitTaskStmt;
 import com.starrocks.thrift.TMasterOpRequest;
 import com.starrocks.thrift.TMasterOpResult;
 import com.starrocks.thrift.TNetworkAddress;
@@ -132,10 +138,27 @@ public class MasterOpExecutor {
         params.setQueryId(UUIDUtil.toTUniqueId(ctx.getQueryId()));
         LOG.info("Forward statement {} to Master {}", ctx.getStmtId(), thriftAddress);
 
-        result = FrontendServiceProxy.call(thriftAddress,
-                thriftTimeoutMs,
-                Config.thrift_rpc_retry_times,
-                client -> client.forward(params));
+        long startTimeMs = System.currentTimeMillis();
+        if (isBatchable()) {
+            result = MasterOpForwarder.getInstance().forward(thriftAddress, params, thriftTimeoutMs);
+        } else {
+            result = FrontendServiceProxy.call(thriftAddress,
+                    thriftTimeoutMs,
+                    Config.thrift_rpc_retry_times,
+                    client -> client.forward(params));
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_MASTER_OP_FORWARD_LATENCY.update(System.currentTimeMillis() - startTimeMs);
+        }
+    }
+
+    // The statements in a batch are returned together, so the ones which may run long, i.e. loading data,
+    // queries, collecting statistics and running tasks synchronously, are forwarded by their own rpc, to not
+    // delay the others.
+    private boolean isBatchable() {
+        return !(parsedStmt instanceof DmlStmt) && !(parsedStmt instanceof CreateTableAsSelectStmt) &&
+                !(parsedStmt instanceof QueryStatement) && !(parsedStmt instanceof AnalyzeStmt) &&
+                !(parsedStmt instanceof SubmitTaskStmt);
     }
 
     public ByteBuffer getOutputPacket() {
@@ -0,0 +1,260 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.UserException;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.rpc.FrontendServiceProxy;
+import com.starrocks.thrift.TMasterOpBatchRequest;
+import com.starrocks.thrift.TMasterOpBatchResult;
+import com.starrocks.thrift.TMasterOpRequest;
+import com.starrocks.thrift.TMasterOpResult;
+import com.starrocks.thrift.TNetworkAddress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TApplicationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forward statements from this follower to master by a few dispatcher threads, over the pooled thrift connections.
+ * <p>
+ * The callers queue their requests and wait for the results. A dispatcher sends the requests one by one when the
+ * traffic is low, and when all dispatchers are busy, the requests queued meanwhile are sent in one forwardBatch rpc
+ * and executed concurrently on master. So a burst of forwarded statements costs a few rpcs and connections instead
+ * of one per statement. The results of a batch are returned together, so the statements which may run long should
+ * not be forwarded by this, see {@link MasterOpExecutor}.
+ * <p>
+ * A request which is not taken by any dispatcher in {@link Config#master_op_forward_max_queue_wait_ms}, e.g. all of
+ * them are blocked by slow statements, is taken back and forwarded by the caller itself.
+ */
+public class MasterOpForwarder {
+    private static final Logger LOG = LogManager.getLogger(MasterOpForwarder.class);
+
+    // retry forwardBatch after a while if master does not support it, e.g. during upgrade
+    private static final long BATCH_UNSUPPORTED_RETRY_INTERVAL_MS = 60 * 1000L;
+
+    private static final MasterOpForwarder INSTANCE = new MasterOpForwarder(Config.master_op_forward_concurrency);
+
+    private final int numDispatchers;
+    private final LinkedBlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    // master address -> the time until which forwardBatch is not tried
+    private final Map<TNetworkAddress, Long> batchUnsupportedMasters = new ConcurrentHashMap<>();
+
+    private static class PendingRequest {
+        private final TNetworkAddress address;
+        private final TMasterOpRequest request;
+        private final int timeoutMs;
+        private final long enqueueTimeMs = System.currentTimeMillis();
+        private final CompletableFuture<TMasterOpResult> future = new CompletableFuture<>();
+        // set by the dispatcher which sends it, or by the caller which takes it back from queue
+        private final AtomicBoolean taken = new AtomicBoolean(false);
+
+        PendingRequest(TNetworkAddress address, TMasterOpRequest request, int timeoutMs) {
+            this.address = address;
+            this.request = request;
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    @VisibleForTesting
+    MasterOpForwarder(int numDispatchers) {
+        this.numDispatchers = Math.max(numDispatchers, 1);
+    }
+
+    public static MasterOpForwarder getInstance() {
+        return INSTANCE;
+    }
+
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Forward the request to master, and wait for the result.
+     *
+     * @param timeoutMs the timeout of the rpc, it is also the max time of the request waiting in queue
+     */
+    public TMasterOpResult forward(TNetworkAddress address, TMasterOpRequest request, int timeoutMs)
+            throws Exception {
+        if (started.compareAndSet(false, true)) {
+            startDispatchers();
+        }
+        PendingRequest pending = new PendingRequest(address, request, timeoutMs);
+        queue.add(pending);
+        try {
+            long queueWaitMs = Math.min(Math.max(Config.master_op_forward_max_queue_wait_ms, 0L), timeoutMs);
+            try {
+                return pending.future.get(queueWaitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.taken.compareAndSet(false, true)) {
+                    queue.remove(pending);
+                    LOG.info("statement {} is not forwarded by dispatchers in {}ms, forward it directly",
+                            request.getStmt_id(), queueWaitMs);
+                    return sendForward(address, request, timeoutMs);
+                }
+            }
+            // being sent by a dispatcher, whose rpc times out in timeoutMs
+            long remainingMs = timeoutMs - (System.currentTimeMillis() - pending.enqueueTimeMs);
+            try {
+                return pending.future.get(Math.max(remainingMs, 0L) + 1000L, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new UserException("Timeout to forward the statement to master, waited "
+                        + (System.currentTimeMillis() - pending.enqueueTimeMs) + "ms");
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void startDispatchers() {
+        ThreadPoolExecutor dispatchers = ThreadPoolManager.newDaemonFixedThreadPool(numDispatchers,
+                numDispatchers, "master-op-forwarder", false);
+        for (int i = 0; i < numDispatchers; i++) {
+            dispatchers.submit(this::runDispatcher);
+        }
+    }
+
+    private void runDispatcher() {
+        List<PendingRequest> requests = new ArrayList<>();
+        while (true) {
+            try {
+                PendingRequest first = queue.take();
+                requests.add(first);
+                if (isBatchSupported(first.address)) {
+                    queue.drainTo(requests, Math.max(Config.master_op_forward_batch_size, 1) - 1);
+                }
+                dispatch(requests);
+            } catch (InterruptedException e) {
+                LOG.warn("master op forwarder is interrupted", e);
+                return;
+            } catch (Throwable t) {
+                LOG.warn("failed to forward statements to master", t);
+                for (PendingRequest request : requests) {
+                    request.future.completeExceptionally(t);
+                }
+            } finally {
+                requests.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<PendingRequest> requests) {
+        // the master may change while the requests are waiting in queue
+        Map<TNetworkAddress, List<PendingRequest>> addressToRequests = Maps.newLinkedHashMap();
+        long nowMs = System.currentTimeMillis();
+        for (PendingRequest request : requests) {
+            if (!request.taken.compareAndSet(false, true)) {
+                // taken back by the caller
+                continue;
+            }
+            if (nowMs - request.enqueueTimeMs > request.timeoutMs) {
+                request.future.completeExceptionally(new UserException(
+                        "Timeout to wait for forwarding the statement to master, waited "
+                                + (nowMs - request.enqueueTimeMs) + "ms"));
+                continue;
+            }
+            addressToRequests.computeIfAbsent(request.address, k -> Lists.newArrayList()).add(request);
+        }
+
+        for (Map.Entry<TNetworkAddress, List<PendingRequest>> entry : addressToRequests.entrySet()) {
+            if (entry.getValue().size() == 1) {
+                sendOne(entry.getValue().get(0));
+            } else {
+                sendBatch(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void sendOne(PendingRequest request) {
+        try {
+            request.future.complete(sendForward(request.address, request.request, request.timeoutMs));
+        } catch (Exception e) {
+            request.future.completeExceptionally(e);
+        }
+    }
+
+    private void sendBatch(TNetworkAddress address, List<PendingRequest> requests) {
+        TMasterOpBatchRequest batchRequest = new TMasterOpBatchRequest();
+        batchRequest.setRequests(Lists.newArrayListWithCapacity(requests.size()));
+        int timeoutMs = 0;
+        for (PendingRequest request : requests) {
+            batchRequest.addToRequests(request.request);
+            timeoutMs = Math.max(timeoutMs, request.timeoutMs);
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_MASTER_OP_FORWARD_BATCH.update(requests.size());
+        }
+
+        TMasterOpBatchResult batchResult;
+        try {
+            batchResult = sendForwardBatch(address, batchRequest, timeoutMs);
+        } catch (TApplicationException e) {
+            if (e.getType() != TApplicationException.UNKNOWN_METHOD) {
+                failAll(requests, e);
+                return;
+            }
+            LOG.info("master {} does not support forwarding statements in batch, forward them one by one", address);
+            batchUnsupportedMasters.put(address, System.currentTimeMillis() + BATCH_UNSUPPORTED_RETRY_INTERVAL_MS);
+            requests.forEach(this::sendOne);
+            return;
+        } catch (Exception e) {
+            failAll(requests, e);
+            return;
+        }
+
+        if (batchResult.getResultsSize() != requests.size()) {
+            failAll(requests, new UserException("Unexpected number of results forwarded from master, expected "
+                    + requests.size() + ", actual " + batchResult.getResultsSize()));
+            return;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            requests.get(i).future.complete(batchResult.getResults().get(i));
+        }
+    }
+
+    private static void failAll(List<PendingRequest> requests, Exception e) {
+        LOG.warn("failed to forward {} statements to master", requests.size(), e);
+        for (PendingRequest request : requests) {
+            request.future.completeExceptionally(e);
+        }
+    }
+
+    private boolean isBatchSupported(TNetworkAddress address) {
+        Long retryTimeMs = batchUnsupportedMasters.get(address);
+        return retryTimeMs == null || System.currentTimeMillis() > retryTimeMs;
+    }
+
+    @VisibleForTesting
+    TMasterOpResult sendForward(TNetworkAddress address, TMasterOpRequest request, int timeoutMs)
+            throws Exception {
+        return FrontendServiceProxy.call(address, timeoutMs, Config.thrift_rpc_retry_times,
+                client -> client.forward(request));
+    }
+
+    @VisibleForTesting
+    TMasterOpBatchResult sendForwardBatch(TNetworkAddress address, TMasterOpBatchRequest request, int timeoutMs)
+            throws Exception {
+        return FrontendServiceProxy.call(address, timeoutMs, Config.thrift_rpc_retry_times,
+                client -> client.forwardBatch(request));
+    }
+}
@@ -0,0 +1,650 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.AnalyticExpr;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.InformationFunction;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LimitElement;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.ParseNode;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.parser.AstBuilder;
+import com.starrocks.sql.parser.ParsingException;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.parser.StarRocksParser;
+import com.starrocks.sql.plan.ExecPlan;
+import org.antlr.v4.runtime.Token;
+
+import java.io.ByteArrayOutputStream;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A server side prepared statement created by COM_STMT_PREPARE, it lives until COM_STMT_CLOSE or the
+ * connection is closed.
+ * <p>
+ * The statement is a SQL template with '?' placeholders. The template is parsed only once, with NULL in place
+ * of each placeholder, or 0 in place of the values of LIMIT and OFFSET, and COM_STMT_EXECUTE builds the AST from
+ * the parse tree with the parameters as literals.
+ * <p>
+ * The analyzed statement of a query does not depend on the values of the parameters, but only on their shape,
+ * i.e. their types, which of them are equal, and the values of LIMIT and OFFSET. It is cached by the shape, and
+ * the following executions of the same shape replace the literals of the parameters in it and only optimize it,
+ * as long as the used tables are not changed, see {@link TableSchemaSnapshot}.
+ * <p>
+ * The literals are folded into the optimized plan, e.g. by partition and tablet pruning, so the optimized plan
+ * could not be bound to other parameters. It is cached with the parameters of the last execution, and reused
+ * by the following executions with the same parameters, as long as the scanned tables are not changed, see
+ * {@link TableVersionSnapshot}. The fragments are built again from the cached plan for every execution.
+ */
+public class PreparedStatementContext {
+    // functions whose result is decided when planning, plans of statements using them can not be reused
+    private static final Set<String> NON_DETERMINISTIC_FUNCTIONS = ImmutableSet.of(
+            "now", "curdate", "curtime", "current_date", "current_time", "current_timestamp", "localtime",
+            "localtimestamp", "sysdate", "utc_timestamp", "unix_timestamp", "rand", "random", "uuid",
+            "uuid_numeric", "sleep", "last_query_id");
+
+    // the max number of analyzed statements of different shapes kept for one prepared statement
+    private static final int MAX_ANALYZED_STATEMENTS = 8;
+
+    private final int id;
+    private final String sql;
+    // positions of '?' placeholders in sql
+    private final List<Integer> placeholders;
+    // whether each placeholder is the value of LIMIT or OFFSET, which is an integer in the syntax
+    private final boolean[] limitParams;
+    // the trimmed sql with NULL or 0 in place of each placeholder, and positions of them
+    private final String templateSql;
+    private final List<Integer> templatePositions;
+    // parse tree of templateSql and the sql mode it is parsed in
+    private StarRocksParser.SingleStatementContext parseTree;
+    private long parseTreeSqlMode;
+
+    // parameter types sent in the last COM_STMT_EXECUTE, client only sends them when they are changed
+    private MysqlColType[] paramTypes;
+    private boolean[] paramUnsigned;
+    // data sent by COM_STMT_SEND_LONG_DATA, cleared after execution
+    private final Map<Integer, ByteArrayOutputStream> longData = Maps.newHashMap();
+
+    // analyzed queries by the shape of parameters, in access order
+    private final LinkedHashMap<List<Object>, AnalyzedStatement> analyzedStatements =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    public PreparedStatementContext(int id, String sql) {
+        this.id = id;
+        this.sql = sql;
+        this.placeholders = findPlaceholders(sql);
+        this.limitParams = new boolean[placeholders.size()];
+        for (int i = 0; i < placeholders.size(); i++) {
+            limitParams[i] = isLimitValue(sql, placeholders.get(i), i > 0 && limitParams[i - 1]);
+        }
+
+        // trimmed as the key of the parse tree cache of SqlParser, which could be shared with this statement
+        int leading = 0;
+        while (leading < sql.length() && sql.charAt(leading) <= ' ') {
+            leading++;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + placeholders.size() * 3);
+        this.templatePositions = Lists.newArrayListWithCapacity(placeholders.size());
+        int start = leading;
+        for (int i = 0; i < placeholders.size(); i++) {
+            int pos = placeholders.get(i);
+            sb.append(sql, start, pos);
+            templatePositions.add(sb.length());
+            sb.append(limitParams[i] ? "0" : "NULL");
+            start = pos + 1;
+        }
+        sb.append(sql, start, sql.length());
+        this.templateSql = sb.toString().trim();
+
+        this.paramTypes = new MysqlColType[placeholders.size()];
+        this.paramUnsigned = new boolean[placeholders.size()];
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getNumParams() {
+        return placeholders.size();
+    }
+
+    public MysqlColType getParamType(int index) {
+        return paramTypes[index];
+    }
+
+    public boolean isParamUnsigned(int index) {
+        return paramUnsigned[index];
+    }
+
+    public void setParamType(int index, MysqlColType type, boolean unsigned) {
+        paramTypes[index] = type;
+        paramUnsigned[index] = unsigned;
+    }
+
+    public void appendLongData(int index, byte[] data) {
+        longData.computeIfAbsent(index, k -> new ByteArrayOutputStream()).write(data, 0, data.length);
+    }
+
+    public byte[] getLongData(int index) {
+        ByteArrayOutputStream data = longData.get(index);
+        return data == null ? null : data.toByteArray();
+    }
+
+    public void resetLongData() {
+        longData.clear();
+    }
+
+    /**
+     * Replace the placeholders with the parameters.
+     *
+     * @param params SQL literals of parameters, e.g. 1, 'abc', NULL
+     */
+    public String bind(List<String> params) {
+        checkNumParams(params);
+        StringBuilder sb = new StringBuilder(sql.length() + params.size() * 8);
+        int start = 0;
+        for (int i = 0; i < placeholders.size(); i++) {
+            int pos = placeholders.get(i);
+            sb.append(sql, start, pos).append(params.get(i));
+            start = pos + 1;
+        }
+        sb.append(sql, start, sql.length());
+        return sb.toString();
+    }
+
+    private void checkNumParams(List<?> params) {
+        if (params.size() != placeholders.size()) {
+            throw new IllegalArgumentException("expect " + placeholders.size() + " parameters, but got " +
+                    params.size());
+        }
+    }
+
+    /**
+     * Parse the parameters into expressions, the values of LIMIT and OFFSET must be non-negative integers.
+     *
+     * @param params SQL literals of parameters, e.g. 1, 'abc', NULL
+     */
+    public List<Expr> parseParameters(List<String> params, long sqlMode) {
+        checkNumParams(params);
+        List<Expr> paramExprs = Lists.newArrayListWithCapacity(params.size());
+        for (int i = 0; i < params.size(); i++) {
+            if (limitParams[i]) {
+                paramExprs.add(new IntLiteral(parseLimitValue(params.get(i))));
+            } else {
+                paramExprs.add(SqlParser.parseSqlToExpr(params.get(i), sqlMode));
+            }
+        }
+        return paramExprs;
+    }
+
+    private static long parseLimitValue(String param) {
+        try {
+            long value = Long.parseLong(param);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParsingException("The parameter of LIMIT or OFFSET must be a non-negative integer, but got " +
+                param);
+    }
+
+    /**
+     * Build the statement with the parameters from the parse tree of the template.
+     *
+     * @param paramExprs parameters parsed by {@link #parseParameters}
+     */
+    public StatementBase buildStatement(List<Expr> paramExprs, long sqlMode) {
+        checkNumParams(paramExprs);
+        Map<Integer, Expr> positionToParam = Maps.newHashMapWithExpectedSize(paramExprs.size());
+        for (int i = 0; i < paramExprs.size(); i++) {
+            positionToParam.put(templatePositions.get(i), paramExprs.get(i));
+        }
+        return (StatementBase) new ParameterAstBuilder(sqlMode, positionToParam)
+                .visitSingleStatement(getParseTree(sqlMode));
+    }
+
+    /**
+     * Build the statement of the template itself, NULL is in place of the parameters, and 0 is the value of
+     * LIMIT and OFFSET. It is used to check the statement when preparing it.
+     */
+    public StatementBase buildTemplateStatement(long sqlMode) {
+        return (StatementBase) new AstBuilder(sqlMode).visitSingleStatement(getParseTree(sqlMode));
+    }
+
+    private StarRocksParser.SingleStatementContext getParseTree(long sqlMode) {
+        if (parseTree == null || parseTreeSqlMode != sqlMode) {
+            parseTree = SqlParser.parseTree(templateSql, sqlMode);
+            parseTreeSqlMode = sqlMode;
+        }
+        return parseTree;
+    }
+
+    // Replaces the NULL literals and the values of LIMIT and OFFSET in place of placeholders with the parameters
+    private static class ParameterAstBuilder extends AstBuilder {
+        // position of NULL or the limit value in the sql -> parameter
+        private final Map<Integer, Expr> params;
+
+        public ParameterAstBuilder(long sqlMode, Map<Integer, Expr> params) {
+            super(sqlMode);
+            this.params = params;
+        }
+
+        @Override
+        public ParseNode visitNullLiteral(StarRocksParser.NullLiteralContext context) {
+            Expr param = params.get(context.start.getStartIndex());
+            return param != null ? param : super.visitNullLiteral(context);
+        }
+
+        @Override
+        public ParseNode visitLimitElement(StarRocksParser.LimitElementContext context) {
+            long limit = getLimitValue(context.limit);
+            long offset = context.offset != null ? getLimitValue(context.offset) : 0;
+            return new LimitElement(offset, limit);
+        }
+
+        private long getLimitValue(Token token) {
+            Expr param = params.get(token.getStartIndex());
+            return param != null ? ((IntLiteral) param).getValue() : Long.parseLong(token.getText());
+        }
+    }
+
+    /**
+     * Whether the analyzed statement calls functions whose result is decided when planning, or which return
+     * information of the session.
+     */
+    public static boolean hasNonDeterministicFunction(StatementBase stmt) {
+        for (FunctionCallExpr functionCall : AnalyzerUtils.collectAllExpressions(stmt, FunctionCallExpr.class)) {
+            if (NON_DETERMINISTIC_FUNCTIONS.contains(functionCall.getFnName().getFunction().toLowerCase())) {
+                return true;
+            }
+        }
+        return !AnalyzerUtils.collectAllExpressions(stmt, InformationFunction.class).isEmpty();
+    }
+
+    /**
+     * Find '?' outside of quoted strings, quoted identifiers and comments.
+     */
+    public static List<Integer> findPlaceholders(String sql) {
+        List<Integer> placeholders = Lists.newArrayList();
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                // skip quoted string, backslash escapes the next char except in identifiers
+                i++;
+                while (i < length && sql.charAt(i) != c) {
+                    if (sql.charAt(i) == '\\' && c != '`') {
+                        i++;
+                    }
+                    i++;
+                }
+                i++;
+            } else if ((c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') || c == '#') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                if (c == '?') {
+                    placeholders.add(i);
+                }
+                i++;
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * Whether the placeholder at pos is the value of LIMIT or OFFSET, i.e. it follows LIMIT or OFFSET, or it is
+     * the count of "LIMIT offset, count" whose offset is an integer or a placeholder.
+     *
+     * @param prevIsLimitValue whether the previous placeholder is the value of LIMIT or OFFSET
+     */
+    static boolean isLimitValue(String sql, int pos, boolean prevIsLimitValue) {
+        int end = skipSpacesBackward(sql, pos);
+        String word = wordBefore(sql, end);
+        if (word.equalsIgnoreCase("LIMIT") || word.equalsIgnoreCase("OFFSET")) {
+            return true;
+        }
+        if (end == 0 || sql.charAt(end - 1) != ',') {
+            return false;
+        }
+        end = skipSpacesBackward(sql, end - 1);
+        if (end > 0 && sql.charAt(end - 1) == '?') {
+            return prevIsLimitValue;
+        }
+        int start = end;
+        while (start > 0 && Character.isDigit(sql.charAt(start - 1))) {
+            start--;
+        }
+        return start < end && wordBefore(sql, skipSpacesBackward(sql, start)).equalsIgnoreCase("LIMIT");
+    }
+
+    private static int skipSpacesBackward(String sql, int end) {
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    // the unquoted word ending at end
+    private static String wordBefore(String sql, int end) {
+        int start = end;
+        while (start > 0 && Character.isLetter(sql.charAt(start - 1))) {
+            start--;
+        }
+        if (start > 0 && (Character.isLetterOrDigit(sql.charAt(start - 1)) || sql.charAt(start - 1) == '_' ||
+                sql.charAt(start - 1) == '`' || sql.charAt(start - 1) == '.')) {
+            return "";
+        }
+        return sql.substring(start, end);
+    }
+
+    /**
+     * @return the valid analyzed statement of the shape of the parameters bound to them, or null
+     */
+    public AnalyzedStatement bindAnalyzedStatement(List<Expr> paramExprs) {
+        if (analyzedStatements.isEmpty()) {
+            return null;
+        }
+        List<Object> shape = getShape(paramExprs);
+        AnalyzedStatement analyzedStmt = shape == null ? null : analyzedStatements.get(shape);
+        if (analyzedStmt == null) {
+            return null;
+        }
+        if (!analyzedStmt.isValid()) {
+            analyzedStatements.remove(shape);
+            return null;
+        }
+        analyzedStmt.bind(paramExprs);
+        return analyzedStmt;
+    }
+
+    /**
+     * Create the analyzed statement of the query built by {@link #buildStatement}, which is cached by
+     * {@link #cacheAnalyzedStatement} after it is planned. Return null if it could not be bound to other
+     * parameters.
+     *
+     * @param paramExprs the parameters of the query
+     */
+    public AnalyzedStatement createAnalyzedStatement(List<Expr> paramExprs, QueryStatement stmt,
+                                                     ConnectContext session) {
+        if (!Config.enable_prepared_statement_plan_cache) {
+            return null;
+        }
+        // the information functions are evaluated when analyzing, and the children of analytic functions are
+        // also kept by their function calls
+        if (!AnalyzerUtils.collectAllExpressions(stmt, InformationFunction.class).isEmpty() ||
+                !AnalyzerUtils.collectAllExpressions(stmt, AnalyticExpr.class).isEmpty()) {
+            return null;
+        }
+        List<Object> shape = getShape(paramExprs);
+        if (shape == null) {
+            return null;
+        }
+        List<List<Pair<Expr, Integer>>> paramSlots = findParameterSlots(stmt, paramExprs);
+        if (paramSlots == null) {
+            return null;
+        }
+        Set<Long> dbIds = AnalyzerUtils.collectAllDatabase(session, stmt).values().stream()
+                .filter(db -> db != null).map(Database::getId).collect(Collectors.toSet());
+        TableSchemaSnapshot snapshot = TableSchemaSnapshot.create(stmt, dbIds);
+        if (snapshot == null) {
+            return null;
+        }
+        return new AnalyzedStatement(shape, stmt, paramSlots, snapshot);
+    }
+
+    /**
+     * Cache the analyzed statement and its plan of the parameters after it is planned.
+     */
+    public void cacheAnalyzedStatement(AnalyzedStatement analyzedStmt, List<String> params, ExecPlan plan,
+                                       Set<Long> dbIds) {
+        if (analyzedStmt.exprsBeforePlanning != null) {
+            // the statement could not be planned again if planning changes its expressions
+            boolean changed =
+                    !isSameExpressions(analyzedStmt.exprsBeforePlanning, snapshotExpressions(analyzedStmt.stmt));
+            analyzedStmt.exprsBeforePlanning = null;
+            if (changed) {
+                return;
+            }
+            analyzedStatements.put(analyzedStmt.shape, analyzedStmt);
+            if (analyzedStatements.size() > MAX_ANALYZED_STATEMENTS) {
+                Iterator<AnalyzedStatement> eldest = analyzedStatements.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        analyzedStmt.cachePlan(params, plan, dbIds);
+    }
+
+    public void removeAnalyzedStatement(AnalyzedStatement analyzedStmt) {
+        analyzedStatements.remove(analyzedStmt.shape, analyzedStmt);
+    }
+
+    public void invalidateCachedPlans() {
+        analyzedStatements.clear();
+    }
+
+    // The shape of the parameters, the analyzed statements of parameters of the same shape are the same except
+    // the literals of the parameters. Return null if any parameter is not a literal.
+    private List<Object> getShape(List<Expr> paramExprs) {
+        List<Object> shape = Lists.newArrayListWithCapacity(paramExprs.size() * 2);
+        for (int i = 0; i < paramExprs.size(); i++) {
+            Expr param = paramExprs.get(i);
+            if (limitParams[i]) {
+                shape.add(((IntLiteral) param).getValue());
+                continue;
+            }
+            if (!(param instanceof LiteralExpr)) {
+                return null;
+            }
+            shape.add(param.getType());
+            // equal expressions are merged when analyzing, e.g. the same aggregation in select list and having
+            int firstEqual = i;
+            for (int j = 0; j < i; j++) {
+                if (!limitParams[j] && paramExprs.get(j).equals(param)) {
+                    firstEqual = j;
+                    break;
+                }
+            }
+            shape.add(firstEqual);
+        }
+        return shape;
+    }
+
+    // Find the parent expressions of the literal of each parameter in the analyzed statement, with the index in
+    // their children. Return null if the literal is referenced anywhere else, e.g. it is an item of the select
+    // list, then the literal could not be replaced in place.
+    private List<List<Pair<Expr, Integer>>> findParameterSlots(StatementBase stmt, List<Expr> paramExprs) {
+        IdentityHashMap<Expr, Integer> paramIndexes = new IdentityHashMap<>();
+        List<List<Pair<Expr, Integer>>> paramSlots = Lists.newArrayListWithCapacity(paramExprs.size());
+        for (int i = 0; i < paramExprs.size(); i++) {
+            if (!limitParams[i]) {
+                paramIndexes.put(paramExprs.get(i), i);
+            }
+            paramSlots.add(Lists.newArrayList());
+        }
+        // the times each parameter is referenced, and referenced as a child
+        int[] references = new int[paramExprs.size()];
+        int[] childReferences = new int[paramExprs.size()];
+        for (Expr expr : collectExpressions(stmt)) {
+            Integer index = paramIndexes.get(expr);
+            if (index != null) {
+                references[index]++;
+            }
+            for (int i = 0; i < expr.getChildren().size(); i++) {
+                Integer childIndex = paramIndexes.get(expr.getChild(i));
+                if (childIndex != null) {
+                    childReferences[childIndex]++;
+                    if (!containsSlot(paramSlots.get(childIndex), expr, i)) {
+                        paramSlots.get(childIndex).add(Pair.create(expr, i));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < paramExprs.size(); i++) {
+            if (!limitParams[i] && (paramSlots.get(i).isEmpty() || references[i] != childReferences[i])) {
+                return null;
+            }
+        }
+        return paramSlots;
+    }
+
+    private static boolean containsSlot(List<Pair<Expr, Integer>> slots, Expr parent, int index) {
+        for (Pair<Expr, Integer> slot : slots) {
+            if (slot.first == parent && slot.second == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // All expressions of the statement in pre-order, an expression referenced by different clauses is
+    // collected for each of them
+    private static List<Expr> collectExpressions(StatementBase stmt) {
+        List<Expr> exprs = Lists.newArrayList();
+        for (Expr root : AnalyzerUtils.collectAllRootExpressions(stmt)) {
+            collectExpressions(root, exprs);
+        }
+        return exprs;
+    }
+
+    private static void collectExpressions(Expr expr, List<Expr> exprs) {
+        exprs.add(expr);
+        for (Expr child : expr.getChildren()) {
+            collectExpressions(child, exprs);
+        }
+    }
+
+    // All expressions of the statement, each followed by its children and a null, to check whether the
+    // expressions are changed
+    private static List<Expr> snapshotExpressions(StatementBase stmt) {
+        List<Expr> snapshot = Lists.newArrayList();
+        for (Expr expr : collectExpressions(stmt)) {
+            snapshot.add(expr);
+            snapshot.addAll(expr.getChildren());
+            snapshot.add(null);
+        }
+        return snapshot;
+    }
+
+    private static boolean isSameExpressions(List<Expr> exprs, List<Expr> otherExprs) {
+        if (exprs.size() != otherExprs.size()) {
+            return false;
+        }
+        for (int i = 0; i < exprs.size(); i++) {
+            if (exprs.get(i) != otherExprs.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class AnalyzedStatement {
+        private final List<Object> shape;
+        private final QueryStatement stmt;
+        // the parent expressions of the literal of each parameter, and the index of it in their children
+        private final List<List<Pair<Expr, Integer>>> paramSlots;
+        private final TableSchemaSnapshot snapshot;
+        // the expressions before the statement is planned for the first time, null after that
+        private List<Expr> exprsBeforePlanning;
+
+        // the optimized plan of the last parameters, only the physical plan is reused, its fragments have been
+        // executed
+        private List<String> planParams;
+        private ExecPlan plan;
+        private Set<Long> dbIds;
+        private TableVersionSnapshot planSnapshot;
+        private long planTime;
+
+        private AnalyzedStatement(List<Object> shape, QueryStatement stmt,
+                                  List<List<Pair<Expr, Integer>>> paramSlots, TableSchemaSnapshot snapshot) {
+            this.shape = shape;
+            this.stmt = stmt;
+            this.paramSlots = paramSlots;
+            this.snapshot = snapshot;
+            this.exprsBeforePlanning = snapshotExpressions(stmt);
+        }
+
+        public QueryStatement getStmt() {
+            return stmt;
+        }
+
+        private boolean isValid() {
+            return snapshot.isValid();
+        }
+
+        // replace the literals of parameters in the analyzed statement
+        private void bind(List<Expr> paramExprs) {
+            for (int i = 0; i < paramExprs.size(); i++) {
+                for (Pair<Expr, Integer> slot : paramSlots.get(i)) {
+                    slot.first.setChild(slot.second, paramExprs.get(i));
+                }
+            }
+        }
+
+        private void cachePlan(List<String> params, ExecPlan plan, Set<Long> dbIds) {
+            this.plan = null;
+            if (stmt.isExplain() || stmt.hasOutFileClause() || hasNonDeterministicFunction(stmt)) {
+                return;
+            }
+            TableVersionSnapshot planSnapshot = TableVersionSnapshot.create(plan, dbIds);
+            if (planSnapshot == null) {
+                return;
+            }
+            this.planParams = params;
+            this.plan = plan;
+            this.dbIds = dbIds;
+            this.planSnapshot = planSnapshot;
+            this.planTime = System.currentTimeMillis();
+        }
+
+        /**
+         * Build the fragments to execute from the cached plan if it is planned with the same parameters and still
+         * valid, the databases ids of the session are set. Return null otherwise.
+         */
+        public ExecPlan rebuildCachedPlan(List<String> params, ConnectContext session) {
+            if (plan == null || !planParams.equals(params)) {
+                return null;
+            }
+            // The replicas chosen in scan ranges may be moved by tablet scheduler without changing any version,
+            // so the plan is also expired after a while.
+            if (System.currentTimeMillis() - planTime >= Config.prepared_statement_plan_cache_expire_seconds * 1000L
+                    || !planSnapshot.isValid()) {
+                plan = null;
+                return null;
+            }
+            session.setCurrentSqlDbIds(dbIds);
+            return new StatementPlanner().rebuildQueryPlan(stmt, plan, session);
+        }
+    }
+}
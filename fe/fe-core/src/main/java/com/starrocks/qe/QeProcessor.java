@@ -38,4 +38,6 @@ public interface QeProcessor {
     Map<String, QueryStatisticsItem> getQueryStatistics();
 
     Coordinator getCoordinator(TUniqueId queryId);
+
+    void processProfileAsync(TUniqueId queryId, Coordinator coord, Runnable task);
 }
@@ -22,6 +22,8 @@
 package com.starrocks.qe;
 
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.thrift.TNetworkAddress;
@@ -34,11 +36,22 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public final class QeProcessorImpl implements QeProcessor {
 
     private static final Logger LOG = LogManager.getLogger(QeProcessorImpl.class);
     private Map<TUniqueId, QueryInfo> coordinatorMap;
+    // the finished queries whose profiles are being processed in background, the reports of their backends are
+    // still accepted until the profiles are done
+    private Map<TUniqueId, Coordinator> profileCoordinatorMap;
+    // the query thread processes the profile itself when the queue is full, instead of waiting for the queue
+    private final ThreadPoolExecutor profileExecutor = ThreadPoolManager.newDaemonThreadPool(
+            Config.profile_process_threads_num, Config.profile_process_threads_num, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(Config.profile_process_blocking_queue_size),
+            new ThreadPoolExecutor.CallerRunsPolicy(), "profile-worker", true);
 
     public static final QeProcessor INSTANCE;
 
@@ -48,6 +61,7 @@ public final class QeProcessorImpl implements QeProcessor {
 
     private QeProcessorImpl() {
         coordinatorMap = Maps.newConcurrentMap();
+        profileCoordinatorMap = Maps.newConcurrentMap();
     }
 
     @Override
@@ -75,11 +89,35 @@ public final class QeProcessorImpl implements QeProcessor {
 
     @Override
     public void unregisterQuery(TUniqueId queryId) {
-        if (coordinatorMap.remove(queryId) != null) {
+        QueryInfo info = coordinatorMap.remove(queryId);
+        if (info != null) {
             LOG.info("deregister query id {}", DebugUtil.printId(queryId));
+            if (info.getCoord() != null) {
+                info.getCoord().releaseQueryQueueSlot();
+            }
         }
     }
 
+    /**
+     * Run the task finishing the profile of a finished query in background, so the query returns without waiting
+     * for the last reports of backends and merging the profiles. The task runs in the calling thread at once if
+     * the background queue is full.
+     */
+    @Override
+    public void processProfileAsync(TUniqueId queryId, Coordinator coord, Runnable task) {
+        profileCoordinatorMap.put(queryId, coord);
+        Runnable wrappedTask = () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOG.warn("failed to process profile of query {}", DebugUtil.printId(queryId), e);
+            } finally {
+                profileCoordinatorMap.remove(queryId);
+            }
+        };
+        profileExecutor.execute(wrappedTask);
+    }
+
     @Override
     public Map<String, QueryStatisticsItem> getQueryStatistics() {
         final Map<String, QueryStatisticsItem> querySet = Maps.newHashMap();
@@ -114,14 +152,15 @@ public final class QeProcessorImpl implements QeProcessor {
         }
         final TReportExecStatusResult result = new TReportExecStatusResult();
         final QueryInfo info = coordinatorMap.get(params.query_id);
-        if (info == null) {
+        final Coordinator coord = info != null ? info.getCoord() : profileCoordinatorMap.get(params.query_id);
+        if (coord == null) {
             result.setStatus(new TStatus(TStatusCode.NOT_FOUND));
             LOG.info("ReportExecStatus() failed, query does not exist, fragment_instance_id={}, query_id={},",
                     DebugUtil.printId(params.fragment_instance_id), DebugUtil.printId(params.query_id));
             return result;
         }
         try {
-            info.getCoord().updateFragmentExecStatus(params);
+            coord.updateFragmentExecStatus(params);
         } catch (Exception e) {
             LOG.warn("ReportExecStatus() failed, fragment_instance_id={}, query_id={}, error: {}",
                     DebugUtil.printId(params.fragment_instance_id), DebugUtil.printId(params.query_id), e.getMessage());
@@ -0,0 +1,296 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.catalog.WorkGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.metric.ResourceGroupMetricMgr;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.ComputeNode;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.thrift.TWorkGroupType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control of queries on FE. A query is admitted when
+ * 1. the running queries of its resource group are fewer than the concurrency_limit of the group,
+ * 2. the query_mem_limit of the running queries of its group fits the mem_limit of the group on a backend,
+ * 3. and no backend uses more than query_queue_leader_mem_used_pct_limit of its memory, reported by heartbeat.
+ * Otherwise, it waits in the queue until admitted, or fails when timeout.
+ * <p>
+ * The queue is per FE, i.e. each FE limits the queries coordinated by itself. The memory of backends is only known
+ * by the leader, which receives the heartbeats, so 2 and 3 are only checked on the leader.
+ * <p>
+ * The queries of realtime resource groups are admitted before the others, and the queries with the same priority are
+ * admitted in FIFO order. A query is never overtaken by the later queries of the same group.
+ */
+public class QueryQueueManager {
+    private static final Logger LOG = LogManager.getLogger(QueryQueueManager.class);
+
+    private static final QueryQueueManager INSTANCE = new QueryQueueManager();
+
+    // the memory of backends changes without notification, so the pending queries recheck it periodically
+    private static final long RECHECK_INTERVAL_MS = 1000;
+    private static final long NO_WORK_GROUP_ID = -1;
+
+    private static final Comparator<PendingQuery> PENDING_QUERY_COMPARATOR =
+            Comparator.<PendingQuery>comparingInt(query -> query.priority).thenComparingLong(query -> query.seq);
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition admittedCondition = lock.newCondition();
+    private final Map<Long, GroupStat> groupStats = new HashMap<>();
+    private final TreeSet<PendingQuery> pendingQueries = new TreeSet<>(PENDING_QUERY_COMPARATOR);
+    private long nextSeq = 0;
+
+    @VisibleForTesting
+    QueryQueueManager() {
+    }
+
+    public static QueryQueueManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The resources held by an admitted query, which must be released once the query finishes.
+     */
+    public static class Slot {
+        private final long groupId;
+        private final long memBytes;
+        private boolean released = false;
+
+        private Slot(long groupId, long memBytes) {
+            this.groupId = groupId;
+            this.memBytes = memBytes;
+        }
+    }
+
+    private static class GroupStat {
+        private final String name;
+        private int runningQueries = 0;
+        private long reservedMemBytes = 0;
+        private int pendingQueries = 0;
+
+        private GroupStat(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class PendingQuery {
+        private final long seq;
+        private final int priority;
+        private final long groupId;
+        private final Integer concurrencyLimit;
+        private final Double memLimit;
+        private final long memBytes;
+        private boolean admitted = false;
+
+        private PendingQuery(long seq, WorkGroup group, long memBytes) {
+            this.seq = seq;
+            this.priority = group != null && group.getWorkGroupType() == TWorkGroupType.WG_REALTIME ? 0 : 1;
+            this.groupId = group == null ? NO_WORK_GROUP_ID : group.getId();
+            this.concurrencyLimit = group == null ? null : group.getConcurrencyLimit();
+            this.memLimit = group == null ? null : group.getMemLimit();
+            this.memBytes = memBytes;
+        }
+    }
+
+    /**
+     * Wait until the query is admitted.
+     *
+     * @param group the resource group of the query, null if it doesn't belong to any group
+     * @throws UserException if the queue is full, or the query is timeout or killed when waiting
+     */
+    public Slot acquire(ConnectContext context, WorkGroup group) throws UserException {
+        long memBytes = Math.max(0, context.getSessionVariable().getQueryMemLimit());
+        long startMs = System.currentTimeMillis();
+        long deadlineMs = startMs + Config.query_queue_pending_timeout_second * 1000;
+
+        lock.lock();
+        try {
+            PendingQuery query = new PendingQuery(nextSeq++, group, memBytes);
+            GroupStat stat = groupStats.computeIfAbsent(query.groupId, id -> new GroupStat(getGroupName(group)));
+            pendingQueries.add(query);
+            admitPendingQueries();
+            if (query.admitted) {
+                return new Slot(query.groupId, memBytes);
+            }
+            if (pendingQueries.size() > Config.query_queue_max_queued_queries) {
+                pendingQueries.remove(query);
+                throw new UserException("Too many queued queries, the max is " +
+                        Config.query_queue_max_queued_queries);
+            }
+
+            stat.pendingQueries++;
+            ResourceGroupMetricMgr.setQueryQueuePending(stat.name, stat.pendingQueries);
+            try {
+                while (!query.admitted) {
+                    long waitMs = Math.min(deadlineMs - System.currentTimeMillis(), RECHECK_INTERVAL_MS);
+                    if (waitMs <= 0) {
+                        throw new UserException("Query is timeout after waiting " +
+                                Config.query_queue_pending_timeout_second + " seconds in the query queue");
+                    }
+                    if (context.isKilled()) {
+                        throw new UserException("Query is killed when waiting in the query queue");
+                    }
+                    try {
+                        admittedCondition.await(waitMs, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new UserException("Query is interrupted when waiting in the query queue");
+                    }
+                    if (!query.admitted) {
+                        admitPendingQueries();
+                    }
+                }
+            } finally {
+                if (!query.admitted) {
+                    pendingQueries.remove(query);
+                    // the later queries of the group may be admitted now
+                    admitPendingQueries();
+                }
+                stat.pendingQueries--;
+                ResourceGroupMetricMgr.setQueryQueuePending(stat.name, stat.pendingQueries);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long waitMs = System.currentTimeMillis() - startMs;
+        ResourceGroupMetricMgr.updateQueryQueueWaitTime(getGroupName(group), waitMs);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("query {} is admitted after waiting {}ms in the query queue",
+                    DebugUtil.printId(context.getExecutionId()), waitMs);
+        }
+        return new Slot(group == null ? NO_WORK_GROUP_ID : group.getId(), memBytes);
+    }
+
+    // the group specified by workgroup_id has only the id
+    private static String getGroupName(WorkGroup group) {
+        if (group == null) {
+            return WorkGroup.DEFAULT_WORKGROUP_NAME;
+        }
+        return group.getName() == null ? String.valueOf(group.getId()) : group.getName();
+    }
+
+    public void release(Slot slot) {
+        lock.lock();
+        try {
+            if (slot.released) {
+                return;
+            }
+            slot.released = true;
+            GroupStat stat = groupStats.get(slot.groupId);
+            stat.runningQueries--;
+            stat.reservedMemBytes -= slot.memBytes;
+            admitPendingQueries();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingQueryNum() {
+        lock.lock();
+        try {
+            return pendingQueries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Admit the pending queries in order, must be called with the lock held
+    private void admitPendingQueries() {
+        if (pendingQueries.isEmpty() || isBackendMemoryExhausted()) {
+            return;
+        }
+        long backendMemLimitBytes = -1;
+        Set<Long> blockedGroups = new HashSet<>();
+        boolean admittedAny = false;
+        Iterator<PendingQuery> iterator = pendingQueries.iterator();
+        while (iterator.hasNext()) {
+            PendingQuery query = iterator.next();
+            if (blockedGroups.contains(query.groupId)) {
+                continue;
+            }
+            GroupStat stat = groupStats.get(query.groupId);
+            boolean canAdmit = query.concurrencyLimit == null || query.concurrencyLimit <= 0 ||
+                    stat.runningQueries < query.concurrencyLimit;
+            if (canAdmit && query.memBytes > 0 && query.memLimit != null && query.memLimit > 0) {
+                if (backendMemLimitBytes < 0) {
+                    backendMemLimitBytes = getBackendMemLimitBytes();
+                }
+                canAdmit = backendMemLimitBytes <= 0 ||
+                        stat.reservedMemBytes + query.memBytes <= query.memLimit * backendMemLimitBytes ||
+                        stat.runningQueries == 0;
+            }
+            if (!canAdmit) {
+                blockedGroups.add(query.groupId);
+                continue;
+            }
+            iterator.remove();
+            query.admitted = true;
+            stat.runningQueries++;
+            stat.reservedMemBytes += query.memBytes;
+            admittedAny = true;
+        }
+        if (admittedAny) {
+            admittedCondition.signalAll();
+        }
+    }
+
+    // the alive nodes whose memory is reported by heartbeat, empty if this FE is not the leader
+    private static List<ComputeNode> getAliveNodesWithMemStat() {
+        if (!GlobalStateMgr.getCurrentState().isMaster()) {
+            return new ArrayList<>();
+        }
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentSystemInfo();
+        List<ComputeNode> nodes = new ArrayList<>(systemInfoService.getBackends());
+        nodes.addAll(systemInfoService.getComputeNodes());
+        nodes.removeIf(node -> !node.isAlive());
+        return nodes;
+    }
+
+    @VisibleForTesting
+    boolean isBackendMemoryExhausted() {
+        double limitPct = Config.query_queue_leader_mem_used_pct_limit;
+        if (limitPct <= 0) {
+            return false;
+        }
+        for (ComputeNode node : getAliveNodesWithMemStat()) {
+            if (node.getMemLimitBytes() > 0 && node.getMemUsedBytes() >= node.getMemLimitBytes() * limitPct) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the smallest memory limit of the alive backends, 0 if unknown
+    @VisibleForTesting
+    long getBackendMemLimitBytes() {
+        long minMemLimitBytes = 0;
+        for (ComputeNode node : getAliveNodesWithMemStat()) {
+            if (node.getMemLimitBytes() > 0 &&
+                    (minMemLimitBytes == 0 || node.getMemLimitBytes() < minMemLimitBytes)) {
+                minMemLimitBytes = node.getMemLimitBytes();
+            }
+        }
+        return minMemLimitBytes;
+    }
+}
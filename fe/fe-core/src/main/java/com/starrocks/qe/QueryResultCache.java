@@ -0,0 +1,190 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.common.Config;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.thrift.TExplainLevel;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of the result rows of queries in FE, the rows are sent to client directly when the same plan is
+ * executed again on the same data, without running the query on BE.
+ * <p>
+ * The key is the plan, plus the ids and visible versions of all partitions read by the plan, so a load into
+ * any scanned partition makes the entry unreachable. The entries of a table are also removed when a new
+ * version of the table is visible, to release the memory early. The entries are evicted in LRU order when the
+ * memory used exceeds {@link Config#query_result_cache_capacity_bytes}.
+ * <p>
+ * The key also contains the current user, so the result is never shared by users who may see different data of
+ * the same plan, e.g. a user may lose the privilege of the table, which is checked before looking up the cache.
+ * <p>
+ * The cached rows are the buffers of the result batches received from BE, not copied, and they are shared by all
+ * the queries hitting the entry, so the readers must read them by {@link ByteBuffer#duplicate()}.
+ */
+public class QueryResultCache {
+    private static final QueryResultCache INSTANCE = new QueryResultCache();
+
+    // in LRU order
+    private final LinkedHashMap<CacheKey, List<ByteBuffer>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Set<CacheKey>> tableToKeys = Maps.newHashMap();
+    private long usedBytes = 0;
+
+    public static QueryResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Build the key of the plan, return null if the result of the plan could not be cached, e.g. the statement
+     * is not a query, uses non-deterministic functions or reads non olap tables.
+     */
+    public static CacheKey buildKey(ConnectContext context, StatementBase stmt, ExecPlan plan) {
+        if (!(stmt instanceof QueryStatement)) {
+            return null;
+        }
+        QueryStatement queryStatement = (QueryStatement) stmt;
+        if (queryStatement.isExplain() || queryStatement.hasOutFileClause() ||
+                PreparedStatementContext.hasNonDeterministicFunction(stmt)) {
+            return null;
+        }
+        if (plan.getScanNodes().isEmpty()) {
+            return null;
+        }
+        TableVersionSnapshot snapshot = TableVersionSnapshot.create(plan, context.getCurrentSqlDbIds());
+        if (snapshot == null) {
+            return null;
+        }
+
+        SessionVariable sessionVariable = context.getSessionVariable();
+        StringBuilder sb = new StringBuilder();
+        sb.append(plan.getExplainString(TExplainLevel.NORMAL)).append('\n');
+        sb.append(plan.getColNames()).append('\n');
+        // affect the results computed by BE
+        sb.append(sessionVariable.getTimeZone()).append(',').append(sessionVariable.getSqlMode()).append('\n');
+        sb.append(context.getCurrentUserIdentity()).append('\n');
+        sb.append(snapshot.getVersionDigest());
+        return new CacheKey(sb.toString(), snapshot.getTableIds());
+    }
+
+    public synchronized List<ByteBuffer> get(CacheKey key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @param rows result rows in MySQL text protocol, the buffers must not be modified after put
+     */
+    public synchronized void put(CacheKey key, List<ByteBuffer> rows) {
+        long bytes = estimateBytes(key, rows);
+        if (bytes > Config.query_result_cache_max_entry_bytes || bytes > Config.query_result_cache_capacity_bytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, rows);
+        usedBytes += bytes;
+        for (Long tableId : key.tableIds) {
+            tableToKeys.computeIfAbsent(tableId, k -> Sets.newHashSet()).add(key);
+        }
+
+        Iterator<Map.Entry<CacheKey, List<ByteBuffer>>> iterator = entries.entrySet().iterator();
+        while (usedBytes > Config.query_result_cache_capacity_bytes && iterator.hasNext()) {
+            Map.Entry<CacheKey, List<ByteBuffer>> eldest = iterator.next();
+            usedBytes -= estimateBytes(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            removeTableIndex(eldest.getKey());
+        }
+    }
+
+    /**
+     * Called when a new version of the table is visible, the entries of the table will never be hit again.
+     */
+    public synchronized void invalidateTable(long tableId) {
+        Set<CacheKey> keys = tableToKeys.get(tableId);
+        if (keys == null) {
+            return;
+        }
+        for (CacheKey key : Lists.newArrayList(keys)) {
+            remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        tableToKeys.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void remove(CacheKey key) {
+        List<ByteBuffer> rows = entries.remove(key);
+        if (rows != null) {
+            usedBytes -= estimateBytes(key, rows);
+            removeTableIndex(key);
+        }
+    }
+
+    private void removeTableIndex(CacheKey key) {
+        for (Long tableId : key.tableIds) {
+            Set<CacheKey> keys = tableToKeys.get(tableId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    tableToKeys.remove(tableId);
+                }
+            }
+        }
+    }
+
+    private static long estimateBytes(CacheKey key, List<ByteBuffer> rows) {
+        // 16 bytes for the header of each buffer
+        long bytes = key.digest.length() * 2L + rows.size() * 16L;
+        for (ByteBuffer row : rows) {
+            bytes += row.remaining();
+        }
+        return bytes;
+    }
+
+    public static class CacheKey {
+        private final String digest;
+        private final Set<Long> tableIds;
+
+        CacheKey(String digest, Set<Long> tableIds) {
+            this.digest = digest;
+            this.tableIds = ImmutableSet.copyOf(tableIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return digest.equals(((CacheKey) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+    }
+}
@@ -21,6 +21,8 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.common.Status;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.metric.MetricRepo;
@@ -38,11 +40,23 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+/**
+ * Fetch the result batches of the top fragment instance from BE.
+ * <p>
+ * Up to {@link Config#max_inflight_result_fetch_requests} fetch requests are kept in flight, so the next batches
+ * are transferred while the current batch is written to the client. BE replies the waiting requests in the order
+ * they arrive, which may differ from the order they are sent, so the results are reordered by the packet sequence.
+ * After the last packet, BE replies all waiting requests with eos of the same sequence, they are ignored.
+ */
 public class ResultReceiver {
     private static final Logger LOG = LogManager.getLogger(ResultReceiver.class);
     private boolean isDone = false;
@@ -54,6 +68,13 @@ public class ResultReceiver {
     private final Long backendId;
     private Thread currentThread;
 
+    // requests sent but not received, in the order they are sent
+    private final Deque<Pair<PFetchDataRequest, Future<PFetchDataResult>>> inflightRequests = new ArrayDeque<>();
+    // received results not returned yet, by packet sequence
+    private final Map<Long, Pair<PFetchDataRequest, PFetchDataResult>> receivedResults = new HashMap<>();
+    private boolean isEosReceived = false;
+    private final TDeserializer deserializer = new TDeserializer();
+
     public ResultReceiver(TUniqueId tid, Long backendId, TNetworkAddress address, int timeoutMs) {
         this.finstId = new PUniqueId();
         this.finstId.hi = tid.hi;
@@ -69,49 +90,52 @@ public class ResultReceiver {
         }
         final RowBatch rowBatch = new RowBatch();
         try {
+            currentThread = Thread.currentThread();
             while (!isDone && !isCancel) {
-                PFetchDataRequest request = new PFetchDataRequest(finstId);
-
-                currentThread = Thread.currentThread();
-                Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
-                PFetchDataResult pResult = null;
-                while (pResult == null) {
-                    long currentTs = System.currentTimeMillis();
-                    if (currentTs >= timeoutTs) {
-                        throw new TimeoutException("query timeout");
+                sendFetchRequests();
+
+                Pair<PFetchDataRequest, PFetchDataResult> received = receivedResults.remove(packetIdx);
+                if (received == null) {
+                    if (inflightRequests.isEmpty()) {
+                        LOG.warn("receive packet failed, expect={}, receive={}", packetIdx, receivedResults.keySet());
+                        status.setRpcStatus("receive error packet");
+                        return null;
+                    }
+                    Pair<PFetchDataRequest, Future<PFetchDataResult>> inflight = inflightRequests.peekFirst();
+                    PFetchDataResult pResult = waitResult(inflight.second, status);
+                    if (pResult == null) {
+                        return null;
+                    }
+                    inflightRequests.pollFirst();
+
+                    TStatusCode code = TStatusCode.findByValue(pResult.status.statusCode);
+                    if (code != TStatusCode.OK) {
+                        status.setPstatus(pResult.status);
+                        return null;
                     }
-                    try {
-                        pResult = future.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
-                    } catch (InterruptedException e) {
-                        // continue to get result
-                        LOG.info("future get interrupted Exception");
-                        if (isCancel) {
-                            status.setStatus(Status.CANCELLED);
-                            return null;
+                    isEosReceived |= pResult.eos;
+                    if (pResult.packetSeq < packetIdx || receivedResults.containsKey(pResult.packetSeq)) {
+                        if (pResult.eos) {
+                            continue;
                         }
+                        LOG.warn("receive packet failed, expect={}, receive={}", packetIdx, pResult.packetSeq);
+                        status.setRpcStatus("receive error packet");
+                        return null;
                     }
-                }
-                TStatusCode code = TStatusCode.findByValue(pResult.status.statusCode);
-                if (code != TStatusCode.OK) {
-                    status.setPstatus(pResult.status);
-                    return null;
+                    receivedResults.put(pResult.packetSeq, new Pair<>(inflight.first, pResult));
+                    continue;
                 }
 
+                PFetchDataResult pResult = received.second;
                 rowBatch.setQueryStatistics(pResult.queryStatistics);
 
-                if (packetIdx != pResult.packetSeq) {
-                    LOG.warn("receive packet failed, expect={}, receive={}", packetIdx, pResult.packetSeq);
-                    status.setRpcStatus("receive error packet");
-                    return null;
-                }
-
                 packetIdx++;
                 isDone = pResult.eos;
 
-                byte[] serialResult = request.getSerializedResult();
+                byte[] serialResult = received.first.getSerializedResult();
                 if (serialResult != null && serialResult.length > 0) {
                     TResultBatch resultBatch = new TResultBatch();
-                    TDeserializer deserializer = new TDeserializer();
+                    // the rows of the batch are wrapped from the serialized result, not copied
                     deserializer.deserialize(resultBatch, serialResult);
                     rowBatch.setBatch(resultBatch);
                     rowBatch.setEos(pResult.eos);
@@ -152,6 +176,38 @@ public class ResultReceiver {
         return rowBatch;
     }
 
+    private void sendFetchRequests() throws RpcException {
+        int maxInflightRequests = Math.max(1, Config.max_inflight_result_fetch_requests);
+        while (!isEosReceived && inflightRequests.size() + receivedResults.size() < maxInflightRequests) {
+            PFetchDataRequest request = new PFetchDataRequest(finstId);
+            Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+            inflightRequests.addLast(new Pair<>(request, future));
+        }
+    }
+
+    // null if the receiver is cancelled
+    private PFetchDataResult waitResult(Future<PFetchDataResult> future, Status status)
+            throws TimeoutException, ExecutionException {
+        PFetchDataResult pResult = null;
+        while (pResult == null) {
+            long currentTs = System.currentTimeMillis();
+            if (currentTs >= timeoutTs) {
+                throw new TimeoutException("query timeout");
+            }
+            try {
+                pResult = future.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // continue to get result
+                LOG.info("future get interrupted Exception");
+                if (isCancel) {
+                    status.setStatus(Status.CANCELLED);
+                    return null;
+                }
+            }
+        }
+        return pResult;
+    }
+
     public void cancel() {
         isCancel = true;
         synchronized (this) {
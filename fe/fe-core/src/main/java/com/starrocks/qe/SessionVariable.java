@@ -198,6 +198,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_DPHYP_JOIN_REORDER = "cbo_enable_dphyp_join_reorder";
+    public static final String CBO_DPHYP_JOIN_REORDER_BUDGET = "cbo_dphyp_join_reorder_budget";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
@@ -207,6 +209,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String ENABLE_SQL_DIGEST = "enable_sql_digest";
     public static final String CBO_MAX_REORDER_NODE = "cbo_max_reorder_node";
     public static final String CBO_PRUNE_SHUFFLE_COLUMN_RATE = "cbo_prune_shuffle_column_rate";
+    public static final String CBO_ENABLE_PARALLEL_EXPLORE = "cbo_enable_parallel_explore";
+    public static final String CBO_ENABLE_SHORT_CIRCUIT_PLAN = "cbo_enable_short_circuit_plan";
     // --------  New planner session variables end --------
 
     // Type of compression of transmitted data
@@ -239,6 +243,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String ENABLE_SHOW_ALL_VARIABLES = "enable_show_all_variables";
 
+    public static final String ENABLE_QUERY_RESULT_CACHE = "enable_query_result_cache";
+
+    public static final String ENABLE_SCAN_RANGE_CONSISTENT_HASH = "enable_scan_range_consistent_hash";
+
     public static final List<String> DEPRECATED_VARIABLES = ImmutableList.<String>builder()
             .add(CODEGEN_LEVEL)
             .add(ENABLE_SPILLING)
@@ -485,6 +493,15 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // Reorder the joins with more atoms than cbo_max_reorder_node_use_dp by JoinReorderDPhyp
+    @VariableMgr.VarAttr(name = CBO_ENABLE_DPHYP_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
+    private boolean cboEnableDPhypJoinReorder = true;
+
+    // The max number of connected sub graphs and their pairs enumerated by JoinReorderDPhyp,
+    // it falls back to linearized DP if exceeded
+    @VariableMgr.VarAttr(name = CBO_DPHYP_JOIN_REORDER_BUDGET, flag = VariableMgr.INVISIBLE)
+    private long cboDPhypJoinReorderBudget = 10000;
+
     @VariableMgr.VarAttr(name = TRANSACTION_VISIBLE_WAIT_TIMEOUT)
     private long transactionVisibleWaitTimeout = 10;
 
@@ -562,13 +579,46 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = ENABLE_SHOW_ALL_VARIABLES, flag = VariableMgr.INVISIBLE)
     private boolean enableShowAllVariables = false;
 
+    // Cache the results of queries on olap tables in FE, see QueryResultCache
+    @VarAttr(name = ENABLE_QUERY_RESULT_CACHE)
+    private boolean enableQueryResultCache = false;
+
+    // Assign the scan ranges of remote files by consistent hashing, so the same file is read by the same node
+    // across queries and hits its local cache
+    @VarAttr(name = ENABLE_SCAN_RANGE_CONSISTENT_HASH)
+    private boolean enableScanRangeConsistentHash = false;
+
     @VarAttr(name = CBO_PRUNE_SHUFFLE_COLUMN_RATE, flag = VariableMgr.INVISIBLE)
     private double cboPruneShuffleColumnRate = 0.1;
 
+    // Transform the memo with a parallel task scheduler, see ParallelTaskScheduler
+    @VarAttr(name = CBO_ENABLE_PARALLEL_EXPLORE)
+    private boolean cboEnableParallelExplore = false;
+
+    // Build the physical plan of a single table scan query directly without memo optimization
+    @VarAttr(name = CBO_ENABLE_SHORT_CIRCUIT_PLAN)
+    private boolean cboEnableShortCircuitPlan = true;
+
     public double getCboPruneShuffleColumnRate() {
         return cboPruneShuffleColumnRate;
     }
 
+    public boolean isCboEnableParallelExplore() {
+        return cboEnableParallelExplore;
+    }
+
+    public void setCboEnableParallelExplore(boolean cboEnableParallelExplore) {
+        this.cboEnableParallelExplore = cboEnableParallelExplore;
+    }
+
+    public boolean isCboEnableShortCircuitPlan() {
+        return cboEnableShortCircuitPlan;
+    }
+
+    public void setCboEnableShortCircuitPlan(boolean cboEnableShortCircuitPlan) {
+        this.cboEnableShortCircuitPlan = cboEnableShortCircuitPlan;
+    }
+
     public void setCboPruneShuffleColumnRate(double cboPruneShuffleColumnRate) {
         this.cboPruneShuffleColumnRate = cboPruneShuffleColumnRate;
     }
@@ -581,6 +631,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enableShowAllVariables = enableShowAllVariables;
     }
 
+    public boolean isEnableQueryResultCache() {
+        return enableQueryResultCache;
+    }
+
+    public void setEnableQueryResultCache(boolean enableQueryResultCache) {
+        this.enableQueryResultCache = enableQueryResultCache;
+    }
+
+    public boolean isEnableScanRangeConsistentHash() {
+        return enableScanRangeConsistentHash;
+    }
+
+    public void setEnableScanRangeConsistentHash(boolean enableScanRangeConsistentHash) {
+        this.enableScanRangeConsistentHash = enableScanRangeConsistentHash;
+    }
+
     public int getStatisticCollectParallelism() {
         return statisticCollectParallelism;
     }
@@ -613,6 +679,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return loadMemLimit;
     }
 
+    public long getQueryMemLimit() {
+        return queryMemLimit;
+    }
+
+    public void setQueryMemLimit(long queryMemLimit) {
+        this.queryMemLimit = queryMemLimit;
+    }
+
     public int getQueryTimeoutS() {
         return queryTimeoutS;
     }
@@ -806,6 +880,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public boolean isCboEnableDPhypJoinReorder() {
+        return cboEnableDPhypJoinReorder;
+    }
+
+    public void setCboEnableDPhypJoinReorder(boolean cboEnableDPhypJoinReorder) {
+        this.cboEnableDPhypJoinReorder = cboEnableDPhypJoinReorder;
+    }
+
+    public long getCboDPhypJoinReorderBudget() {
+        return cboDPhypJoinReorderBudget;
+    }
+
+    public void setCboDPhypJoinReorderBudget(long cboDPhypJoinReorderBudget) {
+        this.cboDPhypJoinReorderBudget = cboDPhypJoinReorderBudget;
+    }
+
     public int getCboMaxReorderNode() {
         return cboMaxReorderNode;
     }
@@ -21,6 +21,7 @@
 
 package com.starrocks.qe;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -77,7 +78,10 @@ import com.starrocks.meta.SqlBlackList;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.TableMetricsEntity;
 import com.starrocks.metric.TableMetricsRegistry;
+import com.starrocks.mysql.MysqlBinaryProto;
 import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlCommand;
 import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.mysql.privilege.PrivPredicate;
@@ -96,9 +100,11 @@ import com.starrocks.sql.StatementPlanner;
 import com.starrocks.sql.analyzer.PrivilegeChecker;
 import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.ast.AnalyzeHistogramDesc;
+import com.starrocks.sql.ast.AnalyzeMultiColumnDesc;
 import com.starrocks.sql.ast.AnalyzeStmt;
 import com.starrocks.sql.ast.CreateAnalyzeJobStmt;
 import com.starrocks.sql.ast.DropHistogramStmt;
+import com.starrocks.sql.ast.DropMultiColumnStatsStmt;
 import com.starrocks.sql.ast.ExecuteAsStmt;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.SelectRelation;
@@ -110,6 +116,7 @@ import com.starrocks.sql.parser.ParsingException;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.statistic.AnalyzeStatus;
 import com.starrocks.statistic.HistogramStatisticsCollectJob;
+import com.starrocks.statistic.MultiColumnStatisticsCollectJob;
 import com.starrocks.statistic.StatisticExecutor;
 import com.starrocks.statistic.StatisticsCollectJobFactory;
 import com.starrocks.statistic.StatsConstants;
@@ -157,6 +164,15 @@ public class StmtExecutor {
     private final boolean isProxy;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
+    // set when executing a prepared statement by COM_STMT_EXECUTE
+    private PreparedStatementContext preparedStmt;
+    private List<String> preparedParams;
+    private List<Expr> preparedParamExprs;
+    private PreparedStatementContext.AnalyzedStatement analyzedStmt;
+    // the times the query is retried on backend failures, and the time from the first failure to the success
+    private int queryRetryTimes = 0;
+    private long queryFirstFailureTimeMs = -1;
+    private long queryRetryRecoverTimeMs = -1;
 
     // this constructor is mainly for proxy
     public StmtExecutor(ConnectContext context, OriginStatement originStmt, boolean isProxy) {
@@ -220,6 +236,12 @@ public class StmtExecutor {
             summaryProfile.addInfoString(ProfileManager.VARIABLES, sb.toString());
         }
 
+        if (queryRetryTimes > 0) {
+            summaryProfile.addInfoString(ProfileManager.RETRY_TIMES, String.valueOf(queryRetryTimes));
+            summaryProfile.addInfoString(ProfileManager.RETRY_RECOVER_TIME,
+                    DebugUtil.getPrettyStringMs(queryRetryRecoverTimeMs));
+        }
+
         profile.addChild(summaryProfile);
 
         RuntimeProfile plannerProfile = new RuntimeProfile("Planner");
@@ -228,10 +250,44 @@ public class StmtExecutor {
 
         if (coord != null) {
             coord.getQueryProfile().getCounterTotalTime().setValue(TimeUtils.getEstimatedTime(beginTimeInNanoSecond));
-            coord.endProfile();
-            coord.mergeIsomorphicProfiles();
-            profile.addChild(coord.getQueryProfile());
-            coord = null;
+        }
+    }
+
+    // A query failed on backends is retried on the other backends if it's read-only and nothing has been sent to the
+    // client, and it's not timeout yet. The failed backends have been added to the blacklist, so the retry excludes
+    // them when choosing the hosts of fragments and the replicas of scan ranges.
+    private boolean canRetryQuery() {
+        return canRetryQuery(parsedStmt, context.getMysqlChannel().isSend(),
+                System.currentTimeMillis() - context.getStartTime(),
+                context.getSessionVariable().getQueryTimeoutS() * 1000L);
+    }
+
+    @VisibleForTesting
+    static boolean canRetryQuery(StatementBase stmt, boolean resultSent, long elapsedMs, long queryTimeoutMs) {
+        if (resultSent || !(stmt instanceof QueryStatement)) {
+            return false;
+        }
+        if (((QueryStatement) stmt).hasOutFileClause()) {
+            return false;
+        }
+        return elapsedMs < queryTimeoutMs;
+    }
+
+    private void onQueryRetry() {
+        if (queryFirstFailureTimeMs < 0) {
+            queryFirstFailureTimeMs = System.currentTimeMillis();
+        }
+        queryRetryTimes++;
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_QUERY_RETRY.increase(1L);
+        }
+    }
+
+    private void onQueryRetrySucceeded() {
+        queryRetryRecoverTimeMs = System.currentTimeMillis() - queryFirstFailureTimeMs;
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_QUERY_RETRY_SUCCESS.increase(1L);
+            MetricRepo.HISTO_QUERY_RETRY_RECOVER_TIME.update(queryRetryRecoverTimeMs);
         }
     }
 
@@ -282,6 +338,27 @@ public class StmtExecutor {
         return parsedStmt;
     }
 
+    /**
+     * Execute the statement bound from a prepared statement.
+     *
+     * @param paramExprs the parameters parsed by {@link PreparedStatementContext#parseParameters}
+     * @param analyzedStmt the cached analyzed statement bound to the parameters, which is the statement to
+     *                     execute, or null if there is not one
+     */
+    public void setPreparedStatement(PreparedStatementContext preparedStmt, List<String> params,
+                                     List<Expr> paramExprs,
+                                     PreparedStatementContext.AnalyzedStatement analyzedStmt) {
+        this.preparedStmt = preparedStmt;
+        this.preparedParams = params;
+        this.preparedParamExprs = paramExprs;
+        this.analyzedStmt = analyzedStmt;
+    }
+
+    // COM_STMT_EXECUTE uses binary protocol for result rows
+    private boolean isBinaryProtocol() {
+        return context.getCommand() == MysqlCommand.COM_STMT_EXECUTE;
+    }
+
     // Execute one statement.
     // Exception:
     //  IOException: talk with client failed.
@@ -341,6 +418,8 @@ public class StmtExecutor {
                                 parsedStmt = selectStmt;
                                 execPlan = new StatementPlanner().plan(parsedStmt, context);
                             }
+                        } else if (preparedStmt != null) {
+                            execPlan = planPreparedStatement();
                         } else {
                             execPlan = new StatementPlanner().plan(parsedStmt, context);
                         }
@@ -407,25 +486,28 @@ public class StmtExecutor {
                                     DebugUtil.printId(uuid));
                             context.setExecutionId(
                                     new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+                            // the fragments of the failed execution have been modified by its Coordinator
+                            execPlan = new StatementPlanner().rebuildQueryPlan((QueryStatement) parsedStmt, execPlan,
+                                    context);
                         }
 
                         Preconditions.checkState(execPlanBuildByNewPlanner, "must use new planner");
 
                         handleQueryStmt(execPlan);
+                        if (i > 0) {
+                            onQueryRetrySucceeded();
+                        }
 
                         if (context.getSessionVariable().isReportSucc()) {
                             writeProfile(beginTimeInNanoSecond);
                         }
                         break;
                     } catch (RpcException e) {
-                        if (i == retryTime - 1) {
-                            throw e;
-                        }
-                        if (!context.getMysqlChannel().isSend()) {
-                            LOG.warn("retry {} times. stmt: {}", (i + 1), parsedStmt.getOrigStmt().originStmt);
-                        } else {
+                        if (i == retryTime - 1 || !canRetryQuery()) {
                             throw e;
                         }
+                        LOG.warn("retry {} times. stmt: {}", (i + 1), parsedStmt.getOrigStmt().originStmt, e);
+                        onQueryRetry();
                     } finally {
                         QeProcessorImpl.INSTANCE.unregisterQuery(context.getExecutionId());
                     }
@@ -466,6 +548,8 @@ public class StmtExecutor {
                 handleAnalyzeStmt();
             } else if (parsedStmt instanceof DropHistogramStmt) {
                 handleDropHistogramStmt();
+            } else if (parsedStmt instanceof DropMultiColumnStatsStmt) {
+                handleDropMultiColumnStatsStmt();
             } else if (parsedStmt instanceof AddSqlBlackListStmt) {
                 handleAddSqlBlackListStmt();
             } else if (parsedStmt instanceof DelSqlBlackListStmt) {
@@ -573,6 +657,48 @@ public class StmtExecutor {
         }
     }
 
+    // Plan the statement bound from a prepared statement. The analyzed statement of a query is cached by the
+    // prepared statement, and the following executions of the same shape of parameters bind the parameters into
+    // it and only optimize it. The optimized plan is also reused if the parameters are not changed, its fragments
+    // are built again because Coordinator modifies them.
+    private ExecPlan planPreparedStatement() throws AnalysisException {
+        if (!(parsedStmt instanceof QueryStatement)) {
+            return new StatementPlanner().plan(parsedStmt, context);
+        }
+        if (analyzedStmt != null) {
+            // privileges may be revoked after the statement is analyzed
+            PrivilegeChecker.check(parsedStmt, context);
+            ExecPlan execPlan = analyzedStmt.rebuildCachedPlan(preparedParams, context);
+            if (execPlan != null) {
+                return execPlan;
+            }
+            try {
+                return planPreparedQuery();
+            } catch (RuntimeException e) {
+                // The parameters may be analyzed differently, e.g. a parameter equal to a literal of the statement
+                // is merged with it, so analyze the statement built from the parameters again.
+                LOG.info("failed to plan the analyzed statement of prepared statement {}, analyze it again: {}",
+                        preparedStmt.getId(), e.getMessage());
+                preparedStmt.removeAnalyzedStatement(analyzedStmt);
+                OriginStatement origStmt = parsedStmt.getOrigStmt();
+                parsedStmt = preparedStmt.buildStatement(preparedParamExprs, context.getSessionVariable().getSqlMode());
+                parsedStmt.setOrigStmt(origStmt);
+            }
+        }
+        com.starrocks.sql.analyzer.Analyzer.analyze(parsedStmt, context);
+        PrivilegeChecker.check(parsedStmt, context);
+        analyzedStmt = preparedStmt.createAnalyzedStatement(preparedParamExprs, (QueryStatement) parsedStmt, context);
+        return planPreparedQuery();
+    }
+
+    private ExecPlan planPreparedQuery() {
+        ExecPlan execPlan = new StatementPlanner().planAnalyzedQuery((QueryStatement) parsedStmt, context);
+        if (analyzedStmt != null) {
+            preparedStmt.cacheAnalyzedStatement(analyzedStmt, preparedParams, execPlan, context.getCurrentSqlDbIds());
+        }
+        return execPlan;
+    }
+
     private void forwardToMaster() throws Exception {
         masterOpExecutor = new MasterOpExecutor(parsedStmt, originStmt, context, redirectStatus);
         LOG.debug("need to transfer to Master. stmt: {}", context.getStmtId());
@@ -582,16 +708,33 @@ public class StmtExecutor {
     private void writeProfile(long beginTimeInNanoSecond) {
         long profileBeginTime = System.currentTimeMillis();
         initProfile(beginTimeInNanoSecond);
-        profile.computeTimeInChildProfile();
-        long profileEndTime = System.currentTimeMillis();
-        profile.getChildMap().get("Summary")
-                .addInfoString(ProfileManager.PROFILE_TIME,
-                        DebugUtil.getPrettyStringMs(profileEndTime - profileBeginTime));
-        StringBuilder builder = new StringBuilder();
-        profile.prettyPrint(builder, "");
-        String profileContent = ProfileManager.getInstance().pushProfile(profile);
-        if (context.getQueryDetail() != null) {
-            context.getQueryDetail().setProfile(profileContent);
+
+        // The summary is built from the context above, the rest doesn't depend on the context and is done in
+        // background, because it waits for the last reports of backends and merges the profiles of instances.
+        RuntimeProfile queryProfile = profile;
+        Coordinator queryCoord = coord;
+        QueryDetail queryDetail = context.getQueryDetail();
+        coord = null;
+        Runnable task = () -> {
+            if (queryCoord != null) {
+                queryCoord.endProfile();
+                queryCoord.mergeIsomorphicProfiles();
+                queryProfile.addChild(queryCoord.getQueryProfile());
+            }
+            queryProfile.computeTimeInChildProfile();
+            long profileEndTime = System.currentTimeMillis();
+            queryProfile.getChildMap().get("Summary")
+                    .addInfoString(ProfileManager.PROFILE_TIME,
+                            DebugUtil.getPrettyStringMs(profileEndTime - profileBeginTime));
+            String profileContent = ProfileManager.getInstance().pushProfile(queryProfile);
+            if (queryDetail != null) {
+                queryDetail.setProfile(profileContent);
+            }
+        };
+        if (queryCoord != null) {
+            QeProcessorImpl.INSTANCE.processProfileAsync(context.getExecutionId(), queryCoord, task);
+        } else {
+            task.run();
         }
     }
 
@@ -686,6 +829,7 @@ public class StmtExecutor {
             context.getState().setError(e.getMessage());
             return;
         }
+        context.invalidatePreparedStatementPlans();
         context.getState().setOk();
     }
 
@@ -708,6 +852,21 @@ public class StmtExecutor {
         TDescriptorTable descTable = execPlan.getDescTbl().toThrift();
         List<String> colNames = execPlan.getColNames();
         List<Expr> outputExprs = execPlan.getOutputExprs();
+        List<MysqlColType> binaryTypes = getBinaryTypes(outputExprs);
+
+        QueryResultCache.CacheKey resultCacheKey = null;
+        if (context.getSessionVariable().isEnableQueryResultCache() && Config.query_result_cache_capacity_bytes > 0) {
+            resultCacheKey = QueryResultCache.buildKey(context, parsedStmt, execPlan);
+            List<ByteBuffer> cachedRows =
+                    resultCacheKey == null ? null : QueryResultCache.getInstance().get(resultCacheKey);
+            if (cachedRows != null) {
+                sendCachedResult(colNames, outputExprs, binaryTypes, cachedRows);
+                return;
+            }
+        }
+        // the result rows to be cached, null if the result is too large
+        List<ByteBuffer> resultRows = resultCacheKey == null ? null : Lists.newArrayList();
+        long resultBytes = 0;
 
         coord = new Coordinator(context, fragments, scanNodes, descTable);
 
@@ -746,14 +905,28 @@ public class StmtExecutor {
                 if (channel.isSendBufferNull()) {
                     int bufferSize = 0;
                     for (ByteBuffer row : batch.getBatch().getRows()) {
-                        bufferSize += (row.position() - row.limit());
+                        // +4 for packet header
+                        bufferSize += row.remaining() + 4;
                     }
-                    // +8 for header size
-                    channel.initBuffer(bufferSize + 8);
+                    channel.initBuffer(bufferSize);
                 }
 
                 for (ByteBuffer row : batch.getBatch().getRows()) {
-                    channel.sendOnePacket(row);
+                    if (resultRows != null) {
+                        // share the buffer of the batch, the row is consumed by sending
+                        resultRows.add(row.duplicate());
+                        resultBytes += row.remaining();
+                        if (resultBytes > Config.query_result_cache_max_entry_bytes) {
+                            resultRows = null;
+                        }
+                    }
+                    if (binaryTypes != null) {
+                        serializer.reset();
+                        MysqlBinaryProto.writeBinaryRow(serializer, row, binaryTypes);
+                        channel.sendOnePacket(serializer.toByteBuffer());
+                    } else {
+                        channel.sendOnePacket(row);
+                    }
                 }
                 context.updateReturnRows(batch.getBatch().getRows().size());
             }
@@ -765,6 +938,10 @@ public class StmtExecutor {
             sendFields(colNames, outputExprs);
         }
 
+        if (resultRows != null) {
+            QueryResultCache.getInstance().put(resultCacheKey, resultRows);
+        }
+
         statisticsForAuditLog = batch.getQueryStatistics();
         if (!isOutfileQuery) {
             context.getState().setEof();
@@ -789,6 +966,35 @@ public class StmtExecutor {
         }
     }
 
+    private List<MysqlColType> getBinaryTypes(List<Expr> outputExprs) {
+        if (!isBinaryProtocol()) {
+            return null;
+        }
+        List<MysqlColType> binaryTypes = Lists.newArrayListWithCapacity(outputExprs.size());
+        for (Expr expr : outputExprs) {
+            binaryTypes.add(expr.getOriginType().getMysqlResultType());
+        }
+        return binaryTypes;
+    }
+
+    private void sendCachedResult(List<String> colNames, List<Expr> outputExprs, List<MysqlColType> binaryTypes,
+                                  List<ByteBuffer> rows) throws IOException {
+        MysqlChannel channel = context.getMysqlChannel();
+        sendFields(colNames, outputExprs);
+        for (ByteBuffer row : rows) {
+            // the cached rows are shared by queries
+            if (binaryTypes != null) {
+                serializer.reset();
+                MysqlBinaryProto.writeBinaryRow(serializer, row.duplicate(), binaryTypes);
+                channel.sendOnePacket(serializer.toByteBuffer());
+            } else {
+                channel.sendOnePacket(row.duplicate());
+            }
+        }
+        context.updateReturnRows(rows.size());
+        context.getState().setEof();
+    }
+
     private void handleAnalyzeStmt() throws IOException {
         AnalyzeStmt analyzeStmt = (AnalyzeStmt) parsedStmt;
         Database db = MetaUtils.getDatabase(context, analyzeStmt.getTableName());
@@ -800,6 +1006,11 @@ public class StmtExecutor {
             analyzeStatus = statisticExecutor.collectStatistics(
                     new HistogramStatisticsCollectJob(db, table, analyzeStmt.getColumnNames(),
                             StatsConstants.AnalyzeType.HISTOGRAM, StatsConstants.ScheduleType.ONCE, analyzeStmt.getProperties()));
+        } else if (analyzeStmt.getAnalyzeTypeDesc() instanceof AnalyzeMultiColumnDesc) {
+            analyzeStatus = statisticExecutor.collectStatistics(
+                    new MultiColumnStatisticsCollectJob(db, table, analyzeStmt.getColumnNames(),
+                            StatsConstants.AnalyzeType.MULTI_COLUMN, StatsConstants.ScheduleType.ONCE,
+                            analyzeStmt.getProperties()));
         } else {
             analyzeStatus = statisticExecutor.collectStatistics(
                     StatisticsCollectJobFactory.buildStatisticsCollectJob(db, table, null,
@@ -825,6 +1036,15 @@ public class StmtExecutor {
         statisticExecutor.dropHistogram(table.getId(), dropHistogramStmt.getColumnNames());
     }
 
+    private void handleDropMultiColumnStatsStmt() throws DdlException {
+        DropMultiColumnStatsStmt dropStmt = (DropMultiColumnStatsStmt) parsedStmt;
+        Database db = MetaUtils.getDatabase(context, dropStmt.getTableName());
+        OlapTable table = (OlapTable) MetaUtils.getTable(context, dropStmt.getTableName());
+
+        StatisticExecutor statisticExecutor = new StatisticExecutor();
+        statisticExecutor.dropMultiColumnStatistics(db.getId(), table.getId(), dropStmt.getColumnNames());
+    }
+
     private void handleAddSqlBlackListStmt() {
         AddSqlBlackListStmt addSqlBlackListStmt = (AddSqlBlackListStmt) parsedStmt;
         SqlBlackList.getInstance().put(addSqlBlackListStmt.getSqlPattern());
@@ -859,6 +1079,7 @@ public class StmtExecutor {
             context.getState().setError(e.getMessage());
             return;
         }
+        context.invalidatePreparedStatementPlans();
         context.getState().setOk();
     }
 
@@ -904,6 +1125,14 @@ public class StmtExecutor {
         // Send meta data.
         sendMetaData(resultSet.getMetaData());
 
+        List<MysqlColType> binaryTypes = null;
+        if (isBinaryProtocol()) {
+            binaryTypes = Lists.newArrayList();
+            for (Column col : resultSet.getMetaData().getColumns()) {
+                binaryTypes.add(col.getType().getMysqlResultType());
+            }
+        }
+
         // Send result set.
         for (List<String> row : resultSet.getResultRows()) {
             serializer.reset();
@@ -914,6 +1143,12 @@ public class StmtExecutor {
                     serializer.writeLenEncodedString(item);
                 }
             }
+            if (binaryTypes != null) {
+                // the result forwarded from master is always in text protocol
+                ByteBuffer textRow = serializer.toByteBuffer();
+                serializer.reset();
+                MysqlBinaryProto.writeBinaryRow(serializer, textRow, binaryTypes);
+            }
             context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
         }
 
@@ -1006,6 +1241,10 @@ public class StmtExecutor {
     }
 
     private void addRunningQueryDetail() {
+        addRunningQueryDetail(context, parsedStmt, originStmt.originStmt);
+    }
+
+    public static void addRunningQueryDetail(ConnectContext context, StatementBase parsedStmt, String originStmt) {
         if (!Config.enable_collect_query_detail_info) {
             return;
         }
@@ -1013,7 +1252,7 @@ public class StmtExecutor {
         if (parsedStmt.needAuditEncryption()) {
             sql = parsedStmt.toSql();
         } else {
-            sql = originStmt.originStmt;
+            sql = originStmt;
         }
         boolean isQuery = parsedStmt instanceof QueryStmt || parsedStmt instanceof QueryStatement;
         QueryDetail queryDetail = new QueryDetail(
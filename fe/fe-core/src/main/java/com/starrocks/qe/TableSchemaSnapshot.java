@@ -0,0 +1,140 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.ExternalOlapTable;
+import com.starrocks.catalog.MaterializedIndexMeta;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.View;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The schemas of all olap tables and views used by an analyzed statement, which is used to check whether the
+ * statement analyzed before is still the same as the one analyzed with the current metadata.
+ * <p>
+ * An analyzed statement is stale if any table or view is dropped or replaced, the schema of any table is changed,
+ * or the definition of any view is changed. Loads and partition changes do not change the analyzed statement.
+ */
+public class TableSchemaSnapshot {
+    private final List<TableSchema> tableSchemas;
+
+    private TableSchemaSnapshot(List<TableSchema> tableSchemas) {
+        this.tableSchemas = tableSchemas;
+    }
+
+    /**
+     * Create the snapshot of the analyzed statement. Return null if the statement uses any table whose schema can
+     * not be tracked, e.g. external tables, schema tables and ExternalOlapTable.
+     *
+     * @param dbIds the databases used by the statement, see {@link ConnectContext#getCurrentSqlDbIds()}
+     */
+    public static TableSchemaSnapshot create(StatementBase stmt, Set<Long> dbIds) {
+        Map<Long, TableSchema> tableSchemas = Maps.newHashMap();
+        for (Table table : AnalyzerUtils.collectAllTableAndViewWithAlias(stmt).values()) {
+            if (!(table instanceof OlapTable || table instanceof View) || table instanceof ExternalOlapTable) {
+                return null;
+            }
+            if (tableSchemas.containsKey(table.getId())) {
+                continue;
+            }
+            Database db = findDb(table, dbIds);
+            if (db == null) {
+                return null;
+            }
+            db.readLock();
+            try {
+                tableSchemas.put(table.getId(), new TableSchema(db.getId(), table));
+            } finally {
+                db.readUnlock();
+            }
+        }
+        return new TableSchemaSnapshot(Lists.newArrayList(tableSchemas.values()));
+    }
+
+    static Database findDb(Table table, Set<Long> dbIds) {
+        if (dbIds == null) {
+            return null;
+        }
+        for (Long dbId : dbIds) {
+            Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+            if (db != null && db.getTable(table.getId()) == table) {
+                return db;
+            }
+        }
+        return null;
+    }
+
+    public boolean isValid() {
+        for (TableSchema tableSchema : tableSchemas) {
+            Database db = GlobalStateMgr.getCurrentState().getDb(tableSchema.dbId);
+            if (db == null) {
+                return false;
+            }
+            db.readLock();
+            try {
+                if (!tableSchema.isValid(db)) {
+                    return false;
+                }
+            } finally {
+                db.readUnlock();
+            }
+        }
+        return true;
+    }
+
+    static class TableSchema {
+        private final long dbId;
+        private final Table table;
+        private final Map<Long, Integer> indexSchemaHashes = Maps.newHashMap();
+        private final Map<Long, Integer> indexSchemaVersions = Maps.newHashMap();
+        private final String inlineViewDef;
+
+        // must hold the read lock of db
+        TableSchema(long dbId, Table table) {
+            this.dbId = dbId;
+            this.table = table;
+            if (table instanceof OlapTable) {
+                for (Map.Entry<Long, MaterializedIndexMeta> entry : ((OlapTable) table).getIndexIdToMeta().entrySet()) {
+                    indexSchemaHashes.put(entry.getKey(), entry.getValue().getSchemaHash());
+                    indexSchemaVersions.put(entry.getKey(), entry.getValue().getSchemaVersion());
+                }
+            }
+            this.inlineViewDef = table instanceof View ? ((View) table).getInlineViewDef() : null;
+        }
+
+        // must hold the read lock of db
+        boolean isValid(Database db) {
+            // table is replaced by a new object after dropped and recreated, or swapped
+            if (db.getTable(table.getId()) != table) {
+                return false;
+            }
+            if (table instanceof View) {
+                // the definition of view is altered in place
+                return inlineViewDef.equals(((View) table).getInlineViewDef());
+            }
+            Map<Long, MaterializedIndexMeta> indexIdToMeta = ((OlapTable) table).getIndexIdToMeta();
+            if (indexIdToMeta.size() != indexSchemaHashes.size()) {
+                return false;
+            }
+            for (Map.Entry<Long, MaterializedIndexMeta> entry : indexIdToMeta.entrySet()) {
+                Integer schemaHash = indexSchemaHashes.get(entry.getKey());
+                Integer schemaVersion = indexSchemaVersions.get(entry.getKey());
+                if (schemaHash == null || schemaHash != entry.getValue().getSchemaHash() ||
+                        schemaVersion == null || schemaVersion != entry.getValue().getSchemaVersion()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.ExternalOlapTable;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.ScanNode;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.thrift.TInternalScanRange;
+import com.starrocks.thrift.TScanRangeLocations;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The metadata versions of all olap tables scanned by an {@link ExecPlan}, which is used to check whether
+ * a plan built before is still the same as the one built for the current metadata.
+ * <p>
+ * A plan is stale if any scanned table is dropped or replaced, its schema is changed, its partitions are
+ * added or dropped, or the visible version of any partition is changed by a load.
+ */
+public class TableVersionSnapshot {
+    private final Map<Long, TableVersion> tableVersions;
+
+    private TableVersionSnapshot(Map<Long, TableVersion> tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Create the snapshot of the plan. Return null if the plan scans any table whose versions can not be tracked,
+     * e.g. external tables, schema tables and ExternalOlapTable.
+     *
+     * @param dbIds the databases used by the statement, see {@link ConnectContext#getCurrentSqlDbIds()}
+     */
+    public static TableVersionSnapshot create(ExecPlan plan, Set<Long> dbIds) {
+        Map<Long, TableVersion> tableVersions = Maps.newHashMap();
+        for (ScanNode scanNode : plan.getScanNodes()) {
+            if (!(scanNode instanceof OlapScanNode)) {
+                return null;
+            }
+            OlapTable table = ((OlapScanNode) scanNode).getOlapTable();
+            if (table instanceof ExternalOlapTable) {
+                return null;
+            }
+
+            TableVersion tableVersion = tableVersions.get(table.getId());
+            if (tableVersion == null) {
+                Database db = TableSchemaSnapshot.findDb(table, dbIds);
+                if (db == null) {
+                    return null;
+                }
+                db.readLock();
+                try {
+                    tableVersion = new TableVersion(db.getId(), table);
+                } finally {
+                    db.readUnlock();
+                }
+                tableVersions.put(table.getId(), tableVersion);
+            }
+
+            // Use the versions in the scan ranges, they are exactly the versions read by this plan.
+            // The visible versions of the table may have been changed after the plan is built.
+            for (TScanRangeLocations locations : scanNode.getScanRangeLocations(0)) {
+                TInternalScanRange scanRange = locations.getScan_range().getInternal_scan_range();
+                TabletMeta tabletMeta =
+                        GlobalStateMgr.getCurrentInvertedIndex().getTabletMeta(scanRange.getTablet_id());
+                if (tabletMeta == null || tabletMeta.getTableId() != table.getId()) {
+                    return null;
+                }
+                long version = Long.parseLong(scanRange.getVersion());
+                Long prevVersion = tableVersion.partitionVersions.put(tabletMeta.getPartitionId(), version);
+                if (prevVersion != null && prevVersion != version) {
+                    // the partition is loaded during building scan ranges
+                    return null;
+                }
+            }
+        }
+        return new TableVersionSnapshot(tableVersions);
+    }
+
+    public Set<Long> getTableIds() {
+        return tableVersions.keySet();
+    }
+
+    /**
+     * The ids and visible versions of the scanned partitions of every table, in a deterministic order.
+     * Two plans with the same digest read the same data.
+     */
+    public String getVersionDigest() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Long, TableVersion> entry : new TreeMap<>(tableVersions).entrySet()) {
+            sb.append(entry.getKey()).append(':');
+            for (Map.Entry<Long, Long> version : new TreeMap<>(entry.getValue().partitionVersions).entrySet()) {
+                sb.append(version.getKey()).append('=').append(version.getValue()).append(',');
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    public boolean isValid() {
+        for (TableVersion tableVersion : tableVersions.values()) {
+            if (!tableVersion.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class TableVersion {
+        private final long dbId;
+        private final OlapTable table;
+        private final TableSchemaSnapshot.TableSchema schema;
+        private final Set<Long> partitionIds;
+        // versions of the scanned partitions
+        private final Map<Long, Long> partitionVersions = Maps.newHashMap();
+
+        // must hold the read lock of db
+        TableVersion(long dbId, OlapTable table) {
+            this.dbId = dbId;
+            this.table = table;
+            this.schema = new TableSchemaSnapshot.TableSchema(dbId, table);
+            this.partitionIds = getPartitionIds(table);
+        }
+
+        private static Set<Long> getPartitionIds(OlapTable table) {
+            Collection<Partition> partitions = table.getPartitions();
+            Set<Long> ids = Sets.newHashSetWithExpectedSize(partitions.size());
+            for (Partition partition : partitions) {
+                ids.add(partition.getId());
+            }
+            return ids;
+        }
+
+        boolean isValid() {
+            Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+            if (db == null) {
+                return false;
+            }
+            db.readLock();
+            try {
+                if (!schema.isValid(db)) {
+                    return false;
+                }
+                if (!partitionIds.equals(getPartitionIds(table))) {
+                    return false;
+                }
+                for (Map.Entry<Long, Long> entry : partitionVersions.entrySet()) {
+                    Partition partition = table.getPartition(entry.getKey());
+                    if (partition == null || partition.getVisibleVersion() != entry.getValue()) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                db.readUnlock();
+            }
+        }
+    }
+}
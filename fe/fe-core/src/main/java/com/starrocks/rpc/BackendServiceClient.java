@@ -89,7 +89,22 @@ public class BackendServiceClient {
             throws TException, RpcException {
         final PExecBatchPlanFragmentsRequest pRequest = new PExecBatchPlanFragmentsRequest();
         pRequest.setRequest(tRequest);
+        return execBatchPlanFragmentsAsync(address, pRequest);
+    }
+
+    /**
+     * The same as {@link #execBatchPlanFragmentsAsync(TNetworkAddress, TExecBatchPlanFragmentsParams)}, but the
+     * request is already serialized.
+     */
+    public Future<PExecBatchPlanFragmentsResult> execBatchPlanFragmentsAsync(
+            TNetworkAddress address, byte[] serializedRequest) throws RpcException {
+        final PExecBatchPlanFragmentsRequest pRequest = new PExecBatchPlanFragmentsRequest();
+        pRequest.setSerializedRequest(serializedRequest);
+        return execBatchPlanFragmentsAsync(address, pRequest);
+    }
 
+    private Future<PExecBatchPlanFragmentsResult> execBatchPlanFragmentsAsync(
+            TNetworkAddress address, PExecBatchPlanFragmentsRequest pRequest) throws RpcException {
         Future<PExecBatchPlanFragmentsResult> resultFuture = null;
         for (int i = 1; i <= Config.max_query_retry_time && resultFuture == null; ++i) {
             try {
@@ -161,6 +161,7 @@ import com.starrocks.journal.JournalFactory;
 import com.starrocks.journal.JournalInconsistentException;
 import com.starrocks.journal.JournalTask;
 import com.starrocks.journal.JournalWriter;
+import com.starrocks.journal.ParallelJournalReplayer;
 import com.starrocks.journal.bdbje.Timestamp;
 import com.starrocks.lake.ShardManager;
 import com.starrocks.lake.StarOSAgent;
@@ -188,6 +189,7 @@ import com.starrocks.persist.ChangeMaterializedViewRefreshSchemeLog;
 import com.starrocks.persist.DropPartitionInfo;
 import com.starrocks.persist.EditLog;
 import com.starrocks.persist.GlobalVarPersistInfo;
+import com.starrocks.persist.ImageSections;
 import com.starrocks.persist.ModifyTableColumnOperationLog;
 import com.starrocks.persist.ModifyTablePropertyOperationLog;
 import com.starrocks.persist.MultiEraseTableInfo;
@@ -196,6 +198,7 @@ import com.starrocks.persist.RecoverInfo;
 import com.starrocks.persist.RenameMaterializedViewLog;
 import com.starrocks.persist.ReplacePartitionOperationLog;
 import com.starrocks.persist.ReplicaPersistInfo;
+import com.starrocks.persist.SectionedImage;
 import com.starrocks.persist.SetReplicaStatusOperationLog;
 import com.starrocks.persist.Storage;
 import com.starrocks.persist.TableInfo;
@@ -241,6 +244,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -258,14 +262,18 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class GlobalStateMgr {
     private static final Logger LOG = LogManager.getLogger(GlobalStateMgr.class);
+    private static final int IMAGE_WRITE_BUFFER_SIZE = 1024 * 1024;
     // 0 ~ 9999 used for qe
     public static final long NEXT_ID_INIT_VALUE = 10000;
     private static final int STATE_CHANGE_CHECK_INTERVAL_MS = 100;
@@ -335,11 +343,15 @@ public class GlobalStateMgr {
 
     private static GlobalStateMgr CHECKPOINT = null;
     private static long checkpointThreadId = -1;
+    // the threads loading or saving the image sections for checkpoint thread
+    private static final Set<Long> CHECKPOINT_WORKER_THREAD_IDS = ConcurrentHashMap.newKeySet();
     private Checkpoint checkpointer;
 
     private HAProtocol haProtocol = null;
 
     private JournalObservable journalObservable;
+    // created on demand, only used by replayJournal()
+    private ParallelJournalReplayer parallelJournalReplayer;
 
     private TabletInvertedIndex tabletInvertedIndex;
     private ColocateTableIndex colocateTableIndex;
@@ -687,7 +699,9 @@ public class GlobalStateMgr {
     }
 
     public static boolean isCheckpointThread() {
-        return Thread.currentThread().getId() == checkpointThreadId;
+        long threadId = Thread.currentThread().getId();
+        return threadId == checkpointThreadId
+                || (!CHECKPOINT_WORKER_THREAD_IDS.isEmpty() && CHECKPOINT_WORKER_THREAD_IDS.contains(threadId));
     }
 
     public static PluginMgr getCurrentPluginMgr() {
@@ -1089,6 +1103,13 @@ public class GlobalStateMgr {
     }
 
     public void loadImage(String imageDir) throws IOException, DdlException {
+        loadImage(imageDir, null);
+    }
+
+    /**
+     * Load the given sections of a sectioned image, or all of them if null. The legacy image is always fully loaded.
+     */
+    public void loadImage(String imageDir, Set<Integer> sectionIds) throws IOException, DdlException {
         Storage storage = new Storage(imageDir);
         nodeMgr.setClusterId(storage.getClusterID());
         File curFile = storage.getCurrentImageFile();
@@ -1101,6 +1122,19 @@ public class GlobalStateMgr {
         LOG.info("start load image from {}. is ckpt: {}", curFile.getAbsolutePath(),
                 GlobalStateMgr.isCheckpointThread());
         long loadImageStartTime = System.currentTimeMillis();
+        if (SectionedImage.isSectionedImage(curFile)) {
+            runWithImageWorkers(executor -> SectionedImage.load(curFile,
+                    filterImageSections(getImageSections(0), sectionIds), executor));
+        } else {
+            loadLegacyImage(curFile);
+        }
+
+        long loadImageEndTime = System.currentTimeMillis();
+        this.imageJournalId = storage.getImageJournalId();
+        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
+    }
+
+    private void loadLegacyImage(File curFile) throws IOException, DdlException {
         DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(curFile)));
 
         long checksum = 0;
@@ -1157,10 +1191,6 @@ public class GlobalStateMgr {
         }
 
         Preconditions.checkState(remoteChecksum == checksum, remoteChecksum + " vs. " + checksum);
-
-        long loadImageEndTime = System.currentTimeMillis();
-        this.imageJournalId = storage.getImageJournalId();
-        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
     }
 
     public long loadHeader(DataInputStream dis, long checksum) throws IOException {
@@ -1346,11 +1376,27 @@ public class GlobalStateMgr {
 
     // Only called by checkpoint thread
     public void saveImage() throws IOException {
+        saveImage(null, null);
+    }
+
+    // Only called by checkpoint thread. If the base image is not null, only the given sections are saved, and the
+    // others are copied from the base image.
+    public void saveImage(File baseImage, Set<Integer> sectionIds) throws IOException {
         // Write image.ckpt
         Storage storage = new Storage(this.imageDir);
         File curFile = storage.getImageFile(replayedJournalId.get());
         File ckpt = new File(this.imageDir, Storage.IMAGE_NEW);
-        saveImage(ckpt, replayedJournalId.get());
+        if (baseImage == null) {
+            saveImage(ckpt, replayedJournalId.get());
+        } else {
+            long startTime = System.currentTimeMillis();
+            List<SectionedImage.Section> sections =
+                    filterImageSections(getImageSections(replayedJournalId.get()), sectionIds);
+            runWithImageWorkers(
+                    executor -> SectionedImage.save(ckpt, replayedJournalId.get(), sections, baseImage, executor));
+            LOG.info("finished save {} sections of image {} based on {} in {} ms", sections.size(),
+                    ckpt.getAbsolutePath(), baseImage.getAbsolutePath(), System.currentTimeMillis() - startTime);
+        }
 
         // Move image.ckpt to image.dataVersion
         LOG.info("Move " + ckpt.getAbsolutePath() + " to " + curFile.getAbsolutePath());
@@ -1368,9 +1414,19 @@ public class GlobalStateMgr {
         // save image does not need any lock. because only checkpoint thread will call this method.
         LOG.info("start save image to {}. is ckpt: {}", curFile.getAbsolutePath(), GlobalStateMgr.isCheckpointThread());
 
-        long checksum = 0;
         long saveImageStartTime = System.currentTimeMillis();
-        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(curFile))) {
+        if (Config.image_format_version >= 2) {
+            runWithImageWorkers(
+                    executor -> SectionedImage.save(curFile, replayedJournalId, getImageSections(replayedJournalId),
+                            executor));
+            LOG.info("finished save sectioned image {} in {} ms", curFile.getAbsolutePath(),
+                    System.currentTimeMillis() - saveImageStartTime);
+            return;
+        }
+
+        long checksum = 0;
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(curFile),
+                IMAGE_WRITE_BUFFER_SIZE))) {
             checksum = saveHeader(dos, replayedJournalId, checksum);
             checksum = nodeMgr.saveMasterInfo(dos, checksum);
             checksum = nodeMgr.saveFrontends(dos, checksum);
@@ -1415,6 +1471,158 @@ public class GlobalStateMgr {
                 curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime), checksum);
     }
 
+    private interface ImageTask {
+        void run(Executor executor) throws IOException;
+    }
+
+    // Run the task with a pool of image workers. The workers share the meta version of this thread, and are taken as
+    // checkpoint threads if this is the checkpoint thread, so that getCurrentState() returns the same instance.
+    private void runWithImageWorkers(ImageTask task) throws IOException {
+        boolean isCheckpoint = isCheckpointThread();
+        MetaContext metaContext = MetaContext.get();
+        ThreadPoolExecutor workers = ThreadPoolManager.newDaemonFixedThreadPool(
+                Math.max(Config.image_section_threads_num, 1), 1024, "image-section-worker", false);
+        Executor executor = command -> workers.execute(() -> {
+            long threadId = Thread.currentThread().getId();
+            if (isCheckpoint) {
+                CHECKPOINT_WORKER_THREAD_IDS.add(threadId);
+            }
+            if (metaContext != null) {
+                metaContext.setThreadLocalInfo();
+            }
+            try {
+                command.run();
+            } finally {
+                MetaContext.remove();
+                if (isCheckpoint) {
+                    CHECKPOINT_WORKER_THREAD_IDS.remove(threadId);
+                }
+            }
+        });
+        try {
+            task.run(executor);
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private static List<SectionedImage.Section> filterImageSections(List<SectionedImage.Section> sections,
+                                                                    Set<Integer> sectionIds) {
+        if (sectionIds == null) {
+            return sections;
+        }
+        return sections.stream().filter(section -> sectionIds.contains(section.getId()))
+                .collect(Collectors.toList());
+    }
+
+    // The sections of the image. Ids must never be changed or reused. The loading phase follows the dependencies
+    // between modules, e.g. transactions need the databases and the recycle bin, and load jobs need transactions.
+    private List<SectionedImage.Section> getImageSections(long replayedJournalId) {
+        List<SectionedImage.Section> sections = new ArrayList<>();
+        sections.add(new SectionedImage.Section(ImageSections.HEADER, "header", 0,
+                dis -> loadHeader(dis, 0),
+                dos -> saveHeader(dos, replayedJournalId, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.NODES, "nodes", 1,
+                dis -> {
+                    nodeMgr.loadMasterInfo(dis, 0);
+                    nodeMgr.loadFrontends(dis, 0);
+                    nodeMgr.loadBackends(dis, 0);
+                    nodeMgr.loadBrokers(dis, 0);
+                    nodeMgr.loadComputeNodes(dis, 0);
+                },
+                dos -> {
+                    nodeMgr.saveMasterInfo(dos, 0);
+                    nodeMgr.saveFrontends(dos, 0);
+                    nodeMgr.saveBackends(dos, 0);
+                    nodeMgr.saveBrokers(dos, 0);
+                    nodeMgr.saveComputeNodes(dos, 0);
+                }));
+        sections.add(new SectionedImage.Section(ImageSections.DATABASES, "databases", 1,
+                dis -> {
+                    localMetastore.loadDb(dis, 0);
+                    localMetastore.recreateTabletInvertIndex();
+                    esRepository.loadTableFromCatalog();
+                    starRocksRepository.loadTableFromCatalog();
+                },
+                dos -> localMetastore.saveDb(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.GLOBAL_VARIABLES, "global_variables", 1,
+                dis -> VariableMgr.loadGlobalVariable(dis, 0),
+                dos -> VariableMgr.saveGlobalVariable(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.RESOURCES, "resources", 1,
+                dis -> loadResources(dis, 0),
+                dos -> resourceMgr.saveResources(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.AUTH, "auth", 1,
+                dis -> {
+                    auth.loadAuth(dis, 0);
+                    auth.readAsGson(dis, 0);
+                },
+                dos -> {
+                    auth.saveAuth(dos, 0);
+                    auth.writeAsGson(dos, 0);
+                }));
+        sections.add(new SectionedImage.Section(ImageSections.SMALL_FILES, "small_files", 1,
+                dis -> smallFileMgr.loadSmallFiles(dis, 0),
+                dos -> smallFileMgr.saveSmallFiles(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.PLUGINS, "plugins", 1,
+                dis -> pluginMgr.loadPlugins(dis, 0),
+                dos -> pluginMgr.savePlugins(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.WORK_GROUPS, "work_groups", 1,
+                dis -> workGroupMgr.loadWorkGroups(dis, 0),
+                dos -> workGroupMgr.saveWorkGroups(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.SHARD_MANAGER, "shard_manager", 1,
+                dis -> loadShardManager(dis, 0),
+                dos -> shardManager.saveShardManager(dos, 0)));
+        // the following need the databases or backends
+        sections.add(new SectionedImage.Section(ImageSections.CLUSTER, "cluster", 2,
+                dis -> localMetastore.loadCluster(dis, 0),
+                dos -> localMetastore.saveCluster(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.LOAD_JOBS, "load_jobs", 2,
+                dis -> load.loadLoadJob(dis, 0),
+                dos -> load.saveLoadJob(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.ALTER_JOBS, "alter_jobs", 2,
+                dis -> loadAlterJob(dis, 0),
+                dos -> saveAlterJob(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.RECYCLE_BIN, "recycle_bin", 2,
+                dis -> recycleBin.loadRecycleBin(dis, 0),
+                dos -> recycleBin.saveRecycleBin(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.EXPORT_JOBS, "export_jobs", 2,
+                dis -> exportMgr.loadExportJob(dis, 0),
+                dos -> exportMgr.saveExportJob(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.BACKUP_HANDLER, "backup_handler", 2,
+                dis -> backupHandler.loadBackupHandler(dis, 0, this),
+                dos -> backupHandler.saveBackupHandler(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.DELETE_HANDLER, "delete_handler", 2,
+                dis -> loadDeleteHandler(dis, 0),
+                dos -> deleteHandler.saveDeleteHandler(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.ANALYZE, "analyze", 2,
+                dis -> analyzeManager.loadAnalyze(dis, 0),
+                dos -> analyzeManager.saveAnalyze(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.TASKS, "tasks", 2,
+                dis -> taskManager.loadTasks(dis, 0),
+                dos -> taskManager.saveTasks(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.CATALOGS, "catalogs", 2,
+                dis -> catalogMgr.loadCatalogs(dis, 0),
+                dos -> catalogMgr.saveCatalogs(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.INSERT_OVERWRITE_JOBS, "insert_overwrite_jobs", 2,
+                dis -> loadInsertOverwriteJobs(dis, 0),
+                dos -> saveInsertOverwriteJobs(dos, 0)));
+        // the transaction managers are created for the databases and the ones in recycle bin
+        sections.add(new SectionedImage.Section(ImageSections.TRANSACTIONS, "transactions", 3,
+                dis -> globalTransactionMgr.loadTransactionState(dis, 0),
+                dos -> globalTransactionMgr.saveTransactionState(dos, 0)));
+        // global transaction must be replayed before load jobs v2
+        sections.add(new SectionedImage.Section(ImageSections.COLOCATE_INDEX, "colocate_index", 4,
+                dis -> colocateTableIndex.loadColocateTableIndex(dis, 0),
+                dos -> colocateTableIndex.saveColocateTableIndex(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.ROUTINE_LOAD_JOBS, "routine_load_jobs", 4,
+                dis -> routineLoadManager.loadRoutineLoadJobs(dis, 0),
+                dos -> routineLoadManager.saveRoutineLoadJobs(dos, 0)));
+        sections.add(new SectionedImage.Section(ImageSections.LOAD_JOBS_V2, "load_jobs_v2", 4,
+                dis -> loadManager.loadLoadJobsV2(dis, 0),
+                dos -> loadManager.saveLoadJobsV2(dos, 0)));
+        return sections;
+    }
+
     public long saveHeader(DataOutputStream dos, long replayedJournalId, long checksum) throws IOException {
         // Write meta version
         // community meta version is a positive integer, so we write -1 to distinguish old image structure
@@ -1713,6 +1921,8 @@ public class GlobalStateMgr {
 
         long startTime = System.currentTimeMillis();
         boolean hasLog = false;
+        // the checkpoint replays on its own catalog, which the workers do not see
+        ParallelJournalReplayer parallelReplayer = isCheckpointThread() ? null : getParallelJournalReplayer();
         while (true) {
             JournalEntity entity = null;
             try {
@@ -1730,17 +1940,16 @@ public class GlobalStateMgr {
             }
 
             hasLog = true;
-            EditLog.loadJournal(this, entity);
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-            if (feType != FrontendNodeType.MASTER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
-            }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+            if (parallelReplayer != null) {
+                onJournalsReplayed(replayInParallel(parallelReplayer, entity));
+            } else {
+                EditLog.loadJournal(this, entity);
+                onJournalsReplayed(1);
             }
         }
+        if (parallelReplayer != null) {
+            onJournalsReplayed(waitParallelReplays(parallelReplayer));
+        }
         long cost = System.currentTimeMillis() - startTime;
         if (cost >= 1000) {
             LOG.warn("replay journal cost too much time: {} replayedJournalId: {}", cost, replayedJournalId);
@@ -1749,6 +1958,50 @@ public class GlobalStateMgr {
         return hasLog;
     }
 
+    private ParallelJournalReplayer getParallelJournalReplayer() {
+        if (parallelJournalReplayer == null && Config.metadata_journal_replay_threads_num > 1) {
+            parallelJournalReplayer = new ParallelJournalReplayer(Config.metadata_journal_replay_threads_num);
+        }
+        return parallelJournalReplayer;
+    }
+
+    private int replayInParallel(ParallelJournalReplayer parallelReplayer, JournalEntity entity) {
+        try {
+            return parallelReplayer.replay(this, entity);
+        } catch (InterruptedException e) {
+            LOG.warn("got interrupted exception when replay journal, will exit, ", e);
+            Util.stdoutWithTime(e.getMessage());
+            System.exit(-1);
+            return 0;
+        }
+    }
+
+    private int waitParallelReplays(ParallelJournalReplayer parallelReplayer) {
+        try {
+            return parallelReplayer.waitPendingReplays();
+        } catch (InterruptedException e) {
+            LOG.warn("got interrupted exception when wait for journals replayed, will exit, ", e);
+            Util.stdoutWithTime(e.getMessage());
+            System.exit(-1);
+            return 0;
+        }
+    }
+
+    private void onJournalsReplayed(int num) {
+        if (num == 0) {
+            return;
+        }
+        replayedJournalId.addAndGet(num);
+        LOG.debug("journal {} replayed.", replayedJournalId);
+        if (feType != FrontendNodeType.MASTER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.isInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase((long) num);
+        }
+    }
+
     public void createTimePrinter() {
         // time printer will write timestamp edit log every 10 seconds
         timePrinter = new MasterDaemon("timePrinter", 10 * 1000L) {
@@ -49,6 +49,7 @@ import com.starrocks.common.DuplicatedRequestException;
 import com.starrocks.common.LabelAlreadyUsedException;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.PatternMatcher;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.ThriftServerContext;
 import com.starrocks.common.ThriftServerEventProcessor;
 import com.starrocks.common.UserException;
@@ -119,6 +120,8 @@ import com.starrocks.thrift.TLoadTxnCommitRequest;
 import com.starrocks.thrift.TLoadTxnCommitResult;
 import com.starrocks.thrift.TLoadTxnRollbackRequest;
 import com.starrocks.thrift.TLoadTxnRollbackResult;
+import com.starrocks.thrift.TMasterOpBatchRequest;
+import com.starrocks.thrift.TMasterOpBatchResult;
 import com.starrocks.thrift.TMasterOpRequest;
 import com.starrocks.thrift.TMasterOpResult;
 import com.starrocks.thrift.TMasterResult;
@@ -159,6 +162,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -168,6 +174,9 @@ import static com.starrocks.thrift.TStatusCode.NOT_IMPLEMENTED_ERROR;
 // thrift protocol
 public class FrontendServiceImpl implements FrontendService.Iface {
     private static final Logger LOG = LogManager.getLogger(MasterImpl.class);
+
+    private static final ExecutorService MASTER_OP_BATCH_EXECUTOR = ThreadPoolManager.newDaemonElasticThreadPool(
+            Config.master_op_batch_executor_threads_num, "master-op-batch-executor", true);
     private MasterImpl masterImpl;
     private ExecuteEnv exeEnv;
 
@@ -834,10 +843,48 @@ public class FrontendServiceImpl implements FrontendService.Iface {
 
         // add this log so that we can track this stmt
         LOG.info("receive forwarded stmt {} from FE: {}", params.getStmt_id(), clientAddr.getHostname());
+        return executeForwardedStmt(params);
+    }
+
+    private static TMasterOpResult executeForwardedStmt(TMasterOpRequest params) {
         ConnectContext context = new ConnectContext(null);
         ConnectProcessor processor = new ConnectProcessor(context);
-        TMasterOpResult result = processor.proxyExecute(params);
-        ConnectContext.remove();
+        try {
+            return processor.proxyExecute(params);
+        } finally {
+            ConnectContext.remove();
+        }
+    }
+
+    @Override
+    public TMasterOpBatchResult forwardBatch(TMasterOpBatchRequest request) throws TException {
+        TNetworkAddress clientAddr = getClientAddr();
+        if (clientAddr != null) {
+            Frontend fe = GlobalStateMgr.getCurrentState().getFeByHost(clientAddr.getHostname());
+            if (fe == null) {
+                LOG.warn("reject request from invalid host. client: {}", clientAddr);
+                throw new TException("request from invalid host was rejected.");
+            }
+        }
+
+        List<TMasterOpRequest> requests = request.isSetRequests() ? request.getRequests() : Lists.newArrayList();
+        // the forwarded statements are independent, so they are executed concurrently
+        List<Future<TMasterOpResult>> futures = Lists.newArrayListWithCapacity(requests.size());
+        for (TMasterOpRequest params : requests) {
+            LOG.info("receive forwarded stmt {} in batch from FE: {}", params.getStmt_id(), clientAddr);
+            futures.add(MASTER_OP_BATCH_EXECUTOR.submit(() -> executeForwardedStmt(params)));
+        }
+
+        TMasterOpBatchResult result = new TMasterOpBatchResult();
+        result.setResults(Lists.newArrayListWithCapacity(requests.size()));
+        for (Future<TMasterOpResult> future : futures) {
+            try {
+                result.addToResults(future.get());
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.warn("execute forwarded stmts in batch failed", e);
+                throw new TException("execute forwarded stmts in batch failed: " + e.getMessage());
+            }
+        }
         return result;
     }
 
@@ -1,6 +1,8 @@
 // This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
 package com.starrocks.sql;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.starrocks.analysis.AlterSystemStmt;
 import com.starrocks.analysis.AlterTableStmt;
 import com.starrocks.analysis.DeleteStmt;
@@ -13,6 +15,7 @@ import com.starrocks.common.AnalysisException;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.ResultSink;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.PrivilegeChecker;
@@ -25,6 +28,7 @@ import com.starrocks.sql.optimizer.OptimizerTraceUtil;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.transformer.LogicalPlan;
 import com.starrocks.sql.optimizer.transformer.RelationTransformer;
 import com.starrocks.sql.plan.ExecPlan;
@@ -47,17 +51,7 @@ public class StatementPlanner {
         }
 
         if (stmt instanceof QueryStatement) {
-            Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(session, stmt);
-            try {
-                lock(dbs);
-                session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
-                ExecPlan plan = createQueryPlan(((QueryStatement) stmt).getQueryRelation(), session);
-                setOutfileSink((QueryStatement) stmt, plan);
-
-                return plan;
-            } finally {
-                unLock(dbs);
-            }
+            return planAnalyzedQuery((QueryStatement) stmt, session);
         } else if (stmt instanceof DmlStmt) {
             Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(session, stmt);
             try {
@@ -76,6 +70,24 @@ public class StatementPlanner {
         return null;
     }
 
+    /**
+     * Plan a query which has been analyzed and checked, e.g. the analyzed statement of a prepared statement
+     * bound to new parameters.
+     */
+    public ExecPlan planAnalyzedQuery(QueryStatement stmt, ConnectContext session) {
+        Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(session, stmt);
+        try {
+            lock(dbs);
+            session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
+            ExecPlan plan = createQueryPlan(stmt.getQueryRelation(), session);
+            setOutfileSink(stmt, plan);
+
+            return plan;
+        } finally {
+            unLock(dbs);
+        }
+    }
+
     private ExecPlan createQueryPlan(Relation relation, ConnectContext session) {
         QueryRelation query = (QueryRelation) relation;
         List<String> colNames = query.getColumnOutputNames();
@@ -94,17 +106,54 @@ public class StatementPlanner {
                 columnRefFactory);
 
         //3. Build fragment exec plan
+        return createExecPlan(optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+    }
+
+    private ExecPlan createExecPlan(OptExpression optimizedPlan, ConnectContext session,
+                                    List<ColumnRefOperator> outputColumns, ColumnRefFactory columnRefFactory,
+                                    List<String> colNames) {
         /*
          * SingleNodeExecPlan is set in TableQueryPlanAction to generate a single-node Plan,
          * currently only used in Spark/Flink Connector
          * Because the connector sends only simple queries, it only needs to remove the output fragment
          */
+        ExecPlan plan;
         if (session.getSessionVariable().isSingleNodeExecPlan()) {
-            return new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            plan = new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
+                    optimizedPlan, session, outputColumns, columnRefFactory, colNames);
         } else {
-            return new PlanFragmentBuilder().createPhysicalPlan(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            plan = new PlanFragmentBuilder().createPhysicalPlan(
+                    optimizedPlan, session, outputColumns, columnRefFactory, colNames);
+        }
+        plan.setColumnRefFactory(columnRefFactory);
+        return plan;
+    }
+
+    /**
+     * Build the fragments of a query plan again from its physical plan, without analyzing and optimizing the
+     * query again. The fragments of a plan could only be executed once, because Coordinator modifies them,
+     * e.g. adds the destinations of multicast sinks, so they are built again to execute the plan again.
+     * The databases of the query are read locked as planning it, see {@link ConnectContext#getCurrentSqlDbIds}.
+     */
+    public ExecPlan rebuildQueryPlan(QueryStatement stmt, ExecPlan plan, ConnectContext session) {
+        Preconditions.checkState(plan.getColumnRefFactory() != null, "not a plan of query");
+        Map<String, Database> dbs = Maps.newHashMap();
+        if (session.getCurrentSqlDbIds() != null) {
+            for (Long dbId : session.getCurrentSqlDbIds()) {
+                Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+                if (db != null) {
+                    dbs.put(db.getFullName(), db);
+                }
+            }
+        }
+        try {
+            lock(dbs);
+            ExecPlan newPlan = createExecPlan(plan.getPhysicalPlan(), session, plan.getOutputColumns(),
+                    plan.getColumnRefFactory(), plan.getColNames());
+            setOutfileSink(stmt, newPlan);
+            return newPlan;
+        } finally {
+            unLock(dbs);
         }
     }
 
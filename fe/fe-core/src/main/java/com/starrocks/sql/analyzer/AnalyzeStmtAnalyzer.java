@@ -15,16 +15,19 @@ import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.common.Config;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.ast.AnalyzeHistogramDesc;
+import com.starrocks.sql.ast.AnalyzeMultiColumnDesc;
 import com.starrocks.sql.ast.AnalyzeStmt;
 import com.starrocks.sql.ast.AnalyzeTypeDesc;
 import com.starrocks.sql.ast.AstVisitor;
 import com.starrocks.sql.ast.CreateAnalyzeJobStmt;
 import com.starrocks.sql.ast.DropHistogramStmt;
+import com.starrocks.sql.ast.DropMultiColumnStatsStmt;
 import com.starrocks.sql.common.MetaUtils;
 import com.starrocks.statistic.StatisticUtils;
 import com.starrocks.statistic.StatsConstants;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -190,9 +193,40 @@ public class AnalyzeStmtAnalyzer {
                     sampleRows = Math.min(minSampleRows, totalRows);
                 }
                 properties.put(StatsConstants.PROP_SAMPLE_COLLECT_ROWS_KEY, String.valueOf(sampleRows));
+            } else if (analyzeTypeDesc instanceof AnalyzeMultiColumnDesc) {
+                statement.setColumnNames(analyzeMultiColumns(session, statement.getTableName(),
+                        statement.getColumnNames()));
             }
         }
 
+        // the columns of multi column statistics are ordered, normalize the names to match them in optimizer
+        private List<String> analyzeMultiColumns(ConnectContext session, TableName tableName,
+                                                 List<String> columnNames) {
+            Table analyzeTable = MetaUtils.getTable(session, tableName);
+            if (columnNames.size() < 2) {
+                throw new SemanticException("Multi column statistics need at least 2 columns");
+            }
+            Set<String> mentionedColumns = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
+            List<String> normalizedNames = new ArrayList<>();
+            for (String colName : columnNames) {
+                Column column = analyzeTable.getColumn(colName);
+                if (column == null) {
+                    throw new SemanticException("Unknown column '%s' in '%s'", colName, analyzeTable.getName());
+                }
+                if (!mentionedColumns.add(colName)) {
+                    throw new SemanticException("Column '%s' specified twice", colName);
+                }
+                if (column.getType().isComplexType()
+                        || column.getType().isJsonType()
+                        || column.getType().isOnlyMetricType()) {
+                    throw new SemanticException("Can't create multi column statistics on column type is %s",
+                            column.getType().toSql());
+                }
+                normalizedNames.add(column.getName());
+            }
+            return normalizedNames;
+        }
+
         @Override
         public Void visitDropHistogramStatement(DropHistogramStmt statement, ConnectContext session) {
             MetaUtils.normalizationTableName(session, statement.getTableName());
@@ -206,5 +240,13 @@ public class AnalyzeStmtAnalyzer {
             }
             return null;
         }
+
+        @Override
+        public Void visitDropMultiColumnStatsStatement(DropMultiColumnStatsStmt statement, ConnectContext session) {
+            MetaUtils.normalizationTableName(session, statement.getTableName());
+            statement.setColumnNames(analyzeMultiColumns(session, statement.getTableName(),
+                    statement.getColumnNames()));
+            return null;
+        }
     }
 }
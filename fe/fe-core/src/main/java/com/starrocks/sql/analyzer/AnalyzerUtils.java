@@ -30,11 +30,14 @@ import com.starrocks.server.CatalogMgr;
 import com.starrocks.sql.ast.AstVisitor;
 import com.starrocks.sql.ast.CTERelation;
 import com.starrocks.sql.ast.JoinRelation;
+import com.starrocks.sql.ast.QueryRelation;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.SelectRelation;
 import com.starrocks.sql.ast.SetOperationRelation;
 import com.starrocks.sql.ast.SubqueryRelation;
+import com.starrocks.sql.ast.TableFunctionRelation;
 import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.ValuesRelation;
 import com.starrocks.sql.ast.ViewRelation;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
@@ -305,6 +308,125 @@ public class AnalyzerUtils {
         return tableRelations;
     }
 
+    // Get all the expressions of the type in the analyzed query, including those in subqueries, CTEs and views
+    public static <C extends Expr> List<C> collectAllExpressions(StatementBase statementBase, Class<C> exprClass) {
+        List<C> exprs = Lists.newArrayList();
+        new ExpressionCollector<>(exprClass, exprs).visit(statementBase);
+        return exprs;
+    }
+
+    /**
+     * Collect the expressions of all clauses of the statement and its subqueries, without their children.
+     */
+    public static List<Expr> collectAllRootExpressions(StatementBase statementBase) {
+        List<Expr> exprs = Lists.newArrayList();
+        new ExpressionCollector<>(null, exprs).visit(statementBase);
+        return exprs;
+    }
+
+    private static class ExpressionCollector<C extends Expr> extends AstVisitor<Void, Void> {
+        // null to collect the root expressions
+        private final Class<C> exprClass;
+        private final List<C> exprs;
+
+        public ExpressionCollector(Class<C> exprClass, List<C> exprs) {
+            this.exprClass = exprClass;
+            this.exprs = exprs;
+        }
+
+        private void collect(Expr expr) {
+            if (expr == null) {
+                return;
+            }
+            if (exprClass == null) {
+                exprs.add((C) expr);
+            } else {
+                expr.collect(exprClass, exprs);
+            }
+            List<Subquery> subqueries = Lists.newArrayList();
+            expr.collect(Subquery.class, subqueries);
+            for (Subquery subquery : subqueries) {
+                visit(subquery.getQueryStatement());
+            }
+        }
+
+        private void collect(List<? extends Expr> exprList) {
+            if (exprList != null) {
+                exprList.forEach(this::collect);
+            }
+        }
+
+        private void collectQueryRelation(QueryRelation node) {
+            node.getCteRelations().forEach(this::visit);
+            if (node.hasOrderByClause()) {
+                collect(node.getOrderByExpressions());
+            }
+        }
+
+        @Override
+        public Void visitQueryStatement(QueryStatement node, Void context) {
+            return visit(node.getQueryRelation());
+        }
+
+        @Override
+        public Void visitSubquery(SubqueryRelation node, Void context) {
+            return visit(node.getQueryStatement());
+        }
+
+        @Override
+        public Void visitView(ViewRelation node, Void context) {
+            return visit(node.getQueryStatement());
+        }
+
+        @Override
+        public Void visitCTE(CTERelation node, Void context) {
+            return visit(node.getCteQueryStatement());
+        }
+
+        @Override
+        public Void visitSelect(SelectRelation node, Void context) {
+            collectQueryRelation(node);
+            collect(node.getOutputExpr());
+            collect(node.getPredicate());
+            collect(node.getGroupBy());
+            collect(node.getHaving());
+            collect(node.getOrderSourceExpressions());
+            return visit(node.getRelation());
+        }
+
+        @Override
+        public Void visitSetOp(SetOperationRelation node, Void context) {
+            collectQueryRelation(node);
+            node.getRelations().forEach(this::visit);
+            return null;
+        }
+
+        @Override
+        public Void visitJoin(JoinRelation node, Void context) {
+            visit(node.getLeft());
+            visit(node.getRight());
+            collect(node.getOnPredicate());
+            return null;
+        }
+
+        @Override
+        public Void visitValues(ValuesRelation node, Void context) {
+            node.getRows().forEach(this::collect);
+            return null;
+        }
+
+        @Override
+        public Void visitTableFunction(TableFunctionRelation node, Void context) {
+            collect(node.getChildExpressions());
+            return null;
+        }
+
+        @Override
+        public Void visitTable(TableRelation node, Void context) {
+            return null;
+        }
+    }
+
     private static class TableCollectorWithAlias extends TableCollector {
         public TableCollectorWithAlias(Map<TableName, Table> dbs) {
             super(dbs);
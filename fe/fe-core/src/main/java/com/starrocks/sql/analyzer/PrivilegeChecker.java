@@ -74,6 +74,7 @@ import com.starrocks.sql.ast.CancelRefreshMaterializedViewStatement;
 import com.starrocks.sql.ast.CreateAnalyzeJobStmt;
 import com.starrocks.sql.ast.CreateMaterializedViewStatement;
 import com.starrocks.sql.ast.DropHistogramStmt;
+import com.starrocks.sql.ast.DropMultiColumnStatsStmt;
 import com.starrocks.sql.ast.ExecuteAsStmt;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.RefreshMaterializedViewStatement;
@@ -643,6 +644,17 @@ public class PrivilegeChecker {
             return null;
         }
 
+        @Override
+        public Void visitDropMultiColumnStatsStatement(DropMultiColumnStatsStmt statement, ConnectContext session) {
+            TableName tableName = statement.getTableName();
+
+            if (!checkTblPriv(session, tableName, PrivPredicate.LOAD)) {
+                ErrorReport.reportSemanticException(ErrorCode.ERR_TABLEACCESS_DENIED_ERROR, "LOAD",
+                        session.getQualifiedUser(), session.getRemoteIP(), tableName.getTbl());
+            }
+            return null;
+        }
+
         @Override
         public Void visitShowCreateDbStatement(ShowCreateDbStmt statement, ConnectContext session) {
             String db = statement.getDb();
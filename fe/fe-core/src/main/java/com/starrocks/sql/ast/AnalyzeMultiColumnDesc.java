@@ -0,0 +1,8 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.ast;
+
+/**
+ * Collect the statistics of the combination of the columns, which are ordered, instead of each column.
+ */
+public class AnalyzeMultiColumnDesc implements AnalyzeTypeDesc {
+}
@@ -380,6 +380,10 @@ public abstract class AstVisitor<R, C> {
         return visitStatement(statement, context);
     }
 
+    public R visitDropMultiColumnStatsStatement(DropMultiColumnStatsStmt statement, C context) {
+        return visitStatement(statement, context);
+    }
+
     public R visitShowAnalyzeJobStatement(ShowAnalyzeJobStmt statement, C context) {
         return visitShowStatement(statement, context);
     }
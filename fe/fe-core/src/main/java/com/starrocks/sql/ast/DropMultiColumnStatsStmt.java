@@ -0,0 +1,47 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.ast;
+
+import com.starrocks.analysis.RedirectStatus;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.analysis.TableName;
+
+import java.util.List;
+
+public class DropMultiColumnStatsStmt extends StatementBase {
+    private final TableName tbl;
+    private List<String> columnNames;
+
+    public DropMultiColumnStatsStmt(TableName tbl, List<String> columnNames) {
+        this.tbl = tbl;
+        this.columnNames = columnNames;
+    }
+
+    public TableName getTableName() {
+        return tbl;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(List<String> columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitDropMultiColumnStatsStatement(this, context);
+    }
+
+    @Override
+    public boolean isSupportNewPlanner() {
+        return true;
+    }
+
+    @Override
+    public RedirectStatus getRedirectStatus() {
+        // the meta of the statistics is removed by leader
+        return RedirectStatus.FORWARD_WITH_SYNC;
+    }
+}
@@ -49,6 +49,10 @@ public class Memo {
      */
     private final Map<GroupExpression, GroupExpression> groupExpressions;
 
+    // Increased on every group merge, used by ParallelTaskScheduler to detect
+    // that the memo has been reshaped under speculatively transformed expressions
+    private long mergeVersion = 0;
+
     public List<Group> getGroups() {
         return groups;
     }
@@ -66,6 +70,10 @@ public class Memo {
         return rootGroup;
     }
 
+    public long getMergeVersion() {
+        return mergeVersion;
+    }
+
     /**
      * Copy an expression into search space, this function will add an GroupExpression for
      * this Expression. If this Expression has children, this function will be called
@@ -151,6 +159,7 @@ public class Memo {
     }
 
     private void mergeGroup(Group srcGroup, Group dstGroup) {
+        mergeVersion++;
         mergeGroupImpl(srcGroup, dstGroup);
         // When some rule merge two groups to one group, or
         // the GroupExpressions of one group are all removed.
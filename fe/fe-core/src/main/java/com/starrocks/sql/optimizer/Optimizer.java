@@ -8,9 +8,13 @@ import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.Explain;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.DistributionProperty;
+import com.starrocks.sql.optimizer.base.DistributionSpec;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
 import com.starrocks.sql.optimizer.cost.CostEstimate;
+import com.starrocks.sql.optimizer.operator.logical.LogicalLimitOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
 import com.starrocks.sql.optimizer.rewrite.AddDecodeNodeForDictStringRule;
 import com.starrocks.sql.optimizer.rewrite.ExchangeSortToMergeRule;
 import com.starrocks.sql.optimizer.rewrite.PredicateReorderRule;
@@ -18,6 +22,8 @@ import com.starrocks.sql.optimizer.rewrite.PruneAggregateNodeRule;
 import com.starrocks.sql.optimizer.rewrite.ScalarOperatorsReuseRule;
 import com.starrocks.sql.optimizer.rule.Rule;
 import com.starrocks.sql.optimizer.rule.RuleSetType;
+import com.starrocks.sql.optimizer.rule.implementation.LimitImplementationRule;
+import com.starrocks.sql.optimizer.rule.implementation.OlapScanImplementationRule;
 import com.starrocks.sql.optimizer.rule.implementation.PreAggregateTurnOnRule;
 import com.starrocks.sql.optimizer.rule.join.ReorderJoinRule;
 import com.starrocks.sql.optimizer.rule.mv.MaterializedViewRule;
@@ -101,17 +107,21 @@ public class Optimizer {
         memo.deriveAllGroupLogicalProperty();
 
         // Phase 3: optimize based on memo and group
-        memoOptimize(connectContext, memo, rootTaskContext);
-
-        OptExpression result;
-        if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
-            result = extractBestPlan(requiredProperty, memo.getRootGroup());
+        OptExpression result = buildShortCircuitPlan(connectContext, memo, rootTaskContext, requiredProperty);
+        if (result != null) {
+            OptimizerTraceUtil.logOptExpression(connectContext, "after build short circuit plan:\n%s", result);
         } else {
-            // extract the nth execution plan
-            int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
-            result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+            memoOptimize(connectContext, memo, rootTaskContext);
+
+            if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
+                result = extractBestPlan(requiredProperty, memo.getRootGroup());
+            } else {
+                // extract the nth execution plan
+                int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
+                result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+            }
+            OptimizerTraceUtil.logOptExpression(connectContext, "after extract best plan:\n%s", result);
         }
-        OptimizerTraceUtil.logOptExpression(connectContext, "after extract best plan:\n%s", result);
 
         // set costs audio log before physicalRuleRewrite
         // statistics won't set correctly after physicalRuleRewrite.
@@ -165,6 +175,77 @@ public class Optimizer {
         context.getTaskScheduler().executeTasks(rootTaskContext, memo.getRootGroup());
     }
 
+    /**
+     * After logical rewrite, the predicates, projection and local limit of a query which only scans one olap table
+     * have been merged into the scan operator, and partitions and tablets have been pruned, so there is only one
+     * possible physical plan: the scan, with a gather exchange and a limit on top if there is a global limit.
+     * Build it directly to skip exploring, enforcing and costing in memo, which dominates the planning time of
+     * such simple queries, e.g. point lookups by key.
+     *
+     * @return the physical plan, or null if the query is not a single olap table scan
+     */
+    OptExpression buildShortCircuitPlan(ConnectContext connectContext, Memo memo, TaskContext rootTaskContext,
+                                        PhysicalPropertySet requiredProperty) {
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        if (!sessionVariable.isCboEnableShortCircuitPlan() || sessionVariable.isSetUseNthExecPlan() ||
+                !requiredProperty.isEmpty()) {
+            return null;
+        }
+
+        Group rootGroup = memo.getRootGroup();
+        if (rootGroup.getLogicalExpressions().size() != 1) {
+            return null;
+        }
+        GroupExpression rootExpression = rootGroup.getFirstLogicalExpression();
+        Group scanGroup = rootGroup;
+        LogicalLimitOperator limit = null;
+        if (rootExpression.getOp() instanceof LogicalLimitOperator) {
+            limit = (LogicalLimitOperator) rootExpression.getOp();
+            if (!limit.isGlobal()) {
+                return null;
+            }
+            scanGroup = rootExpression.inputAt(0);
+            if (scanGroup.getLogicalExpressions().size() != 1) {
+                return null;
+            }
+        }
+        GroupExpression scanExpression = scanGroup.getFirstLogicalExpression();
+        if (!(scanExpression.getOp() instanceof LogicalOlapScanOperator)) {
+            return null;
+        }
+
+        // statistics are still needed by the plan fragment builder and physical rewrite
+        context.getTaskScheduler().pushTask(new DeriveStatsTask(rootTaskContext, rootExpression));
+        context.getTaskScheduler().executeTasks(rootTaskContext, rootGroup);
+
+        OptExpression scan = new OlapScanImplementationRule()
+                .transform(new OptExpression(scanExpression.getOp()), context).get(0);
+        setPhysicalProperties(scan, scanGroup, Collections.emptyList());
+        if (limit == null) {
+            return scan;
+        }
+
+        // same as the enforcer added for the gather property required by limit
+        OptExpression limitExpression = new LimitImplementationRule()
+                .transform(OptExpression.create(limit, scan), context).get(0);
+        DistributionSpec gather = DistributionSpec.createGatherDistributionSpec(limitExpression.getOp().getLimit());
+        OptExpression exchange = OptExpression.create(new PhysicalDistributionOperator(gather), scan);
+        setPhysicalProperties(exchange, scanGroup, Lists.newArrayList(PhysicalPropertySet.EMPTY));
+
+        OptExpression result = OptExpression.create(limitExpression.getOp(), exchange);
+        setPhysicalProperties(result, rootGroup, Lists.newArrayList(new PhysicalPropertySet(
+                new DistributionProperty(gather))));
+        return result;
+    }
+
+    // same as extractBestPlan
+    private void setPhysicalProperties(OptExpression expression, Group group,
+                                       List<PhysicalPropertySet> inputProperties) {
+        expression.setRequiredProperties(inputProperties);
+        expression.setStatistics(group.getStatistics());
+        expression.setLogicalProperty(group.getLogicalProperty());
+    }
+
     OptExpression physicalRuleRewrite(TaskContext rootTaskContext, OptExpression result) {
         Preconditions.checkState(result.getOp().isPhysical());
 
@@ -15,6 +15,7 @@ import com.starrocks.sql.optimizer.JoinHelper;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.DistributionSpec;
+import com.starrocks.sql.optimizer.base.HashDistributionSpec;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.OperatorVisitor;
@@ -35,10 +36,14 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalWindowOperator;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.HistogramEstimator;
 import com.starrocks.sql.optimizer.statistics.Statistics;
 import com.starrocks.statistic.StatsConstants;
 
 import java.util.List;
+import java.util.Map;
 
 public class CostModel {
     public static double calculateCost(GroupExpression expression) {
@@ -222,6 +227,11 @@ public class CostModel {
                     }
                     break;
                 case SHUFFLE:
+                    double skewFactor =
+                            getShuffleSkewFactor((HashDistributionSpec) distributionSpec, statistics, context);
+                    result = CostEstimate.of(statistics.getOutputSize(outputColumns) * skewFactor, 0,
+                            Math.max(statistics.getOutputSize(outputColumns) * skewFactor, 1));
+                    break;
                 case GATHER:
                     result = CostEstimate.of(statistics.getOutputSize(outputColumns), 0,
                             Math.max(statistics.getOutputSize(outputColumns), 1));
@@ -234,6 +244,25 @@ public class CostModel {
             return result;
         }
 
+        // All rows of the most common value are shuffled to one instance, which slows down the whole fragment,
+        // so the skewed shuffle costs more than the broadcast of a small table. Only the histogram of a single
+        // shuffle column is used, the combination of multiple columns is usually not skewed.
+        private double getShuffleSkewFactor(HashDistributionSpec distributionSpec, Statistics statistics,
+                                            ExpressionContext context) {
+            List<Integer> shuffleColumns = distributionSpec.getShuffleColumns();
+            if (shuffleColumns.size() != 1) {
+                return 1;
+            }
+            for (Map.Entry<ColumnRefOperator, ColumnStatistic> entry : statistics.getColumnStatistics().entrySet()) {
+                if (entry.getKey().getId() == shuffleColumns.get(0) && entry.getValue().getHistogram() != null) {
+                    int beNum = Math.max(1, GlobalStateMgr.getCurrentSystemInfo().getBackendIds(true).size());
+                    int parallelism = beNum * Math.max(1, getParallelExecInstanceNum(context));
+                    return HistogramEstimator.estimateShuffleSkewFactor(entry.getValue().getHistogram(), parallelism);
+                }
+            }
+            return 1;
+        }
+
         private int getParallelExecInstanceNum(ExpressionContext context) {
             return Math.min(ConnectContext.get().getSessionVariable().getDegreeOfParallelism(),
                     context.getRootProperty().getLeftMostScanTabletsNum());
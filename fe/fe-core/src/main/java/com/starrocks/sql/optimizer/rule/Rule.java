@@ -53,6 +53,15 @@ public abstract class Rule {
         return true;
     }
 
+    /**
+     * Whether check and transform of this rule could run concurrently with other rules, see
+     * {@link com.starrocks.sql.optimizer.task.ParallelTaskScheduler}.
+     * Such rule must only read the memo and must not create column refs or keep state in the rule instance.
+     */
+    public boolean supportParallelApply() {
+        return false;
+    }
+
     /**
      * If this transform don't change the input OptExpression, should return the empty list
      */
@@ -22,6 +22,11 @@ public class HashJoinImplementationRule extends JoinImplementationRule {
         return instance;
     }
 
+    @Override
+    public boolean supportParallelApply() {
+        return true;
+    }
+
     @Override
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
         LogicalJoinOperator joinOperator = (LogicalJoinOperator) input.getOp();
@@ -0,0 +1,350 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Join reorder by dynamic programming over connected subgraphs of the join graph (DPccp, extended to the
+ * hyper edges of predicates referencing more than two atoms), which only considers the pairs of connected
+ * sub graphs (csg) and their connected complements (cmp), instead of all partitions as {@link JoinReorderDP}.
+ * For the chain, star and snowflake join graphs of large queries, the number of csg-cmp pairs is far less than
+ * the number of partitions, so the optimal bushy join tree is found for much more atoms.
+ * <p>
+ * The number of enumerated csg and csg-cmp pairs is bounded by a budget. The csg-cmp pairs are only collected during the
+ * enumeration, joins are built after it in the order of the size of pairs, so nothing is wasted when the budget
+ * is exceeded. In that case, the atoms are ordered by a greedy search, and the best bushy tree which joins
+ * adjacent atoms of the order is found by dynamic programming (linearized DP), in O(n^3) joins.
+ * <p>
+ * A hyper edge makes all its atoms adjacent during enumeration, and its predicate is applied once all the
+ * atoms are joined. So a csg-cmp pair is joined if some predicate references both of them and is covered by
+ * their union. The other pairs are joined by cross join only if all the atoms could not be joined that way.
+ * The disconnected components of the graph are linked, so that they are joined by cross join.
+ * <p>
+ * Like the other join orders, only inner and cross joins are reordered. Outer, semi and anti joins end the
+ * {@link MultiJoinNode}, so each of them is an atom here and the inner joins of its children are reordered
+ * separately. Reordering across them needs the conflict detection of non-inner joins, which is not done.
+ */
+public class JoinReorderDPhyp extends JoinOrder {
+    public static final int MAX_ATOMS = Long.SIZE;
+
+    private final long budget;
+    private long steps = 0;
+    // atoms adjacent to each atom, in the join graph
+    private long[] adjacency;
+    // atoms referenced by each predicate and the links of disconnected components
+    private final List<Long> edgeMasks = new ArrayList<>();
+    // the csg-cmp pairs, two elements for one pair
+    private final List<Long> csgCmpPairs = new ArrayList<>();
+    private final Map<Long, GroupInfo> bestPlans = new HashMap<>();
+
+    public JoinReorderDPhyp(OptimizerContext context, long budget) {
+        super(context);
+        this.budget = budget;
+    }
+
+    @Override
+    protected void enumerate() {
+        if (atomSize > MAX_ATOMS) {
+            return;
+        }
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        for (int i = 0; i < atomSize; i++) {
+            bestPlans.put(1L << i, atoms.get(i));
+        }
+        adjacency = buildAdjacency(false);
+
+        if (enumerateCsgCmpPairs()) {
+            joinCsgCmpPairs();
+        } else {
+            linearizedDP();
+        }
+    }
+
+    @Override
+    public List<OptExpression> getResult() {
+        GroupInfo best = bestPlans.get(allAtoms());
+        if (atomSize > MAX_ATOMS || best == null) {
+            return Collections.emptyList();
+        }
+        return Lists.newArrayList(best.bestExprInfo.expr);
+    }
+
+    // Whether the linearized DP is used because the budget is exceeded
+    boolean isBudgetExceeded() {
+        return steps > budget;
+    }
+
+    private long allAtoms() {
+        return lowMask(atomSize - 1);
+    }
+
+    // atoms whose index <= i
+    private static long lowMask(int i) {
+        return -1L >>> (Long.SIZE - 1 - i);
+    }
+
+    private long[] buildAdjacency(boolean connectedOnly) {
+        long[] result = new long[atomSize];
+        for (Edge edge : edges) {
+            long vertexes = toMask(edge.vertexes);
+            if (Long.bitCount(vertexes) < 2) {
+                continue;
+            }
+            for (long rest = vertexes; rest != 0; rest &= rest - 1) {
+                int atom = Long.numberOfTrailingZeros(rest);
+                result[atom] |= vertexes & ~(1L << atom);
+            }
+            if (!connectedOnly) {
+                edgeMasks.add(vertexes);
+            }
+        }
+        if (connectedOnly) {
+            return result;
+        }
+
+        // link the disconnected components by the lowest atoms of them
+        long visited = 0;
+        int previous = -1;
+        for (int i = 0; i < atomSize; i++) {
+            if ((visited & (1L << i)) != 0) {
+                continue;
+            }
+            long component = 1L << i;
+            long frontier = component;
+            while (frontier != 0) {
+                long next = 0;
+                for (long rest = frontier; rest != 0; rest &= rest - 1) {
+                    next |= result[Long.numberOfTrailingZeros(rest)];
+                }
+                frontier = next & ~component;
+                component |= next;
+            }
+            visited |= component;
+            if (previous >= 0) {
+                result[previous] |= 1L << i;
+                result[i] |= 1L << previous;
+                edgeMasks.add((1L << previous) | (1L << i));
+            }
+            previous = i;
+        }
+        return result;
+    }
+
+    private static long toMask(BitSet bitSet) {
+        long[] words = bitSet.toLongArray();
+        return words.length == 0 ? 0 : words[0];
+    }
+
+    private static BitSet toBitSet(long mask) {
+        return BitSet.valueOf(new long[] {mask});
+    }
+
+    private long neighbors(long atoms, long excluded) {
+        long result = 0;
+        for (long rest = atoms; rest != 0; rest &= rest - 1) {
+            result |= adjacency[Long.numberOfTrailingZeros(rest)];
+        }
+        return result & ~excluded & ~atoms;
+    }
+
+    /**
+     * Enumerate all csg-cmp pairs, see "Analysis of Two Existing and One New Dynamic Programming Algorithm for
+     * the Generation of Optimal Bushy Join Trees without Cross Products".
+     *
+     * @return false if the budget is exceeded
+     */
+    private boolean enumerateCsgCmpPairs() {
+        for (int i = atomSize - 1; i >= 0; i--) {
+            long atom = 1L << i;
+            if (!emitCsg(atom) || !enumerateCsgRec(atom, lowMask(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean enumerateCsgRec(long csg, long excluded) {
+        long neighbors = neighbors(csg, excluded);
+        for (long subset = neighbors; subset != 0; subset = (subset - 1) & neighbors) {
+            if (!emitCsg(csg | subset)) {
+                return false;
+            }
+        }
+        for (long subset = neighbors; subset != 0; subset = (subset - 1) & neighbors) {
+            if (!enumerateCsgRec(csg | subset, excluded | neighbors)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean emitCsg(long csg) {
+        if (++steps > budget) {
+            return false;
+        }
+        long excluded = csg | lowMask(Long.numberOfTrailingZeros(csg));
+        long neighbors = neighbors(csg, excluded);
+        for (long rest = neighbors; rest != 0; ) {
+            int atom = Long.SIZE - 1 - Long.numberOfLeadingZeros(rest);
+            long cmp = 1L << atom;
+            rest &= ~cmp;
+            if (!emitCsgCmp(csg, cmp) || !enumerateCmpRec(csg, cmp, excluded | (lowMask(atom) & neighbors))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean enumerateCmpRec(long csg, long cmp, long excluded) {
+        long neighbors = neighbors(cmp, excluded);
+        for (long subset = neighbors; subset != 0; subset = (subset - 1) & neighbors) {
+            if (!emitCsgCmp(csg, cmp | subset)) {
+                return false;
+            }
+        }
+        for (long subset = neighbors; subset != 0; subset = (subset - 1) & neighbors) {
+            if (!enumerateCmpRec(csg, cmp | subset, excluded | neighbors)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean emitCsgCmp(long csg, long cmp) {
+        csgCmpPairs.add(csg);
+        csgCmpPairs.add(cmp);
+        return ++steps <= budget;
+    }
+
+    // The plans of csg and cmp are built before the plan of their union, because they have less atoms.
+    // The atoms of a hyper edge are adjacent, but the pairs of them are not connected by its predicate until all
+    // of them are joined, so such pairs are only joined by cross join if all atoms could not be joined otherwise.
+    private void joinCsgCmpPairs() {
+        List<Integer> pairs = new ArrayList<>(csgCmpPairs.size() / 2);
+        for (int i = 0; i < csgCmpPairs.size(); i += 2) {
+            pairs.add(i);
+        }
+        pairs.sort(Comparator.comparingInt(i -> Long.bitCount(csgCmpPairs.get(i) | csgCmpPairs.get(i + 1))));
+        for (int i : pairs) {
+            long csg = csgCmpPairs.get(i);
+            long cmp = csgCmpPairs.get(i + 1);
+            if (isConnected(csg, cmp) && bestPlans.containsKey(csg) && bestPlans.containsKey(cmp)) {
+                join(bestPlans.get(csg), bestPlans.get(cmp));
+            }
+        }
+        if (bestPlans.containsKey(allAtoms())) {
+            return;
+        }
+
+        Set<Long> connectedPlans = new HashSet<>(bestPlans.keySet());
+        for (int i : pairs) {
+            long csg = csgCmpPairs.get(i);
+            long cmp = csgCmpPairs.get(i + 1);
+            if (!connectedPlans.contains(csg | cmp) && bestPlans.containsKey(csg) && bestPlans.containsKey(cmp)) {
+                join(bestPlans.get(csg), bestPlans.get(cmp));
+            }
+        }
+    }
+
+    // Whether a predicate (or a link of components) references both sides and is covered by their union
+    private boolean isConnected(long csg, long cmp) {
+        long atoms = csg | cmp;
+        for (long edge : edgeMasks) {
+            if ((edge & ~atoms) == 0 && (edge & csg) != 0 && (edge & cmp) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void linearizedDP() {
+        List<GroupInfo> order = greedyOrder();
+        int n = order.size();
+        GroupInfo[][] best = new GroupInfo[n][n];
+        for (int i = 0; i < n; i++) {
+            best[i][i] = order.get(i);
+        }
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                int j = i + length - 1;
+                for (int k = i; k < j; k++) {
+                    best[i][j] = join(best[i][k], best[k + 1][j]);
+                }
+            }
+        }
+    }
+
+    // Start from the largest atom, and join the connected atom which produces the least rows each time
+    private List<GroupInfo> greedyOrder() {
+        long[] connected = buildAdjacency(true);
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        int first = 0;
+        for (int i = 1; i < atomSize; i++) {
+            if (atoms.get(i).bestExprInfo.rowCount > atoms.get(first).bestExprInfo.rowCount) {
+                first = i;
+            }
+        }
+
+        List<GroupInfo> order = Lists.newArrayList(atoms.get(first));
+        long joined = 1L << first;
+        long candidates = connected[first];
+        GroupInfo current = atoms.get(first);
+        while (order.size() < atomSize) {
+            long remaining = allAtoms() & ~joined;
+            long choices = (candidates & remaining) != 0 ? candidates & remaining : remaining;
+            GroupInfo next = null;
+            GroupInfo nextJoin = null;
+            for (long rest = choices; rest != 0; rest &= rest - 1) {
+                GroupInfo atom = atoms.get(Long.numberOfTrailingZeros(rest));
+                GroupInfo join = join(current, atom);
+                if (nextJoin == null || join.bestExprInfo.rowCount < nextJoin.bestExprInfo.rowCount) {
+                    next = atom;
+                    nextJoin = join;
+                }
+            }
+            int atom = Long.numberOfTrailingZeros(toMask(next.atoms));
+            order.add(next);
+            joined |= 1L << atom;
+            candidates |= connected[atom];
+            current = nextJoin;
+        }
+        return order;
+    }
+
+    // Join the best plans of two groups, and return the group of the union
+    private GroupInfo join(GroupInfo left, GroupInfo right) {
+        long atoms = toMask(left.atoms) | toMask(right.atoms);
+        GroupInfo group = bestPlans.get(atoms);
+        // the cost of a join is larger than the sum cost of its children
+        if (group != null && left.bestExprInfo.cost + right.bestExprInfo.cost >= group.lowestExprCost) {
+            return group;
+        }
+
+        ExpressionInfo joinExpr = buildJoinExpr(left, right);
+        joinExpr.expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExpr.expr);
+        computeCost(joinExpr, true);
+        if (group == null) {
+            group = new GroupInfo(toBitSet(atoms));
+            bestPlans.put(atoms, group);
+        }
+        if (joinExpr.cost < group.lowestExprCost) {
+            group.bestExprInfo = joinExpr;
+            group.lowestExprCost = joinExpr.cost;
+        }
+        return group;
+    }
+}
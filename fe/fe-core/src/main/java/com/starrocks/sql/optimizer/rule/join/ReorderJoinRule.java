@@ -154,6 +154,12 @@ public class ReorderJoinRule extends Rule {
                     // 10 table join reorder takes more than 100ms,
                     // so the join reorder using dp is currently controlled below 10.
                     enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                } else if (multiJoinNode.getAtoms().size() <= JoinReorderDPhyp.MAX_ATOMS
+                        && context.getSessionVariable().isCboEnableDPJoinReorder()
+                        && context.getSessionVariable().isCboEnableDPhypJoinReorder()) {
+                    // Only enumerate the connected sub graphs with a budget for large join graphs
+                    long budget = context.getSessionVariable().getCboDPhypJoinReorderBudget();
+                    enumerate(new JoinReorderDPhyp(context, budget), context, innerJoinRoot, multiJoinNode);
                 }
 
                 if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
@@ -78,6 +78,11 @@ public class JoinAssociativityRule extends TransformationRule {
         return true;
     }
 
+    @Override
+    public boolean supportParallelApply() {
+        return true;
+    }
+
     @Override
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
         OptExpression leftChild = input.inputAt(0);
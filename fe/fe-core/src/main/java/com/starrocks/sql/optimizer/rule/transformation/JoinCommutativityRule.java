@@ -46,6 +46,11 @@ public class JoinCommutativityRule extends TransformationRule {
         return ((LogicalJoinOperator) input.getOp()).getJoinHint().isEmpty();
     }
 
+    @Override
+    public boolean supportParallelApply() {
+        return true;
+    }
+
     public static List<OptExpression> commuteJoin(OptExpression input,
                                                   Map<JoinOperator, JoinOperator> commuteMap) {
         LogicalJoinOperator oldJoin = (LogicalJoinOperator) input.getOp();
@@ -42,6 +42,11 @@ public class JoinCommutativityWithOutInnerRule extends TransformationRule {
         return ((LogicalJoinOperator) input.getOp()).getJoinHint().isEmpty();
     }
 
+    @Override
+    public boolean supportParallelApply() {
+        return true;
+    }
+
     @Override
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
         return JoinCommutativityRule.commuteJoin(input, JOIN_COMMUTATIVITY_MAP);
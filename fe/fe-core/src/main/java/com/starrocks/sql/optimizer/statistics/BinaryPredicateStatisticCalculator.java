@@ -49,7 +49,18 @@ public class BinaryPredicateStatisticCalculator {
             predicateRange = new StatisticRangeValues(NEGATIVE_INFINITY, POSITIVE_INFINITY, 1);
         }
 
-        return estimatePredicateRange(columnRefOperator, columnStatistic, predicateRange, statistics);
+        Statistics estimated = estimatePredicateRange(columnRefOperator, columnStatistic, predicateRange, statistics);
+        if (constant.isPresent() && columnStatistic.getHistogram() != null) {
+            // the frequency of the value is known if it is the upper of a bucket, e.g. a skewed value
+            double selectivity = HistogramEstimator.estimateEqualToSelectivity(columnStatistic.getHistogram(),
+                    columnStatistic.getDistinctValuesCount(), constant.getAsDouble());
+            if (!Double.isNaN(selectivity)) {
+                double rowCount =
+                        statistics.getOutputRowCount() * (1 - columnStatistic.getNullsFraction()) * selectivity;
+                return Statistics.buildFrom(estimated).setOutputRowCount(rowCount).build();
+            }
+        }
+        return estimated;
     }
 
     private static Statistics estimateColumnNotEqualToConstant(Optional<ColumnRefOperator> columnRefOperator,
@@ -77,6 +88,13 @@ public class BinaryPredicateStatisticCalculator {
                     StatisticsEstimateCoefficient.OVERLAP_INFINITE_RANGE_FILTER_COEFFICIENT;
         }
         double predicateFactor = 1.0 - intersectFactor;
+        if (constant.isPresent() && columnStatistic.getHistogram() != null) {
+            double selectivity = HistogramEstimator.estimateEqualToSelectivity(columnStatistic.getHistogram(),
+                    columnStatistic.getDistinctValuesCount(), constant.getAsDouble());
+            if (!Double.isNaN(selectivity)) {
+                predicateFactor = 1.0 - selectivity;
+            }
+        }
 
         double rowCount = statistics.getOutputRowCount() * (1 - columnStatistic.getNullsFraction()) * predicateFactor;
         // TODO(ywb) use origin column distinct values as new column statistics now, we should re-compute column
@@ -187,6 +205,15 @@ public class BinaryPredicateStatisticCalculator {
         double leftDistinctValuesCount = leftColumnStatistic.getDistinctValuesCount();
         double rightDistinctValuesCount = rightColumnStatistic.getDistinctValuesCount();
         double selectivity = 1.0 / Math.max(1, Math.max(leftDistinctValuesCount, rightDistinctValuesCount));
+        if (leftColumnStatistic.getHistogram() != null && rightColumnStatistic.getHistogram() != null) {
+            // match the buckets of both sides, instead of assuming the values are distributed uniformly
+            double histogramSelectivity = HistogramEstimator.estimateJoinSelectivity(
+                    leftColumnStatistic.getHistogram(), leftDistinctValuesCount,
+                    rightColumnStatistic.getHistogram(), rightDistinctValuesCount);
+            if (!Double.isNaN(histogramSelectivity)) {
+                selectivity = histogramSelectivity;
+            }
+        }
         double rowCount = statistics.getOutputRowCount() * selectivity *
                 (isEqualForNull ? 1 :
                         (1 - leftColumnStatistic.getNullsFraction()) * (1 - rightColumnStatistic.getNullsFraction()));
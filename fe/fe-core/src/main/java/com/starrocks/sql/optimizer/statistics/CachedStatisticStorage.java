@@ -15,6 +15,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,12 @@ public class CachedStatisticStorage implements StatisticStorage {
             .maximumSize(Config.statistic_cache_columns)
             .buildAsync(new ColumnHistogramStatsCacheLoader());
 
+    AsyncLoadingCache<Long, List<MultiColumnStatistic>> multiColumnStatisticsCache = Caffeine.newBuilder()
+            .expireAfterWrite(Config.statistic_update_interval_sec * 2, TimeUnit.SECONDS)
+            .refreshAfterWrite(Config.statistic_update_interval_sec, TimeUnit.SECONDS)
+            .maximumSize(Config.statistic_cache_columns)
+            .buildAsync(new MultiColumnStatsCacheLoader());
+
     @Override
     public ColumnStatistic getColumnStatistic(Table table, String column) {
         Preconditions.checkState(table != null);
@@ -168,6 +175,32 @@ public class CachedStatisticStorage implements StatisticStorage {
         histogramCache.synchronous().invalidateAll(allKeys);
     }
 
+    @Override
+    public List<MultiColumnStatistic> getMultiColumnStatistics(Table table) {
+        Preconditions.checkState(table != null);
+        if (StatisticUtils.statisticTableBlackListCheck(table.getId()) ||
+                !StatisticUtils.checkStatisticTableStateNormal()) {
+            return Collections.emptyList();
+        }
+
+        CompletableFuture<List<MultiColumnStatistic>> result = multiColumnStatisticsCache.get(table.getId());
+        if (result.isDone()) {
+            try {
+                return result.get();
+            } catch (Exception e) {
+                LOG.warn(e);
+                return Collections.emptyList();
+            }
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public void expireMultiColumnStatistics(Long tableId) {
+        multiColumnStatisticsCache.synchronous().invalidate(tableId);
+    }
+
     private List<ColumnStatistic> getDefaultColumnStatisticList(List<String> columns) {
         List<ColumnStatistic> columnStatisticList = new ArrayList<>();
         for (int i = 0; i < columns.size(); ++i) {
@@ -0,0 +1,259 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import static java.lang.Double.NaN;
+
+/**
+ * Estimations based on the equi-height histogram of a column.
+ * <p>
+ * The count of a bucket is the accumulated row count of the bucket and all buckets before it, and the upper
+ * repeats is the row count of the upper value of the bucket. The other values of a bucket are assumed to be
+ * distributed uniformly in it, and the distinct values of the column which are not upper values are assumed to be
+ * distributed evenly among the buckets. The frequent values always take the upper of a bucket, or a whole bucket.
+ * <p>
+ * The histogram may be collected by sampling, so all estimations are selectivities relative to the rows of the
+ * histogram in its min/max bound, which is narrowed by the range predicates on the column.
+ */
+public class HistogramEstimator {
+    private HistogramEstimator() {
+    }
+
+    /**
+     * Selectivity of column = value in the non-null rows, NaN if the histogram is empty.
+     */
+    public static double estimateEqualToSelectivity(Histogram histogram, double distinctValues, double value) {
+        double rows = getRowsInBound(histogram);
+        if (rows <= 0) {
+            return NaN;
+        }
+        return Math.min(1.0, getRowsEqualTo(histogram, distinctValues, value) / rows);
+    }
+
+    /**
+     * Selectivity of column in (values) in the non-null rows, NaN if the histogram is empty.
+     */
+    public static double estimateInSelectivity(Histogram histogram, double distinctValues,
+                                               Collection<Double> values) {
+        double rows = getRowsInBound(histogram);
+        if (rows <= 0) {
+            return NaN;
+        }
+        double matchedRows = 0;
+        for (double value : new HashSet<>(values)) {
+            matchedRows += getRowsEqualTo(histogram, distinctValues, value);
+        }
+        return Math.min(1.0, matchedRows / rows);
+    }
+
+    /**
+     * Selectivity of left = right in the cross product of the non-null rows of both sides, NaN if any histogram
+     * is empty.
+     * <p>
+     * The buckets of both sides are aligned by all their lowers and uppers. An upper value matches the same value
+     * of the other side by their frequencies, so the skewed values are estimated accurately. The values between
+     * two adjacent bounds are matched by containment assumption, every value of the side with less distinct
+     * values matches a value of the other side.
+     */
+    public static double estimateJoinSelectivity(Histogram left, double leftDistinctValues,
+                                                 Histogram right, double rightDistinctValues) {
+        double leftRows = getRowsInBound(left);
+        double rightRows = getRowsInBound(right);
+        if (leftRows <= 0 || rightRows <= 0) {
+            return NaN;
+        }
+
+        TreeSet<Double> uppers = new TreeSet<>();
+        TreeSet<Double> bounds = new TreeSet<>();
+        for (Histogram histogram : new Histogram[] {left, right}) {
+            for (Bucket bucket : histogram.getBuckets()) {
+                uppers.add(bucket.getUpper());
+                bounds.add(bucket.getLower());
+                bounds.add(bucket.getUpper());
+            }
+        }
+
+        double matchedRows = 0;
+        Double previous = null;
+        for (double bound : bounds) {
+            if (uppers.contains(bound)) {
+                matchedRows += getRowsEqualTo(left, leftDistinctValues, bound) *
+                        getRowsEqualTo(right, rightDistinctValues, bound);
+            }
+            if (previous != null) {
+                matchedRows += estimateMatchedRowsBetween(left, leftDistinctValues, right, rightDistinctValues,
+                        previous, bound);
+            }
+            previous = bound;
+        }
+        return Math.min(1.0, matchedRows / leftRows / rightRows);
+    }
+
+    /**
+     * Row fraction of the most common value in the histogram, NaN if the histogram is empty.
+     */
+    public static double getMostCommonValueFraction(Histogram histogram) {
+        double rows = getRowsInBound(histogram);
+        if (rows <= 0) {
+            return NaN;
+        }
+        long mostCommonRows = 0;
+        for (Bucket bucket : histogram.getBuckets()) {
+            if (isInBound(histogram, bucket.getUpper())) {
+                mostCommonRows = Math.max(mostCommonRows, bucket.getUpperRepeats());
+            }
+        }
+        return Math.min(1.0, mostCommonRows / rows);
+    }
+
+    /**
+     * When the rows are shuffled by the column to the parallel instances, all rows of the most common value are
+     * sent to one instance. Return how many times the rows of that instance is to the average rows of instances,
+     * 1 if the column is not skewed.
+     */
+    public static double estimateShuffleSkewFactor(Histogram histogram, int parallelism) {
+        double fraction = getMostCommonValueFraction(histogram);
+        if (Double.isNaN(fraction) || parallelism <= 1) {
+            return 1;
+        }
+        return Math.max(1, fraction * parallelism);
+    }
+
+    private static double estimateMatchedRowsBetween(Histogram left, double leftDistinctValues,
+                                                     Histogram right, double rightDistinctValues,
+                                                     double low, double high) {
+        double leftRows = getRowsBetween(left, low, high);
+        double rightRows = getRowsBetween(right, low, high);
+        if (leftRows <= 0 || rightRows <= 0) {
+            return 0;
+        }
+        double middle = low + (high - low) / 2;
+        double leftValues = leftRows / getInnerRowsPerValue(left, leftDistinctValues, middle);
+        double rightValues = rightRows / getInnerRowsPerValue(right, rightDistinctValues, middle);
+        return leftRows * rightRows / Math.max(leftValues, rightValues);
+    }
+
+    // rows in the bound whose value is in (low, high)
+    private static double getRowsBetween(Histogram histogram, double low, double high) {
+        double lowerBoundRows = getLowerBoundRows(histogram);
+        double upperBoundRows = getUpperBoundRows(histogram);
+        double lowRows = Math.max(lowerBoundRows, Math.min(upperBoundRows, getRowsBelow(histogram, low, true)));
+        double highRows = Math.max(lowerBoundRows, Math.min(upperBoundRows, getRowsBelow(histogram, high, false)));
+        return Math.max(0, highRows - lowRows);
+    }
+
+    private static double getRowsInBound(Histogram histogram) {
+        if (histogram.getBuckets().isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, getUpperBoundRows(histogram) - getLowerBoundRows(histogram));
+    }
+
+    // rows less than the min of the histogram
+    private static double getLowerBoundRows(Histogram histogram) {
+        if (histogram.getMin() == Double.MIN_VALUE) {
+            return 0;
+        }
+        return getRowsBelow(histogram, histogram.getMin(), !histogram.isContainMin());
+    }
+
+    // rows less than or equal to the max of the histogram
+    private static double getUpperBoundRows(Histogram histogram) {
+        if (histogram.getMax() == Double.MAX_VALUE) {
+            return getTotalRows(histogram.getBuckets());
+        }
+        return getRowsBelow(histogram, histogram.getMax(), histogram.isContainMax());
+    }
+
+    private static boolean isInBound(Histogram histogram, double value) {
+        if (histogram.getMin() != Double.MIN_VALUE &&
+                (value < histogram.getMin() || (value == histogram.getMin() && !histogram.isContainMin()))) {
+            return false;
+        }
+        return histogram.getMax() == Double.MAX_VALUE ||
+                value < histogram.getMax() || (value == histogram.getMax() && histogram.isContainMax());
+    }
+
+    // rows whose value is less than the value, or equal to the value if inclusive
+    private static double getRowsBelow(Histogram histogram, double value, boolean inclusive) {
+        List<Bucket> buckets = histogram.getBuckets();
+        int index = findBucket(buckets, value);
+        if (index == buckets.size()) {
+            return getTotalRows(buckets);
+        }
+        Bucket bucket = buckets.get(index);
+        long previousRows = getPreviousRows(buckets, index);
+        if (value < bucket.getLower()) {
+            return previousRows;
+        }
+        long innerRows = getInnerRows(buckets, index);
+        if (value < bucket.getUpper()) {
+            return previousRows + innerRows * (value - bucket.getLower()) / (bucket.getUpper() - bucket.getLower());
+        }
+        return previousRows + innerRows + (inclusive ? bucket.getUpperRepeats() : 0);
+    }
+
+    private static double getRowsEqualTo(Histogram histogram, double distinctValues, double value) {
+        if (!isInBound(histogram, value)) {
+            return 0;
+        }
+        List<Bucket> buckets = histogram.getBuckets();
+        int index = findBucket(buckets, value);
+        if (index == buckets.size() || value < buckets.get(index).getLower()) {
+            return 0;
+        }
+        if (value == buckets.get(index).getUpper()) {
+            return buckets.get(index).getUpperRepeats();
+        }
+        return getInnerRowsPerValue(histogram, distinctValues, value);
+    }
+
+    // rows of each value in the bucket of the value, excluding the upper value
+    private static double getInnerRowsPerValue(Histogram histogram, double distinctValues, double value) {
+        List<Bucket> buckets = histogram.getBuckets();
+        int index = findBucket(buckets, value);
+        if (index == buckets.size() || value < buckets.get(index).getLower()) {
+            return 0;
+        }
+        long innerRows = getInnerRows(buckets, index);
+        if (innerRows <= 0) {
+            return 0;
+        }
+        double innerDistinctValues = Double.isNaN(distinctValues) ? 1 :
+                Math.max(1, (distinctValues - buckets.size()) / buckets.size());
+        return innerRows / Math.min(innerRows, innerDistinctValues);
+    }
+
+    // index of the first bucket whose upper >= value, buckets.size() if not found
+    private static int findBucket(List<Bucket> buckets, double value) {
+        int low = 0;
+        int high = buckets.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buckets.get(middle).getUpper() < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long getTotalRows(List<Bucket> buckets) {
+        return buckets.isEmpty() ? 0 : buckets.get(buckets.size() - 1).getCount();
+    }
+
+    private static long getPreviousRows(List<Bucket> buckets, int index) {
+        return index == 0 ? 0 : buckets.get(index - 1).getCount();
+    }
+
+    private static long getInnerRows(List<Bucket> buckets, int index) {
+        return Math.max(0, buckets.get(index).getCount() - getPreviousRows(buckets, index) -
+                buckets.get(index).getUpperRepeats());
+    }
+}
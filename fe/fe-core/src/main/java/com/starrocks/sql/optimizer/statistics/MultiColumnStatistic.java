@@ -0,0 +1,79 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import java.util.List;
+
+/**
+ * Statistic of a group of correlated columns (c1, ..., cn), so that the estimations on these columns don't
+ * rely on the independence assumption:
+ * <ul>
+ *   <li>distinct values: the distinct values of (c1, ..., cn), it's the rows of group by c1, ..., cn</li>
+ *   <li>dependency: the degree of the functional dependency (c1, ..., cn-1) => cn, which is the fraction of
+ *   rows whose cn is determined by the value of (c1, ..., cn-1)</li>
+ * </ul>
+ */
+public class MultiColumnStatistic {
+    private final List<String> columnNames;
+    private final double distinctValuesCount;
+    private final double dependency;
+
+    public MultiColumnStatistic(List<String> columnNames, double distinctValuesCount, double dependency) {
+        this.columnNames = columnNames;
+        this.distinctValuesCount = distinctValuesCount;
+        this.dependency = Math.max(0, Math.min(1, dependency));
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public double getDistinctValuesCount() {
+        return distinctValuesCount;
+    }
+
+    public double getDependency() {
+        return dependency;
+    }
+
+    /**
+     * Distinct values of the columns, given the distinct values of each column which may be reduced by the
+     * predicates below.
+     */
+    public double estimateDistinctValues(List<Double> columnDistinctValues) {
+        double product = 1;
+        for (double values : columnDistinctValues) {
+            product *= values;
+        }
+        return distinctValuesCount > 0 ? Math.min(distinctValuesCount, product) : product;
+    }
+
+    /**
+     * Selectivity of c1 = v1 and ... and cn = vn, given the selectivity of each equality in the order of the
+     * columns. The last column only filters the rows not determined by the others:
+     * sel(c1, ..., cn) = sel(c1) * ... * sel(cn-1) * (dependency + (1 - dependency) * sel(cn))
+     * and it's not less than the selectivity of a uniform value of the columns, and not larger than the
+     * selectivity of any equality.
+     */
+    public double estimateEqualToSelectivity(List<Double> selectivities) {
+        int last = selectivities.size() - 1;
+        double selectivity = 1;
+        double minSelectivity = 1;
+        for (int i = 0; i < last; i++) {
+            selectivity *= selectivities.get(i);
+            minSelectivity = Math.min(minSelectivity, selectivities.get(i));
+        }
+        selectivity *= dependency + (1 - dependency) * selectivities.get(last);
+        minSelectivity = Math.min(minSelectivity, selectivities.get(last));
+
+        if (distinctValuesCount > 0) {
+            selectivity = Math.max(selectivity, 1 / distinctValuesCount);
+        }
+        return Math.min(selectivity, minSelectivity);
+    }
+
+    @Override
+    public String toString() {
+        return columnNames + ": ndv=" + distinctValuesCount + ", dependency=" + dependency;
+    }
+}
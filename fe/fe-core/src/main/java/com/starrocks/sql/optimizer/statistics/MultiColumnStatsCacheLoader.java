@@ -0,0 +1,52 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.google.common.base.Splitter;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.starrocks.statistic.StatisticExecutor;
+import com.starrocks.thrift.TStatisticData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// Load all multi column statistics of a table
+public class MultiColumnStatsCacheLoader implements AsyncCacheLoader<Long, List<MultiColumnStatistic>> {
+    private final StatisticExecutor statisticExecutor = new StatisticExecutor();
+
+    @Override
+    public @NonNull CompletableFuture<List<MultiColumnStatistic>> asyncLoad(@NonNull Long tableId,
+                                                                            @NonNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<MultiColumnStatistic> result = new ArrayList<>();
+                for (TStatisticData statisticData : statisticExecutor.queryMultiColumnStatistics(tableId)) {
+                    result.add(convert(statisticData.columnName, statisticData.histogram));
+                }
+                return result;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<MultiColumnStatistic>> asyncReload(
+            @NonNull Long tableId, @NonNull List<MultiColumnStatistic> oldValue, @NonNull Executor executor) {
+        return asyncLoad(tableId, executor);
+    }
+
+    static MultiColumnStatistic convert(String columnNames, String statisticString) {
+        JsonObject jsonObject = JsonParser.parseString(statisticString).getAsJsonObject();
+        return new MultiColumnStatistic(Splitter.on(',').splitToList(columnNames),
+                jsonObject.get("ndv").getAsDouble(), jsonObject.get("dependency").getAsDouble());
+    }
+}
@@ -16,9 +16,14 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperatorVisitor;
 import org.apache.commons.math3.util.Precision;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PredicateStatisticsCalculator {
@@ -26,7 +31,82 @@ public class PredicateStatisticsCalculator {
         if (predicate == null) {
             return statistics;
         }
-        return predicate.accept(new PredicateStatisticsCalculatingVisitor(statistics), null);
+        Statistics result = predicate.accept(new PredicateStatisticsCalculatingVisitor(statistics), null);
+        if (statistics.getMultiColumnStatistics().isEmpty()) {
+            return result;
+        }
+        return adjustByMultiColumnStatistics(predicate, statistics, result);
+    }
+
+    /**
+     * The conjuncts are estimated independently, but the equalities on correlated columns filter much less rows,
+     * e.g. city = 'X' and country = 'Y'. If the multi column statistic of these columns exists, replace the
+     * independent selectivity of them by the selectivity estimated by the statistic.
+     */
+    private static Statistics adjustByMultiColumnStatistics(ScalarOperator predicate, Statistics statistics,
+                                                            Statistics result) {
+        double inputRowCount = statistics.getOutputRowCount();
+        if (inputRowCount <= 0 || result.getOutputRowCount() <= 0) {
+            return result;
+        }
+
+        // column = constant, the column appears only once
+        Map<ColumnRefOperator, BinaryPredicateOperator> equalities = new HashMap<>();
+        Set<ColumnRefOperator> duplicated = new HashSet<>();
+        for (ScalarOperator conjunct : Utils.extractConjuncts(predicate)) {
+            if (conjunct instanceof BinaryPredicateOperator &&
+                    ((BinaryPredicateOperator) conjunct).getBinaryType() == BinaryPredicateOperator.BinaryType.EQ &&
+                    conjunct.getChild(0) instanceof ColumnRefOperator && conjunct.getChild(1).isConstantRef()) {
+                ColumnRefOperator column = (ColumnRefOperator) conjunct.getChild(0);
+                if (equalities.put(column, (BinaryPredicateOperator) conjunct) != null) {
+                    duplicated.add(column);
+                }
+            }
+        }
+        equalities.keySet().removeAll(duplicated);
+        if (equalities.size() < 2) {
+            return result;
+        }
+
+        // apply the statistics covering most columns first, a column is only adjusted once
+        List<List<ColumnRefOperator>> candidates = statistics.getMultiColumnStatistics().keySet().stream()
+                .filter(equalities.keySet()::containsAll)
+                .sorted((a, b) -> Integer.compare(b.size(), a.size()))
+                .collect(Collectors.toList());
+        double rowCount = result.getOutputRowCount();
+        // the min selectivity of the equalities on the adjusted columns
+        double minAdjustedSelectivity = 1;
+        Set<ColumnRefOperator> adjusted = new HashSet<>();
+        for (List<ColumnRefOperator> columns : candidates) {
+            if (columns.stream().anyMatch(adjusted::contains)) {
+                continue;
+            }
+            List<Double> selectivities = new ArrayList<>();
+            double independentSelectivity = 1;
+            double minSelectivity = 1;
+            for (ColumnRefOperator column : columns) {
+                double selectivity = equalities.get(column)
+                        .accept(new PredicateStatisticsCalculatingVisitor(statistics), null)
+                        .getOutputRowCount() / inputRowCount;
+                selectivities.add(selectivity);
+                independentSelectivity *= selectivity;
+                minSelectivity = Math.min(minSelectivity, selectivity);
+            }
+            if (independentSelectivity <= 0) {
+                continue;
+            }
+            rowCount *= statistics.getMultiColumnStatistics().get(columns).estimateEqualToSelectivity(selectivities)
+                    / independentSelectivity;
+            minAdjustedSelectivity = Math.min(minAdjustedSelectivity, minSelectivity);
+            adjusted.addAll(columns);
+        }
+        if (adjusted.isEmpty()) {
+            return result;
+        }
+        // not more than the rows filtered by any one of the adjusted equalities
+        rowCount = Math.min(rowCount, inputRowCount * minAdjustedSelectivity);
+        return StatisticsEstimateUtils.adjustStatisticsByRowCount(
+                Statistics.buildFrom(result).setOutputRowCount(rowCount).build(), rowCount);
     }
 
     private static class PredicateStatisticsCalculatingVisitor extends ScalarOperatorVisitor<Statistics, Void> {
@@ -108,9 +188,16 @@ public class PredicateStatisticsCalculator {
                         StatisticsEstimateCoefficient.IN_PREDICATE_DEFAULT_FILTER_COEFFICIENT;
             } else {
                 // children column statistics are not unknown.
-                selectivity = hasOverlap ?
-                        Math.min(1.0, otherChildrenDistinctValues / inColumnStatistic.getDistinctValuesCount()) : 0.0;
-                selectivity = predicate.isNotIn() ? 1 - selectivity : selectivity;
+                // the selectivity in the non-null rows, null values match neither in nor not in
+                double nonNullSelectivity = estimateInSelectivityWithHistogram(inColumnStatistic,
+                        otherChildrenList, otherChildrenColumnStatisticList);
+                if (Double.isNaN(nonNullSelectivity)) {
+                    nonNullSelectivity = hasOverlap ?
+                            Math.min(1.0, otherChildrenDistinctValues / inColumnStatistic.getDistinctValuesCount()) :
+                            0.0;
+                }
+                selectivity = (1 - inColumnStatistic.getNullsFraction()) *
+                        (predicate.isNotIn() ? 1 - nonNullSelectivity : nonNullSelectivity);
             }
             // avoid not in predicate too small
             if (predicate.isNotIn() && Precision.equals(selectivity, 0.0, 0.000001d)) {
@@ -143,6 +230,24 @@ public class PredicateStatisticsCalculator {
             return StatisticsEstimateUtils.adjustStatisticsByRowCount(inStatistics, rowCount);
         }
 
+        // NaN if the column has no histogram, or any value of the in list is not a numeric constant
+        private double estimateInSelectivityWithHistogram(ColumnStatistic inColumnStatistic,
+                                                          List<ScalarOperator> values,
+                                                          List<ColumnStatistic> valueStatistics) {
+            if (inColumnStatistic.getHistogram() == null) {
+                return Double.NaN;
+            }
+            List<Double> constants = new ArrayList<>();
+            for (int i = 0; i < values.size(); i++) {
+                if (!values.get(i).isConstant() || valueStatistics.get(i).isInfiniteRange()) {
+                    return Double.NaN;
+                }
+                constants.add(valueStatistics.get(i).getMaxValue());
+            }
+            return HistogramEstimator.estimateInSelectivity(inColumnStatistic.getHistogram(),
+                    inColumnStatistic.getDistinctValuesCount(), constants);
+        }
+
         @Override
         public Statistics visitIsNullPredicate(IsNullPredicateOperator predicate, Void context) {
             if (!checkNeedEvalEstimate(predicate)) {
@@ -5,6 +5,7 @@ package com.starrocks.sql.optimizer.statistics;
 import com.starrocks.catalog.Table;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -20,5 +21,12 @@ public interface StatisticStorage {
     default void expireColumnStatistics(Table table, List<String> columns) {
     }
 
+    default List<MultiColumnStatistic> getMultiColumnStatistics(Table table) {
+        return Collections.emptyList();
+    }
+
+    default void expireMultiColumnStatistics(Long tableId) {
+    }
+
     void addColumnStatistic(Table table, String column, ColumnStatistic columnStatistic);
 }
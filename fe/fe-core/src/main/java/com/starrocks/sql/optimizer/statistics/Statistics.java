@@ -8,6 +8,7 @@ import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.Double.NaN;
@@ -15,6 +16,8 @@ import static java.lang.Double.NaN;
 public class Statistics {
     private final double outputRowCount;
     private final Map<ColumnRefOperator, ColumnStatistic> columnStatistics;
+    // The statistics of correlated columns, the key is the columns in the order of the statistic
+    private final Map<List<ColumnRefOperator>, MultiColumnStatistic> multiColumnStatistics;
     // This flag set true if get table row count from GlobalStateMgr LE 1
     // Table row count in FE depends on BE reporting，but FE may not get report from BE which just started，
     // this causes the table row count stored in FE to be inaccurate.
@@ -23,6 +26,7 @@ public class Statistics {
     private Statistics(Builder builder) {
         this.outputRowCount = builder.outputRowCount;
         this.columnStatistics = builder.columnStatistics;
+        this.multiColumnStatistics = builder.multiColumnStatistics;
         this.tableRowCountMayInaccurate = builder.tableRowCountMayInaccurate;
     }
 
@@ -61,6 +65,22 @@ public class Statistics {
         return columnStatistics;
     }
 
+    public Map<List<ColumnRefOperator>, MultiColumnStatistic> getMultiColumnStatistics() {
+        return multiColumnStatistics;
+    }
+
+    // The multi column statistics whose columns are all in the output columns
+    public Map<List<ColumnRefOperator>, MultiColumnStatistic> getOutputMultiColumnStatistics(
+            ColumnRefSet outputColumns) {
+        Map<List<ColumnRefOperator>, MultiColumnStatistic> outputStatistics = Maps.newHashMap();
+        for (Map.Entry<List<ColumnRefOperator>, MultiColumnStatistic> entry : multiColumnStatistics.entrySet()) {
+            if (entry.getKey().stream().allMatch(column -> outputColumns.contains(column.getId()))) {
+                outputStatistics.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return outputStatistics;
+    }
+
     public Map<ColumnRefOperator, ColumnStatistic> getOutputColumnsStatistics(ColumnRefSet outputColumns) {
         Map<ColumnRefOperator, ColumnStatistic> outputColumnsStatistics = Maps.newHashMap();
         for (Map.Entry<ColumnRefOperator, ColumnStatistic> entry : columnStatistics.entrySet()) {
@@ -84,7 +104,8 @@ public class Statistics {
     }
 
     public static Builder buildFrom(Statistics other) {
-        return new Builder(other.getOutputRowCount(), other.columnStatistics, other.tableRowCountMayInaccurate);
+        return new Builder(other.getOutputRowCount(), other.columnStatistics, other.multiColumnStatistics,
+                other.tableRowCountMayInaccurate);
     }
 
     public static Builder builder() {
@@ -94,16 +115,19 @@ public class Statistics {
     public static final class Builder {
         private double outputRowCount;
         private final Map<ColumnRefOperator, ColumnStatistic> columnStatistics;
+        private final Map<List<ColumnRefOperator>, MultiColumnStatistic> multiColumnStatistics;
         private boolean tableRowCountMayInaccurate;
 
         public Builder() {
-            this(NaN, new HashMap<>(), false);
+            this(NaN, new HashMap<>(), new HashMap<>(), false);
         }
 
         private Builder(double outputRowCount, Map<ColumnRefOperator, ColumnStatistic> columnStatistics,
+                        Map<List<ColumnRefOperator>, MultiColumnStatistic> multiColumnStatistics,
                         boolean tableRowCountMayInaccurate) {
             this.outputRowCount = outputRowCount;
             this.columnStatistics = new HashMap<>(columnStatistics);
+            this.multiColumnStatistics = new HashMap<>(multiColumnStatistics);
             this.tableRowCountMayInaccurate = tableRowCountMayInaccurate;
         }
 
@@ -127,6 +151,17 @@ public class Statistics {
             return this;
         }
 
+        public Builder addMultiColumnStatistic(List<ColumnRefOperator> columns, MultiColumnStatistic statistic) {
+            this.multiColumnStatistics.put(columns, statistic);
+            return this;
+        }
+
+        public Builder addMultiColumnStatistics(
+                Map<List<ColumnRefOperator>, MultiColumnStatistic> multiColumnStatistics) {
+            this.multiColumnStatistics.putAll(multiColumnStatistics);
+            return this;
+        }
+
         public Builder removeColumnStatistics(ColumnRefOperator column) {
             columnStatistics.remove(column);
             return this;
@@ -124,6 +124,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static com.starrocks.sql.optimizer.statistics.ColumnStatistic.buildFrom;
@@ -383,6 +384,18 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
                     .addTableStatistics(table, requiredColumns.get(i).getName(), columnStatisticList.get(i));
         }
 
+        if (!GlobalStateMgr.getCurrentAnalyzeMgr().getMultiColumnStatsMetas(table.getId()).isEmpty()) {
+            Map<String, ColumnRefOperator> nameToColumn = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            colRefToColumnMetaMap.forEach((columnRef, column) -> nameToColumn.put(column.getName(), columnRef));
+            for (MultiColumnStatistic statistic :
+                    GlobalStateMgr.getCurrentStatisticStorage().getMultiColumnStatistics(table)) {
+                List<ColumnRefOperator> columns = statistic.getColumnNames().stream().map(nameToColumn::get)
+                        .collect(Collectors.toList());
+                if (!columns.contains(null)) {
+                    builder.addMultiColumnStatistic(columns, statistic);
+                }
+            }
+        }
         return builder;
     }
 
@@ -716,11 +729,21 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
                 }
             }
         } else {
-            for (int groupByIndex = 0; groupByIndex < groupBys.size(); ++groupByIndex) {
-                ColumnRefOperator groupByColumn = groupBys.get(groupByIndex);
-                ColumnStatistic groupByColumnStatics = inputStatistics.getColumnStatistic(groupByColumn);
-                double cardinality = groupByColumnStatics.getDistinctValuesCount() +
-                        ((groupByColumnStatics.getNullsFraction() == 0.0) ? 0 : 1);
+            // the correlated columns with multi column statistic are counted as one column
+            List<ColumnRefOperator> remainingGroupBys = new ArrayList<>(groupBys);
+            int groupByIndex = 0;
+            List<ColumnRefOperator> correlatedColumns = findMultiColumnStatistic(groupBys, inputStatistics);
+            if (correlatedColumns != null) {
+                List<Double> cardinalities = correlatedColumns.stream()
+                        .map(column -> getGroupByCardinality(inputStatistics.getColumnStatistic(column)))
+                        .collect(Collectors.toList());
+                rowCount = inputStatistics.getMultiColumnStatistics().get(correlatedColumns)
+                        .estimateDistinctValues(cardinalities);
+                remainingGroupBys.removeAll(correlatedColumns);
+                groupByIndex++;
+            }
+            for (ColumnRefOperator groupByColumn : remainingGroupBys) {
+                double cardinality = getGroupByCardinality(inputStatistics.getColumnStatistic(groupByColumn));
                 if (groupByIndex == 0) {
                     rowCount *= cardinality;
                 } else {
@@ -730,11 +753,28 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
                         rowCount = inputStatistics.getOutputRowCount();
                     }
                 }
+                groupByIndex++;
             }
         }
         return rowCount;
     }
 
+    private static double getGroupByCardinality(ColumnStatistic columnStatistic) {
+        return columnStatistic.getDistinctValuesCount() + ((columnStatistic.getNullsFraction() == 0.0) ? 0 : 1);
+    }
+
+    // The columns of the multi column statistic which covers most of the group by columns, null if not found
+    private static List<ColumnRefOperator> findMultiColumnStatistic(List<ColumnRefOperator> groupBys,
+                                                                    Statistics inputStatistics) {
+        List<ColumnRefOperator> result = null;
+        for (List<ColumnRefOperator> columns : inputStatistics.getMultiColumnStatistics().keySet()) {
+            if (groupBys.containsAll(columns) && (result == null || columns.size() > result.size())) {
+                result = columns;
+            }
+        }
+        return result;
+    }
+
     @Override
     public Void visitLogicalJoin(LogicalJoinOperator node, ExpressionContext context) {
         return computeJoinNode(context, node.getJoinType(), node.getOnPredicate());
@@ -764,6 +804,10 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         Statistics.Builder crossBuilder = Statistics.builder();
         crossBuilder.addColumnStatistics(leftStatistics.getOutputColumnsStatistics(context.getChildOutputColumns(0)));
         crossBuilder.addColumnStatistics(rightStatistics.getOutputColumnsStatistics(context.getChildOutputColumns(1)));
+        crossBuilder.addMultiColumnStatistics(
+                leftStatistics.getOutputMultiColumnStatistics(context.getChildOutputColumns(0)));
+        crossBuilder.addMultiColumnStatistics(
+                rightStatistics.getOutputMultiColumnStatistics(context.getChildOutputColumns(1)));
         double leftRowCount = leftStatistics.getOutputRowCount();
         double rightRowCount = rightStatistics.getOutputRowCount();
         double crossRowCount = leftRowCount * rightRowCount;
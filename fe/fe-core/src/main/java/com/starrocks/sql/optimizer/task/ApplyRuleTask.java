@@ -50,11 +50,25 @@ public class ApplyRuleTask extends OptimizerTask {
 
     @Override
     public void execute() {
-        if (groupExpression.hasRuleExplored(rule) ||
-                groupExpression.isUnused()) {
+        if (isSkipped()) {
             return;
         }
-        SessionVariable sessionVariable = context.getOptimizerContext().getSessionVariable();
+        insert(transform());
+    }
+
+    boolean isSkipped() {
+        return groupExpression.hasRuleExplored(rule) || groupExpression.isUnused();
+    }
+
+    Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * Bind the pattern and apply the rule, without touching the memo.
+     * The new OptExpressions are only inserted into the memo by {@link #insert(List)}.
+     */
+    List<OptExpression> transform() {
         // Apply rule and get all new OptExpressions
         Pattern pattern = rule.getPattern();
         Binder binder = new Binder(pattern, groupExpression);
@@ -68,12 +82,16 @@ public class ApplyRuleTask extends OptimizerTask {
             List<OptExpression> targetExpressions = rule.transform(extractExpr, context.getOptimizerContext());
             newExpressions.addAll(targetExpressions);
 
+            SessionVariable sessionVariable = context.getOptimizerContext().getSessionVariable();
             OptimizerTraceInfo traceInfo = context.getOptimizerContext().getTraceInfo();
             OptimizerTraceUtil.logApplyRule(sessionVariable, traceInfo, rule, extractExpr, targetExpressions);
 
             extractExpr = binder.next();
         }
+        return newExpressions;
+    }
 
+    void insert(List<OptExpression> newExpressions) {
         for (OptExpression expression : newExpressions) {
             // Insert new OptExpression to memo
             Pair<Boolean, GroupExpression> result = context.getOptimizerContext().getMemo().
@@ -0,0 +1,149 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.task;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.sql.common.ErrorType;
+import com.starrocks.sql.common.StarRocksPlannerException;
+import com.starrocks.sql.optimizer.Group;
+import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelTaskScheduler keeps the same LIFO task order as {@link SeriallyTaskScheduler}, but when the
+ * top of the stack is a run of {@link ApplyRuleTask} whose rules support parallel apply, it binds and
+ * transforms them concurrently on a shared fork-join pool.
+ * <p>
+ * The memo is never modified concurrently: all transforms of a batch only read the memo, then the
+ * new expressions are copied in serially on the optimizer thread, so group merging and winner updates
+ * (which only happen in copy in and EnforceAndCostTask) keep the single writer semantics.
+ * If copying in one result merges groups, the remaining speculative results may refer to stale groups,
+ * so they are dropped and those tasks are pushed back to be applied again.
+ */
+public class ParallelTaskScheduler implements TaskScheduler {
+    private static ForkJoinPool pool;
+
+    private final Stack<OptimizerTask> tasks;
+
+    private ParallelTaskScheduler() {
+        tasks = new Stack<>();
+    }
+
+    public static TaskScheduler create() {
+        return new ParallelTaskScheduler();
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            int parallelism = Config.optimizer_parallel_explore_thread_num > 0 ?
+                    Config.optimizer_parallel_explore_thread_num : Runtime.getRuntime().availableProcessors();
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    @Override
+    public void executeTasks(TaskContext context, Group group) {
+        long startTime = System.currentTimeMillis();
+        long timeout = context.getOptimizerContext().getSessionVariable().getOptimizerExecuteTimeout();
+        long endTime = startTime + timeout;
+        while (!tasks.empty()) {
+            if (System.currentTimeMillis() >= endTime) {
+                // Should have at least one valid plan
+                if (!group.hasBestExpression(context.getRequiredProperty())) {
+                    throw new StarRocksPlannerException("StarRocks planner use long time " + timeout +
+                            " ms, This probably because 1. FE Full GC, 2. Hive external table fetch metadata took a long time, " +
+                            "3. The SQL is very complex. " +
+                            "You could 1. adjust FE JVM config, 2. try query again, " +
+                            "3. enlarge new_planner_optimize_timeout session variable",
+                            ErrorType.INTERNAL_ERROR);
+                }
+                break;
+            }
+
+            List<ApplyRuleTask> batch = popParallelBatch(context.getOptimizerContext());
+            if (batch.size() > 1) {
+                executeBatch(context, batch);
+                continue;
+            }
+
+            OptimizerTask task;
+            if (!batch.isEmpty()) {
+                task = batch.get(0);
+            } else if (!tasks.empty()) {
+                task = tasks.pop();
+            } else {
+                break;
+            }
+            context.getOptimizerContext().setTaskContext(context);
+            task.execute();
+        }
+    }
+
+    @Override
+    public void pushTask(OptimizerTask task) {
+        tasks.push(task);
+    }
+
+    private List<ApplyRuleTask> popParallelBatch(OptimizerContext optimizerContext) {
+        List<ApplyRuleTask> batch = Lists.newArrayList();
+        // The trace log records applied rules into a shared trace info, keep it serial
+        if (optimizerContext.getSessionVariable().isEnableOptimizerTraceLog()) {
+            return batch;
+        }
+
+        int maxBatchSize = Math.max(1, Config.optimizer_parallel_explore_batch_size);
+        while (!tasks.empty() && batch.size() < maxBatchSize && isParallelTask(tasks.peek())) {
+            ApplyRuleTask task = (ApplyRuleTask) tasks.pop();
+            if (!task.isSkipped()) {
+                batch.add(task);
+            }
+        }
+        return batch;
+    }
+
+    private boolean isParallelTask(OptimizerTask task) {
+        return task instanceof ApplyRuleTask && ((ApplyRuleTask) task).getRule().supportParallelApply();
+    }
+
+    private void executeBatch(TaskContext context, List<ApplyRuleTask> batch) {
+        OptimizerContext optimizerContext = context.getOptimizerContext();
+        List<ForkJoinTask<List<OptExpression>>> futures = Lists.newArrayListWithCapacity(batch.size());
+        for (ApplyRuleTask task : batch) {
+            futures.add(getPool().submit(task::transform));
+        }
+
+        List<List<OptExpression>> results = Lists.newArrayListWithCapacity(batch.size());
+        for (ForkJoinTask<List<OptExpression>> future : futures) {
+            // join rethrows the exception of the transform, e.g. StarRocksPlannerException
+            results.add(future.join());
+        }
+
+        Memo memo = optimizerContext.getMemo();
+        long mergeVersion = memo.getMergeVersion();
+        for (int i = 0; i < batch.size(); i++) {
+            ApplyRuleTask task = batch.get(i);
+            if (memo.getMergeVersion() != mergeVersion) {
+                // Groups have been merged, the rest results may refer to the merged groups.
+                // Push back the rest tasks in the original order, they will be applied again.
+                for (int j = batch.size() - 1; j >= i; j--) {
+                    tasks.push(batch.get(j));
+                }
+                return;
+            }
+
+            if (task.isSkipped()) {
+                continue;
+            }
+            optimizerContext.setTaskContext(context);
+            task.insert(results.get(i));
+        }
+    }
+}
@@ -166,6 +166,7 @@ import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.ast.AlterMaterializedViewStatement;
 import com.starrocks.sql.ast.AnalyzeBasicDesc;
 import com.starrocks.sql.ast.AnalyzeHistogramDesc;
+import com.starrocks.sql.ast.AnalyzeMultiColumnDesc;
 import com.starrocks.sql.ast.AnalyzeStmt;
 import com.starrocks.sql.ast.AsyncRefreshSchemeDesc;
 import com.starrocks.sql.ast.CTERelation;
@@ -177,6 +178,7 @@ import com.starrocks.sql.ast.CreateMaterializedViewStatement;
 import com.starrocks.sql.ast.DropAnalyzeJobStmt;
 import com.starrocks.sql.ast.DropCatalogStmt;
 import com.starrocks.sql.ast.DropHistogramStmt;
+import com.starrocks.sql.ast.DropMultiColumnStatsStmt;
 import com.starrocks.sql.ast.ExceptRelation;
 import com.starrocks.sql.ast.ExecuteAsStmt;
 import com.starrocks.sql.ast.ExpressionPartitionDesc;
@@ -1378,6 +1380,37 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
         return new DropHistogramStmt(tableName, columnNames);
     }
 
+    @Override
+    public ParseNode visitAnalyzeMultiColumnStatsStatement(
+            StarRocksParser.AnalyzeMultiColumnStatsStatementContext context) {
+        QualifiedName qualifiedName = getQualifiedName(context.qualifiedName());
+        TableName tableName = qualifiedNameToTableName(qualifiedName);
+
+        List<Identifier> columns = visit(context.identifier(), Identifier.class);
+        List<String> columnNames = columns.stream().map(Identifier::getValue).collect(toList());
+
+        Map<String, String> properties = new HashMap<>();
+        if (context.properties() != null) {
+            List<Property> propertyList = visit(context.properties().property(), Property.class);
+            for (Property property : propertyList) {
+                properties.put(property.getKey(), property.getValue());
+            }
+        }
+
+        return new AnalyzeStmt(tableName, columnNames, properties, false, new AnalyzeMultiColumnDesc());
+    }
+
+    @Override
+    public ParseNode visitDropMultiColumnStatsStatement(StarRocksParser.DropMultiColumnStatsStatementContext context) {
+        QualifiedName qualifiedName = getQualifiedName(context.qualifiedName());
+        TableName tableName = qualifiedNameToTableName(qualifiedName);
+
+        List<Identifier> columns = visit(context.identifier(), Identifier.class);
+        List<String> columnNames = columns.stream().map(Identifier::getValue).collect(toList());
+
+        return new DropMultiColumnStatsStmt(tableName, columnNames);
+    }
+
     // ------------------------------------------- Work Group Statement -------------------------------------------------
 
     @Override
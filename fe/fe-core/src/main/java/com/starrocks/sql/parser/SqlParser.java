@@ -2,21 +2,59 @@
 package com.starrocks.sql.parser;
 
 import com.clearspring.analytics.util.Lists;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.QueryStmt;
 import com.starrocks.analysis.SqlScanner;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.common.util.SqlParserUtils;
 import com.starrocks.qe.OriginStatement;
 import com.starrocks.sql.StatementPlanner;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.StringReader;
 import java.util.List;
 
 public class SqlParser {
+    private static final Logger LOG = LogManager.getLogger(SqlParser.class);
+
+    // Statements longer than this are not cached, they are usually insert with huge values list
+    private static final int MAX_CACHED_SQL_LENGTH = 16 * 1024;
+
+    private static final String[] WARM_UP_STATEMENTS = {
+            "select k1, sum(v1) from db.t where k2 = 1 and k3 in (1, 2) group by k1 order by k1 limit 10",
+            "select * from t1 join t2 on t1.a = t2.b left join t3 on t2.c = t3.d where t1.e like 'x%'",
+            "with w as (select a, count(*) c from t group by a) select * from w where c > 1 union all select 1, 2",
+            "select case when a > 1 then cast(b as varchar) else null end, row_number() over (partition by c) from t",
+            "insert into t select * from s where dt between '2022-01-01' and '2022-01-31'",
+    };
+
+    // The parse tree is never modified by AstBuilder, so the same tree of a statement
+    // could be shared by sessions, only the AST is built again for each parse.
+    // The key is sql mode and the statement text, because sql mode affects the grammar.
+    // The text is not normalized: the literals are part of the parse tree, so the statements only differing in
+    // literals or comments are different entries, and only the statements repeated verbatim (e.g. prepared
+    // statements, dashboards and the queries of tools) hit the cache, the others are evicted by them.
+    // The memory of a parse tree is roughly proportional to its number of tokens, not to the length of the text
+    // which also counts long literals and whitespaces, so the cache is bounded by the total number of tokens.
+    private static final Cache<Pair<Long, String>, StarRocksParser.SingleStatementContext> PARSE_TREE_CACHE =
+            Caffeine.newBuilder()
+                    .maximumWeight(Math.max(0, Config.parse_tree_cache_max_tokens))
+                    .weigher((Pair<Long, String> key, StarRocksParser.SingleStatementContext value) ->
+                            countTokens(value))
+                    .build();
+
     public static List<StatementBase> parse(String originSql, long sqlMode) {
         List<String> splitSql = splitSQL(originSql);
         List<StatementBase> statements = Lists.newArrayList();
@@ -24,15 +62,9 @@ public class SqlParser {
         for (int idx = 0; idx < splitSql.size(); ++idx) {
             String sql = splitSql.get(idx);
             try {
-                StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
-                CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-                StarRocksParser parser = new StarRocksParser(tokenStream);
-                StarRocksParser.sqlMode = sqlMode;
-                parser.removeErrorListeners();
-                parser.addErrorListener(new ErrorHandler());
-                StarRocksParser.SqlStatementsContext sqlStatements = parser.sqlStatements();
+                StarRocksParser.SingleStatementContext singleStatement = parseSingleStatement(sql, sqlMode, true);
                 StatementBase statement = (StatementBase) new AstBuilder(sqlMode)
-                        .visitSingleStatement(sqlStatements.singleStatement(0));
+                        .visitSingleStatement(singleStatement);
                 statement.setOrigStmt(new OriginStatement(sql, idx));
                 statements.add(statement);
             } catch (ParsingException parsingException) {
@@ -47,6 +79,80 @@ public class SqlParser {
         return statements;
     }
 
+    /**
+     * Parse one statement into the parse tree, from which the AST could be built many times by
+     * {@link AstBuilder}, e.g. for every execution of a prepared statement.
+     */
+    public static StarRocksParser.SingleStatementContext parseTree(String sql, long sqlMode) {
+        return parseSingleStatement(sql, sqlMode, true);
+    }
+
+    private static StarRocksParser.SingleStatementContext parseSingleStatement(String sql, long sqlMode,
+                                                                               boolean useCache) {
+        boolean cacheable = useCache && Config.parse_tree_cache_max_tokens > 0 &&
+                sql.length() <= MAX_CACHED_SQL_LENGTH;
+        Pair<Long, String> cacheKey = null;
+        if (cacheable) {
+            cacheKey = new Pair<>(sqlMode, sql.trim());
+            StarRocksParser.SingleStatementContext cached = PARSE_TREE_CACHE.getIfPresent(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        StarRocksParser parser = new StarRocksParser(tokenStream);
+        StarRocksParser.sqlMode = sqlMode;
+
+        // Try the faster SLL prediction first, which is enough for almost all statements.
+        // SLL may fail on a valid statement that needs full context, only then parse again with LL.
+        StarRocksParser.SqlStatementsContext sqlStatements;
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            sqlStatements = parser.sqlStatements();
+        } catch (ParseCancellationException e) {
+            tokenStream.seek(0);
+            parser.reset();
+            parser.addErrorListener(new ErrorHandler());
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            sqlStatements = parser.sqlStatements();
+        }
+
+        StarRocksParser.SingleStatementContext singleStatement = sqlStatements.singleStatement(0);
+        if (cacheable) {
+            PARSE_TREE_CACHE.put(cacheKey, singleStatement);
+        }
+        return singleStatement;
+    }
+
+    static int countTokens(StarRocksParser.SingleStatementContext singleStatement) {
+        if (singleStatement.getStart() == null || singleStatement.getStop() == null) {
+            return 1;
+        }
+        return Math.max(1, singleStatement.getStop().getTokenIndex() - singleStatement.getStart().getTokenIndex() + 1);
+    }
+
+    /**
+     * Parse some typical statements to fill the DFA cache of parser, which is shared by all parser instances,
+     * so that the first queries after FE start don't pay for the ATN simulation. The statements are not put
+     * into the parse tree cache, which is for the statements of users.
+     */
+    public static void warmUp() {
+        long startTime = System.currentTimeMillis();
+        for (String sql : WARM_UP_STATEMENTS) {
+            try {
+                parseSingleStatement(sql, 0, false);
+            } catch (Exception e) {
+                LOG.warn("failed to warm up sql parser with {}", sql, e);
+            }
+        }
+        LOG.info("warm up sql parser cost {} ms", System.currentTimeMillis() - startTime);
+    }
+
     /**
      * parse sql to expression, only supports new parser
      *
@@ -91,6 +91,8 @@ statement
     | dropAnalyzeJobStatement                                                               #dropAnalyzeJob
     | analyzeHistogramStatement                                                             #analyzeHistogram
     | dropHistogramStatement                                                                #dropHistogram
+    | analyzeMultiColumnStatsStatement                                                      #analyzeMultiColumnStats
+    | dropMultiColumnStatsStatement                                                         #dropMultiColumnStats
     | showAnalyzeStatement                                                                  #showAnalyze
     | showStatsMetaStatement                                                                #showStatsMeta
     | showHistogramMetaStatement                                                            #showHistogramMeta
@@ -512,6 +514,14 @@ dropHistogramStatement
     : ANALYZE TABLE qualifiedName DROP HISTOGRAM ON identifier (',' identifier)*
     ;
 
+analyzeMultiColumnStatsStatement
+    : ANALYZE TABLE qualifiedName UPDATE STATS ON '(' identifier (',' identifier)+ ')' properties?
+    ;
+
+dropMultiColumnStatsStatement
+    : ANALYZE TABLE qualifiedName DROP STATS ON '(' identifier (',' identifier)+ ')'
+    ;
+
 createAnalyzeStatement
     : CREATE ANALYZE (FULL | SAMPLE)? ALL properties?
     | CREATE ANALYZE (FULL | SAMPLE)? DATABASE db=identifier properties?
@@ -31,6 +31,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -47,6 +48,9 @@ public class AnalyzeManager implements Writable {
 
     private final Map<Pair<Long, String>, HistogramStatsMeta> histogramStatsMetaMap;
 
+    // table id -> columns -> meta
+    private final Map<Long, Map<List<String>, MultiColumnStatsMeta>> multiColumnStatsMetaMap;
+
     private static final ExecutorService executor =
             ThreadPoolManager.newDaemonFixedThreadPool(1, 16, "analyze-replay-pool", true);
 
@@ -55,6 +59,7 @@ public class AnalyzeManager implements Writable {
         analyzeStatusMap = Maps.newConcurrentMap();
         basicStatsMetaMap = Maps.newConcurrentMap();
         histogramStatsMetaMap = Maps.newConcurrentMap();
+        multiColumnStatsMetaMap = Maps.newConcurrentMap();
     }
 
     public void addAnalyzeJob(AnalyzeJob job) {
@@ -220,6 +225,39 @@ public class AnalyzeManager implements Writable {
         return histogramStatsMetaMap;
     }
 
+    public void addMultiColumnStatsMeta(MultiColumnStatsMeta multiColumnStatsMeta) {
+        replayAddMultiColumnStatsMeta(multiColumnStatsMeta);
+        GlobalStateMgr.getCurrentState().getEditLog().logAddMultiColumnStatsMeta(multiColumnStatsMeta);
+    }
+
+    public void replayAddMultiColumnStatsMeta(MultiColumnStatsMeta multiColumnStatsMeta) {
+        multiColumnStatsMetaMap.computeIfAbsent(multiColumnStatsMeta.getTableId(), k -> Maps.newConcurrentMap())
+                .put(multiColumnStatsMeta.getColumns(), multiColumnStatsMeta);
+    }
+
+    public void removeMultiColumnStatsMeta(MultiColumnStatsMeta multiColumnStatsMeta) {
+        replayRemoveMultiColumnStatsMeta(multiColumnStatsMeta);
+        GlobalStateMgr.getCurrentState().getEditLog().logRemoveMultiColumnStatsMeta(multiColumnStatsMeta);
+    }
+
+    public void replayRemoveMultiColumnStatsMeta(MultiColumnStatsMeta multiColumnStatsMeta) {
+        multiColumnStatsMetaMap.computeIfPresent(multiColumnStatsMeta.getTableId(), (k, metas) -> {
+            metas.remove(multiColumnStatsMeta.getColumns());
+            return metas.isEmpty() ? null : metas;
+        });
+    }
+
+    public List<MultiColumnStatsMeta> getMultiColumnStatsMetas(long tableId) {
+        Map<List<String>, MultiColumnStatsMeta> metas = multiColumnStatsMetaMap.get(tableId);
+        return metas == null ? Collections.emptyList() : new ArrayList<>(metas.values());
+    }
+
+    public List<MultiColumnStatsMeta> getAllMultiColumnStatsMetas() {
+        List<MultiColumnStatsMeta> metas = new ArrayList<>();
+        multiColumnStatsMetaMap.values().forEach(m -> metas.addAll(m.values()));
+        return metas;
+    }
+
     public void readFields(DataInputStream dis) throws IOException {
         // read job
         String s = Text.readString(dis);
@@ -249,6 +287,12 @@ public class AnalyzeManager implements Writable {
                     replayAddHistogramStatsMeta(meta);
                 }
             }
+
+            if (null != data.multiColumnStatsMeta) {
+                for (MultiColumnStatsMeta meta : data.multiColumnStatsMeta) {
+                    replayAddMultiColumnStatsMeta(meta);
+                }
+            }
         }
     }
 
@@ -260,6 +304,7 @@ public class AnalyzeManager implements Writable {
         data.status = new ArrayList<>(getAnalyzeStatusMap().values());
         data.basicStatsMeta = new ArrayList<>(getBasicStatsMetaMap().values());
         data.histogramStatsMeta = new ArrayList<>(getHistogramStatsMetaMap().values());
+        data.multiColumnStatsMeta = getAllMultiColumnStatsMetas();
 
         String s = GsonUtils.GSON.toJson(data);
         Text.writeString(out, s);
@@ -292,6 +337,9 @@ public class AnalyzeManager implements Writable {
 
         @SerializedName("histogramStatsMeta")
         public List<HistogramStatsMeta> histogramStatsMeta;
+
+        @SerializedName("multiColumnStatsMeta")
+        public List<MultiColumnStatsMeta> multiColumnStatsMeta;
     }
 
     // This task is used to expire cached statistics
@@ -160,6 +160,8 @@ public class AnalyzeStatus implements Writable {
             op = "analyze";
         } else if (type.equals(StatsConstants.AnalyzeType.SAMPLE)) {
             op = "sample";
+        } else if (type.equals(StatsConstants.AnalyzeType.MULTI_COLUMN)) {
+            op = "multi column";
         }
 
         String msgType;
@@ -2,6 +2,8 @@
 
 package com.starrocks.statistic;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
@@ -15,6 +17,8 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class BasicStatsMeta implements Writable {
@@ -36,6 +40,10 @@ public class BasicStatsMeta implements Writable {
     @SerializedName("updateRows")
     private long updateRows;
 
+    // The visible version of each partition when its full statistics were collected
+    @SerializedName("partitionVersions")
+    private Map<Long, Long> partitionVersions;
+
     public BasicStatsMeta(long dbId, long tableId,
                           StatsConstants.AnalyzeType type,
                           LocalDateTime updateTime,
@@ -113,6 +121,51 @@ public class BasicStatsMeta implements Writable {
         return healthy;
     }
 
+    public Map<Long, Long> getPartitionVersions() {
+        return partitionVersions == null ? Collections.emptyMap() : partitionVersions;
+    }
+
+    public void setPartitionVersions(Map<Long, Long> partitionVersions) {
+        this.partitionVersions = partitionVersions;
+    }
+
+    /**
+     * Whether the partition was loaded or created after its full statistics were collected.
+     * Only reliable if the partition versions were recorded, see {@link #getPartitionVersions()}.
+     */
+    public boolean isPartitionChanged(Partition partition) {
+        Long version = getPartitionVersions().get(partition.getId());
+        return version == null || version != partition.getVisibleVersion();
+    }
+
+    /**
+     * The recorded partitions which are dropped from the table, their statistics are out of date.
+     */
+    public List<Long> getDroppedPartitions(OlapTable table) {
+        List<Long> dropped = Lists.newArrayList();
+        for (Long partitionId : getPartitionVersions().keySet()) {
+            if (table.getPartition(partitionId) == null) {
+                dropped.add(partitionId);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Merge the partition versions of a new collection into the recorded ones, and drop the partitions not in the
+     * table anymore.
+     */
+    public static Map<Long, Long> mergePartitionVersions(BasicStatsMeta previous, Map<Long, Long> collected,
+                                                         OlapTable table) {
+        Map<Long, Long> merged = Maps.newHashMap();
+        if (previous != null && previous.getType() == StatsConstants.AnalyzeType.FULL) {
+            merged.putAll(previous.getPartitionVersions());
+        }
+        merged.putAll(collected);
+        merged.keySet().removeIf(partitionId -> table.getPartition(partitionId) == null);
+        return merged;
+    }
+
     public long getUpdateRows() {
         return updateRows;
     }
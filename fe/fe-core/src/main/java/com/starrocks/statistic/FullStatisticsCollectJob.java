@@ -2,6 +2,7 @@
 package com.starrocks.statistic;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
@@ -23,6 +24,10 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
 
     private final List<Long> partitionIdList;
 
+    // The visible version of each collected partition before it's scanned, a partition loaded during the
+    // collection is collected again next time.
+    private final Map<Long, Long> collectedPartitionVersions = Maps.newHashMap();
+
     public FullStatisticsCollectJob(Database db, OlapTable table, List<Long> partitionIdList, List<String> columns,
                                     StatsConstants.AnalyzeType type, StatsConstants.ScheduleType scheduleType,
                                     Map<String, String> properties) {
@@ -34,10 +39,19 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
         return partitionIdList;
     }
 
+    public Map<Long, Long> getCollectedPartitionVersions() {
+        return collectedPartitionVersions;
+    }
+
     @Override
     public void collect() throws Exception {
         for (Long partitionId : partitionIdList) {
             Partition partition = table.getPartition(partitionId);
+            if (partition == null) {
+                // dropped after the job is created
+                continue;
+            }
+            long visibleVersion = partition.getVisibleVersion();
 
             List<List<String>> splitColumns = Lists.partition(columns,
                     (int) (partition.getRowCount() * columns.size() / Config.statistics_collect_max_row_count_per_query + 1));
@@ -47,6 +61,7 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
                     collectStatisticSync(sql);
                 }
             }
+            collectedPartitionVersions.put(partitionId, visibleVersion);
         }
     }
 
@@ -0,0 +1,67 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.common.base.Joiner;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.cluster.ClusterNamespace;
+import org.apache.velocity.VelocityContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.starrocks.statistic.StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME;
+
+/**
+ * Collect the statistic of a group of correlated columns (c1, ..., cn):
+ * <ul>
+ *   <li>ndv: the distinct values of (c1, ..., cn)</li>
+ *   <li>dependency: the degree of the functional dependency (c1, ..., cn-1) => cn, which is the fraction of rows
+ *   whose value of (c1, ..., cn-1) determines a single value of cn, 1 means cn is totally determined by
+ *   the others, e.g. (city, country)</li>
+ * </ul>
+ */
+public class MultiColumnStatisticsCollectJob extends StatisticsCollectJob {
+    private static final String COLLECT_MULTI_COLUMN_STATISTIC_TEMPLATE =
+            "SELECT $tableId, '$columnNames', $dbId, '$dbName.$tableName',"
+                    + " IFNULL(SUM(last_ndv), 0),"
+                    + " IFNULL(SUM(IF(last_ndv = 1, row_count, 0)) / SUM(row_count), 0), NOW()"
+                    + " FROM (SELECT COUNT(DISTINCT $lastColumn) + IF(COUNT($lastColumn) < COUNT(1), 1, 0) AS last_ndv,"
+                    + " COUNT(1) AS row_count FROM $dbName.$tableName GROUP BY $leadingColumns) t";
+
+    public MultiColumnStatisticsCollectJob(Database db, OlapTable table, List<String> columns,
+                                           StatsConstants.AnalyzeType type, StatsConstants.ScheduleType scheduleType,
+                                           Map<String, String> properties) {
+        super(db, table, columns, type, scheduleType, properties);
+    }
+
+    @Override
+    public void collect() throws Exception {
+        collectStatisticSync(buildCollectMultiColumnStatisticSQL(db, table, columns));
+    }
+
+    public String buildCollectMultiColumnStatisticSQL(Database database, OlapTable table, List<String> columnNames) {
+        StringBuilder builder = new StringBuilder("INSERT INTO ").append(MULTI_COLUMN_STATISTICS_TABLE_NAME)
+                .append(" ");
+
+        VelocityContext context = new VelocityContext();
+        context.put("tableId", table.getId());
+        context.put("columnNames", getColumnNamesKey(columnNames));
+        context.put("dbId", database.getId());
+        context.put("dbName", ClusterNamespace.getNameFromFullName(database.getFullName()));
+        context.put("tableName", table.getName());
+        context.put("leadingColumns", columnNames.subList(0, columnNames.size() - 1).stream()
+                .map(c -> "`" + c + "`").collect(Collectors.joining(", ")));
+        context.put("lastColumn", "`" + columnNames.get(columnNames.size() - 1) + "`");
+
+        builder.append(build(context, COLLECT_MULTI_COLUMN_STATISTIC_TEMPLATE));
+        return builder.toString();
+    }
+
+    // The value of column_names in the statistic table
+    public static String getColumnNamesKey(List<String> columnNames) {
+        return Joiner.on(",").join(columnNames);
+    }
+}
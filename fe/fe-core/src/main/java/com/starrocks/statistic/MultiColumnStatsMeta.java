@@ -0,0 +1,86 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Meta of the statistic collected on a group of columns of a table, the order of the columns matters,
+ * see {@link MultiColumnStatisticsCollectJob}.
+ */
+public class MultiColumnStatsMeta implements Writable {
+    @SerializedName("dbId")
+    private long dbId;
+
+    @SerializedName("tableId")
+    private long tableId;
+
+    @SerializedName("columns")
+    private List<String> columns;
+
+    @SerializedName("type")
+    private StatsConstants.AnalyzeType type;
+
+    @SerializedName("updateTime")
+    private LocalDateTime updateTime;
+
+    @SerializedName("properties")
+    private Map<String, String> properties;
+
+    public MultiColumnStatsMeta(long dbId, long tableId, List<String> columns,
+                                StatsConstants.AnalyzeType type,
+                                LocalDateTime updateTime,
+                                Map<String, String> properties) {
+        this.dbId = dbId;
+        this.tableId = tableId;
+        this.columns = columns;
+        this.type = type;
+        this.updateTime = updateTime;
+        this.properties = properties;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        String s = GsonUtils.GSON.toJson(this);
+        Text.writeString(out, s);
+    }
+
+    public static MultiColumnStatsMeta read(DataInput in) throws IOException {
+        String s = Text.readString(in);
+        return GsonUtils.GSON.fromJson(s, MultiColumnStatsMeta.class);
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public StatsConstants.AnalyzeType getType() {
+        return type;
+    }
+
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+}
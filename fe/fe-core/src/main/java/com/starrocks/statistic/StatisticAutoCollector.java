@@ -4,7 +4,9 @@ package com.starrocks.statistic;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
@@ -19,6 +21,7 @@ import org.apache.logging.log4j.Logger;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class StatisticAutoCollector extends MasterDaemon {
     private static final Logger LOG = LogManager.getLogger(StatisticAutoCollector.class);
@@ -68,6 +71,7 @@ public class StatisticAutoCollector extends MasterDaemon {
         }
 
         expireStatistic();
+        expirePartitionStatistic();
     }
 
     private void initDefaultJob() {
@@ -106,4 +110,35 @@ public class StatisticAutoCollector extends MasterDaemon {
             LOG.warn("expire statistic failed.", e);
         }
     }
+
+    // The full statistics of dropped partitions are merged into the table statistics, so they are deleted
+    private void expirePartitionStatistic() {
+        for (BasicStatsMeta meta : Lists.newArrayList(
+                GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().values())) {
+            if (meta.getType() != AnalyzeType.FULL || meta.getPartitionVersions().isEmpty()) {
+                continue;
+            }
+            Database db = GlobalStateMgr.getCurrentState().getDb(meta.getDbId());
+            Table table = db == null ? null : db.getTable(meta.getTableId());
+            if (!(table instanceof OlapTable)) {
+                continue;
+            }
+
+            List<Long> droppedPartitions = meta.getDroppedPartitions((OlapTable) table);
+            if (droppedPartitions.isEmpty()) {
+                continue;
+            }
+            LOG.info("Statistic expire partitions: {} of table: {}", droppedPartitions, table.getId());
+            statisticExecutor.dropPartitionStatistics(table.getId(), droppedPartitions);
+
+            BasicStatsMeta expired = new BasicStatsMeta(meta.getDbId(), meta.getTableId(), meta.getType(),
+                    meta.getUpdateTime(), meta.getProperties());
+            expired.increaseUpdateRows(meta.getUpdateRows());
+            expired.setPartitionVersions(BasicStatsMeta.mergePartitionVersions(meta, Collections.emptyMap(),
+                    (OlapTable) table));
+            GlobalStateMgr.getCurrentAnalyzeMgr().addBasicStatsMeta(expired);
+            GlobalStateMgr.getCurrentStatisticStorage().expireColumnStatistics(table,
+                    table.getBaseSchema().stream().map(Column::getName).collect(Collectors.toList()));
+        }
+    }
 }
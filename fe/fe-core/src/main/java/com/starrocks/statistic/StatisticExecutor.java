@@ -12,11 +12,13 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Table;
 import com.starrocks.cluster.ClusterNamespace;
+import com.starrocks.common.DdlException;
 import com.starrocks.common.Pair;
 import com.starrocks.common.Status;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.Coordinator;
 import com.starrocks.qe.QeProcessorImpl;
+import com.starrocks.qe.QueryState;
 import com.starrocks.qe.RowBatch;
 import com.starrocks.qe.StmtExecutor;
 import com.starrocks.server.GlobalStateMgr;
@@ -104,6 +106,41 @@ public class StatisticExecutor {
         }
     }
 
+    public List<TStatisticData> queryMultiColumnStatistics(Long tableId) throws Exception {
+        String sql = StatisticSQLBuilder.buildQueryMultiColumnStatisticsSQL(tableId);
+        ConnectContext context = StatisticUtils.buildConnectContext();
+        StatementBase parsedStmt = SqlParser.parseFirstStatement(sql, context.getSessionVariable().getSqlMode());
+        try {
+            ExecPlan execPlan = getExecutePlan(Maps.newHashMap(), context, parsedStmt, true, true);
+            List<TResultBatch> sqlResult = executeStmt(context, execPlan).first;
+            return deserializerStatisticData(sqlResult);
+        } catch (Exception e) {
+            LOG.warn("Execute statistic table query fail.", e);
+            throw e;
+        }
+    }
+
+    // the meta is kept if the statistics are not deleted, so the drop could be retried
+    public void dropMultiColumnStatistics(Long dbId, Long tableId, List<String> columnNames) throws DdlException {
+        String sql = StatisticSQLBuilder.buildDropMultiColumnStatisticsSQL(tableId, columnNames);
+        ConnectContext context = StatisticUtils.buildConnectContext();
+        StatementBase parsedStmt;
+        try {
+            parsedStmt = SqlParser.parseFirstStatement(sql, context.getSessionVariable().getSqlMode());
+            StmtExecutor executor = new StmtExecutor(context, parsedStmt);
+            executor.execute();
+        } catch (Exception e) {
+            LOG.warn("Execute statistic table expire fail.", e);
+            throw new DdlException("drop multi-column statistics failed: " + e.getMessage());
+        }
+        if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+            throw new DdlException("drop multi-column statistics failed: " + context.getState().getErrorMessage());
+        }
+        GlobalStateMgr.getCurrentAnalyzeMgr().removeMultiColumnStatsMeta(new MultiColumnStatsMeta(dbId, tableId,
+                columnNames, StatsConstants.AnalyzeType.MULTI_COLUMN, LocalDateTime.now(), Maps.newHashMap()));
+        GlobalStateMgr.getCurrentStatisticStorage().expireMultiColumnStatistics(tableId);
+    }
+
     public void dropHistogram(Long tableId, List<String> columnNames) {
         String sql = StatisticSQLBuilder.buildDropHistogramSQL(tableId, columnNames);
         ConnectContext context = StatisticUtils.buildConnectContext();
@@ -232,13 +269,39 @@ public class StatisticExecutor {
                         table.getId(), columnName, statsJob.getType(), analyzeStatus.getEndTime(),
                         statsJob.getProperties()));
             }
+        } else if (statsJob.getType().equals(StatsConstants.AnalyzeType.MULTI_COLUMN)) {
+            GlobalStateMgr.getCurrentAnalyzeMgr().addMultiColumnStatsMeta(new MultiColumnStatsMeta(db.getId(),
+                    table.getId(), columns, statsJob.getType(), analyzeStatus.getEndTime(),
+                    statsJob.getProperties()));
+            GlobalStateMgr.getCurrentStatisticStorage().expireMultiColumnStatistics(table.getId());
         } else {
-            GlobalStateMgr.getCurrentAnalyzeMgr().addBasicStatsMeta(new BasicStatsMeta(db.getId(), table.getId(),
-                    statsJob.getType(), analyzeStatus.getEndTime(), statsJob.getProperties()));
+            BasicStatsMeta basicStatsMeta = new BasicStatsMeta(db.getId(), table.getId(),
+                    statsJob.getType(), analyzeStatus.getEndTime(), statsJob.getProperties());
+            if (statsJob instanceof FullStatisticsCollectJob) {
+                BasicStatsMeta previous =
+                        GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().get(table.getId());
+                basicStatsMeta.setPartitionVersions(BasicStatsMeta.mergePartitionVersions(previous,
+                        ((FullStatisticsCollectJob) statsJob).getCollectedPartitionVersions(), (OlapTable) table));
+            }
+            GlobalStateMgr.getCurrentAnalyzeMgr().addBasicStatsMeta(basicStatsMeta);
         }
         return analyzeStatus;
     }
 
+    public void dropPartitionStatistics(Long tableId, List<Long> partitionIds) {
+        String sql = StatisticSQLBuilder.buildDropPartitionStatisticsSQL(tableId, partitionIds);
+        LOG.debug("Drop partition statistic SQL: {}", sql);
+        ConnectContext context = StatisticUtils.buildConnectContext();
+        StatementBase parsedStmt;
+        try {
+            parsedStmt = SqlParser.parseFirstStatement(sql, context.getSessionVariable().getSqlMode());
+            StmtExecutor executor = new StmtExecutor(context, parsedStmt);
+            executor.execute();
+        } catch (Exception e) {
+            LOG.warn("Execute partition statistic drop fail.", e);
+        }
+    }
+
     public void expireStatisticSync(List<String> tableIds) {
         StringBuilder sql = new StringBuilder(DELETE_TEMPLATE);
         sql.append(" table_id IN (").append(StringUtils.join(tableIds, ",")).append(")");
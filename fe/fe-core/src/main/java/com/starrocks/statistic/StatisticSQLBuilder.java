@@ -34,6 +34,13 @@ public class StatisticSQLBuilder {
                     + " FROM " + StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME
                     + " WHERE $predicate";
 
+    // multi column statistics are returned in the layout of histogram, the histogram is a json of the statistics
+    private static final String QUERY_MULTI_COLUMN_STATISTIC_TEMPLATE =
+            "SELECT cast(" + STATISTIC_HISTOGRAM_VERSION + " as INT), table_id, column_names,"
+                    + " concat('{\"ndv\":', cast(ndv as varchar), ',\"dependency\":', cast(dependency as varchar), '}')"
+                    + " FROM " + StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME
+                    + " WHERE table_id = $tableId";
+
     private static final VelocityEngine DEFAULT_VELOCITY_ENGINE;
 
     static {
@@ -109,6 +116,23 @@ public class StatisticSQLBuilder {
                 .join(columnNames.stream().map(c -> "'" + c + "'").collect(Collectors.toList())) + ")";
     }
 
+    public static String buildDropPartitionStatisticsSQL(Long tableId, List<Long> partitionIds) {
+        return "delete from " + StatsConstants.FULL_STATISTICS_TABLE_NAME + " where table_id = "
+                + tableId + " and partition_id in (" + Joiner.on(", ").join(partitionIds) + ")";
+    }
+
+    public static String buildQueryMultiColumnStatisticsSQL(Long tableId) {
+        VelocityContext context = new VelocityContext();
+        context.put("tableId", tableId);
+        return build(context, QUERY_MULTI_COLUMN_STATISTIC_TEMPLATE);
+    }
+
+    public static String buildDropMultiColumnStatisticsSQL(Long tableId, List<String> columnNames) {
+        return "delete from " + StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME + " where table_id = "
+                + tableId + " and column_names = '"
+                + MultiColumnStatisticsCollectJob.getColumnNamesKey(columnNames) + "'";
+    }
+
     private static String build(VelocityContext context, String template) {
         StringWriter sw = new StringWriter();
         DEFAULT_VELOCITY_ENGINE.evaluate(context, sw, "", template);
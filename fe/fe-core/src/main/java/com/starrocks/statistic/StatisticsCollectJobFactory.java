@@ -117,30 +117,48 @@ public class StatisticsCollectJobFactory {
     private static void createFullStatsJob(List<StatisticsCollectJob> allTableJobMap,
                                            AnalyzeJob job, BasicStatsMeta basicStatsMeta,
                                            Database db, Table table, List<String> columns) {
-        StatsConstants.AnalyzeType analyzeType;
-        if (((OlapTable) table).getPartitions().stream().anyMatch(
-                p -> p.getDataSize() > Config.statistics_max_full_collect_data_size)) {
-            analyzeType = StatsConstants.AnalyzeType.SAMPLE;
-        } else {
-            analyzeType = StatsConstants.AnalyzeType.FULL;
-        }
-
         List<Partition> partitions = Lists.newArrayList(((OlapTable) table).getPartitions());
-        List<Long> partitionIdList = new ArrayList<>();
+        List<Partition> changedPartitions = new ArrayList<>();
         if (basicStatsMeta == null) {
-            partitions.stream().map(Partition::getId).forEach(partitionIdList::add);
+            changedPartitions.addAll(partitions);
+        } else if (isIncrementalCollect(basicStatsMeta)) {
+            for (Partition partition : partitions) {
+                if (basicStatsMeta.isPartitionChanged(partition)) {
+                    changedPartitions.add(partition);
+                }
+            }
         } else {
             LocalDateTime statsLastUpdateTime = basicStatsMeta.getUpdateTime();
             for (Partition partition : partitions) {
                 LocalDateTime partitionUpdateTime = StatisticUtils.getPartitionLastUpdateTime(partition);
                 if (statsLastUpdateTime.isBefore(partitionUpdateTime)) {
-                    partitionIdList.add(partition.getId());
+                    changedPartitions.add(partition);
                 }
             }
         }
-        if (!partitionIdList.isEmpty()) {
-            allTableJobMap.add(buildStatisticsCollectJob(db, (OlapTable) table, partitionIdList, columns,
-                    analyzeType, job.getScheduleType(), Maps.newHashMap()));
+        if (changedPartitions.isEmpty()) {
+            return;
         }
+
+        // The statistics of unchanged partitions are kept for incremental collection, so only the changed
+        // partitions need to be small enough to be scanned fully
+        List<Partition> scannedPartitions = isIncrementalCollect(basicStatsMeta) ? changedPartitions : partitions;
+        StatsConstants.AnalyzeType analyzeType;
+        if (scannedPartitions.stream().anyMatch(p -> p.getDataSize() > Config.statistics_max_full_collect_data_size)) {
+            analyzeType = StatsConstants.AnalyzeType.SAMPLE;
+        } else {
+            analyzeType = StatsConstants.AnalyzeType.FULL;
+        }
+
+        List<Long> partitionIdList = changedPartitions.stream().map(Partition::getId).collect(Collectors.toList());
+        allTableJobMap.add(buildStatisticsCollectJob(db, (OlapTable) table, partitionIdList, columns,
+                analyzeType, job.getScheduleType(), Maps.newHashMap()));
+    }
+
+    // Whether the partitions to collect can be chosen by the visible versions recorded by last full collection
+    private static boolean isIncrementalCollect(BasicStatsMeta basicStatsMeta) {
+        return Config.enable_incremental_partition_statistics && basicStatsMeta != null
+                && basicStatsMeta.getType() == StatsConstants.AnalyzeType.FULL
+                && !basicStatsMeta.getPartitionVersions().isEmpty();
     }
 }
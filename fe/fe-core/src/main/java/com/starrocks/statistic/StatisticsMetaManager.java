@@ -97,6 +97,16 @@ public class StatisticsMetaManager extends MasterDaemon {
                 new ColumnDef("table_name", new TypeDef(tableNameType)),
                 new ColumnDef("histogram", new TypeDef(histogramType))
         );
+
+        MULTI_COLUMN_STATISTICS_COLUMNS = ImmutableList.of(
+                new ColumnDef("table_id", new TypeDef(ScalarType.createType(PrimitiveType.BIGINT))),
+                new ColumnDef("column_names", new TypeDef(columnNameType)),
+                new ColumnDef("db_id", new TypeDef(ScalarType.createType(PrimitiveType.BIGINT))),
+                new ColumnDef("table_name", new TypeDef(tableNameType)),
+                new ColumnDef("ndv", new TypeDef(ScalarType.createType(PrimitiveType.BIGINT))),
+                new ColumnDef("dependency", new TypeDef(ScalarType.createType(PrimitiveType.DOUBLE))),
+                new ColumnDef("update_time", new TypeDef(ScalarType.createType(PrimitiveType.DATETIME)))
+        );
     }
 
     private static final List<ColumnDef> SAMPLE_STATISTICS_COLUMNS;
@@ -105,6 +115,8 @@ public class StatisticsMetaManager extends MasterDaemon {
 
     private static final List<ColumnDef> HISTOGRAM_STATISTICS_COLUMNS;
 
+    private static final List<ColumnDef> MULTI_COLUMN_STATISTICS_COLUMNS;
+
     // If all replicas are lost more than 3 times in a row, rebuild the statistics table
     private int lossTableCount = 0;
 
@@ -180,6 +192,10 @@ public class StatisticsMetaManager extends MasterDaemon {
             "table_id", "column_name"
     );
 
+    private static final List<String> multiColumnKeyColumns = ImmutableList.of(
+            "table_id", "column_names"
+    );
+
     private boolean createSampleStatisticsTable() {
         LOG.info("create statistics table start");
         TableName tableName = new TableName(StatsConstants.STATISTICS_DB_NAME,
@@ -270,6 +286,33 @@ public class StatisticsMetaManager extends MasterDaemon {
         return checkTableExist(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME);
     }
 
+    private boolean createMultiColumnStatisticsTable() {
+        LOG.info("create multi column statistics table start");
+        TableName tableName = new TableName(StatsConstants.STATISTICS_DB_NAME,
+                StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME);
+        Map<String, String> properties = Maps.newHashMap();
+        int defaultReplicationNum = Math.min(3,
+                GlobalStateMgr.getCurrentSystemInfo().getBackendIds(true).size());
+        properties.put(PropertyAnalyzer.PROPERTIES_REPLICATION_NUM, Integer.toString(defaultReplicationNum));
+        CreateTableStmt stmt = new CreateTableStmt(false, false,
+                tableName, MULTI_COLUMN_STATISTICS_COLUMNS, "olap",
+                new KeysDesc(KeysType.PRIMARY_KEYS, multiColumnKeyColumns),
+                null,
+                new HashDistributionDesc(10, multiColumnKeyColumns),
+                properties,
+                null,
+                "");
+        Analyzer.analyze(stmt, StatisticUtils.buildConnectContext());
+        try {
+            GlobalStateMgr.getCurrentState().createTable(stmt);
+        } catch (DdlException e) {
+            LOG.warn("Failed to create table" + e.getMessage());
+            return false;
+        }
+        LOG.info("create multi column statistics table done");
+        return checkTableExist(StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME);
+    }
+
     private void refreshAnalyzeJob() {
         for (Map.Entry<Long, BasicStatsMeta> entry :
                 GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().entrySet()) {
@@ -315,6 +358,8 @@ public class StatisticsMetaManager extends MasterDaemon {
             return createFullStatisticsTable();
         } else if (tableName.equals(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME)) {
             return createHistogramStatisticsTable();
+        } else if (tableName.equals(StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME)) {
+            return createMultiColumnStatisticsTable();
         } else {
             throw new StarRocksPlannerException("Error table name " + tableName, ErrorType.INTERNAL_ERROR);
         }
@@ -353,5 +398,6 @@ public class StatisticsMetaManager extends MasterDaemon {
         refreshStatisticsTable(StatsConstants.SAMPLE_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.FULL_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME);
+        refreshStatisticsTable(StatsConstants.MULTI_COLUMN_STATISTICS_TABLE_NAME);
     }
 }
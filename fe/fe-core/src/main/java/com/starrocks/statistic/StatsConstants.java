@@ -15,6 +15,7 @@ public class StatsConstants {
     public static final String SAMPLE_STATISTICS_TABLE_NAME = "table_statistic_v1";
     public static final String FULL_STATISTICS_TABLE_NAME = "column_statistics";
     public static final String HISTOGRAM_STATISTICS_TABLE_NAME = "histogram_statistics";
+    public static final String MULTI_COLUMN_STATISTICS_TABLE_NAME = "multi_column_statistics";
 
     public static final String INFORMATION_SCHEMA = SystemInfoService.DEFAULT_CLUSTER + ":information_schema";
 
@@ -42,7 +43,8 @@ public class StatsConstants {
     public enum AnalyzeType {
         SAMPLE,
         FULL,
-        HISTOGRAM
+        HISTOGRAM,
+        MULTI_COLUMN
     }
 
     public enum ScheduleType {
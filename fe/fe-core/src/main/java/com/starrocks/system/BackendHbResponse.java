@@ -47,6 +47,9 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
     private String version = "";
     @SerializedName(value = "cpuCores")
     private int cpuCores;
+    // memory of the process reported by heartbeat, not persisted
+    private long memLimitBytes;
+    private long memUsedBytes;
 
     public BackendHbResponse() {
         super(HeartbeatResponse.Type.BACKEND);
@@ -101,6 +104,19 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
         return cpuCores;
     }
 
+    public long getMemLimitBytes() {
+        return memLimitBytes;
+    }
+
+    public long getMemUsedBytes() {
+        return memUsedBytes;
+    }
+
+    public void setMemUsage(long memLimitBytes, long memUsedBytes) {
+        this.memLimitBytes = memLimitBytes;
+        this.memUsedBytes = memUsedBytes;
+    }
+
     public static BackendHbResponse read(DataInput in) throws IOException {
         BackendHbResponse result = new BackendHbResponse();
         result.readFields(in);
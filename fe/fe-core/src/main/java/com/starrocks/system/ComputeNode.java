@@ -73,6 +73,12 @@ public class ComputeNode implements IComputable, Writable {
     // port of starlet on BE
     private volatile int starletPort;
 
+    // memory of the process reported by the last heartbeat, 0 if unknown.
+    // They are not persisted and not counted as changes of the node, to avoid logging every heartbeat, so they are
+    // only known by the leader FE, which receives the heartbeats
+    private volatile long memLimitBytes = 0;
+    private volatile long memUsedBytes = 0;
+
     public ComputeNode() {
         this.host = "";
         this.version = "";
@@ -114,6 +120,14 @@ public class ComputeNode implements IComputable, Writable {
         return starletPort;
     }
 
+    public long getMemLimitBytes() {
+        return memLimitBytes;
+    }
+
+    public long getMemUsedBytes() {
+        return memUsedBytes;
+    }
+
     // for test only
     public void setStarletPort(int starletPort) {
         this.starletPort = starletPort;
@@ -394,6 +408,9 @@ public class ComputeNode implements IComputable, Writable {
                 BackendCoreStat.setNumOfHardwareCoresOfBe(hbResponse.getBeId(), hbResponse.getCpuCores());
             }
 
+            this.memLimitBytes = hbResponse.getMemLimitBytes();
+            this.memUsedBytes = hbResponse.getMemUsedBytes();
+
             heartbeatErrMsg = "";
             this.heartbeatRetryTimes = 0;
         } else {
@@ -276,8 +276,12 @@ public class HeartbeatMgr extends MasterDaemon {
                     }
 
                     // backend.updateOnce(bePort, httpPort, beRpcPort, brpcPort);
-                    return new BackendHbResponse(computeNodeId, bePort, httpPort, brpcPort, starletPort,
-                            System.currentTimeMillis(), version, cpuCores);
+                    BackendHbResponse hbResponse = new BackendHbResponse(computeNodeId, bePort, httpPort,
+                            brpcPort, starletPort, System.currentTimeMillis(), version, cpuCores);
+                    if (tBackendInfo.isSetMem_limit_bytes() && tBackendInfo.isSetMem_used_bytes()) {
+                        hbResponse.setMemUsage(tBackendInfo.getMem_limit_bytes(), tBackendInfo.getMem_used_bytes());
+                    }
+                    return hbResponse;
                 } else {
                     return new BackendHbResponse(computeNodeId,
                             result.getStatus().getError_msgs().isEmpty() ? "Unknown error"
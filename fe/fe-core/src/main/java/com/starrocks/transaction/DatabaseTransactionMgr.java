@@ -55,6 +55,7 @@ import com.starrocks.metric.MetricRepo;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import com.starrocks.persist.EditLog;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryResultCache;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.task.AgentBatchTask;
 import com.starrocks.task.AgentTaskExecutor;
@@ -1194,6 +1195,7 @@ public class DatabaseTransactionMgr {
             Table table = db.getTable(tableCommitInfo.getTableId());
             TransactionLogApplier applier = txnLogApplierFactory.create(table);
             applier.applyVisibleLog(transactionState, tableCommitInfo);
+            QueryResultCache.getInstance().invalidateTable(tableCommitInfo.getTableId());
         }
         return true;
     }
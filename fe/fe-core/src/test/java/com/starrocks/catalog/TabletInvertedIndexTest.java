@@ -0,0 +1,163 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TabletInvertedIndexTest {
+    private static final long[] BACKEND_IDS = {1L, 2L, 3L};
+
+    // the replica on the i-th backend of tablet t is t * 10 + i
+    private static void addTablet(TabletInvertedIndex invertedIndex, long tabletId, TabletMeta tabletMeta) {
+        invertedIndex.addTablet(tabletId, tabletMeta);
+        for (int i = 0; i < BACKEND_IDS.length; i++) {
+            invertedIndex.addReplica(tabletId, new Replica(tabletId * 10 + i, BACKEND_IDS[i], 0, ReplicaState.NORMAL));
+        }
+    }
+
+    private static TabletMeta createTabletMeta(TStorageMedium storageMedium) {
+        return new TabletMeta(10, 20, 30, 40, 1, storageMedium);
+    }
+
+    @Test
+    public void testAddAndDelete() {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        TabletMeta hddMeta = createTabletMeta(TStorageMedium.HDD);
+        TabletMeta ssdMeta = createTabletMeta(TStorageMedium.SSD);
+        for (long tabletId = 1; tabletId <= 1000; tabletId++) {
+            addTablet(invertedIndex, tabletId, tabletId % 2 == 0 ? hddMeta : ssdMeta);
+        }
+
+        Assert.assertSame(hddMeta, invertedIndex.getTabletMeta(2));
+        Assert.assertSame(ssdMeta, invertedIndex.getTabletMeta(3));
+        Assert.assertNull(invertedIndex.getTabletMeta(1001));
+        Assert.assertSame(TabletInvertedIndex.NOT_EXIST_TABLET_META,
+                invertedIndex.getTabletMetaList(Lists.newArrayList(1L, 1001L)).get(1));
+        Assert.assertEquals(21L, invertedIndex.getReplica(2, 2).getId());
+        Assert.assertNull(invertedIndex.getReplica(2, 4));
+        Assert.assertEquals(3, invertedIndex.getReplicasByTabletId(2).size());
+        Assert.assertEquals(Long.valueOf(2), invertedIndex.getTabletIdByReplica(21));
+        Assert.assertNull(invertedIndex.getTabletIdByReplica(10001));
+        for (long backendId : BACKEND_IDS) {
+            Assert.assertEquals(1000, invertedIndex.getTabletNumByBackendId(backendId));
+            Assert.assertEquals(1000, invertedIndex.getTabletIdsByBackendId(backendId).size());
+            Assert.assertEquals(500,
+                    invertedIndex.getTabletIdsByBackendIdAndStorageMedium(backendId, TStorageMedium.SSD).size());
+            Assert.assertEquals(500L,
+                    (long) invertedIndex.getReplicaNumByBeIdAndStorageMedium(backendId).get(TStorageMedium.HDD));
+        }
+
+        invertedIndex.deleteReplica(2, 2);
+        Assert.assertNull(invertedIndex.getReplica(2, 2));
+        Assert.assertNull(invertedIndex.getTabletIdByReplica(21));
+        Assert.assertEquals(Lists.newArrayList(20L, 22L), Lists.transform(invertedIndex.getReplicasByTabletId(2),
+                Replica::getId));
+        Assert.assertEquals(999, invertedIndex.getTabletNumByBackendId(2));
+
+        invertedIndex.deleteTablet(3);
+        Assert.assertNull(invertedIndex.getTabletMeta(3));
+        Assert.assertTrue(invertedIndex.getReplicasByTabletId(3).isEmpty());
+        Assert.assertNull(invertedIndex.getTabletIdByReplica(30));
+        Assert.assertEquals(999, invertedIndex.getTabletNumByBackendId(1));
+        Assert.assertEquals(998, invertedIndex.getTabletNumByBackendId(2));
+
+        invertedIndex.clear();
+        Assert.assertNull(invertedIndex.getTabletMeta(2));
+        Assert.assertEquals(0, invertedIndex.getTabletNumByBackendId(1));
+    }
+
+    // The stable tablets are read while other tablets in the same stripes are added and deleted
+    @Test
+    public void testReadWhileAddingAndDeleting() throws InterruptedException {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        TabletMeta stableMeta = createTabletMeta(TStorageMedium.HDD);
+        TabletMeta churnMeta = createTabletMeta(TStorageMedium.SSD);
+        int numStableTablets = 1000;
+        for (long tabletId = 1; tabletId <= numStableTablets; tabletId++) {
+            addTablet(invertedIndex, tabletId, stableMeta);
+        }
+
+        int numWriters = 2;
+        int numReaders = 4;
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch writersDone = new CountDownLatch(numWriters);
+        List<Thread> threads = Lists.newArrayList();
+        for (int w = 0; w < numWriters; w++) {
+            // each writer has its own tablets, so the tablets are not added twice
+            long firstTabletId = 100000L * (w + 1);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int round = 0; round < 20; round++) {
+                        for (long tabletId = firstTabletId; tabletId < firstTabletId + 2000; tabletId++) {
+                            addTablet(invertedIndex, tabletId, churnMeta);
+                        }
+                        for (long tabletId = firstTabletId; tabletId < firstTabletId + 2000; tabletId++) {
+                            if (tabletId % 2 == 0) {
+                                invertedIndex.deleteReplica(tabletId, BACKEND_IDS[0]);
+                            }
+                            invertedIndex.deleteTablet(tabletId);
+                        }
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    writersDone.countDown();
+                }
+            }));
+        }
+        for (int r = 0; r < numReaders; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (!stopped.get()) {
+                        for (long tabletId = 1; tabletId <= numStableTablets; tabletId++) {
+                            Assert.assertSame(stableMeta, invertedIndex.getTabletMeta(tabletId));
+                            Assert.assertEquals(BACKEND_IDS.length,
+                                    invertedIndex.getReplicasByTabletId(tabletId).size());
+                            for (int i = 0; i < BACKEND_IDS.length; i++) {
+                                Replica replica = invertedIndex.getReplica(tabletId, BACKEND_IDS[i]);
+                                Assert.assertEquals(tabletId * 10 + i, replica.getId());
+                                Assert.assertEquals(Long.valueOf(tabletId),
+                                        invertedIndex.getTabletIdByReplica(tabletId * 10 + i));
+                            }
+                        }
+                        // the tablets being added or deleted are either found or not, but never broken
+                        TabletMeta tabletMeta = invertedIndex.getTabletMeta(100000L);
+                        Assert.assertTrue(tabletMeta == null || tabletMeta == churnMeta);
+                        Assert.assertTrue(invertedIndex.getReplicasByTabletId(100001L).size() <= BACKEND_IDS.length);
+                        Long tabletId = invertedIndex.getTabletIdByReplica(1000010L);
+                        Assert.assertTrue(tabletId == null || tabletId == 100001L);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        writersDone.await();
+        stopped.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+
+        // only the stable tablets are left
+        for (long backendId : BACKEND_IDS) {
+            Assert.assertEquals(numStableTablets, invertedIndex.getTabletNumByBackendId(backendId));
+        }
+        Assert.assertNull(invertedIndex.getTabletMeta(100000L));
+        Assert.assertNull(invertedIndex.getTabletIdByReplica(1000010L));
+    }
+}
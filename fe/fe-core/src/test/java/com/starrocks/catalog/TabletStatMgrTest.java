@@ -86,4 +86,46 @@ public class TabletStatMgrTest {
         Assert.assertEquals(200L, replica.getDataSize());
         Assert.assertEquals(201L, replica.getRowCount());
     }
+
+    @Test
+    public void testUpdateIndexRowCount(@Mocked GlobalStateMgr globalStateMgr) {
+        long partitionId = 3L;
+        long indexId = 4L;
+        List<Column> columns = Lists.newArrayList(new Column("k1", Type.INT, true, null, "", ""));
+        DistributionInfo distributionInfo = new HashDistributionInfo(2, Lists.newArrayList(columns.get(0)));
+        PartitionInfo partitionInfo = new SinglePartitionInfo();
+        partitionInfo.setDataProperty(partitionId, new DataProperty(TStorageMedium.HDD));
+        partitionInfo.setReplicationNum(partitionId, (short) 2);
+
+        // the row count of a tablet is the max row count of its replicas catching up the visible version
+        MaterializedIndex index = new MaterializedIndex(indexId, MaterializedIndex.IndexState.NORMAL);
+        TabletMeta tabletMeta = new TabletMeta(1L, 2L, partitionId, indexId, 0, TStorageMedium.HDD);
+        long[][] replicaRows = {{10L, 12L}, {20L, 5L}};
+        for (int i = 0; i < replicaRows.length; i++) {
+            LocalTablet tablet = new LocalTablet(100L + i);
+            for (int j = 0; j < replicaRows[i].length; j++) {
+                Replica replica = new Replica(200L + i * 10 + j, 300L + j, Replica.ReplicaState.NORMAL, 2L, 0);
+                replica.updateStat(1024L, replicaRows[i][j]);
+                tablet.addReplica(replica, true);
+            }
+            index.addTablet(tablet, tabletMeta, true);
+        }
+        // lagging behind the visible version, not counted
+        LocalTablet laggingTablet = new LocalTablet(102L);
+        Replica laggingReplica = new Replica(220L, 300L, Replica.ReplicaState.NORMAL, 1L, 0);
+        laggingReplica.updateStat(1024L, 100L);
+        laggingTablet.addReplica(laggingReplica, true);
+        index.addTablet(laggingTablet, tabletMeta, true);
+
+        Partition partition = new Partition(partitionId, "p1", index, distributionInfo);
+        partition.updateVisibleVersion(2L);
+        OlapTable table = new OlapTable(2L, "t1", columns, KeysType.DUP_KEYS, partitionInfo, distributionInfo);
+        table.addPartition(partition);
+        Database db = new Database();
+        db.createTable(table);
+
+        Deencapsulation.invoke(new TabletStatMgr(), "updateIndexRowCount", db);
+        Assert.assertEquals(32L, index.getRowCount());
+        Assert.assertFalse(db.isWriteLockHeldByCurrentThread());
+    }
 }
\ No newline at end of file
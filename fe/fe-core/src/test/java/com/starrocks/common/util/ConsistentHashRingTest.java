@@ -0,0 +1,76 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ConsistentHashRingTest {
+    private static List<Long> nodes(int num) {
+        List<Long> nodes = new ArrayList<>();
+        for (long i = 0; i < num; i++) {
+            nodes.add(10000 + i);
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testGetNode() {
+        ConsistentHashRing<Long> ring = new ConsistentHashRing<>(nodes(10), String::valueOf, 128);
+        ConsistentHashRing<Long> another = new ConsistentHashRing<>(Lists.reverse(nodes(10)), String::valueOf, 128);
+        Map<Long, Integer> keysPerNode = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            String key = "hdfs://path/file_" + i + ":0";
+            Long node = ring.getNode(key);
+            // the same on the rings of the same nodes
+            Assert.assertEquals(node, another.getNode(key));
+            keysPerNode.merge(node, 1, Integer::sum);
+        }
+        Assert.assertEquals(10, keysPerNode.size());
+        for (int keys : keysPerNode.values()) {
+            Assert.assertTrue(String.valueOf(keys), keys > 500 && keys < 1500);
+        }
+
+        Assert.assertNull(new ConsistentHashRing<Long>(new ArrayList<>(), String::valueOf, 128).getNode("a"));
+    }
+
+    @Test
+    public void testGetNodes() {
+        ConsistentHashRing<Long> ring = new ConsistentHashRing<>(nodes(10), String::valueOf, 16);
+        Iterator<Long> iterator = ring.getNodes("hdfs://path/file:0");
+        Set<Long> visited = new HashSet<>();
+        while (iterator.hasNext()) {
+            Assert.assertTrue(visited.add(iterator.next()));
+        }
+        Assert.assertEquals(new HashSet<>(nodes(10)), visited);
+    }
+
+    @Test
+    public void testRemoveNode() {
+        List<Long> nodes = nodes(10);
+        ConsistentHashRing<Long> ring = new ConsistentHashRing<>(nodes, String::valueOf, 128);
+        Long removed = nodes.remove(3);
+        ConsistentHashRing<Long> removedRing = new ConsistentHashRing<>(nodes, String::valueOf, 128);
+        for (int i = 0; i < 10000; i++) {
+            String key = "hdfs://path/file_" + i + ":0";
+            Iterator<Long> candidates = ring.getNodes(key);
+            Long node = candidates.next();
+            if (node.equals(removed)) {
+                // moves to the next node on the ring
+                Assert.assertEquals(candidates.next(), removedRing.getNode(key));
+            } else {
+                // only the keys of the removed node move
+                Assert.assertEquals(node, removedRing.getNode(key));
+            }
+        }
+    }
+}
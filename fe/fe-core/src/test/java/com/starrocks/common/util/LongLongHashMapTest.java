@@ -0,0 +1,126 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.starrocks.common.jmockit.Deencapsulation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LongLongHashMapTest {
+
+    private static int capacity(LongLongHashMap map) {
+        long[] keys = Deencapsulation.getField(map, "keys");
+        return keys.length;
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongLongHashMap map = new LongLongHashMap();
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertEquals(-1L, map.get(0, -1L));
+
+        map.put(0, 0);
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertEquals(0L, map.get(0, -1L));
+        Assert.assertEquals(1, map.size());
+        map.put(0, 5);
+        Assert.assertEquals(5L, map.get(0, -1L));
+        Assert.assertEquals(1, map.size());
+
+        Assert.assertTrue(map.remove(0));
+        Assert.assertFalse(map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testCollidedKeys() {
+        LongLongHashMap map = new LongLongHashMap();
+        int mask = capacity(map) - 1;
+        // the keys probing from the same slot
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < 3; key++) {
+            if ((LongObjectHashMap.hash(key) & mask) == 0) {
+                keys.add(key);
+            }
+        }
+        for (long key : keys) {
+            map.put(key, key * 10);
+        }
+        Assert.assertEquals(4, capacity(map));
+
+        // the keys after the removed one are still found
+        Assert.assertTrue(map.remove(keys.get(0)));
+        Assert.assertFalse(map.containsKey(keys.get(0)));
+        Assert.assertEquals(keys.get(1) * 10, map.get(keys.get(1), -1L));
+        Assert.assertEquals(keys.get(2) * 10, map.get(keys.get(2), -1L));
+        Assert.assertFalse(map.remove(keys.get(0)));
+        Assert.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testResize() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key = 1; key <= 10000; key++) {
+            map.put(key, -key);
+        }
+        Assert.assertEquals(10000, map.size());
+        Assert.assertEquals(16384, capacity(map));
+        for (long key = 1; key <= 10000; key++) {
+            Assert.assertEquals(-key, map.get(key, 0));
+        }
+
+        // shrink when most of the keys are removed
+        for (long key = 1; key <= 9990; key++) {
+            Assert.assertTrue(map.remove(key));
+        }
+        Assert.assertEquals(10, map.size());
+        Assert.assertTrue(capacity(map) < 16384);
+        for (long key = 1; key <= 10000; key++) {
+            Assert.assertEquals(key > 9990 ? -key : 0, map.get(key, 0));
+        }
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(4, capacity(map));
+        Assert.assertEquals(16, capacity(new LongLongHashMap(10)));
+    }
+
+    @Test
+    public void testGetWhileModifying() throws InterruptedException {
+        LongLongHashMap map = new LongLongHashMap();
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Random random = new Random(1);
+            try {
+                while (!stopped.get()) {
+                    // the result is not checked, it's garbage unless the read is validated by a lock
+                    map.get(random.nextInt(2000), -1L);
+                }
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+
+        Random random = new Random(0);
+        for (int i = 0; i < 1000000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                map.put(key, key);
+            } else {
+                map.remove(key);
+            }
+        }
+        stopped.set(true);
+        reader.join();
+        Assert.assertNull(error.get());
+    }
+}
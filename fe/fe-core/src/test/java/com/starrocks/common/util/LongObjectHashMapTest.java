@@ -0,0 +1,60 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        LongLongHashMap longMap = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            // small key range to have collisions, removals and key 0
+            long key = random.nextInt(5000) - 100;
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                Assert.assertEquals(removed == null ? null : String.valueOf(removed), map.remove(key));
+                Assert.assertEquals(removed != null, longMap.remove(key));
+            } else {
+                long value = random.nextLong();
+                Long previous = expected.put(key, value);
+                Assert.assertEquals(previous == null ? null : String.valueOf(previous),
+                        map.put(key, String.valueOf(value)));
+                longMap.put(key, value);
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected.size(), longMap.size());
+        }
+
+        for (long key = -100; key < 4900; key++) {
+            Long value = expected.get(key);
+            Assert.assertEquals(value == null ? null : String.valueOf(value), map.get(key));
+            Assert.assertEquals(value != null, map.containsKey(key));
+            Assert.assertEquals(value == null ? -1L : value, longMap.get(key, -1L));
+            Assert.assertEquals(value != null, longMap.containsKey(key));
+        }
+
+        int count = 0;
+        for (LongObjectHashMap<String>.Cursor cursor = map.cursor(); cursor.advance(); ) {
+            Assert.assertEquals(String.valueOf(expected.get(cursor.key())), cursor.value());
+            count++;
+        }
+        Assert.assertEquals(expected.size(), count);
+
+        map.clear();
+        longMap.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertNull(map.get(1));
+        Assert.assertEquals(-1L, longMap.get(0, -1L));
+    }
+}
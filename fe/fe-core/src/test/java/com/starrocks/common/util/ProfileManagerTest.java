@@ -0,0 +1,72 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.starrocks.common.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+public class ProfileManagerTest {
+    private long originalMaxBytes;
+
+    @Before
+    public void setUp() {
+        originalMaxBytes = Config.profile_info_max_bytes;
+    }
+
+    @After
+    public void tearDown() {
+        Config.profile_info_max_bytes = originalMaxBytes;
+    }
+
+    private static RuntimeProfile createProfile(String queryId) {
+        RuntimeProfile profile = new RuntimeProfile("Query");
+        RuntimeProfile summaryProfile = new RuntimeProfile("Summary");
+        summaryProfile.addInfoString(ProfileManager.QUERY_ID, queryId);
+        summaryProfile.addInfoString(ProfileManager.SQL_STATEMENT, "select * from t");
+        profile.addChild(summaryProfile);
+        RuntimeProfile fragmentProfile = new RuntimeProfile("Fragment 0");
+        for (int i = 0; i < 100; i++) {
+            fragmentProfile.addInfoString("Info" + i, "value" + i);
+        }
+        profile.addChild(fragmentProfile);
+        return profile;
+    }
+
+    @Test
+    public void testPushAndGetProfile() {
+        ProfileManager manager = ProfileManager.getInstance();
+        String queryId = UUID.randomUUID().toString();
+        RuntimeProfile profile = createProfile(queryId);
+        String profileContent = manager.pushProfile(profile);
+        Assert.assertEquals(profile.toString(), profileContent);
+        Assert.assertEquals(profileContent, manager.getProfile(queryId));
+        Assert.assertNull(manager.getProfile(UUID.randomUUID().toString()));
+
+        List<String> latest = manager.getAllQueries().get(0);
+        Assert.assertEquals(queryId, latest.get(ProfileManager.PROFILE_HEADERS.indexOf(ProfileManager.QUERY_ID)));
+    }
+
+    @Test
+    public void testBytesLimit() {
+        ProfileManager manager = ProfileManager.getInstance();
+        String firstQueryId = UUID.randomUUID().toString();
+        String profileContent = manager.pushProfile(createProfile(firstQueryId));
+        // kept compressed
+        Assert.assertTrue(manager.getProfileBytes() > 0);
+
+        Config.profile_info_max_bytes = 1;
+        String secondQueryId = UUID.randomUUID().toString();
+        manager.pushProfile(createProfile(secondQueryId));
+        // the latest one is kept even if it exceeds the limit alone
+        Assert.assertNull(manager.getProfile(firstQueryId));
+        Assert.assertNotNull(manager.getProfile(secondQueryId));
+        Assert.assertEquals(1, manager.getAllQueries().size());
+        Assert.assertTrue(manager.getProfileBytes() < profileContent.length());
+    }
+}
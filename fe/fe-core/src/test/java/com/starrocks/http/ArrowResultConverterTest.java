@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.http;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Type;
+import com.starrocks.http.rest.ArrowResultConverter;
+import com.starrocks.mysql.MysqlSerializer;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ArrowResultConverterTest {
+    private static final List<String> COL_NAMES =
+            Lists.newArrayList("k1", "k2", "k3", "k4", "k5", "k6", "k7", "k8");
+    private static final List<Type> TYPES = Lists.newArrayList(Type.INT, Type.BIGINT, Type.BOOLEAN, Type.DOUBLE,
+            ScalarType.createDecimalV3Type(PrimitiveType.DECIMAL64, 10, 2), Type.DATE, Type.DATETIME, Type.VARCHAR);
+
+    // a result row in text protocol, null for NULL
+    private static ByteBuffer textRow(String... values) {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        for (String value : values) {
+            if (value == null) {
+                serializer.writeInt1(0xFB);
+            } else {
+                serializer.writeLenEncodedString(value);
+            }
+        }
+        return serializer.toByteBuffer();
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BufferAllocator allocator = new RootAllocator()) {
+            try (ArrowResultConverter converter = new ArrowResultConverter(COL_NAMES, TYPES, allocator)) {
+                out.write(converter.start());
+                out.write(converter.convert(Lists.newArrayList(
+                        textRow("1", "10000000000", "1", "1.5", "12.3", "2022-01-02", "2022-01-02 03:04:05", "abc"),
+                        textRow(null, null, null, null, null, null, null, null))));
+                out.write(converter.convert(Lists.newArrayList(
+                        textRow("-2", "-3", "0", "nan", "-0.05", "1970-01-01", "1970-01-01 00:00:00.000001", ""))));
+                out.write(converter.end());
+            }
+
+            try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()),
+                    allocator)) {
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                Assert.assertEquals(COL_NAMES.size(), root.getSchema().getFields().size());
+                Assert.assertEquals("k5", root.getSchema().getFields().get(4).getName());
+                Assert.assertEquals(new ArrowType.Decimal(10, 2, 128), root.getSchema().getFields().get(4).getType());
+
+                Assert.assertTrue(reader.loadNextBatch());
+                Assert.assertEquals(2, root.getRowCount());
+                Assert.assertEquals(1, ((IntVector) root.getVector(0)).get(0));
+                Assert.assertEquals(10000000000L, ((BigIntVector) root.getVector(1)).get(0));
+                Assert.assertEquals(1, ((BitVector) root.getVector(2)).get(0));
+                Assert.assertEquals(1.5, ((Float8Vector) root.getVector(3)).get(0), 0);
+                Assert.assertEquals(new BigDecimal("12.30"), ((DecimalVector) root.getVector(4)).getObject(0));
+                Assert.assertEquals(LocalDate.of(2022, 1, 2).toEpochDay(), ((DateDayVector) root.getVector(5)).get(0));
+                Assert.assertEquals(1641092645000000L, ((TimeStampMicroVector) root.getVector(6)).get(0));
+                Assert.assertEquals("abc", ((VarCharVector) root.getVector(7)).getObject(0).toString());
+                for (int i = 0; i < COL_NAMES.size(); i++) {
+                    Assert.assertTrue(root.getVector(i).isNull(1));
+                }
+
+                Assert.assertTrue(reader.loadNextBatch());
+                Assert.assertEquals(1, root.getRowCount());
+                Assert.assertEquals(-2, ((IntVector) root.getVector(0)).get(0));
+                Assert.assertEquals(0, ((BitVector) root.getVector(2)).get(0));
+                Assert.assertTrue(Double.isNaN(((Float8Vector) root.getVector(3)).get(0)));
+                Assert.assertEquals(new BigDecimal("-0.05"), ((DecimalVector) root.getVector(4)).getObject(0));
+                Assert.assertEquals(0, ((DateDayVector) root.getVector(5)).get(0));
+                Assert.assertEquals(1L, ((TimeStampMicroVector) root.getVector(6)).get(0));
+                Assert.assertEquals("", ((VarCharVector) root.getVector(7)).getObject(0).toString());
+
+                Assert.assertFalse(reader.loadNextBatch());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.starrocks.persist.DropPartitionInfo;
+import com.starrocks.persist.EditLog;
+import com.starrocks.persist.OperationType;
+import com.starrocks.server.GlobalStateMgr;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ParallelJournalReplayerTest {
+    @Mocked
+    private GlobalStateMgr globalStateMgr;
+
+    private static JournalEntity dropPartition(long dbId, String partitionName) {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_DROP_PARTITION);
+        entity.setData(new DropPartitionInfo(dbId, 1L, partitionName, false, false));
+        return entity;
+    }
+
+    private static JournalEntity barrier() {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_CREATE_DB);
+        return entity;
+    }
+
+    @Test
+    public void testGetDbId() {
+        Assert.assertEquals(10, ParallelJournalReplayer.getDbId(dropPartition(10, "p1")));
+        Assert.assertEquals(-1, ParallelJournalReplayer.getDbId(barrier()));
+    }
+
+    @Test
+    public void testReplayInOrderPerDatabase() throws Exception {
+        List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                if (journal.getOpCode() == OperationType.OP_DROP_PARTITION) {
+                    DropPartitionInfo info = (DropPartitionInfo) journal.getData();
+                    replayed.add(info.getDbId() + ":" + info.getPartitionName());
+                } else {
+                    replayed.add("barrier");
+                }
+            }
+        };
+
+        ParallelJournalReplayer replayer = new ParallelJournalReplayer(4);
+        int replayedNum = 0;
+        for (int i = 0; i < 100; i++) {
+            replayedNum += replayer.replay(globalStateMgr, dropPartition(i % 8, "p" + i));
+        }
+        // the journals before the barrier are all replayed before it
+        replayedNum += replayer.replay(globalStateMgr, barrier());
+        Assert.assertEquals(101, replayedNum);
+        Assert.assertEquals(101, replayed.size());
+        Assert.assertEquals("barrier", replayed.get(100));
+
+        replayer.replay(globalStateMgr, dropPartition(1, "p100"));
+        Assert.assertEquals(1, replayer.waitPendingReplays());
+        Assert.assertEquals(0, replayer.waitPendingReplays());
+
+        Map<String, Integer> lastPartitionOfDb = new HashMap<>();
+        for (String replay : replayed.subList(0, 100)) {
+            String[] parts = replay.split(":");
+            int partition = Integer.parseInt(parts[1].substring(1));
+            Integer last = lastPartitionOfDb.put(parts[0], partition);
+            Assert.assertTrue(last == null || last < partition);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class MysqlBinaryProtoTest {
+
+    @Test
+    public void testReadParameter() {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(0xFF);
+        serializer.writeInt1(0xFF);
+        serializer.writeInt4(-2);
+        serializer.writeInt8(-1);
+        serializer.writeInt8(Double.doubleToLongBits(1.5));
+        serializer.writeLenEncodedString("it's");
+        // datetime with micro second
+        serializer.writeInt1(11);
+        serializer.writeInt2(2022);
+        serializer.writeInt1(3);
+        serializer.writeInt1(4);
+        serializer.writeInt1(5);
+        serializer.writeInt1(6);
+        serializer.writeInt1(7);
+        serializer.writeInt4(8);
+        // date
+        serializer.writeInt1(4);
+        serializer.writeInt2(2022);
+        serializer.writeInt1(12);
+        serializer.writeInt1(31);
+        serializer.writeLenEncodedString("12.50");
+
+        ByteBuffer buffer = serializer.toByteBuffer();
+        Assert.assertEquals("-1", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_TINY, false));
+        Assert.assertEquals("255", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_TINY, true));
+        Assert.assertEquals("-2", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_LONG, false));
+        Assert.assertEquals("18446744073709551615",
+                MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_LONGLONG, true));
+        Assert.assertEquals("1.5", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_DOUBLE, false));
+        Assert.assertEquals("'it\\'s'",
+                MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_VAR_STRING, false));
+        Assert.assertEquals("'2022-03-04 05:06:07.000008'",
+                MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_DATETIME, false));
+        Assert.assertEquals("'2022-12-31'", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_DATE, false));
+        Assert.assertEquals("12.50", MysqlBinaryProto.readParameter(buffer, MysqlColType.MYSQL_TYPE_NEWDECIMAL, false));
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testWriteBinaryRow() {
+        MysqlSerializer text = MysqlSerializer.newInstance();
+        text.writeLenEncodedString("7");
+        text.writeNull();
+        text.writeLenEncodedString("abc");
+        text.writeLenEncodedString("2.5");
+        text.writeLenEncodedString("2022-01-02 03:04:05");
+        List<MysqlColType> types = Lists.newArrayList(MysqlColType.MYSQL_TYPE_LONGLONG,
+                MysqlColType.MYSQL_TYPE_LONG, MysqlColType.MYSQL_TYPE_VAR_STRING,
+                MysqlColType.MYSQL_TYPE_DOUBLE, MysqlColType.MYSQL_TYPE_DATETIME);
+
+        MysqlSerializer binary = MysqlSerializer.newInstance();
+        MysqlBinaryProto.writeBinaryRow(binary, text.toByteBuffer(), types);
+        ByteBuffer buffer = binary.toByteBuffer();
+
+        // header
+        Assert.assertEquals(0x00, MysqlProto.readInt1(buffer));
+        // null bitmap, (5 + 7 + 2) / 8 bytes, the second column is null
+        Assert.assertEquals(1 << 3, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(7L, MysqlProto.readInt8(buffer));
+        Assert.assertEquals("abc", new String(MysqlProto.readLenEncodedString(buffer)));
+        Assert.assertEquals(2.5, Double.longBitsToDouble(MysqlProto.readInt8(buffer)), 0);
+        Assert.assertEquals(7, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(2022, MysqlProto.readInt2(buffer));
+        Assert.assertEquals(1, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(2, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(3, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(4, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(5, MysqlProto.readInt1(buffer));
+        Assert.assertEquals(0, buffer.remaining());
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -255,6 +256,147 @@ public class MysqlChannelTest {
         channel1.sendOnePacket(buf);
     }
 
+    @Test
+    public void testCompressed() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new Expectations() {
+            {
+                channel.write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeWrite(ByteBuffer buffer) {
+                        int writeLen = buffer.remaining();
+                        byte[] bytes = new byte[writeLen];
+                        buffer.get(bytes);
+                        written.write(bytes, 0, writeLen);
+                        return writeLen;
+                    }
+                };
+            }
+        };
+
+        byte[] large = new byte[100000];
+        for (int i = 0; i < large.length; ++i) {
+            large[i] = (byte) ('a' + i % 8);
+        }
+        byte[] small = new byte[] {1, 2, 3};
+        MysqlChannel sender = new MysqlChannel(channel);
+        sender.setCompressed(true);
+        sender.sendOnePacket(ByteBuffer.wrap(large));
+        sender.sendOnePacket(ByteBuffer.wrap(small));
+        sender.flush();
+        // a small packet alone is not compressed
+        sender.sendAndFlush(ByteBuffer.wrap(small));
+        Assert.assertTrue(written.size() < large.length / 10);
+
+        ByteBuffer received = ByteBuffer.wrap(written.toByteArray());
+        new Expectations() {
+            {
+                channel.read((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeRead(ByteBuffer buffer) {
+                        if (!received.hasRemaining()) {
+                            return -1;
+                        }
+                        int len = Math.min(buffer.remaining(), received.remaining());
+                        byte[] bytes = new byte[len];
+                        received.get(bytes);
+                        buffer.put(bytes);
+                        return len;
+                    }
+                };
+            }
+        };
+        MysqlChannel receiver = new MysqlChannel(channel);
+        receiver.setCompressed(true);
+        Assert.assertEquals(ByteBuffer.wrap(large), receiver.fetchOnePacket());
+        Assert.assertEquals(ByteBuffer.wrap(small), receiver.fetchOnePacket());
+        Assert.assertEquals(ByteBuffer.wrap(small), receiver.fetchOnePacket());
+        Assert.assertNull(receiver.fetchOnePacket());
+    }
+
+    @Test
+    public void testCompressedBufferedData() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new Expectations() {
+            {
+                channel.write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeWrite(ByteBuffer buffer) {
+                        int writeLen = buffer.remaining();
+                        byte[] bytes = new byte[writeLen];
+                        buffer.get(bytes);
+                        written.write(bytes, 0, writeLen);
+                        return writeLen;
+                    }
+                };
+            }
+        };
+        MysqlChannel sender = new MysqlChannel(channel);
+        sender.setCompressed(true);
+        // two packets in one compressed packet
+        sender.sendOnePacket(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        sender.sendOnePacket(ByteBuffer.wrap(new byte[] {4, 5}));
+        sender.flush();
+
+        ByteBuffer received = ByteBuffer.wrap(written.toByteArray());
+        new Expectations() {
+            {
+                channel.read((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeRead(ByteBuffer buffer) {
+                        if (!received.hasRemaining()) {
+                            return -1;
+                        }
+                        int len = Math.min(buffer.remaining(), received.remaining());
+                        byte[] bytes = new byte[len];
+                        received.get(bytes);
+                        buffer.put(bytes);
+                        return len;
+                    }
+                };
+            }
+        };
+        MysqlChannel receiver = new MysqlChannel(channel);
+        receiver.setCompressed(true);
+        Assert.assertFalse(receiver.hasBufferedData());
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), receiver.fetchOnePacket());
+        // the second packet has been received with the first one
+        Assert.assertTrue(receiver.hasBufferedData());
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] {4, 5}), receiver.fetchOnePacket());
+        Assert.assertFalse(receiver.hasBufferedData());
+    }
+
+    @Test
+    public void testReleaseSendBuffer() throws IOException {
+        new Expectations() {
+            {
+                channel.write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeWrite(ByteBuffer buffer) {
+                        int writeLen = buffer.remaining();
+                        buffer.position(buffer.limit());
+                        return writeLen;
+                    }
+                };
+            }
+        };
+
+        MysqlChannel channel1 = new MysqlChannel(channel);
+        channel1.sendAndFlush(ByteBuffer.allocate(1000));
+        Assert.assertFalse(channel1.isSendBufferNull());
+
+        channel1.releaseSendBuffer();
+        Assert.assertTrue(channel1.isSendBufferNull());
+        // allocated again by the next packet
+        channel1.sendAndFlush(ByteBuffer.allocate(1000));
+        Assert.assertFalse(channel1.isSendBufferNull());
+    }
+
     @Test(expected = IOException.class)
     public void testSendException() throws IOException {
         // mock
@@ -76,7 +76,8 @@ public class MysqlHandshakePacketTest {
         Assert.assertEquals(0, MysqlProto.readInt2(buffer));
         // capability flags
         flags |= MysqlProto.readInt2(buffer) << 16;
-        Assert.assertEquals(MysqlCapability.DEFAULT_CAPABILITY.getFlags(), flags);
+        // compression is enabled by default
+        Assert.assertEquals(MysqlCapability.COMPRESS_CAPABILITY.getFlags(), flags);
         // length of plugin data
         Assert.assertEquals(21, MysqlProto.readInt1(buffer));
         // length of plugin data
@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql.nio;
+
+import com.starrocks.common.Config;
+import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xnio.StreamConnection;
+import org.xnio.channels.Channels;
+import org.xnio.channels.SuspendableWriteChannel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+public class NMysqlChannelTest {
+    @Mocked
+    private StreamConnection connection;
+
+    private NMysqlChannel createChannel() {
+        new Expectations() {
+            {
+                connection.getPeerAddress();
+                minTimes = 0;
+                result = new InetSocketAddress("127.0.0.1", 12345);
+            }
+        };
+        return new NMysqlChannel(connection);
+    }
+
+    @Test
+    public void testReadTimeout() {
+        // the client sends nothing
+        new MockUp<Channels>() {
+            @Mock
+            public int readBlocking(ReadableByteChannel channel, ByteBuffer buffer, long time, TimeUnit unit)
+                    throws InterruptedException {
+                Thread.sleep(Math.min(unit.toMillis(time), 100L));
+                return 0;
+            }
+        };
+        int oldTimeoutSecond = Config.mysql_nio_read_timeout_second;
+        Config.mysql_nio_read_timeout_second = 1;
+        try {
+            NMysqlChannel channel = createChannel();
+            long startMs = System.currentTimeMillis();
+            try {
+                channel.fetchOnePacket();
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("timeout after 1 seconds"));
+            }
+            Assert.assertTrue(System.currentTimeMillis() - startMs >= 1000L);
+        } finally {
+            Config.mysql_nio_read_timeout_second = oldTimeoutSecond;
+        }
+    }
+
+    @Test
+    public void testReleaseSendBuffer() throws IOException {
+        new MockUp<Channels>() {
+            @Mock
+            public int writeBlocking(WritableByteChannel channel, ByteBuffer buffer) {
+                int len = buffer.remaining();
+                buffer.position(buffer.limit());
+                return len;
+            }
+
+            @Mock
+            public void flushBlocking(SuspendableWriteChannel channel) {
+            }
+        };
+        NMysqlChannel channel = createChannel();
+        // the handshake
+        channel.sendAndFlush(ByteBuffer.allocate(100));
+        long nowMs = System.currentTimeMillis() + 3600 * 1000L;
+        channel.releaseSendBufferIfIdle(nowMs);
+        Assert.assertFalse(channel.isSendBufferNull());
+
+        // the buffer of the default size is kept after a command, until the connection is idle for a while
+        channel.finishProcessing();
+        Assert.assertFalse(channel.isSendBufferNull());
+        channel.releaseSendBufferIfIdle(System.currentTimeMillis());
+        Assert.assertFalse(channel.isSendBufferNull());
+        channel.releaseSendBufferIfIdle(nowMs);
+        Assert.assertTrue(channel.isSendBufferNull());
+
+        // the large buffer of a large result set is released after the command
+        channel.startProcessing();
+        channel.initBuffer(1024 * 1024);
+        channel.sendAndFlush(ByteBuffer.allocate(100));
+        channel.finishProcessing();
+        Assert.assertTrue(channel.isSendBufferNull());
+    }
+}
@@ -0,0 +1,54 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImageSectionsTest {
+
+    @Test
+    public void testDirtySections() {
+        ImageSections.startTracking(101);
+        // the journals before this master are unknown
+        Assert.assertNull(ImageSections.getDirtySections(90));
+        Assert.assertTrue(ImageSections.getDirtySections(100).isEmpty());
+
+        ImageSections.markDirty(OperationType.OP_TIMESTAMP, 101);
+        ImageSections.markDirty(OperationType.OP_HEARTBEAT_V2, 102);
+        ImageSections.markDirty(OperationType.OP_CREATE_USER, 103);
+        Assert.assertEquals(Sets.newHashSet(ImageSections.NODES, ImageSections.AUTH),
+                ImageSections.getDirtySections(100));
+        Assert.assertEquals(Sets.newHashSet(ImageSections.AUTH), ImageSections.getDirtySections(102));
+
+        // may change any section
+        ImageSections.markDirty(OperationType.OP_CREATE_DB, 104);
+        Assert.assertNull(ImageSections.getDirtySections(103));
+        Assert.assertTrue(ImageSections.getDirtySections(104).isEmpty());
+
+        // loads and replicas change the databases, but not the other modules
+        ImageSections.markDirty(OperationType.OP_UPSERT_TRANSACTION_STATE, 105);
+        ImageSections.markDirty(OperationType.OP_ADD_REPLICA, 106);
+        ImageSections.markDirty(OperationType.OP_ADD_PARTITION, 107);
+        Assert.assertEquals(Sets.newHashSet(ImageSections.TRANSACTIONS, ImageSections.DATABASES,
+                        ImageSections.ANALYZE, ImageSections.LOAD_JOBS_V2, ImageSections.ROUTINE_LOAD_JOBS,
+                        ImageSections.RECYCLE_BIN),
+                ImageSections.getDirtySections(104));
+        Assert.assertEquals(Sets.newHashSet(ImageSections.DATABASES), ImageSections.getDirtySections(106));
+
+        ImageSections.startTracking(201);
+        Assert.assertNull(ImageSections.getDirtySections(104));
+    }
+
+    @Test
+    public void testSectionsToLoad() {
+        Assert.assertEquals(Sets.newHashSet(ImageSections.HEADER),
+                ImageSections.getSectionsToLoad(Sets.newHashSet()));
+        Assert.assertEquals(Sets.newHashSet(ImageSections.HEADER, ImageSections.AUTH),
+                ImageSections.getSectionsToLoad(Sets.newHashSet(ImageSections.AUTH)));
+        Assert.assertEquals(Sets.newHashSet(ImageSections.HEADER, ImageSections.DATABASES, ImageSections.RECYCLE_BIN,
+                        ImageSections.TRANSACTIONS, ImageSections.LOAD_JOBS_V2),
+                ImageSections.getSectionsToLoad(Sets.newHashSet(ImageSections.LOAD_JOBS_V2)));
+    }
+}
@@ -0,0 +1,146 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SectionedImageTest {
+    private File dir;
+    private File imageFile;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sectioned_image").toFile();
+        imageFile = new File(dir, "image.100");
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    private static SectionedImage.Section intSection(int id, int phase, int value, Map<Integer, Integer> loaded) {
+        return new SectionedImage.Section(id, "section" + id, phase,
+                dis -> loaded.put(id, dis.readInt()),
+                dos -> {
+                    dos.writeInt(value);
+                    // some bytes which are not read by the loader
+                    dos.write(new byte[id * 100]);
+                });
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        AtomicBoolean firstPhaseDone = new AtomicBoolean(false);
+        List<SectionedImage.Section> sections = Lists.newArrayList(
+                intSection(3, 1, 30, loaded),
+                intSection(1, 0, 10, loaded),
+                intSection(2, 1, 20, loaded),
+                new SectionedImage.Section(4, "phase2", 2,
+                        dis -> {
+                            // all the sections of previous phases are loaded
+                            firstPhaseDone.set(loaded.size() == 3);
+                            loaded.put(4, dis.readInt());
+                        },
+                        dos -> dos.writeInt(40)));
+        // the temporary file of another save is not touched
+        File otherTmpFile = new File(dir, ".section.99.1.tmp");
+        Assert.assertTrue(otherTmpFile.createNewFile());
+        SectionedImage.save(imageFile, 100, sections, executor);
+        Assert.assertTrue(SectionedImage.isSectionedImage(imageFile));
+        // the temporary files are removed
+        Assert.assertEquals(2, dir.listFiles().length);
+        Assert.assertTrue(otherTmpFile.exists());
+        Assert.assertEquals(0, otherTmpFile.length());
+
+        SectionedImage.load(imageFile, sections, executor);
+        Assert.assertEquals(4, loaded.size());
+        for (int id = 1; id <= 4; id++) {
+            Assert.assertEquals(id * 10, (int) loaded.get(id));
+        }
+        Assert.assertTrue(firstPhaseDone.get());
+    }
+
+    @Test
+    public void testSaveBasedOnImage() throws Exception {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        File baseImage = new File(dir, "image.50");
+        SectionedImage.save(baseImage, 50, Lists.newArrayList(intSection(1, 0, 10, loaded),
+                intSection(2, 0, 20, loaded), intSection(3, 1, 30, loaded)), executor);
+        // section 2 is changed, the others are copied
+        SectionedImage.save(imageFile, 100, Lists.newArrayList(intSection(2, 0, 200, loaded)), baseImage, executor);
+
+        SectionedImage.load(imageFile, Lists.newArrayList(intSection(1, 0, 0, loaded), intSection(2, 0, 0, loaded),
+                intSection(3, 1, 0, loaded)), executor);
+        Assert.assertEquals(3, loaded.size());
+        Assert.assertEquals(10, (int) loaded.get(1));
+        Assert.assertEquals(200, (int) loaded.get(2));
+        Assert.assertEquals(30, (int) loaded.get(3));
+    }
+
+    @Test
+    public void testMissingAndUnknownSections() throws Exception {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        SectionedImage.save(imageFile, 100,
+                Lists.newArrayList(intSection(1, 0, 10, loaded), intSection(2, 0, 20, loaded)), executor);
+        // section 2 is unknown and section 3 is missing
+        SectionedImage.load(imageFile, Lists.newArrayList(intSection(1, 0, 0, loaded), intSection(3, 0, 0, loaded)),
+                executor);
+        Assert.assertEquals(1, loaded.size());
+        Assert.assertEquals(10, (int) loaded.get(1));
+    }
+
+    @Test
+    public void testCorruptedSection() throws Exception {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        List<SectionedImage.Section> sections = Lists.newArrayList(intSection(1, 0, 10, loaded));
+        SectionedImage.save(imageFile, 100, sections, executor);
+        try (RandomAccessFile raf = new RandomAccessFile(imageFile, "rw")) {
+            // a byte in the section data after the magic and the version
+            raf.seek(8 + 4 + 10);
+            raf.writeByte(raf.readByte() + 1);
+        }
+        try {
+            SectionedImage.load(imageFile, sections, executor);
+            Assert.fail("should fail because of checksum mismatch");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause().getMessage().contains("checksum mismatch"));
+        }
+    }
+
+    @Test
+    public void testLegacyImage() throws Exception {
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(imageFile))) {
+            dos.writeInt(-1);
+            dos.writeInt(90);
+            dos.writeInt(1);
+            dos.writeLong(100);
+            dos.writeLong(10000);
+        }
+        Assert.assertFalse(SectionedImage.isSectionedImage(imageFile));
+    }
+}
@@ -5,6 +5,7 @@ package com.starrocks.qe;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.starrocks.analysis.TupleId;
+import com.starrocks.common.Status;
 import com.starrocks.planner.DataPartition;
 import com.starrocks.planner.EmptySetNode;
 import com.starrocks.planner.JoinNode;
@@ -12,10 +13,12 @@ import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.PlanFragmentId;
 import com.starrocks.planner.PlanNodeId;
 import com.starrocks.planner.RuntimeFilterDescription;
+import com.starrocks.system.ComputeNode;
 import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPartitionType;
 import com.starrocks.thrift.TScanRangeParams;
+import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TUniqueId;
 import com.starrocks.utframe.UtFrameUtils;
 import org.apache.commons.compress.utils.Lists;
@@ -331,4 +334,29 @@ public class CoordinatorTest {
                 expectedNumScanRangesList, expectedDriverSeq2NumScanRangesList);
 
     }
+
+    @Test
+    public void testBackendFailureStatus() {
+        Assert.assertTrue(Coordinator.isBackendFailureStatus(new Status(TStatusCode.THRIFT_RPC_ERROR, "rpc failed")));
+        Assert.assertTrue(Coordinator.isBackendFailureStatus(
+                new Status(TStatusCode.INTERNAL_ERROR, "failed to send data to 127.0.0.1")));
+        Assert.assertFalse(Coordinator.isBackendFailureStatus(Status.CANCELLED));
+        Assert.assertFalse(Coordinator.isBackendFailureStatus(new Status(TStatusCode.TIMEOUT, "timeout")));
+        Assert.assertFalse(Coordinator.isBackendFailureStatus(
+                new Status(TStatusCode.MEM_LIMIT_EXCEEDED, "Memory of query exceed limit")));
+        Assert.assertFalse(Coordinator.isBackendFailureStatus(new Status(TStatusCode.ANALYSIS_ERROR, "bad sql")));
+    }
+
+    @Test
+    public void testBackendFailedSince() {
+        ComputeNode backend = new ComputeNode(1L, "127.0.0.1", 9050);
+        backend.setAlive(true);
+        long lastMissingHeartbeatTime = backend.getLastMissingHeartbeatTime();
+        Assert.assertFalse(Coordinator.isBackendFailedSince(backend, lastMissingHeartbeatTime));
+        // missed heartbeat after the query started, though it's alive again
+        Assert.assertTrue(Coordinator.isBackendFailedSince(backend, lastMissingHeartbeatTime - 1));
+
+        backend.setAlive(false);
+        Assert.assertTrue(Coordinator.isBackendFailedSince(backend, lastMissingHeartbeatTime));
+    }
 }
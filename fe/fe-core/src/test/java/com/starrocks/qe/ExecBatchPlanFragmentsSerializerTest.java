@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.thrift.InternalServiceVersion;
+import com.starrocks.thrift.TDataPartition;
+import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
+import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TPartitionType;
+import com.starrocks.thrift.TPlanFragment;
+import com.starrocks.thrift.TPlanFragmentExecParams;
+import com.starrocks.thrift.TUniqueId;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ExecBatchPlanFragmentsSerializerTest {
+    private static TExecPlanFragmentParams createParams(int backendNum) {
+        TExecPlanFragmentParams params = new TExecPlanFragmentParams();
+        params.setProtocol_version(InternalServiceVersion.V1);
+        params.setBackend_num(backendNum);
+        params.setPipeline_dop(4);
+        TPlanFragmentExecParams execParams = new TPlanFragmentExecParams();
+        execParams.setQuery_id(new TUniqueId(1, 2));
+        execParams.setFragment_instance_id(new TUniqueId(3, backendNum));
+        execParams.setPer_node_scan_ranges(Collections.emptyMap());
+        execParams.setPer_exch_num_senders(Collections.emptyMap());
+        execParams.setSender_id(backendNum);
+        execParams.setInstances_number(2);
+        params.setParams(execParams);
+        return params;
+    }
+
+    private static TExecBatchPlanFragmentsParams createRequest(TPlanFragment fragment, TDescriptorTable descTable) {
+        TExecPlanFragmentParams commonParams = createParams(0);
+        commonParams.setFragment(fragment);
+        commonParams.setDesc_tbl(descTable);
+        commonParams.setCoord(new TNetworkAddress("127.0.0.1", 9020));
+        commonParams.setIs_pipeline(true);
+
+        List<TExecPlanFragmentParams> uniqueParams = Lists.newArrayList(createParams(1), createParams(2));
+        TExecBatchPlanFragmentsParams request = new TExecBatchPlanFragmentsParams();
+        request.setCommon_param(commonParams);
+        request.setUnique_param_per_instance(uniqueParams);
+        return request;
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        TPlanFragment fragment = new TPlanFragment();
+        fragment.setPartition(new TDataPartition(TPartitionType.UNPARTITIONED));
+        TDescriptorTable descTable = new TDescriptorTable();
+        descTable.setIs_cached(false);
+        descTable.setTupleDescriptors(new ArrayList<>());
+
+        byte[] serializedFragment = ExecBatchPlanFragmentsSerializer.serialize(fragment);
+        byte[] serializedDescTable = ExecBatchPlanFragmentsSerializer.serialize(descTable);
+
+        TExecBatchPlanFragmentsParams request = createRequest(fragment, descTable);
+        byte[] serialized = ExecBatchPlanFragmentsSerializer.serialize(request, serializedFragment,
+                serializedDescTable);
+        // the shared fields are restored
+        Assert.assertSame(fragment, request.getCommon_param().getFragment());
+        Assert.assertSame(descTable, request.getCommon_param().getDesc_tbl());
+
+        TExecBatchPlanFragmentsParams deserialized = new TExecBatchPlanFragmentsParams();
+        new TDeserializer().deserialize(deserialized, serialized);
+        Assert.assertEquals(request, deserialized);
+        Assert.assertEquals(new TSerializer().serialize(request).length, serialized.length);
+
+        // without descriptor table
+        request = createRequest(fragment, null);
+        serialized = ExecBatchPlanFragmentsSerializer.serialize(request, serializedFragment, null);
+        deserialized = new TExecBatchPlanFragmentsParams();
+        new TDeserializer().deserialize(deserialized, serialized);
+        Assert.assertEquals(request, deserialized);
+        Assert.assertFalse(deserialized.getCommon_param().isSetDesc_tbl());
+    }
+}
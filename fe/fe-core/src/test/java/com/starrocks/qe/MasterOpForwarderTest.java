@@ -0,0 +1,171 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.starrocks.common.Config;
+import com.starrocks.thrift.TMasterOpBatchRequest;
+import com.starrocks.thrift.TMasterOpBatchResult;
+import com.starrocks.thrift.TMasterOpRequest;
+import com.starrocks.thrift.TMasterOpResult;
+import com.starrocks.thrift.TNetworkAddress;
+import org.apache.thrift.TApplicationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MasterOpForwarderTest {
+    private static final TNetworkAddress MASTER = new TNetworkAddress("127.0.0.1", 9020);
+
+    private static TMasterOpRequest createRequest(long stmtId) {
+        TMasterOpRequest request = new TMasterOpRequest();
+        request.setStmt_id(stmtId);
+        return request;
+    }
+
+    private static TMasterOpResult createResult(TMasterOpRequest request) {
+        TMasterOpResult result = new TMasterOpResult();
+        result.setMaxJournalId(request.getStmt_id());
+        return result;
+    }
+
+    private static CompletableFuture<TMasterOpResult> forwardAsync(MasterOpForwarder forwarder, long stmtId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return forwarder.forward(MASTER, createRequest(stmtId), 10000);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void waitQueueLength(MasterOpForwarder forwarder, int length) throws InterruptedException {
+        for (int i = 0; i < 500 && forwarder.getQueueLength() != length; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(length, forwarder.getQueueLength());
+    }
+
+    @Test
+    public void testBatchWhenBusy() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        MasterOpForwarder forwarder = new MasterOpForwarder(1) {
+            @Override
+            TMasterOpResult sendForward(TNetworkAddress address, TMasterOpRequest request, int timeoutMs)
+                    throws Exception {
+                firstSent.countDown();
+                releaseFirst.await();
+                return createResult(request);
+            }
+
+            @Override
+            TMasterOpBatchResult sendForwardBatch(TNetworkAddress address, TMasterOpBatchRequest request,
+                                                  int timeoutMs) {
+                batchSizes.add(request.getRequestsSize());
+                TMasterOpBatchResult result = new TMasterOpBatchResult();
+                result.setResults(new ArrayList<>());
+                for (TMasterOpRequest opRequest : request.getRequests()) {
+                    result.addToResults(createResult(opRequest));
+                }
+                return result;
+            }
+        };
+
+        CompletableFuture<TMasterOpResult> first = forwardAsync(forwarder, 1);
+        Assert.assertTrue(firstSent.await(10, TimeUnit.SECONDS));
+        // queued while the only dispatcher is busy
+        List<CompletableFuture<TMasterOpResult>> others = new ArrayList<>();
+        for (int i = 2; i <= 4; i++) {
+            others.add(forwardAsync(forwarder, i));
+        }
+        waitQueueLength(forwarder, 3);
+
+        releaseFirst.countDown();
+        Assert.assertEquals(1, first.get(10, TimeUnit.SECONDS).getMaxJournalId());
+        for (int i = 0; i < others.size(); i++) {
+            Assert.assertEquals(i + 2, others.get(i).get(10, TimeUnit.SECONDS).getMaxJournalId());
+        }
+        Assert.assertEquals(1, batchSizes.size());
+        Assert.assertEquals(3, (int) batchSizes.get(0));
+    }
+
+    @Test
+    public void testFallbackWhenBatchUnsupported() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger forwardTimes = new AtomicInteger(0);
+        MasterOpForwarder forwarder = new MasterOpForwarder(1) {
+            @Override
+            TMasterOpResult sendForward(TNetworkAddress address, TMasterOpRequest request, int timeoutMs)
+                    throws Exception {
+                if (forwardTimes.incrementAndGet() == 1) {
+                    firstSent.countDown();
+                    releaseFirst.await();
+                }
+                return createResult(request);
+            }
+
+            @Override
+            TMasterOpBatchResult sendForwardBatch(TNetworkAddress address, TMasterOpBatchRequest request,
+                                                  int timeoutMs) throws Exception {
+                throw new TApplicationException(TApplicationException.UNKNOWN_METHOD, "Invalid method name");
+            }
+        };
+
+        CompletableFuture<TMasterOpResult> first = forwardAsync(forwarder, 1);
+        Assert.assertTrue(firstSent.await(10, TimeUnit.SECONDS));
+        CompletableFuture<TMasterOpResult> second = forwardAsync(forwarder, 2);
+        CompletableFuture<TMasterOpResult> third = forwardAsync(forwarder, 3);
+        waitQueueLength(forwarder, 2);
+
+        releaseFirst.countDown();
+        Assert.assertEquals(1, first.get(10, TimeUnit.SECONDS).getMaxJournalId());
+        Assert.assertEquals(2, second.get(10, TimeUnit.SECONDS).getMaxJournalId());
+        Assert.assertEquals(3, third.get(10, TimeUnit.SECONDS).getMaxJournalId());
+        Assert.assertEquals(3, forwardTimes.get());
+    }
+
+    @Test
+    public void testForwardDirectlyWhenDispatchersBusy() throws Exception {
+        long oldQueueWaitMs = Config.master_op_forward_max_queue_wait_ms;
+        Config.master_op_forward_max_queue_wait_ms = 100;
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<String> senderThreads = Collections.synchronizedList(new ArrayList<>());
+        MasterOpForwarder forwarder = new MasterOpForwarder(1) {
+            @Override
+            TMasterOpResult sendForward(TNetworkAddress address, TMasterOpRequest request, int timeoutMs)
+                    throws Exception {
+                senderThreads.add(Thread.currentThread().getName());
+                if (request.getStmt_id() == 1) {
+                    firstSent.countDown();
+                    releaseFirst.await();
+                }
+                return createResult(request);
+            }
+        };
+        try {
+            CompletableFuture<TMasterOpResult> first = forwardAsync(forwarder, 1);
+            Assert.assertTrue(firstSent.await(10, TimeUnit.SECONDS));
+            // the only dispatcher is blocked, the statement is taken back from queue and forwarded by the caller
+            Assert.assertEquals(2, forwarder.forward(MASTER, createRequest(2), 10000).getMaxJournalId());
+            Assert.assertEquals(0, forwarder.getQueueLength());
+            Assert.assertEquals(Thread.currentThread().getName(), senderThreads.get(1));
+
+            releaseFirst.countDown();
+            Assert.assertEquals(1, first.get(10, TimeUnit.SECONDS).getMaxJournalId());
+            Assert.assertEquals(2, senderThreads.size());
+        } finally {
+            releaseFirst.countDown();
+            Config.master_op_forward_max_queue_wait_ms = oldQueueWaitMs;
+        }
+    }
+}
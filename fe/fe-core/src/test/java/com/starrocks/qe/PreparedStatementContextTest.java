@@ -0,0 +1,118 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.CompoundPredicate;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LimitElement;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.parser.ParsingException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PreparedStatementContextTest {
+
+    @Test
+    public void testFindPlaceholders() {
+        String sql = "select '?', \"?\", `?`, 'a\\'?' from t -- ?\n where a = ? /* ? */ and b = ?# ?";
+        PreparedStatementContext stmt = new PreparedStatementContext(1, sql);
+        Assert.assertEquals(2, stmt.getNumParams());
+        Assert.assertEquals(Lists.newArrayList(sql.indexOf("a = ?") + 4, sql.indexOf("b = ?") + 4),
+                PreparedStatementContext.findPlaceholders(sql));
+    }
+
+    @Test
+    public void testBind() {
+        PreparedStatementContext stmt = new PreparedStatementContext(1, "select * from t where a = ? and b = ?");
+        Assert.assertEquals("select * from t where a = 1 and b = 'x'", stmt.bind(Lists.newArrayList("1", "'x'")));
+
+        stmt = new PreparedStatementContext(2, "select ?");
+        Assert.assertEquals("select NULL", stmt.bind(Lists.newArrayList("NULL")));
+
+        try {
+            stmt.bind(Lists.newArrayList());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("expect 1 parameters"));
+        }
+    }
+
+    @Test
+    public void testBuildStatement() {
+        PreparedStatementContext stmt = new PreparedStatementContext(1,
+                "  select 'NULL', NULL from t where a = ? and b = ?");
+        for (int i = 0; i < 2; i++) {
+            QueryStatement queryStatement = (QueryStatement) stmt.buildStatement(
+                    stmt.parseParameters(Lists.newArrayList(String.valueOf(i), "'x'"), 0L), 0L);
+            SelectRelation select = (SelectRelation) queryStatement.getQueryRelation();
+            // the NULL literal in the template is kept
+            Assert.assertTrue(select.getSelectList().getItems().get(1).getExpr() instanceof NullLiteral);
+            CompoundPredicate predicate = (CompoundPredicate) select.getWhereClause();
+            Assert.assertEquals(new IntLiteral(i), ((BinaryPredicate) predicate.getChild(0)).getChild(1));
+            Assert.assertEquals(new StringLiteral("x"), ((BinaryPredicate) predicate.getChild(1)).getChild(1));
+        }
+    }
+
+    @Test
+    public void testLimitParameters() {
+        PreparedStatementContext stmt = new PreparedStatementContext(1, "select * from t limit ? offset ?");
+        LimitElement limit = buildLimit(stmt, "10", "20");
+        Assert.assertEquals(10, limit.getLimit());
+        Assert.assertEquals(20, limit.getOffset());
+
+        stmt = new PreparedStatementContext(2, "select * from t LIMIT ?, ?");
+        limit = buildLimit(stmt, "10", "20");
+        Assert.assertEquals(20, limit.getLimit());
+        Assert.assertEquals(10, limit.getOffset());
+
+        // the template is parsed with 0 as the values of LIMIT and OFFSET
+        QueryStatement template = (QueryStatement) stmt.buildTemplateStatement(0L);
+        Assert.assertEquals(0, template.getQueryRelation().getLimit().getLimit());
+
+        // a column named limit is not the LIMIT clause
+        stmt = new PreparedStatementContext(3, "select * from t where `limit` = ? limit 5, ?");
+        QueryStatement queryStatement = (QueryStatement) stmt.buildStatement(
+                stmt.parseParameters(Lists.newArrayList("1", "2"), 0L), 0L);
+        BinaryPredicate predicate =
+                (BinaryPredicate) ((SelectRelation) queryStatement.getQueryRelation()).getWhereClause();
+        Assert.assertEquals(new IntLiteral(1), predicate.getChild(1));
+        Assert.assertEquals(2, queryStatement.getQueryRelation().getLimit().getLimit());
+        Assert.assertEquals(5, queryStatement.getQueryRelation().getLimit().getOffset());
+    }
+
+    @Test
+    public void testInvalidLimitParameters() {
+        PreparedStatementContext stmt = new PreparedStatementContext(1, "select * from t limit ? offset ?");
+        for (String param : Lists.newArrayList("NULL", "-1", "'10'", "1.5")) {
+            try {
+                stmt.parseParameters(Lists.newArrayList("10", param), 0L);
+                Assert.fail("should fail for " + param);
+            } catch (ParsingException e) {
+                Assert.assertEquals("The parameter of LIMIT or OFFSET must be a non-negative integer, but got " +
+                        param, e.getMessage());
+            }
+        }
+    }
+
+    private static LimitElement buildLimit(PreparedStatementContext stmt, String... params) {
+        QueryStatement queryStatement = (QueryStatement) stmt.buildStatement(
+                stmt.parseParameters(Lists.newArrayList(params), 0L), 0L);
+        return queryStatement.getQueryRelation().getLimit();
+    }
+
+    @Test
+    public void testLongData() {
+        PreparedStatementContext stmt = new PreparedStatementContext(1, "insert into t values (?, ?)");
+        stmt.appendLongData(1, "ab".getBytes());
+        stmt.appendLongData(1, "cd".getBytes());
+        Assert.assertNull(stmt.getLongData(0));
+        Assert.assertEquals("abcd", new String(stmt.getLongData(1)));
+        stmt.resetLongData();
+        Assert.assertNull(stmt.getLongData(1));
+    }
+}
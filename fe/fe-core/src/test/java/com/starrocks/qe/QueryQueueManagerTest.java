@@ -0,0 +1,177 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.starrocks.catalog.WorkGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.metric.ResourceGroupMetricMgr;
+import com.starrocks.thrift.TWorkGroupType;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class QueryQueueManagerTest {
+    private long originalTimeoutSecond;
+    private int originalMaxQueuedQueries;
+    private volatile boolean memoryExhausted;
+    private volatile long backendMemLimitBytes;
+    private QueryQueueManager manager;
+
+    @Before
+    public void setUp() {
+        originalTimeoutSecond = Config.query_queue_pending_timeout_second;
+        originalMaxQueuedQueries = Config.query_queue_max_queued_queries;
+        memoryExhausted = false;
+        backendMemLimitBytes = 0;
+        new MockUp<ResourceGroupMetricMgr>() {
+            @Mock
+            public void setQueryQueuePending(String resourceGroupName, long num) {
+            }
+
+            @Mock
+            public void updateQueryQueueWaitTime(String resourceGroupName, long waitMs) {
+            }
+        };
+        manager = new QueryQueueManager() {
+            @Override
+            boolean isBackendMemoryExhausted() {
+                return memoryExhausted;
+            }
+
+            @Override
+            long getBackendMemLimitBytes() {
+                return backendMemLimitBytes;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        Config.query_queue_pending_timeout_second = originalTimeoutSecond;
+        Config.query_queue_max_queued_queries = originalMaxQueuedQueries;
+    }
+
+    private static WorkGroup createGroup(long id, int concurrencyLimit, double memLimit) {
+        WorkGroup group = new WorkGroup();
+        group.setId(id);
+        group.setName("wg" + id);
+        group.setConcurrencyLimit(concurrencyLimit);
+        group.setMemLimit(memLimit);
+        group.setWorkGroupType(TWorkGroupType.WG_NORMAL);
+        return group;
+    }
+
+    private static ConnectContext createContext(long queryMemLimit) {
+        ConnectContext context = new ConnectContext(null);
+        context.getSessionVariable().setQueryMemLimit(queryMemLimit);
+        return context;
+    }
+
+    private CompletableFuture<QueryQueueManager.Slot> acquireAsync(ConnectContext context, WorkGroup group) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return manager.acquire(context, group);
+            } catch (UserException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private void waitPending(int num) throws InterruptedException {
+        for (int i = 0; i < 500 && manager.getPendingQueryNum() != num; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(num, manager.getPendingQueryNum());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        WorkGroup group = createGroup(1, 1, 0.5);
+        QueryQueueManager.Slot first = manager.acquire(createContext(0), group);
+        // the other groups are not limited
+        QueryQueueManager.Slot other = manager.acquire(createContext(0), createGroup(2, 1, 0.5));
+        QueryQueueManager.Slot noGroup = manager.acquire(createContext(0), null);
+
+        CompletableFuture<QueryQueueManager.Slot> second = acquireAsync(createContext(0), group);
+        waitPending(1);
+        Assert.assertFalse(second.isDone());
+
+        manager.release(first);
+        // released only once
+        manager.release(first);
+        QueryQueueManager.Slot secondSlot = second.get(10, TimeUnit.SECONDS);
+        waitPending(0);
+
+        CompletableFuture<QueryQueueManager.Slot> third = acquireAsync(createContext(0), group);
+        waitPending(1);
+        manager.release(secondSlot);
+        manager.release(third.get(10, TimeUnit.SECONDS));
+        manager.release(other);
+        manager.release(noGroup);
+    }
+
+    @Test
+    public void testMemoryLimit() throws Exception {
+        backendMemLimitBytes = 1000;
+        WorkGroup group = createGroup(1, 0, 0.5);
+        // 300 + 300 exceeds 0.5 * 1000
+        QueryQueueManager.Slot first = manager.acquire(createContext(300), group);
+        CompletableFuture<QueryQueueManager.Slot> second = acquireAsync(createContext(300), group);
+        waitPending(1);
+        // the queries without query_mem_limit are not limited, but not ahead of the pending one of the same group
+        CompletableFuture<QueryQueueManager.Slot> third = acquireAsync(createContext(0), group);
+        waitPending(2);
+
+        manager.release(first);
+        manager.release(second.get(10, TimeUnit.SECONDS));
+        manager.release(third.get(10, TimeUnit.SECONDS));
+        waitPending(0);
+
+        // a single query larger than the budget is still admitted
+        manager.release(manager.acquire(createContext(2000), group));
+    }
+
+    @Test
+    public void testBackendMemoryExhausted() throws Exception {
+        memoryExhausted = true;
+        CompletableFuture<QueryQueueManager.Slot> query = acquireAsync(createContext(0), null);
+        waitPending(1);
+        // rechecked periodically
+        memoryExhausted = false;
+        manager.release(query.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeoutAndQueueFull() throws Exception {
+        WorkGroup group = createGroup(1, 1, 0.5);
+        QueryQueueManager.Slot first = manager.acquire(createContext(0), group);
+
+        Config.query_queue_pending_timeout_second = 1;
+        try {
+            manager.acquire(createContext(0), group);
+            Assert.fail("should be timeout");
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("timeout"));
+        }
+        Assert.assertEquals(0, manager.getPendingQueryNum());
+
+        Config.query_queue_max_queued_queries = 0;
+        try {
+            manager.acquire(createContext(0), group);
+            Assert.fail("should be rejected");
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("Too many queued queries"));
+        }
+        Assert.assertEquals(0, manager.getPendingQueryNum());
+
+        manager.release(first);
+        manager.release(manager.acquire(createContext(0), group));
+    }
+}
@@ -0,0 +1,127 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.common.Config;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanTestBase;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class QueryResultCacheTest extends PlanTestBase {
+    private long capacityBytes;
+    private long maxEntryBytes;
+
+    @Before
+    public void setUp() {
+        capacityBytes = Config.query_result_cache_capacity_bytes;
+        maxEntryBytes = Config.query_result_cache_max_entry_bytes;
+    }
+
+    @After
+    public void tearDown() {
+        Config.query_result_cache_capacity_bytes = capacityBytes;
+        Config.query_result_cache_max_entry_bytes = maxEntryBytes;
+        QueryResultCache.getInstance().clear();
+    }
+
+    private static List<ByteBuffer> rows(int rowBytes) {
+        return Lists.newArrayList(ByteBuffer.wrap(new byte[rowBytes]));
+    }
+
+    @Test
+    public void testLruEviction() {
+        // each entry is 100 + 16 + 2 * 2 bytes
+        Config.query_result_cache_capacity_bytes = 300;
+        QueryResultCache cache = QueryResultCache.getInstance();
+        QueryResultCache.CacheKey key1 = new QueryResultCache.CacheKey("k1", Sets.newHashSet(1L));
+        QueryResultCache.CacheKey key2 = new QueryResultCache.CacheKey("k2", Sets.newHashSet(1L));
+        QueryResultCache.CacheKey key3 = new QueryResultCache.CacheKey("k3", Sets.newHashSet(2L));
+
+        cache.put(key1, rows(100));
+        cache.put(key2, rows(100));
+        Assert.assertEquals(240, cache.getUsedBytes());
+        // key2 becomes the eldest
+        Assert.assertNotNull(cache.get(key1));
+        cache.put(key3, rows(100));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get(key2));
+        Assert.assertNotNull(cache.get(key1));
+        Assert.assertNotNull(cache.get(key3));
+        Assert.assertEquals(240, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testKeyContainsUser() throws Exception {
+        String sql = "select v1 from t0 where v2 = 1";
+        ExecPlan plan = UtFrameUtils.getPlanAndFragment(connectContext, sql).second;
+        StatementBase stmt = SqlParser.parse(sql, connectContext.getSessionVariable().getSqlMode()).get(0);
+        QueryResultCache.CacheKey key = QueryResultCache.buildKey(connectContext, stmt, plan);
+        Assert.assertNotNull(key);
+        Assert.assertEquals(key, QueryResultCache.buildKey(connectContext, stmt, plan));
+
+        UserIdentity currentUser = connectContext.getCurrentUserIdentity();
+        try {
+            connectContext.setCurrentUserIdentity(UserIdentity.createAnalyzedUserIdentWithIp("u1", "%"));
+            Assert.assertNotEquals(key, QueryResultCache.buildKey(connectContext, stmt, plan));
+        } finally {
+            connectContext.setCurrentUserIdentity(currentUser);
+        }
+    }
+
+    @Test
+    public void testSharedRows() {
+        QueryResultCache cache = QueryResultCache.getInstance();
+        QueryResultCache.CacheKey key = new QueryResultCache.CacheKey("k1", Sets.newHashSet(1L));
+        byte[] batch = new byte[] {1, 2, 3, 4};
+        cache.put(key, Lists.newArrayList(ByteBuffer.wrap(batch, 0, 2), ByteBuffer.wrap(batch, 2, 2)));
+        // the rows are the buffers of the batch, not copies
+        List<ByteBuffer> rows = cache.get(key);
+        Assert.assertSame(batch, rows.get(0).array());
+        Assert.assertSame(batch, rows.get(1).array());
+        Assert.assertEquals(2, rows.get(1).remaining());
+        // the digest of 2 chars, 2 buffers and 4 bytes of rows
+        Assert.assertEquals(2 * 2 + 2 * 16 + 4, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testMaxEntryBytes() {
+        Config.query_result_cache_max_entry_bytes = 100;
+        QueryResultCache cache = QueryResultCache.getInstance();
+        cache.put(new QueryResultCache.CacheKey("k1", Sets.newHashSet(1L)), rows(100));
+        Assert.assertEquals(0, cache.size());
+        cache.put(new QueryResultCache.CacheKey("k2", Sets.newHashSet(1L)), rows(10));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateTable() {
+        QueryResultCache cache = QueryResultCache.getInstance();
+        QueryResultCache.CacheKey key1 = new QueryResultCache.CacheKey("k1", Sets.newHashSet(1L, 2L));
+        QueryResultCache.CacheKey key2 = new QueryResultCache.CacheKey("k2", Sets.newHashSet(2L));
+        QueryResultCache.CacheKey key3 = new QueryResultCache.CacheKey("k3", Sets.newHashSet(3L));
+        cache.put(key1, rows(10));
+        cache.put(key2, rows(10));
+        cache.put(key3, rows(10));
+
+        cache.invalidateTable(1L);
+        Assert.assertNull(cache.get(key1));
+        Assert.assertNotNull(cache.get(key2));
+        cache.invalidateTable(2L);
+        Assert.assertNull(cache.get(key2));
+        Assert.assertNotNull(cache.get(key3));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(30, cache.getUsedBytes());
+    }
+}
@@ -0,0 +1,163 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.proto.PFetchDataResult;
+import com.starrocks.proto.PQueryStatistics;
+import com.starrocks.proto.StatusPB;
+import com.starrocks.rpc.BackendServiceClient;
+import com.starrocks.rpc.PFetchDataRequest;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+public class QueryRetryTest {
+    private static final long[] BACKEND_IDS = {10001L, 10002L, 10003L};
+
+    // the backends which the results are fetched from, in order
+    private final List<Long> fetchedBackends = Lists.newArrayList();
+    // how many of the first fetches fail
+    private int numFailures;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        UtFrameUtils.addMockBackend(10002);
+        UtFrameUtils.addMockBackend(10003);
+
+        new MockUp<MysqlChannel>() {
+            @Mock
+            protected void realNetSend(ByteBuffer buffer) {
+            }
+        };
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        try {
+            UtFrameUtils.dropMockBackend(10002);
+            UtFrameUtils.dropMockBackend(10003);
+        } catch (DdlException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        for (long backendId : BACKEND_IDS) {
+            GlobalStateMgr.getCurrentSystemInfo().getBackend(backendId).setAlive(true);
+        }
+        // the alive backends are removed from the blacklist in background
+        for (long backendId : BACKEND_IDS) {
+            for (int i = 0; i < 100 && SimpleScheduler.isInBlacklist(backendId); i++) {
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static Backend findBackendByBrpcAddress(TNetworkAddress address) {
+        for (long backendId : BACKEND_IDS) {
+            Backend backend = GlobalStateMgr.getCurrentSystemInfo().getBackend(backendId);
+            if (backend.getHost().equals(address.getHostname()) && backend.getBrpcPort() == address.getPort()) {
+                return backend;
+            }
+        }
+        throw new IllegalStateException("unknown backend " + address);
+    }
+
+    // The first numFailures fetches fail as if the backend is down, and the backend is marked dead like heartbeat does
+    private void mockFetchData() {
+        new MockUp<BackendServiceClient>() {
+            @Mock
+            public Future<PFetchDataResult> fetchDataAsync(TNetworkAddress address, PFetchDataRequest request) {
+                Backend backend = findBackendByBrpcAddress(address);
+                PFetchDataResult result = new PFetchDataResult();
+                result.status = new StatusPB();
+                result.queryStatistics = new PQueryStatistics();
+                result.packetSeq = 0L;
+                result.eos = true;
+                if (fetchedBackends.isEmpty() || fetchedBackends.get(fetchedBackends.size() - 1) != backend.getId()) {
+                    fetchedBackends.add(backend.getId());
+                }
+                if (fetchedBackends.size() <= numFailures) {
+                    backend.setAlive(false);
+                    result.status.statusCode = TStatusCode.INTERNAL_ERROR.getValue();
+                    result.status.errorMsgs = Lists.newArrayList("failed to send data to " + backend.getHost());
+                } else {
+                    result.status.statusCode = TStatusCode.OK.getValue();
+                }
+                return CompletableFuture.completedFuture(result);
+            }
+        };
+    }
+
+    private static StmtExecutor executeQuery(ConnectContext connectContext, String sql) throws Exception {
+        StmtExecutor executor = new StmtExecutor(connectContext, sql);
+        connectContext.setQueryId(UUIDUtil.genUUID());
+        // the query is retried only if it's not timeout since the start time
+        connectContext.setStartTime();
+        executor.execute();
+        return executor;
+    }
+
+    @Test
+    public void testRetryOnOtherBackend() throws Exception {
+        numFailures = 1;
+        mockFetchData();
+
+        ConnectContext connectContext = UtFrameUtils.createDefaultCtx();
+        StmtExecutor executor = executeQuery(connectContext, "select 1");
+        Assert.assertEquals(QueryState.MysqlStateType.EOF, connectContext.getState().getStateType());
+        Assert.assertEquals(1, (int) Deencapsulation.getField(executor, "queryRetryTimes"));
+
+        // the failed backend is blacklisted, and the query is retried on another one
+        Assert.assertEquals(2, fetchedBackends.size());
+        Assert.assertTrue(SimpleScheduler.isInBlacklist(fetchedBackends.get(0)));
+        Assert.assertNotEquals(fetchedBackends.get(0), fetchedBackends.get(1));
+        Assert.assertFalse(SimpleScheduler.isInBlacklist(fetchedBackends.get(1)));
+    }
+
+    @Test
+    public void testRetryTimesLimit() throws Exception {
+        int maxQueryRetryTime = Config.max_query_retry_time;
+        Config.max_query_retry_time = 2;
+        try {
+            numFailures = BACKEND_IDS.length;
+            mockFetchData();
+
+            ConnectContext connectContext = UtFrameUtils.createDefaultCtx();
+            StmtExecutor executor = executeQuery(connectContext, "select 1");
+            Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+            Assert.assertEquals(1, (int) Deencapsulation.getField(executor, "queryRetryTimes"));
+
+            // the query is executed max_query_retry_time times, each on a backend not failed before
+            Assert.assertEquals(2, fetchedBackends.size());
+            Assert.assertNotEquals(fetchedBackends.get(0), fetchedBackends.get(1));
+            for (long backendId : fetchedBackends) {
+                Assert.assertTrue(SimpleScheduler.isInBlacklist(backendId));
+            }
+        } finally {
+            Config.max_query_retry_time = maxQueryRetryTime;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.Status;
+import com.starrocks.proto.PFetchDataResult;
+import com.starrocks.proto.StatusPB;
+import com.starrocks.rpc.BackendServiceClient;
+import com.starrocks.rpc.PFetchDataRequest;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TResultBatch;
+import com.starrocks.thrift.TUniqueId;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.thrift.TSerializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+public class ResultReceiverTest {
+    private int originalMaxInflightRequests;
+    private int sentRequests;
+
+    @Before
+    public void setUp() {
+        originalMaxInflightRequests = Config.max_inflight_result_fetch_requests;
+        sentRequests = 0;
+    }
+
+    @After
+    public void tearDown() {
+        Config.max_inflight_result_fetch_requests = originalMaxInflightRequests;
+    }
+
+    // BE replies the requests with the packets in the given order, then eos of the next sequence
+    private void mockBackend(long[] packetOrder) {
+        new MockUp<BackendServiceClient>() {
+            @Mock
+            public Future<PFetchDataResult> fetchDataAsync(TNetworkAddress address, PFetchDataRequest request)
+                    throws Exception {
+                int index = sentRequests++;
+                PFetchDataResult result = new PFetchDataResult();
+                result.status = new StatusPB();
+                result.status.statusCode = 0;
+                if (index < packetOrder.length) {
+                    result.packetSeq = packetOrder[index];
+                    result.eos = false;
+                    List<ByteBuffer> rows = new ArrayList<>();
+                    rows.add(ByteBuffer.wrap(String.valueOf(result.packetSeq).getBytes(StandardCharsets.UTF_8)));
+                    request.setSerializedResult(new TSerializer().serialize(new TResultBatch(rows, false, 0)));
+                } else {
+                    result.packetSeq = (long) packetOrder.length;
+                    result.eos = true;
+                }
+                return CompletableFuture.completedFuture(result);
+            }
+        };
+    }
+
+    private List<String> receiveAll(ResultReceiver receiver) throws Exception {
+        List<String> rows = new ArrayList<>();
+        while (true) {
+            Status status = new Status();
+            RowBatch batch = receiver.getNext(status);
+            Assert.assertTrue(status.ok());
+            if (batch == null) {
+                break;
+            }
+            if (batch.getBatch() != null) {
+                for (ByteBuffer row : batch.getBatch().getRows()) {
+                    byte[] bytes = new byte[row.remaining()];
+                    row.get(bytes);
+                    rows.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+            if (batch.isEos()) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    private ResultReceiver createReceiver() {
+        return new ResultReceiver(new TUniqueId(1, 2), 1L, new TNetworkAddress("127.0.0.1", 8060), 60000);
+    }
+
+    @Test
+    public void testSingleRequest() throws Exception {
+        Config.max_inflight_result_fetch_requests = 1;
+        mockBackend(new long[] {0, 1, 2});
+        List<String> rows = receiveAll(createReceiver());
+        Assert.assertEquals("[0, 1, 2]", rows.toString());
+        Assert.assertEquals(4, sentRequests);
+    }
+
+    @Test
+    public void testPipelinedRequestsOutOfOrder() throws Exception {
+        Config.max_inflight_result_fetch_requests = 2;
+        mockBackend(new long[] {1, 0, 3, 2});
+        List<String> rows = receiveAll(createReceiver());
+        Assert.assertEquals("[0, 1, 2, 3]", rows.toString());
+    }
+
+    @Test
+    public void testDuplicatedEos() throws Exception {
+        Config.max_inflight_result_fetch_requests = 4;
+        // all requests after the last packet are replied by eos of the same sequence
+        mockBackend(new long[] {0});
+        List<String> rows = receiveAll(createReceiver());
+        Assert.assertEquals("[0]", rows.toString());
+    }
+
+    @Test
+    public void testLostPacket() throws Exception {
+        Config.max_inflight_result_fetch_requests = 2;
+        mockBackend(new long[] {0, 2});
+        ResultReceiver receiver = createReceiver();
+        Status status = new Status();
+        Assert.assertNotNull(receiver.getNext(status));
+        Assert.assertTrue(status.ok());
+        // packet 1 is never received
+        while (status.ok()) {
+            RowBatch batch = receiver.getNext(status);
+            if (batch == null || batch.isEos()) {
+                break;
+            }
+        }
+        Assert.assertFalse(status.ok());
+    }
+}
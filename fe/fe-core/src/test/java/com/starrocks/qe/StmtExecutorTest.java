@@ -31,6 +31,7 @@ import com.starrocks.analysis.SetStmt;
 import com.starrocks.analysis.ShowAuthorStmt;
 import com.starrocks.analysis.ShowStmt;
 import com.starrocks.analysis.SqlParser;
+import com.starrocks.analysis.StatementBase;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.execution.DataDefinitionExecutorFactory;
@@ -589,5 +590,18 @@ public class StmtExecutorTest {
 
         Assert.assertEquals(QueryState.MysqlStateType.ERR, state.getStateType());
     }
-}
 
+    @Test
+    public void testCanRetryQuery() {
+        StatementBase query = com.starrocks.sql.parser.SqlParser.parse("select v1 from t0", 0L).get(0);
+        Assert.assertTrue(StmtExecutor.canRetryQuery(query, false, 1000L, 300000L));
+        // some results have been sent to client
+        Assert.assertFalse(StmtExecutor.canRetryQuery(query, true, 1000L, 300000L));
+        // timeout
+        Assert.assertFalse(StmtExecutor.canRetryQuery(query, false, 300000L, 300000L));
+
+        StatementBase outfile = com.starrocks.sql.parser.SqlParser.parse(
+                "select v1 from t0 into outfile \"hdfs://path/to/result_\" format as csv", 0L).get(0);
+        Assert.assertFalse(StmtExecutor.canRetryQuery(outfile, false, 1000L, 300000L));
+    }
+}
@@ -12,8 +12,10 @@ import com.starrocks.catalog.Partition;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.AnalyzeHistogramDesc;
+import com.starrocks.sql.ast.AnalyzeMultiColumnDesc;
 import com.starrocks.sql.ast.AnalyzeStmt;
 import com.starrocks.sql.ast.DropHistogramStmt;
+import com.starrocks.sql.ast.DropMultiColumnStatsStmt;
 import com.starrocks.sql.ast.ShowAnalyzeJobStmt;
 import com.starrocks.sql.ast.ShowBasicStatsMetaStmt;
 import com.starrocks.sql.ast.ShowAnalyzeStatusStmt;
@@ -172,4 +174,22 @@ public class AnalyzeStmtTest {
         Assert.assertEquals(dropHistogramStmt.getTableName().toSql(), "`test`.`t0`");
         Assert.assertEquals(dropHistogramStmt.getColumnNames().toString(), "[v1]");
     }
+
+    @Test
+    public void testMultiColumnStats() {
+        String sql = "analyze table t0 update stats on (V2, v1)";
+        AnalyzeStmt analyzeStmt = (AnalyzeStmt) analyzeSuccess(sql);
+        Assert.assertTrue(analyzeStmt.getAnalyzeTypeDesc() instanceof AnalyzeMultiColumnDesc);
+        // the order of columns is kept, and the names are normalized
+        Assert.assertEquals("[v2, v1]", analyzeStmt.getColumnNames().toString());
+
+        analyzeFail("analyze table t0 update stats on (v1, V1)", "Column 'V1' specified twice");
+        analyzeFail("analyze table t0 update stats on (v1, v4)", "Unknown column 'v4'");
+        analyzeFail("analyze table t0 update stats on (v1)");
+
+        sql = "analyze table t0 drop stats on (v1, V2)";
+        DropMultiColumnStatsStmt dropStmt = (DropMultiColumnStatsStmt) analyzeSuccess(sql);
+        Assert.assertEquals("`test`.`t0`", dropStmt.getTableName().toSql());
+        Assert.assertEquals("[v1, v2]", dropStmt.getColumnNames().toString());
+    }
 }
@@ -3,9 +3,11 @@
 package com.starrocks.sql.analyzer;
 
 import com.starrocks.analysis.CreateViewStmt;
+import com.starrocks.analysis.FunctionCallExpr;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.catalog.Database;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.PreparedStatementContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.parser.SqlParser;
 import com.starrocks.utframe.UtFrameUtils;
@@ -53,4 +55,34 @@ public class AnalyzeUtilTest {
         stringDatabaseMap = AnalyzerUtils.collectAllDatabase(AnalyzeTestUtil.getConnectContext(), statementBase.get(0));
         Assert.assertEquals(stringDatabaseMap.size(), 2);
     }
+
+    private static StatementBase analyze(String sql) {
+        ConnectContext session = AnalyzeTestUtil.getConnectContext();
+        StatementBase stmt = SqlParser.parse(sql, session.getSessionVariable().getSqlMode()).get(0);
+        Analyzer.analyze(stmt, session);
+        return stmt;
+    }
+
+    @Test
+    public void testCollectAllExpressions() {
+        StatementBase stmt = analyze("with w as (select abs(v1) a from test.t0) select sum(a) from w " +
+                "where a in (select bitnot(v5) from test.t1) order by sum(a) + floor(1.5)");
+        List<FunctionCallExpr> functions = AnalyzerUtils.collectAllExpressions(stmt, FunctionCallExpr.class);
+        Assert.assertTrue(functions.stream().anyMatch(f -> f.getFnName().getFunction().equals("abs")));
+        Assert.assertTrue(functions.stream().anyMatch(f -> f.getFnName().getFunction().equals("sum")));
+        Assert.assertTrue(functions.stream().anyMatch(f -> f.getFnName().getFunction().equals("bitnot")));
+        Assert.assertTrue(functions.stream().anyMatch(f -> f.getFnName().getFunction().equals("floor")));
+    }
+
+    @Test
+    public void testHasNonDeterministicFunction() {
+        Assert.assertFalse(PreparedStatementContext.hasNonDeterministicFunction(
+                analyze("select v1 as user, v2 as `schema`, 'now()' from test.t0")));
+        Assert.assertTrue(PreparedStatementContext.hasNonDeterministicFunction(
+                analyze("select v1 from test.t0 where v2 < unix_timestamp(now())")));
+        Assert.assertTrue(PreparedStatementContext.hasNonDeterministicFunction(
+                analyze("select v1 from test.t0 where v2 in (select v4 from test.t1 where v5 > rand())")));
+        Assert.assertTrue(PreparedStatementContext.hasNonDeterministicFunction(
+                analyze("select v1, current_user() from test.t0")));
+    }
 }
@@ -0,0 +1,133 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HistogramEstimatorTest {
+    // 1000 rows, 46, 47 and 100 are skewed values
+    private static List<Bucket> skewedBuckets() {
+        List<Bucket> buckets = new ArrayList<>();
+        buckets.add(new Bucket(1D, 10D, 100L, 20L));
+        buckets.add(new Bucket(15D, 20D, 200L, 20L));
+        buckets.add(new Bucket(21D, 36D, 300L, 20L));
+        buckets.add(new Bucket(40D, 45D, 400L, 20L));
+        buckets.add(new Bucket(46D, 46D, 500L, 100L));
+        buckets.add(new Bucket(47D, 47D, 600L, 100L));
+        buckets.add(new Bucket(48D, 60D, 700L, 20L));
+        buckets.add(new Bucket(61D, 65D, 800L, 20L));
+        buckets.add(new Bucket(66D, 99D, 900L, 20L));
+        buckets.add(new Bucket(100D, 100D, 1000L, 100L));
+        return buckets;
+    }
+
+    // 1000 rows, 10 rows for each value of [1, 100]
+    private static Histogram uniformHistogram() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buckets.add(new Bucket(i * 10 + 1, i * 10 + 10, (i + 1) * 100L, 10L));
+        }
+        return new Histogram(buckets);
+    }
+
+    @Test
+    public void testEqualTo() {
+        Histogram skewed = new Histogram(skewedBuckets());
+        Assert.assertEquals(0.1, HistogramEstimator.estimateEqualToSelectivity(skewed, 20, 46), 1e-6);
+        Assert.assertEquals(0.02, HistogramEstimator.estimateEqualToSelectivity(skewed, 20, 36), 1e-6);
+        Assert.assertEquals(0.08, HistogramEstimator.estimateEqualToSelectivity(skewed, 20, 5), 1e-6);
+        // not in any bucket
+        Assert.assertEquals(0, HistogramEstimator.estimateEqualToSelectivity(skewed, 20, 12), 1e-6);
+        Assert.assertEquals(0, HistogramEstimator.estimateEqualToSelectivity(skewed, 20, 200), 1e-6);
+
+        Histogram uniform = uniformHistogram();
+        Assert.assertEquals(0.01, HistogramEstimator.estimateEqualToSelectivity(uniform, 100, 5), 1e-6);
+        Assert.assertEquals(0.01, HistogramEstimator.estimateEqualToSelectivity(uniform, 100, 10), 1e-6);
+
+        // narrowed by 46 <= v <= 47
+        Histogram bounded = new Histogram(skewedBuckets(), 46, true, 47, true);
+        Assert.assertEquals(0.5, HistogramEstimator.estimateEqualToSelectivity(bounded, 20, 46), 1e-6);
+        Assert.assertEquals(0, HistogramEstimator.estimateEqualToSelectivity(bounded, 20, 100), 1e-6);
+
+        Assert.assertTrue(Double.isNaN(
+                HistogramEstimator.estimateEqualToSelectivity(new Histogram(new ArrayList<>()), 20, 46)));
+    }
+
+    @Test
+    public void testIn() {
+        Histogram skewed = new Histogram(skewedBuckets());
+        Assert.assertEquals(0.2, HistogramEstimator.estimateInSelectivity(skewed, 20,
+                Lists.newArrayList(46D, 47D, 12D, 47D)), 1e-6);
+        Assert.assertEquals(0.03, HistogramEstimator.estimateInSelectivity(uniformHistogram(), 100,
+                Lists.newArrayList(1D, 2D, 3D)), 1e-6);
+    }
+
+    @Test
+    public void testJoin() {
+        Histogram uniform = uniformHistogram();
+        Assert.assertEquals(0.01, HistogramEstimator.estimateJoinSelectivity(uniform, 100, uniform, 100), 1e-6);
+
+        // the skewed values match much more rows than 1 / ndv
+        Histogram skewed = new Histogram(skewedBuckets());
+        double selectivity = HistogramEstimator.estimateJoinSelectivity(skewed, 20, skewed, 20);
+        Assert.assertTrue(selectivity > 1.0 / 20);
+
+        // only 46 and 47 of left side, each matches 100 rows
+        Histogram bounded = new Histogram(skewedBuckets(), 46, true, 47, true);
+        Assert.assertEquals(0.1, HistogramEstimator.estimateJoinSelectivity(bounded, 20, skewed, 20), 1e-6);
+
+        List<Bucket> disjoint = Lists.newArrayList(new Bucket(200D, 300D, 100L, 1L));
+        Assert.assertEquals(0, HistogramEstimator.estimateJoinSelectivity(new Histogram(disjoint), 10,
+                skewed, 20), 1e-6);
+    }
+
+    @Test
+    public void testShuffleSkewFactor() {
+        Histogram skewed = new Histogram(skewedBuckets());
+        Assert.assertEquals(0.1, HistogramEstimator.getMostCommonValueFraction(skewed), 1e-6);
+        Assert.assertEquals(4.8, HistogramEstimator.estimateShuffleSkewFactor(skewed, 48), 1e-6);
+        Assert.assertEquals(1, HistogramEstimator.estimateShuffleSkewFactor(skewed, 1), 1e-6);
+        Assert.assertEquals(1, HistogramEstimator.estimateShuffleSkewFactor(uniformHistogram(), 48), 1e-6);
+    }
+
+    @Test
+    public void testPredicate() {
+        ColumnRefOperator column = new ColumnRefOperator(0, Type.BIGINT, "v1", true);
+        Statistics statistics = Statistics.builder()
+                .setOutputRowCount(1000)
+                .addColumnStatistic(column, ColumnStatistic.builder()
+                        .setMinValue(1)
+                        .setMaxValue(100)
+                        .setNullsFraction(0)
+                        .setAverageRowSize(8)
+                        .setDistinctValuesCount(20)
+                        .setHistogram(new Histogram(skewedBuckets()))
+                        .build())
+                .build();
+
+        BinaryPredicateOperator eq = new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.EQ,
+                column, ConstantOperator.createBigint(46));
+        Assert.assertEquals(100, PredicateStatisticsCalculator.statisticsCalculate(eq, statistics)
+                .getOutputRowCount(), 0.1);
+
+        BinaryPredicateOperator ne = new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.NE,
+                column, ConstantOperator.createBigint(46));
+        Assert.assertEquals(900, PredicateStatisticsCalculator.statisticsCalculate(ne, statistics)
+                .getOutputRowCount(), 0.1);
+
+        InPredicateOperator in = new InPredicateOperator(false, column, ConstantOperator.createBigint(46),
+                ConstantOperator.createBigint(100));
+        Assert.assertEquals(200, PredicateStatisticsCalculator.statisticsCalculate(in, statistics)
+                .getOutputRowCount(), 0.1);
+    }
+}
@@ -0,0 +1,175 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+public class MultiColumnStatisticTest {
+    private final ColumnRefOperator country = new ColumnRefOperator(0, Type.VARCHAR, "country", true);
+    private final ColumnRefOperator city = new ColumnRefOperator(1, Type.VARCHAR, "city", true);
+    private final ColumnRefOperator kind = new ColumnRefOperator(2, Type.VARCHAR, "kind", true);
+
+    private static ColumnStatistic columnStatistic(double distinctValues) {
+        return ColumnStatistic.builder()
+                .setMinValue(Double.NEGATIVE_INFINITY)
+                .setMaxValue(Double.POSITIVE_INFINITY)
+                .setNullsFraction(0)
+                .setAverageRowSize(10)
+                .setDistinctValuesCount(distinctValues)
+                .build();
+    }
+
+    // 1000000 rows, 100 countries and 1000 cities, each city is in one country, and 10 kinds
+    private Statistics.Builder statisticsBuilder() {
+        return Statistics.builder()
+                .setOutputRowCount(1000000)
+                .addColumnStatistic(country, columnStatistic(100))
+                .addColumnStatistic(city, columnStatistic(1000))
+                .addColumnStatistic(kind, columnStatistic(10));
+    }
+
+    private Statistics statistics(boolean withMultiColumnStatistic) {
+        Statistics.Builder builder = statisticsBuilder();
+        if (withMultiColumnStatistic) {
+            builder.addMultiColumnStatistic(Lists.newArrayList(country, city),
+                    new MultiColumnStatistic(Lists.newArrayList("country", "city"), 1000, 1));
+        }
+        return builder.build();
+    }
+
+    private static ScalarOperator eq(ColumnRefOperator column, String value) {
+        return new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.EQ, column,
+                ConstantOperator.createVarchar(value));
+    }
+
+    private static double estimateRowCount(ScalarOperator predicate, Statistics statistics) {
+        return PredicateStatisticsCalculator.statisticsCalculate(predicate, statistics).getOutputRowCount();
+    }
+
+    @Test
+    public void testEstimate() {
+        List<String> names = Lists.newArrayList("country", "city");
+        MultiColumnStatistic dependent = new MultiColumnStatistic(names, 1000, 1);
+        Assert.assertEquals(1e-2, dependent.estimateEqualToSelectivity(Lists.newArrayList(1e-2, 1e-3)), 1e-9);
+        Assert.assertEquals(1000, dependent.estimateDistinctValues(Lists.newArrayList(100D, 1000D)), 1e-9);
+        Assert.assertEquals(50, dependent.estimateDistinctValues(Lists.newArrayList(1D, 50D)), 1e-9);
+
+        // independent columns, the same as the product of selectivities
+        MultiColumnStatistic independent = new MultiColumnStatistic(names, 100000, 0);
+        Assert.assertEquals(1e-5, independent.estimateEqualToSelectivity(Lists.newArrayList(1e-2, 1e-3)), 1e-12);
+
+        // at least one value of the columns
+        MultiColumnStatistic few = new MultiColumnStatistic(names, 2000, 0);
+        Assert.assertEquals(5e-4, few.estimateEqualToSelectivity(Lists.newArrayList(1e-2, 1e-3)), 1e-12);
+        // not larger than the selectivity of any column
+        MultiColumnStatistic partial = new MultiColumnStatistic(names, 2000, 0.5);
+        Assert.assertEquals(1e-3, partial.estimateEqualToSelectivity(Lists.newArrayList(1e-2, 1e-3)), 1e-12);
+        Assert.assertEquals(1, new MultiColumnStatistic(names, 1000, 2).getDependency(), 1e-9);
+    }
+
+    @Test
+    public void testPredicate() {
+        ScalarOperator predicate = CompoundPredicateOperator.and(
+                new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.EQ, country,
+                        ConstantOperator.createVarchar("CN")),
+                new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.EQ, city,
+                        ConstantOperator.createVarchar("Beijing")));
+
+        Assert.assertEquals(10, PredicateStatisticsCalculator.statisticsCalculate(predicate, statistics(false))
+                .getOutputRowCount(), 0.1);
+        // the city determines the country
+        Assert.assertEquals(1000, PredicateStatisticsCalculator.statisticsCalculate(predicate, statistics(true))
+                .getOutputRowCount(), 0.1);
+    }
+
+    @Test
+    public void testPredicateWithOtherConjuncts() {
+        // the other conjuncts are still estimated independently
+        ScalarOperator predicate = CompoundPredicateOperator.and(eq(country, "CN"), eq(city, "Beijing"),
+                eq(kind, "A"));
+        Assert.assertEquals(1, estimateRowCount(predicate, statistics(false)), 0.1);
+        Assert.assertEquals(100, estimateRowCount(predicate, statistics(true)), 0.1);
+
+        // the statistic is not used if not all of its columns are filtered by equalities
+        predicate = CompoundPredicateOperator.and(eq(country, "CN"), eq(kind, "A"));
+        Assert.assertEquals(estimateRowCount(predicate, statistics(false)),
+                estimateRowCount(predicate, statistics(true)), 1e-9);
+        predicate = eq(city, "Beijing");
+        Assert.assertEquals(1000, estimateRowCount(predicate, statistics(true)), 0.1);
+        predicate = CompoundPredicateOperator.and(eq(country, "CN"),
+                new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.GE, city,
+                        ConstantOperator.createVarchar("Beijing")));
+        Assert.assertEquals(estimateRowCount(predicate, statistics(false)),
+                estimateRowCount(predicate, statistics(true)), 1e-9);
+
+        // nor if a column is filtered by more than one equality
+        predicate = CompoundPredicateOperator.and(eq(country, "CN"), eq(country, "US"), eq(city, "Beijing"));
+        Assert.assertEquals(estimateRowCount(predicate, statistics(false)),
+                estimateRowCount(predicate, statistics(true)), 1e-9);
+    }
+
+    @Test
+    public void testPredicateWithOverlappedStatistics() {
+        // 2000 distinct (country, city, kind), and the kind is not determined by the others
+        Statistics statistics = statisticsBuilder()
+                .addMultiColumnStatistic(Lists.newArrayList(country, city),
+                        new MultiColumnStatistic(Lists.newArrayList("country", "city"), 1000, 1))
+                .addMultiColumnStatistic(Lists.newArrayList(country, city, kind),
+                        new MultiColumnStatistic(Lists.newArrayList("country", "city", "kind"), 2000, 0))
+                .build();
+        ScalarOperator predicate = CompoundPredicateOperator.and(eq(country, "CN"), eq(city, "Beijing"),
+                eq(kind, "A"));
+        // only the statistic covering most columns is applied, a column is not adjusted twice
+        Assert.assertEquals(500, estimateRowCount(predicate, statistics), 0.1);
+        // the smaller one is applied if the larger one is not covered
+        predicate = CompoundPredicateOperator.and(eq(country, "CN"), eq(city, "Beijing"));
+        Assert.assertEquals(1000, estimateRowCount(predicate, statistics), 0.1);
+    }
+
+    @Test
+    public void testGroupBy() {
+        List<ColumnRefOperator> groupBys = Lists.newArrayList(country, city);
+        double independent = StatisticsCalculator.computeGroupByStatistics(groupBys, statistics(false),
+                new HashMap<>());
+        Assert.assertTrue(independent > 1000);
+        Assert.assertEquals(1000, StatisticsCalculator.computeGroupByStatistics(groupBys, statistics(true),
+                new HashMap<>()), 0.1);
+    }
+
+    @Test
+    public void testGroupByWithOtherColumns() {
+        // the correlated columns are counted as the first column, no matter the order of group by
+        List<ColumnRefOperator> groupBys = Lists.newArrayList(kind, city, country);
+        double correlation = StatisticsEstimateCoefficient.UNKNOWN_GROUP_BY_CORRELATION_COEFFICIENT;
+        Assert.assertEquals(1000 * 10 * correlation * correlation,
+                StatisticsCalculator.computeGroupByStatistics(groupBys, statistics(true), new HashMap<>()), 0.1);
+
+        // the statistic is not used if not all of its columns are grouped by
+        groupBys = Lists.newArrayList(country, kind);
+        Assert.assertEquals(StatisticsCalculator.computeGroupByStatistics(groupBys, statistics(false),
+                new HashMap<>()), StatisticsCalculator.computeGroupByStatistics(groupBys, statistics(true),
+                new HashMap<>()), 1e-9);
+        Assert.assertEquals(100, StatisticsCalculator.computeGroupByStatistics(Lists.newArrayList(country),
+                statistics(true), new HashMap<>()), 0.1);
+    }
+
+    @Test
+    public void testConvert() {
+        MultiColumnStatistic statistic = MultiColumnStatsCacheLoader.convert("country,city",
+                "{\"ndv\":1000,\"dependency\":0.98}");
+        Assert.assertEquals(Lists.newArrayList("country", "city"), statistic.getColumnNames());
+        Assert.assertEquals(1000, statistic.getDistinctValuesCount(), 1e-9);
+        Assert.assertEquals(0.98, statistic.getDependency(), 1e-9);
+    }
+}
@@ -8,10 +8,13 @@ import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class PredicateStatisticsCalculatorTest {
     @Test
@@ -82,4 +85,35 @@ public class PredicateStatisticsCalculatorTest {
         Assert.assertEquals(10, estimatedStatistics.getColumnStatistic(c2).getDistinctValuesCount(), 0.001);
         Assert.assertEquals(0, estimatedStatistics.getColumnStatistic(c2).getNullsFraction(), 0.001);
     }
+
+    @Test
+    public void testInPredicateWithNulls() {
+        // 1000 rows, 200 of them are null, 8 rows for each value of [1, 100]
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buckets.add(new Bucket(i * 10 + 1, i * 10 + 10, (i + 1) * 80L, 8L));
+        }
+        ColumnRefOperator c1 = new ColumnRefOperator(0, Type.BIGINT, "c1", true);
+        ColumnStatistic.Builder columnStatistic = ColumnStatistic.builder().setMinValue(1).setMaxValue(100)
+                .setDistinctValuesCount(100).setNullsFraction(0.2).setAverageRowSize(8);
+        Statistics withoutHistogram = Statistics.builder().setOutputRowCount(1000)
+                .addColumnStatistic(c1, columnStatistic.build()).build();
+        Statistics withHistogram = Statistics.builder().setOutputRowCount(1000)
+                .addColumnStatistic(c1, columnStatistic.setHistogram(new Histogram(buckets)).build()).build();
+
+        // null values match neither in nor not in, with or without histogram
+        InPredicateOperator in = new InPredicateOperator(false, c1, ConstantOperator.createBigint(1),
+                ConstantOperator.createBigint(2), ConstantOperator.createBigint(3));
+        Assert.assertEquals(24, PredicateStatisticsCalculator.statisticsCalculate(in, withoutHistogram)
+                .getOutputRowCount(), 0.001);
+        Assert.assertEquals(24, PredicateStatisticsCalculator.statisticsCalculate(in, withHistogram)
+                .getOutputRowCount(), 0.001);
+
+        InPredicateOperator notIn = new InPredicateOperator(true, c1, ConstantOperator.createBigint(1),
+                ConstantOperator.createBigint(2), ConstantOperator.createBigint(3));
+        Assert.assertEquals(776, PredicateStatisticsCalculator.statisticsCalculate(notIn, withoutHistogram)
+                .getOutputRowCount(), 0.001);
+        Assert.assertEquals(776, PredicateStatisticsCalculator.statisticsCalculate(notIn, withHistogram)
+                .getOutputRowCount(), 0.001);
+    }
 }
@@ -0,0 +1,58 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.parser;
+
+import com.google.common.base.Strings;
+import com.starrocks.analysis.CompoundPredicate;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.qe.SqlModeHelper;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlParserTest {
+
+    private static Expr firstSelectItem(StatementBase statement) {
+        SelectRelation relation = (SelectRelation) ((QueryStatement) statement).getQueryRelation();
+        return relation.getSelectList().getItems().get(0).getExpr();
+    }
+
+    @Test
+    public void testCachedParseTreeBuildsNewAst() {
+        String sql = "select v1, v2 from t0 where v3 = 1";
+        StatementBase first = SqlParser.parseFirstStatement(sql, 0);
+        StatementBase second = SqlParser.parseFirstStatement(sql, 0);
+        Assert.assertTrue(first instanceof QueryStatement);
+        Assert.assertTrue(second instanceof QueryStatement);
+        // AST is mutated by analyzer, so it must never be shared between parses
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(firstSelectItem(first), firstSelectItem(second));
+        Assert.assertEquals(sql, second.getOrigStmt().originStmt);
+    }
+
+    @Test
+    public void testCacheKeyContainsSqlMode() {
+        String sql = "select 'a' || 'b'";
+        Assert.assertTrue(firstSelectItem(SqlParser.parseFirstStatement(sql, 0)) instanceof CompoundPredicate);
+        Assert.assertTrue(firstSelectItem(SqlParser.parseFirstStatement(sql, SqlModeHelper.MODE_PIPES_AS_CONCAT))
+                instanceof FunctionCallExpr);
+        Assert.assertTrue(firstSelectItem(SqlParser.parseFirstStatement(sql, 0)) instanceof CompoundPredicate);
+    }
+
+    @Test
+    public void testCountTokens() {
+        int tokens = SqlParser.countTokens(SqlParser.parseTree("select v1 from t0 where v2 = 'a'", 0));
+        // the long literal is one token, so the weight of the parse tree doesn't grow with its length
+        Assert.assertEquals(tokens, SqlParser.countTokens(
+                SqlParser.parseTree("select v1 from t0 where v2 = '" + Strings.repeat("a", 4096) + "'", 0)));
+        Assert.assertTrue(tokens < SqlParser.countTokens(
+                SqlParser.parseTree("select v1 from t0 where v2 = 'a' and v3 = 'b'", 0)));
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testSyntaxError() {
+        SqlParser.parse("select v1 from t0 where", 0);
+    }
+}
@@ -0,0 +1,91 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.common.FeConstants;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class JoinReorderDPhypTest extends PlanTestBase {
+    // 12 atoms, more than cbo_max_reorder_node_use_dp
+    private static final String CHAIN_JOIN = "select count(*) from t0 a " +
+            "join t1 b on a.v1 = b.v4 join t2 c on b.v5 = c.v7 join t3 d on c.v8 = d.v10 " +
+            "join t0 e on d.v11 = e.v1 join t1 f on e.v2 = f.v4 join t2 g on f.v5 = g.v7 " +
+            "join t3 h on g.v8 = h.v10 join t0 i on h.v11 = i.v1 join t1 j on i.v2 = j.v4 " +
+            "join t2 k on j.v5 = k.v7 join t3 l on k.v8 = l.v10";
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        FeConstants.runningUnitTest = true;
+        connectContext.getSessionVariable().setMaxTransformReorderJoins(2);
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        connectContext.getSessionVariable().setMaxTransformReorderJoins(4);
+        connectContext.getSessionVariable().enableGreedyJoinReorder();
+        PlanTestBase.afterClass();
+    }
+
+    @Test
+    public void testChainJoin() throws Exception {
+        String plan = getFragmentPlan(CHAIN_JOIN);
+        Assert.assertEquals(plan, 11, StringUtils.countMatches(plan, "join op: INNER JOIN"));
+        Assert.assertFalse(plan, plan.contains("CROSS JOIN"));
+    }
+
+    @Test
+    public void testBudgetExceeded() throws Exception {
+        long budget = connectContext.getSessionVariable().getCboDPhypJoinReorderBudget();
+        connectContext.getSessionVariable().setCboDPhypJoinReorderBudget(10);
+        try {
+            String plan = getFragmentPlan(CHAIN_JOIN);
+            Assert.assertEquals(plan, 11, StringUtils.countMatches(plan, "join op: INNER JOIN"));
+            Assert.assertFalse(plan, plan.contains("CROSS JOIN"));
+        } finally {
+            connectContext.getSessionVariable().setCboDPhypJoinReorderBudget(budget);
+        }
+    }
+
+    @Test
+    public void testHyperEdgeAndCrossJoin() throws Exception {
+        String sql = "select count(*) from t0 a join t1 b on a.v1 = b.v4 join t2 c on a.v2 + b.v5 = c.v7 " +
+                "join t3 d on c.v8 = d.v10 join t0 e on d.v11 = e.v1 join t1 f on e.v2 = f.v4 " +
+                "join t2 g on f.v5 = g.v7 join t3 h on g.v8 = h.v10 join t0 i on h.v11 = i.v1 " +
+                "join t1 j on i.v2 = j.v4 join t2 k on j.v5 = k.v7 join t3 l";
+        String plan = getFragmentPlan(sql);
+        Assert.assertEquals(plan, 10, StringUtils.countMatches(plan, "join op: INNER JOIN"));
+        Assert.assertEquals(plan, 1, StringUtils.countMatches(plan, "join op: CROSS JOIN"));
+    }
+
+    @Test
+    public void testOuterJoinIsAtom() throws Exception {
+        // the inner joins below the left join are reordered, and the left join is kept on the top
+        String sql = "select count(*) from t0 a " +
+                "join t1 b on a.v1 = b.v4 join t2 c on b.v5 = c.v7 join t3 d on c.v8 = d.v10 " +
+                "join t0 e on d.v11 = e.v1 join t1 f on e.v2 = f.v4 join t2 g on f.v5 = g.v7 " +
+                "join t3 h on g.v8 = h.v10 join t0 i on h.v11 = i.v1 join t1 j on i.v2 = j.v4 " +
+                "join t2 k on j.v5 = k.v7 left join t3 l on k.v8 = l.v10";
+        String plan = getFragmentPlan(sql);
+        Assert.assertEquals(plan, 10, StringUtils.countMatches(plan, "join op: INNER JOIN"));
+        Assert.assertEquals(plan, 1, StringUtils.countMatches(plan, "join op: LEFT OUTER JOIN"));
+        Assert.assertFalse(plan, plan.contains("CROSS JOIN"));
+    }
+
+    @Test
+    public void testOnlyHyperEdge() throws Exception {
+        // a, b and c are only connected by the hyper edge, so two of them are joined by cross join
+        String sql = "select count(*) from t0 a join t1 b join t2 c on a.v2 + b.v5 = c.v7 " +
+                "join t3 d on c.v8 = d.v10 join t0 e on d.v11 = e.v1 join t1 f on e.v2 = f.v4 " +
+                "join t2 g on f.v5 = g.v7 join t3 h on g.v8 = h.v10 join t0 i on h.v11 = i.v1 " +
+                "join t1 j on i.v2 = j.v4 join t2 k on j.v5 = k.v7 join t3 l on k.v8 = l.v10";
+        String plan = getFragmentPlan(sql);
+        Assert.assertEquals(plan, 10, StringUtils.countMatches(plan, "join op: INNER JOIN"));
+        Assert.assertEquals(plan, 1, StringUtils.countMatches(plan, "join op: CROSS JOIN"));
+    }
+}
@@ -0,0 +1,106 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.task.ApplyRuleTask;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelExploreTest extends PlanTestBase {
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        FeConstants.runningUnitTest = true;
+        // the pool is created on first use, make it parallel even on a single core machine
+        Config.optimizer_parallel_explore_thread_num = 4;
+        connectContext.getSessionVariable().setCboEnableParallelExplore(true);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        connectContext.getSessionVariable().setCboEnableParallelExplore(false);
+        PlanTestBase.afterClass();
+    }
+
+    @Test
+    public void testMultiJoin() throws Exception {
+        String sql = "select * from t0 join t1 on t0.v1 = t1.v4 join t2 on t1.v5 = t2.v7 " +
+                "join t3 on t2.v8 = t3.v10";
+        String plan = getFragmentPlan(sql);
+        Assert.assertTrue(plan, plan.contains("HASH JOIN"));
+        Assert.assertTrue(plan, plan.contains("TABLE: t0"));
+        Assert.assertTrue(plan, plan.contains("TABLE: t1"));
+        Assert.assertTrue(plan, plan.contains("TABLE: t2"));
+        Assert.assertTrue(plan, plan.contains("TABLE: t3"));
+    }
+
+    @Test
+    public void testMultiJoinConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger parallelTransforms = new AtomicInteger();
+        new MockUp<ApplyRuleTask>() {
+            @Mock
+            List<OptExpression> transform(Invocation invocation) throws InterruptedException {
+                if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+                    return invocation.proceed();
+                }
+                parallelTransforms.incrementAndGet();
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    // wait a while for another transform of the batch, until any two are seen at the same time
+                    for (int i = 0; i < 100 && maxRunning.get() < 2; i++) {
+                        Thread.sleep(1);
+                    }
+                    return invocation.proceed();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+
+        String sql = "select * from t0 join t1 on t0.v1 = t1.v4 join t2 on t1.v5 = t2.v7 " +
+                "join t3 on t2.v8 = t3.v10 join t4 on t3.v11 = t4.v13 where t0.v2 = 1";
+        String parallelPlan = getFragmentPlan(sql);
+        // the join reorder rules are transformed on the pool, and some of them at the same time
+        Assert.assertTrue(parallelTransforms.get() > 1);
+        Assert.assertTrue(maxRunning.get() > 1);
+
+        connectContext.getSessionVariable().setCboEnableParallelExplore(false);
+        try {
+            parallelTransforms.set(0);
+            String serialPlan = getFragmentPlan(sql);
+            Assert.assertEquals(0, parallelTransforms.get());
+            Assert.assertEquals(serialPlan, parallelPlan);
+        } finally {
+            connectContext.getSessionVariable().setCboEnableParallelExplore(true);
+        }
+    }
+
+    @Test
+    public void testSameAsSerialPlan() throws Exception {
+        String sql = "select t0.v1, t1.v5 from t0 join t1 on t0.v1 = t1.v4 where t1.v6 = 1";
+        String parallelPlan = getFragmentPlan(sql);
+
+        connectContext.getSessionVariable().setCboEnableParallelExplore(false);
+        try {
+            String serialPlan = getFragmentPlan(sql);
+            Assert.assertEquals(serialPlan, parallelPlan);
+        } finally {
+            connectContext.getSessionVariable().setCboEnableParallelExplore(true);
+        }
+    }
+}
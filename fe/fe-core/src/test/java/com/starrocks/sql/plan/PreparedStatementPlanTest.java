@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.Expr;
+import com.starrocks.qe.PreparedStatementContext;
+import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.thrift.TExplainLevel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PreparedStatementPlanTest extends PlanTestBase {
+
+    // plan the prepared statement as StmtExecutor does, and return the analyzed statement
+    private static QueryStatement plan(PreparedStatementContext preparedStmt, List<String> params,
+                                       StringBuilder explain) {
+        long sqlMode = connectContext.getSessionVariable().getSqlMode();
+        List<Expr> paramExprs = preparedStmt.parseParameters(params, sqlMode);
+        PreparedStatementContext.AnalyzedStatement analyzedStmt = preparedStmt.bindAnalyzedStatement(paramExprs);
+        QueryStatement stmt;
+        if (analyzedStmt != null) {
+            stmt = analyzedStmt.getStmt();
+        } else {
+            stmt = (QueryStatement) preparedStmt.buildStatement(paramExprs, sqlMode);
+            Analyzer.analyze(stmt, connectContext);
+            analyzedStmt = preparedStmt.createAnalyzedStatement(paramExprs, stmt, connectContext);
+        }
+        ExecPlan plan = new StatementPlanner().planAnalyzedQuery(stmt, connectContext);
+        if (analyzedStmt != null) {
+            preparedStmt.cacheAnalyzedStatement(analyzedStmt, params, plan, connectContext.getCurrentSqlDbIds());
+        }
+        explain.setLength(0);
+        explain.append(plan.getExplainString(TExplainLevel.NORMAL));
+        return stmt;
+    }
+
+    @Test
+    public void testBindAnalyzedStatement() {
+        PreparedStatementContext preparedStmt = new PreparedStatementContext(1,
+                "select v1, v2 from t0 where v2 = ? and v3 > ? limit ?");
+        StringBuilder explain = new StringBuilder();
+        QueryStatement stmt = plan(preparedStmt, Lists.newArrayList("1", "2", "10"), explain);
+        assertContains(explain.toString(), "2: v2 = 1", "3: v3 > 2", "limit: 10");
+
+        // the analyzed statement is bound to the parameters of the same types
+        Assert.assertSame(stmt, plan(preparedStmt, Lists.newArrayList("5", "6", "10"), explain));
+        assertContains(explain.toString(), "2: v2 = 5", "3: v3 > 6", "limit: 10");
+        Assert.assertSame(stmt, plan(preparedStmt, Lists.newArrayList("1", "2", "10"), explain));
+        assertContains(explain.toString(), "2: v2 = 1", "3: v3 > 2", "limit: 10");
+
+        // the value of limit is a part of the analyzed statement
+        QueryStatement limitStmt = plan(preparedStmt, Lists.newArrayList("5", "6", "20"), explain);
+        Assert.assertNotSame(stmt, limitStmt);
+        assertContains(explain.toString(), "2: v2 = 5", "3: v3 > 6", "limit: 20");
+
+        // so are the types of parameters
+        QueryStatement typeStmt = plan(preparedStmt, Lists.newArrayList("'5'", "6", "10"), explain);
+        Assert.assertNotSame(stmt, typeStmt);
+        Assert.assertNotSame(limitStmt, typeStmt);
+        assertContains(explain.toString(), "3: v3 > 6", "limit: 10");
+
+        // and the analyzed statements are dropped when the session is changed
+        preparedStmt.invalidateCachedPlans();
+        Assert.assertNotSame(stmt, plan(preparedStmt, Lists.newArrayList("5", "6", "10"), explain));
+    }
+
+    @Test
+    public void testEqualParameters() {
+        PreparedStatementContext preparedStmt = new PreparedStatementContext(1,
+                "select v1 from t0 where v1 = ? and v2 = ?");
+        StringBuilder explain = new StringBuilder();
+        QueryStatement stmt = plan(preparedStmt, Lists.newArrayList("1", "1"), explain);
+        Assert.assertSame(stmt, plan(preparedStmt, Lists.newArrayList("2", "2"), explain));
+        assertContains(explain.toString(), "1: v1 = 2", "2: v2 = 2");
+        // equal parameters may be merged when analyzing, so they are not bound to different parameters
+        Assert.assertNotSame(stmt, plan(preparedStmt, Lists.newArrayList("2", "3"), explain));
+        assertContains(explain.toString(), "1: v1 = 2", "2: v2 = 3");
+    }
+
+    @Test
+    public void testNotBoundStatement() {
+        long sqlMode = connectContext.getSessionVariable().getSqlMode();
+        // the literal of parameter is an item of select list, not a child of any expression
+        PreparedStatementContext preparedStmt = new PreparedStatementContext(1, "select ?, v1 from t0");
+        List<Expr> paramExprs = preparedStmt.parseParameters(Lists.newArrayList("1"), sqlMode);
+        QueryStatement stmt = (QueryStatement) preparedStmt.buildStatement(paramExprs, sqlMode);
+        Analyzer.analyze(stmt, connectContext);
+        Assert.assertNull(preparedStmt.createAnalyzedStatement(paramExprs, stmt, connectContext));
+
+        // information functions are evaluated when analyzing
+        preparedStmt = new PreparedStatementContext(2, "select v1 from t0 where v1 = ? and database() = 'test'");
+        paramExprs = preparedStmt.parseParameters(Lists.newArrayList("1"), sqlMode);
+        stmt = (QueryStatement) preparedStmt.buildStatement(paramExprs, sqlMode);
+        Analyzer.analyze(stmt, connectContext);
+        Assert.assertNull(preparedStmt.createAnalyzedStatement(paramExprs, stmt, connectContext));
+    }
+}
@@ -0,0 +1,53 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.common.FeConstants;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortCircuitPlanTest extends PlanTestBase {
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        FeConstants.runningUnitTest = true;
+    }
+
+    private void assertSameAsMemoPlan(String sql) throws Exception {
+        String shortCircuitPlan = getCostExplain(sql);
+
+        connectContext.getSessionVariable().setCboEnableShortCircuitPlan(false);
+        try {
+            String memoPlan = getCostExplain(sql);
+            Assert.assertEquals(memoPlan, shortCircuitPlan);
+        } finally {
+            connectContext.getSessionVariable().setCboEnableShortCircuitPlan(true);
+        }
+    }
+
+    @Test
+    public void testPointQuery() throws Exception {
+        assertSameAsMemoPlan("select * from t0 where v1 = 1");
+        assertSameAsMemoPlan("select v2, v3 from t0 where v1 = 1 and v2 = 2");
+    }
+
+    @Test
+    public void testScanWithLimit() throws Exception {
+        assertSameAsMemoPlan("select * from t0 limit 10");
+        assertSameAsMemoPlan("select v1 + 1 from t0 where v2 > 3 limit 10");
+        assertSameAsMemoPlan("select * from t0 limit 5, 10");
+
+        String plan = getFragmentPlan("select v1 from t0 limit 1");
+        assertContains(plan, "  1:EXCHANGE\n" +
+                "     limit: 1");
+    }
+
+    @Test
+    public void testNotShortCircuit() throws Exception {
+        assertSameAsMemoPlan("select v1, count(*) from t0 group by v1");
+        assertSameAsMemoPlan("select * from t0 order by v1 limit 10");
+        assertSameAsMemoPlan("select * from t0 join t1 on t0.v1 = t1.v4 limit 10");
+    }
+}
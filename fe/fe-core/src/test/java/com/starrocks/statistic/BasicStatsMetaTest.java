@@ -0,0 +1,82 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.common.util.UnitTestUtil;
+import com.starrocks.persist.gson.GsonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class BasicStatsMetaTest {
+    private static final long PARTITION_ID = 10003;
+    private static final long DROPPED_PARTITION_ID = 20003;
+
+    private static OlapTable createTable() {
+        return (OlapTable) UnitTestUtil.createDb(10001, 10002, PARTITION_ID, 10004, 10005, 10006, 1)
+                .getTable(10002);
+    }
+
+    @Test
+    public void testPartitionChanged() {
+        OlapTable table = createTable();
+        Partition partition = table.getPartition(PARTITION_ID);
+        BasicStatsMeta meta = new BasicStatsMeta(10001, 10002, StatsConstants.AnalyzeType.FULL,
+                LocalDateTime.now(), Maps.newHashMap());
+        Assert.assertTrue(meta.getPartitionVersions().isEmpty());
+        Assert.assertTrue(meta.isPartitionChanged(partition));
+
+        meta.setPartitionVersions(Maps.newHashMap(ImmutableMap.of(PARTITION_ID, partition.getVisibleVersion())));
+        Assert.assertFalse(meta.isPartitionChanged(partition));
+
+        partition.updateVisibleVersion(partition.getVisibleVersion() + 1);
+        Assert.assertTrue(meta.isPartitionChanged(partition));
+    }
+
+    @Test
+    public void testMergePartitionVersions() {
+        OlapTable table = createTable();
+        BasicStatsMeta previous = new BasicStatsMeta(10001, 10002, StatsConstants.AnalyzeType.FULL,
+                LocalDateTime.now(), Maps.newHashMap());
+        previous.setPartitionVersions(Maps.newHashMap(ImmutableMap.of(PARTITION_ID, 2L, DROPPED_PARTITION_ID, 3L)));
+        Assert.assertEquals(Lists.newArrayList(DROPPED_PARTITION_ID), previous.getDroppedPartitions(table));
+
+        Map<Long, Long> merged = BasicStatsMeta.mergePartitionVersions(previous, Maps.newHashMap(), table);
+        Assert.assertEquals(ImmutableMap.of(PARTITION_ID, 2L), merged);
+
+        merged = BasicStatsMeta.mergePartitionVersions(previous, ImmutableMap.of(PARTITION_ID, 5L), table);
+        Assert.assertEquals(ImmutableMap.of(PARTITION_ID, 5L), merged);
+
+        // the versions recorded by sample statistics are not trusted
+        BasicStatsMeta sample = new BasicStatsMeta(10001, 10002, StatsConstants.AnalyzeType.SAMPLE,
+                LocalDateTime.now(), Maps.newHashMap());
+        sample.setPartitionVersions(Maps.newHashMap(ImmutableMap.of(PARTITION_ID, 2L)));
+        Assert.assertTrue(BasicStatsMeta.mergePartitionVersions(sample, Maps.newHashMap(), table).isEmpty());
+    }
+
+    @Test
+    public void testSerialization() {
+        BasicStatsMeta meta = new BasicStatsMeta(10001, 10002, StatsConstants.AnalyzeType.FULL,
+                LocalDateTime.now(), Maps.newHashMap());
+        meta.setPartitionVersions(Maps.newHashMap(ImmutableMap.of(PARTITION_ID, 2L)));
+        BasicStatsMeta read = GsonUtils.GSON.fromJson(GsonUtils.GSON.toJson(meta), BasicStatsMeta.class);
+        Assert.assertEquals(ImmutableMap.of(PARTITION_ID, 2L), read.getPartitionVersions());
+
+        // written by the old version
+        read = GsonUtils.GSON.fromJson("{\"dbId\":10001,\"tableId\":10002,\"type\":\"FULL\"}", BasicStatsMeta.class);
+        Assert.assertTrue(read.getPartitionVersions().isEmpty());
+    }
+
+    @Test
+    public void testDropPartitionStatisticsSQL() {
+        Assert.assertEquals("delete from column_statistics where table_id = 10002 and partition_id in (1, 2)",
+                StatisticSQLBuilder.buildDropPartitionStatisticsSQL(10002L, Lists.newArrayList(1L, 2L)));
+    }
+}
@@ -0,0 +1,166 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.statistics.CachedStatisticStorage;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class MultiColumnStatsMetaTest {
+    private static ConnectContext connectContext;
+    private static Database db;
+    private static OlapTable table;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE `t0` (`v1` bigint NULL, `v2` bigint NULL, `v3` bigint NULL) " +
+                        "DUPLICATE KEY(`v1`) DISTRIBUTED BY HASH(`v1`) BUCKETS 3 " +
+                        "PROPERTIES ('replication_num' = '1');");
+        db = GlobalStateMgr.getCurrentState().getDb("default_cluster:test");
+        table = (OlapTable) db.getTable("t0");
+    }
+
+    private static MultiColumnStatsMeta createMeta(List<String> columns) {
+        return new MultiColumnStatsMeta(db.getId(), table.getId(), columns, StatsConstants.AnalyzeType.MULTI_COLUMN,
+                LocalDateTime.now(), Maps.newHashMap());
+    }
+
+    // the table ids whose multi column statistics are expired in cache
+    private static List<Long> mockExpire() {
+        List<Long> expiredTables = Lists.newArrayList();
+        new MockUp<CachedStatisticStorage>() {
+            @Mock
+            public void expireMultiColumnStatistics(Long tableId) {
+                expiredTables.add(tableId);
+            }
+        };
+        return expiredTables;
+    }
+
+    @Test
+    public void testCollectSQL() {
+        MultiColumnStatisticsCollectJob job = new MultiColumnStatisticsCollectJob(db, table,
+                Lists.newArrayList("v1", "v2", "v3"), StatsConstants.AnalyzeType.MULTI_COLUMN,
+                StatsConstants.ScheduleType.ONCE, Maps.newHashMap());
+        String sql = job.buildCollectMultiColumnStatisticSQL(db, table, job.getColumns());
+        Assert.assertEquals("INSERT INTO multi_column_statistics SELECT " + table.getId() + ", 'v1,v2,v3', "
+                + db.getId() + ", 'test.t0', IFNULL(SUM(last_ndv), 0),"
+                + " IFNULL(SUM(IF(last_ndv = 1, row_count, 0)) / SUM(row_count), 0), NOW()"
+                + " FROM (SELECT COUNT(DISTINCT `v3`) + IF(COUNT(`v3`) < COUNT(1), 1, 0) AS last_ndv,"
+                + " COUNT(1) AS row_count FROM test.t0 GROUP BY `v1`, `v2`) t", sql);
+        Assert.assertEquals(1, SqlParser.parse(sql, connectContext.getSessionVariable().getSqlMode()).size());
+    }
+
+    @Test
+    public void testQueryAndDropSQL() {
+        Assert.assertEquals("SELECT cast(2 as INT), table_id, column_names, concat('{\"ndv\":',"
+                        + " cast(ndv as varchar), ',\"dependency\":', cast(dependency as varchar), '}')"
+                        + " FROM multi_column_statistics WHERE table_id = 10002",
+                StatisticSQLBuilder.buildQueryMultiColumnStatisticsSQL(10002L));
+        Assert.assertEquals("delete from multi_column_statistics where table_id = 10002 and column_names = 'v1,v2'",
+                StatisticSQLBuilder.buildDropMultiColumnStatisticsSQL(10002L, Lists.newArrayList("v1", "v2")));
+    }
+
+    @Test
+    public void testMeta() throws Exception {
+        AnalyzeManager analyzeManager = GlobalStateMgr.getCurrentAnalyzeMgr();
+        analyzeManager.addMultiColumnStatsMeta(createMeta(Lists.newArrayList("v1", "v2")));
+        analyzeManager.addMultiColumnStatsMeta(createMeta(Lists.newArrayList("v2", "v1")));
+        // updated by the collection again
+        analyzeManager.addMultiColumnStatsMeta(createMeta(Lists.newArrayList("v1", "v2")));
+        Assert.assertEquals(2, analyzeManager.getMultiColumnStatsMetas(table.getId()).size());
+        Assert.assertTrue(analyzeManager.getMultiColumnStatsMetas(table.getId() + 1).isEmpty());
+
+        // persisted by image
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        analyzeManager.write(new DataOutputStream(bytes));
+        AnalyzeManager loaded = new AnalyzeManager();
+        loaded.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(2, loaded.getMultiColumnStatsMetas(table.getId()).size());
+        MultiColumnStatsMeta meta = loaded.getMultiColumnStatsMetas(table.getId()).stream()
+                .filter(m -> m.getColumns().equals(Lists.newArrayList("v2", "v1"))).findFirst().orElse(null);
+        Assert.assertNotNull(meta);
+        Assert.assertEquals(db.getId(), meta.getDbId());
+        Assert.assertEquals(StatsConstants.AnalyzeType.MULTI_COLUMN, meta.getType());
+
+        // the order of columns matters
+        loaded.replayRemoveMultiColumnStatsMeta(createMeta(Lists.newArrayList("v2", "v1")));
+        Assert.assertEquals(Lists.newArrayList("v1", "v2"),
+                loaded.getMultiColumnStatsMetas(table.getId()).get(0).getColumns());
+        loaded.replayRemoveMultiColumnStatsMeta(createMeta(Lists.newArrayList("v1", "v2")));
+        Assert.assertTrue(loaded.getAllMultiColumnStatsMetas().isEmpty());
+
+        analyzeManager.removeMultiColumnStatsMeta(createMeta(Lists.newArrayList("v1", "v2")));
+        analyzeManager.removeMultiColumnStatsMeta(createMeta(Lists.newArrayList("v2", "v1")));
+        Assert.assertTrue(analyzeManager.getMultiColumnStatsMetas(table.getId()).isEmpty());
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        List<Long> expiredTables = mockExpire();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void execute() {
+            }
+        };
+
+        AnalyzeManager analyzeManager = GlobalStateMgr.getCurrentAnalyzeMgr();
+        analyzeManager.addMultiColumnStatsMeta(createMeta(Lists.newArrayList("v1", "v3")));
+        new StatisticExecutor().dropMultiColumnStatistics(db.getId(), table.getId(), Lists.newArrayList("v1", "v3"));
+        Assert.assertTrue(analyzeManager.getMultiColumnStatsMetas(table.getId()).isEmpty());
+        Assert.assertEquals(Lists.newArrayList(table.getId()), expiredTables);
+    }
+
+    @Test
+    public void testDropFailed() {
+        List<Long> expiredTables = mockExpire();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void execute(Invocation invocation) {
+                ConnectContext context = Deencapsulation.getField(invocation.getInvokedInstance(), "context");
+                context.getState().setError("delete failed");
+            }
+        };
+
+        AnalyzeManager analyzeManager = GlobalStateMgr.getCurrentAnalyzeMgr();
+        analyzeManager.addMultiColumnStatsMeta(createMeta(Lists.newArrayList("v2", "v3")));
+        try {
+            new StatisticExecutor().dropMultiColumnStatistics(db.getId(), table.getId(),
+                    Lists.newArrayList("v2", "v3"));
+            Assert.fail("the drop should fail");
+        } catch (DdlException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("delete failed"));
+        }
+        // the meta is kept, so the statistics could be dropped again
+        Assert.assertEquals(1, analyzeManager.getMultiColumnStatsMetas(table.getId()).size());
+        Assert.assertTrue(expiredTables.isEmpty());
+        analyzeManager.removeMultiColumnStatsMeta(createMeta(Lists.newArrayList("v2", "v3")));
+    }
+}
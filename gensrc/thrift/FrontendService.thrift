@@ -491,6 +491,16 @@ struct TMasterOpResult {
     4: optional string state;
 }
 
+// Independent forwarded statements sent in one rpc, they are executed concurrently on master,
+// and the results are in the same order as the requests.
+struct TMasterOpBatchRequest {
+    1: optional list<TMasterOpRequest> requests;
+}
+
+struct TMasterOpBatchResult {
+    1: optional list<TMasterOpResult> results;
+}
+
 struct TIsMethodSupportedRequest {
     1: optional string function_name
 }
@@ -978,6 +988,8 @@ service FrontendService {
     //NOTE: Do not add numbers to the parameters, otherwise it will cause compatibility problems
     TMasterOpResult forward(TMasterOpRequest params)
 
+    TMasterOpBatchResult forwardBatch(1: TMasterOpBatchRequest request)
+
     TListTableStatusResult listTableStatus(1:TGetTablesParams params)
 
     TGetTaskInfoResult getTasks(1:TGetTasksParams params)